@@ -0,0 +1,40 @@
+package myProject.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import myProject.model.BalancePoint;
+import myProject.model.BalanceSeries;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Misst die Kontostandsabfragen des {@code AccountController} sowie die Stichtagsabfragen des {@code AccountService}.
+ */
+public class AccountBenchmark extends BenchmarkDefaults {
+
+    @Benchmark
+    public double getAccountBalance(LedgerState state) throws SQLException {
+        return state.accountController.getAccountBalance(state.account);
+    }
+
+    @Benchmark
+    public double getOverallBalanceForUser(LedgerState state) throws SQLException {
+        return state.accountController.getOverallBalanceForUser(state.userId);
+    }
+
+    @Benchmark
+    public long getBalanceCentsAsOf(LedgerState state) throws SQLException {
+        return state.accountService.getBalanceCentsAsOf(state.account, state.startDate);
+    }
+
+    @Benchmark
+    public BalanceSeries getDailyBalances(LedgerState state) throws SQLException {
+        return state.accountService.getDailyBalances(state.account, state.startDate, state.endDate);
+    }
+
+    @Benchmark
+    public List<BalancePoint> getBalanceHistory(LedgerState state) throws SQLException {
+        return state.accountService.getBalanceHistory(state.account, 800);
+    }
+}
@@ -0,0 +1,134 @@
+package myProject.benchmarks;
+
+import myProject.controller.AccountController;
+import myProject.db.DatabaseManager;
+import myProject.db.LedgerGenerator;
+import myProject.model.Account;
+import myProject.repository.AccountRepository;
+import myProject.repository.CategoryRepository;
+import myProject.repository.ReportRepository;
+import myProject.repository.TransactionRepository;
+import myProject.service.AccountService;
+import myProject.service.BudgetEvaluator;
+import myProject.service.CategoryService;
+import myProject.service.ReportService;
+import myProject.service.TransactionService;
+import myProject.service.analytics.AccountBalanceIndex;
+import myProject.service.analytics.AnalyticsStore;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Gemeinsamer Benchmark-Zustand: eine H2-Datenbank mit einem Benutzer, {@code accounts} Konten,
+ * {@code categories} Kategorien und {@code transactions} Transaktionen über die letzten drei Jahre,
+ * erzeugt mit dem {@link LedgerGenerator} und festem Seed. Die Datenbank liegt unter {@code target/bench-db}
+ * und wird wiederverwendet, solange die Anzahl der Transaktionen übereinstimmt.
+ * Repositories, Services und Controller werden wie in {@code WelcomeView} verdrahtet; mit {@code columnar=true}
+ * wird der Benutzer vorab in den {@link AnalyticsStore} geladen und der {@link AccountBalanceIndex} hält seine
+ * Tagessummen im Speicher, sonst laufen die Auswertungen und Stichtagsabfragen über die Datenbank.
+ */
+@State(Scope.Benchmark)
+public class LedgerState {
+
+    private static final int HISTORY_YEARS = 3;
+    private static final long SEED = 42L;
+
+    @Param({"1000", "100000", "5000000"})
+    public int transactions;
+
+    @Param({"10"})
+    public int accounts;
+
+    @Param({"15"})
+    public int categories;
+
+    @Param({"false", "true"})
+    public boolean columnar;
+
+    String userId;
+    TransactionRepository transactionRepository;
+    ReportService reportService;
+    AccountController accountController;
+
+    AccountService accountService;
+    Account account;
+    LocalDate startDate;
+    LocalDate endDate;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        // Protokollierung auf Warnungen beschränken, damit die Konsolenausgabe nicht mitgemessen wird
+        Logger.getLogger("").setLevel(java.util.logging.Level.WARNING);
+
+        String name = String.format("ledger-%d-%d-%d", transactions, accounts, categories);
+        System.setProperty("smartfinance.db.url", "jdbc:h2:./target/bench-db/" + name + ";DB_CLOSE_DELAY=-1");
+        DatabaseManager.initializeDatabase();
+
+        if (countTransactions() != transactions) {
+            LedgerGenerator.Config config = LedgerGenerator.Config.defaults()
+                    .withSeed(SEED)
+                    .withUsers(1)
+                    .withAccountsPerUser(accounts)
+                    .withCategoriesPerUser(categories)
+                    .withTransactions(transactions)
+                    .withYears(HISTORY_YEARS);
+            new LedgerGenerator(config).generate(true);
+        }
+        userId = findUserId();
+
+        AccountRepository accountRepository = new AccountRepository();
+        CategoryRepository categoryRepository = new CategoryRepository();
+        ReportRepository reportRepository = new ReportRepository();
+        transactionRepository = new TransactionRepository(accountRepository, categoryRepository);
+        AnalyticsStore analyticsStore = new AnalyticsStore(transactionRepository, categoryRepository, columnar);
+        AccountBalanceIndex balanceIndex = new AccountBalanceIndex(reportRepository, columnar);
+        BudgetEvaluator budgetEvaluator = new BudgetEvaluator(categoryRepository, reportRepository, analyticsStore);
+        CategoryService categoryService = new CategoryService(categoryRepository, budgetEvaluator);
+        TransactionService transactionService = new TransactionService(transactionRepository, categoryService, accountRepository);
+        accountService = new AccountService(accountRepository, balanceIndex);
+        reportService = new ReportService(transactionService, accountService, categoryService, reportRepository, budgetEvaluator, analyticsStore);
+        transactionService.addChangeListener(analyticsStore);
+        categoryService.addChangeListener(analyticsStore);
+        transactionService.addChangeListener(balanceIndex);
+        analyticsStore.load(userId);
+        accountController = new AccountController(accountService, transactionService);
+
+        List<Account> userAccounts = accountController.getAllAccountsForUser(userId);
+        account = userAccounts.get(0);
+        endDate = LocalDate.now();
+        startDate = endDate.minusYears(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DatabaseManager.shutdown();
+    }
+
+    private int countTransactions() throws SQLException {
+        try (Connection connection = DatabaseManager.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM transactions")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private String findUserId() throws SQLException {
+        try (Connection connection = DatabaseManager.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id FROM users ORDER BY username LIMIT 1")) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+}
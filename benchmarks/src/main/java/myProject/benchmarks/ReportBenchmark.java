@@ -0,0 +1,27 @@
+package myProject.benchmarks;
+
+import myProject.model.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.Map;
+
+/**
+ * Misst die Auswertungen des {@code ReportService} über das letzte Jahr.
+ */
+public class ReportBenchmark extends BenchmarkDefaults {
+
+    @Benchmark
+    public Map<String, Long> getCategoryExpenses(LedgerState state) {
+        return state.reportService.getCategoryExpenses(state.userId, state.startDate, state.endDate);
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Long>> getMonthlyIncomeAndExpenses(LedgerState state) {
+        return state.reportService.getMonthlyIncomeAndExpenses(state.userId, state.startDate, state.endDate);
+    }
+
+    @Benchmark
+    public Map<Category, Double> getCategoryBudgetProgress(LedgerState state) {
+        return state.reportService.getCategoryBudgetProgress(state.userId, state.startDate, state.endDate);
+    }
+}
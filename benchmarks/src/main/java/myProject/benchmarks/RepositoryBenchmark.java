@@ -0,0 +1,33 @@
+package myProject.benchmarks;
+
+import myProject.model.Transaction;
+import myProject.model.TransactionRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.List;
+
+/**
+ * Misst die Leseabfragen des {@code TransactionRepository}.
+ */
+public class RepositoryBenchmark extends BenchmarkDefaults {
+
+    @Benchmark
+    public List<Transaction> getTransactionsByAccount(LedgerState state) {
+        return state.transactionRepository.getTransactionsByAccount(state.account);
+    }
+
+    @Benchmark
+    public List<Transaction> getTransactionsByUserAndPeriod(LedgerState state) {
+        return state.transactionRepository.getTransactionsByUserAndPeriod(state.userId, state.startDate, state.endDate);
+    }
+
+    @Benchmark
+    public List<TransactionRecord> getTransactionRecordsByAccount(LedgerState state) {
+        return state.transactionRepository.getTransactionRecordsByAccount(state.account.getId());
+    }
+
+    @Benchmark
+    public List<TransactionRecord> getTransactionRecordsByUserAndPeriod(LedgerState state) {
+        return state.transactionRepository.getTransactionRecordsByUserAndPeriod(state.userId, state.startDate, state.endDate);
+    }
+}
@@ -1,6 +1,11 @@
 package myProject;
 
 import myProject.db.DatabaseManager;
+import myProject.metrics.MetricsReporter;
+import myProject.repository.AccountRepository;
+import myProject.service.AccountService;
+import myProject.service.BalanceReconciler;
+import myProject.service.ServiceExecutor;
 import myProject.view.WelcomeView;
 import javafx.application.Application;
 import javafx.stage.Stage;
@@ -8,11 +13,20 @@ import myProject.util.LoggerUtils;
 
 public class Main extends Application {
 
+    private BalanceReconciler balanceReconciler;
+    private MetricsReporter metricsReporter;
+
     @Override
     public void start(Stage primaryStage) {
 
         // Datenbank initialisieren
         initializeDatabase();
+        // Kontostände im Hintergrund abgleichen
+        balanceReconciler = new BalanceReconciler(new AccountService(new AccountRepository()));
+        balanceReconciler.start();
+        // Metriken periodisch ins Log schreiben (nur bei -Dsmartfinance.metrics.enabled=true)
+        metricsReporter = new MetricsReporter();
+        metricsReporter.start();
         // WelcomeView anzeigen
         showWelcomeView(primaryStage);
     }
@@ -39,6 +53,21 @@ public class Main extends Application {
         }
     }
 
+    @Override
+    public void stop() {
+        if (balanceReconciler != null) {
+            balanceReconciler.stop();
+        }
+        if (metricsReporter != null) {
+            metricsReporter.stop();
+            metricsReporter.report();
+        }
+        ServiceExecutor.shutdown();
+        // Verbindungspool beim Beenden der Anwendung schließen
+        DatabaseManager.shutdown();
+        LoggerUtils.logInfo(Main.class.getName(), "Anwendung beendet.");
+    }
+
     public static void main(String[] args) {
         // Startet die JavaFX-Anwendung
         launch(args);
@@ -1,19 +1,33 @@
 package myProject.controller;
 
 import myProject.model.Account;
+import myProject.model.BalancePoint;
 import myProject.model.Transaction;
 import myProject.service.AccountService;
+import myProject.service.ServiceExecutor;
 import myProject.service.TransactionService;
 import myProject.util.LoggerUtils;
+import myProject.util.Money;
 
+import java.sql.Date;
 import java.sql.SQLException;
+import java.sql.Time;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * AccountController verwaltet Konten und deren Interaktionen mit dem AccountService und TransactionService.
+ * Die Services rechnen in Cent; Beträge aus und für die Oberfläche werden hier umgerechnet.
  */
 public class AccountController {
 
+    /**
+     * Ergebnis von {@link #createAccount(String, String, long)}.
+     */
+    public enum CreateResult {
+        CREATED, NAME_TAKEN, FAILED
+    }
+
     private final AccountService accountService;
     private final TransactionService transactionService;
 
@@ -32,15 +46,42 @@ public class AccountController {
      * @return true, wenn das Konto erfolgreich hinzugefügt wurde, false bei einem Fehler.
      */
     public boolean addAccount(String userId, String name, double balance) {
-        boolean isSuccess = accountService.addAccount(userId, name, balance);
+        boolean isSuccess = accountService.addAccount(userId, name, Money.ofDouble(balance));
         if (isSuccess) {
-            LoggerUtils.logInfo(AccountController.class.getName(), "Konto erfolgreich hinzugefügt für Benutzer: " + userId);
+            LoggerUtils.logInfo(AccountController.class.getName(), "Konto erfolgreich hinzugefügt für Benutzer: {0}", userId);
         } else {
-            LoggerUtils.logInfo(AccountController.class.getName(), "Fehler beim Hinzufügen des Kontos für Benutzer: " + userId);
+            LoggerUtils.logInfo(AccountController.class.getName(), "Fehler beim Hinzufügen des Kontos für Benutzer: {0}", userId);
         }
         return isSuccess;
     }
 
+    /**
+     * Legt ein Konto an und bucht einen vom Startbetrag abweichenden Kontostand als erste Transaktion.
+     *
+     * @param userId              Die ID des Benutzers.
+     * @param name                Der Name des Kontos.
+     * @param initialBalanceCents Der Startbetrag in Cent.
+     * @return CREATED, NAME_TAKEN wenn der Benutzer bereits ein Konto mit diesem Namen hat, sonst FAILED.
+     * @throws SQLException bei einem Datenbankfehler.
+     */
+    public CreateResult createAccount(String userId, String name, long initialBalanceCents) throws SQLException {
+        if (doesAccountExist(userId, name)) {
+            return CreateResult.NAME_TAKEN;
+        }
+        if (!addAccount(userId, name, 0.0)) {
+            return CreateResult.FAILED;
+        }
+        if (initialBalanceCents != 0) {
+            Account createdAccount = findAccountByName(userId, name);
+            long now = System.currentTimeMillis();
+            Transaction initialTransaction = new Transaction("Initial Balance", initialBalanceCents,
+                    initialBalanceCents >= 0 ? "income" : "expense", null, createdAccount, null, new Date(now), new Time(now));
+            transactionService.addTransaction(initialTransaction);
+            LoggerUtils.logInfo(AccountController.class.getName(), "Startbetrag für Konto {0} gebucht: {1}", name, initialTransaction.getId());
+        }
+        return CreateResult.CREATED;
+    }
+
     /**
      * Löscht einen Account mit der spezifischen ID
      *
@@ -50,7 +91,7 @@ public class AccountController {
     public void deleteAccount(String accountId) throws SQLException {
         try {
             accountService.deleteAccount(accountId);
-            LoggerUtils.logInfo(AccountController.class.getName(), "Account deleted: " + accountId);
+            LoggerUtils.logInfo(AccountController.class.getName(), "Account deleted: {0}", accountId);
         } catch (SQLException e) {
             LoggerUtils.logError(AccountController.class.getName(), "Error deleting account: " + accountId, e);
             throw e;
@@ -69,7 +110,7 @@ public class AccountController {
         try {
             List<Account> accounts = getAllAccountsForUser(userId);
             boolean exists = accounts.stream().anyMatch(account -> account.getName().equalsIgnoreCase(accountName));
-            LoggerUtils.logInfo(AccountController.class.getName(), "Überprüfung abgeschlossen: Konto existiert: " + exists);
+            LoggerUtils.logInfo(AccountController.class.getName(), "Überprüfung abgeschlossen: Konto existiert: {0}", exists);
             return exists;
         } catch (SQLException e) {
             LoggerUtils.logError(AccountController.class.getName(), "Fehler bei der Überprüfung, ob Konto existiert für Benutzer: " + userId, e);
@@ -84,7 +125,7 @@ public class AccountController {
      */
     public void updateAccount(Account account) {
         accountService.updateAccount(account);
-        LoggerUtils.logInfo(AccountController.class.getName(), "Konto erfolgreich aktualisiert: " + account.getName());
+        LoggerUtils.logInfo(AccountController.class.getName(), "Konto erfolgreich aktualisiert: {0}", account.getName());
     }
 
     /**
@@ -97,7 +138,7 @@ public class AccountController {
     public List<Account> getAllAccountsForUser(String userId) throws SQLException {
         try {
             List<Account> accounts = accountService.getAllAccountsForUser(userId);
-            LoggerUtils.logInfo(AccountController.class.getName(), "Alle Konten für Benutzer abgerufen: " + userId);
+            LoggerUtils.logInfo(AccountController.class.getName(), "Alle Konten für Benutzer abgerufen: {0}", userId);
             return accounts;
         } catch (SQLException e) {
             LoggerUtils.logError(AccountController.class.getName(), "Fehler beim Abrufen der Konten für Benutzer: " + userId, e);
@@ -116,7 +157,7 @@ public class AccountController {
     public Account findAccountByName(String userId, String accountName) throws SQLException {
         try {
             Account account = accountService.findAccountByName(userId, accountName);
-            LoggerUtils.logInfo(AccountController.class.getName(), "Konto gefunden: " + accountName + " für Benutzer: " + userId);
+            LoggerUtils.logInfo(AccountController.class.getName(), "Konto gefunden: {0} für Benutzer: {1}", accountName, userId);
             return account;
         } catch (SQLException e) {
             LoggerUtils.logError(AccountController.class.getName(), "Fehler beim Finden des Kontos: " + accountName + " für Benutzer: " + userId, e);
@@ -133,8 +174,8 @@ public class AccountController {
      */
     public double getOverallBalanceForUser(String userId) throws SQLException {
         try {
-            double balance = accountService.calculateOverallBalanceForUser(userId);
-            LoggerUtils.logInfo(AccountController.class.getName(), "Gesamtbilanz erfolgreich berechnet für Benutzer: " + userId);
+            double balance = Money.toDouble(accountService.calculateOverallBalanceCentsForUser(userId));
+            LoggerUtils.logInfo(AccountController.class.getName(), "Gesamtbilanz erfolgreich berechnet für Benutzer: {0}", userId);
             return balance;
         } catch (SQLException e) {
             LoggerUtils.logError(AccountController.class.getName(), "Fehler bei der Berechnung der Gesamtbilanz für Benutzer: " + userId, e);
@@ -143,28 +184,94 @@ public class AccountController {
     }
 
     /**
-     * Methode zum Aktualisieren der Bilanz eines Kontos.
+     * Lädt die gespeicherte Bilanz eines Kontos neu in das übergebene Objekt.
+     * Die Bilanz selbst wird beim Speichern der Transaktionen fortgeschrieben.
      *
      * @param account Das Konto, dessen Bilanz aktualisiert werden soll.
      */
     public void updateAccountBalance(Account account) {
-        accountService.updateAccount(account);
-        LoggerUtils.logInfo(AccountController.class.getName(), "Konto-Bilanz erfolgreich aktualisiert: " + account.getName());
+        try {
+            accountService.getAccountBalanceCents(account);
+            LoggerUtils.logInfo(AccountController.class.getName(), "Konto-Bilanz erfolgreich aktualisiert: {0}", account.getName());
+        } catch (SQLException e) {
+            LoggerUtils.logError(AccountController.class.getName(), "Fehler beim Aktualisieren der Konto-Bilanz: " + account.getName(), e);
+        }
+    }
+
+    /**
+     * Liefert die gespeicherte Bilanz eines Kontos.
+     *
+     * @param account Das Konto, dessen Bilanz abgefragt werden soll.
+     * @return Die aktuelle Bilanz.
+     * @throws SQLException bei einem Datenbankfehler.
+     */
+    public double getAccountBalance(Account account) throws SQLException {
+        return Money.toDouble(accountService.getAccountBalanceCents(account));
+    }
+
+    /**
+     * Ruft alle Konten eines Benutzers asynchron ab.
+     *
+     * @param userId Die ID des Benutzers.
+     * @return Future mit der Liste der Konten des Benutzers.
+     */
+    public CompletableFuture<List<Account>> getAllAccountsForUserAsync(String userId) {
+        return accountService.getAllAccountsForUserAsync(userId);
+    }
+
+    /**
+     * Berechnet die Gesamtbilanz eines Benutzers asynchron.
+     *
+     * @param userId Die ID des Benutzers.
+     * @return Future mit der Gesamtbilanz.
+     */
+    public CompletableFuture<Double> getOverallBalanceForUserAsync(String userId) {
+        return accountService.calculateOverallBalanceCentsForUserAsync(userId).thenApply(Money::toDouble);
+    }
+
+    /**
+     * Lädt die gespeicherte Bilanz eines Kontos asynchron in das übergebene Objekt.
+     *
+     * @param account Das Konto, dessen Bilanz abgefragt werden soll.
+     * @return Future mit der aktuellen Bilanz.
+     */
+    public CompletableFuture<Double> getAccountBalanceAsync(Account account) {
+        return accountService.getAccountBalanceCentsAsync(account).thenApply(Money::toDouble);
     }
 
     /**
-     * Berechnet die Bilanz für abgeschlossene Transaktionen eines Kontos.
+     * Lädt den Kontostandsverlauf eines Kontos für ein Diagramm asynchron.
      *
-     * @param account Das Konto, für das die Bilanz berechnet werden soll.
-     * @return Die berechnete Bilanz.
+     * @param account Das Konto.
+     * @param width   Die Breite des Diagramms in Pixeln; pro Pixel werden höchstens zwei Punkte geliefert.
+     * @return Future mit den Punkten in zeitlicher Reihenfolge.
      */
-    public double calculateUpdatedBalanceForCompletedTransactions(Account account) throws SQLException {
-        List<Transaction> completedTransactions = transactionService.getCompletedTransactionsByAccount(account.getName());
+    public CompletableFuture<List<BalancePoint>> getBalanceHistoryAsync(Account account, int width) {
+        return accountService.getBalanceHistoryAsync(account, width);
+    }
 
-        // Summiere alle abgeschlossenen Transaktionen und berechne die Bilanz
-        return completedTransactions.stream()
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+    /**
+     * Legt ein Konto asynchron an, siehe {@link #createAccount(String, String, long)}.
+     *
+     * @param userId              Die ID des Benutzers.
+     * @param name                Der Name des Kontos.
+     * @param initialBalanceCents Der Startbetrag in Cent.
+     * @return Future mit dem Ergebnis des Anlegens.
+     */
+    public CompletableFuture<CreateResult> createAccountAsync(String userId, String name, long initialBalanceCents) {
+        return ServiceExecutor.supply(() -> createAccount(userId, name, initialBalanceCents));
     }
 
+    /**
+     * Löscht ein Konto asynchron.
+     *
+     * @param accountId ID des Kontos.
+     * @return Future, das nach dem Löschen abgeschlossen wird.
+     */
+    public CompletableFuture<Void> deleteAccountAsync(String accountId) {
+        return ServiceExecutor.supply(() -> {
+            deleteAccount(accountId);
+            return null;
+        });
+    }
 }
@@ -1,21 +1,31 @@
 package myProject.controller;
 
+import myProject.model.BudgetStatus;
 import myProject.model.Category;
+import myProject.model.Transaction;
 import myProject.service.CategoryService;
+import myProject.service.ServiceExecutor;
+import myProject.service.TransactionChangeListener;
 import myProject.util.LoggerUtils;
 
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Der CategoryController verwaltet die Interaktionen zwischen der Benutzeroberfläche
  * und dem CategoryService. Er bietet Funktionen zum Hinzufügen, Aktualisieren und
  * Abrufen von Kategorien.
+ * Budgetabfragen werden über {@link RequestCoalescer} zusammengefasst, sodass identische
+ * Anfragen innerhalb eines Render-Durchlaufs nur einmal an den Service gehen. Damit nach dem Buchen keine alten
+ * Ausgaben angezeigt werden, muss {@link #budgetInvalidationListener()} beim TransactionService registriert werden.
  */
 public class CategoryController {
     private final CategoryService categoryService;
+    private final RequestCoalescer<BudgetQuery, Map<Category, Double>> budgetProgressRequests = new RequestCoalescer<>();
+    private final RequestCoalescer<BudgetQuery, List<BudgetStatus>> budgetStatusRequests = new RequestCoalescer<>();
 
     // Konstruktor mit Dependency Injection
     public CategoryController(CategoryService categoryService) {
@@ -30,8 +40,9 @@ public class CategoryController {
      */
     public void addCategory(Category category, String userId) {
         boolean success = categoryService.addCategory(category, userId);
+        invalidateBudgetRequests();
         if (success) {
-            LoggerUtils.logInfo(CategoryController.class.getName(), "Kategorie erfolgreich hinzugefügt: " + category.getName() + " für Benutzer: " + userId);
+            LoggerUtils.logInfo(CategoryController.class.getName(), "Kategorie erfolgreich hinzugefügt: {0} für Benutzer: {1}", category.getName(), userId);
         } else {
             LoggerUtils.logError(CategoryController.class.getName(), "Fehler beim Hinzufügen der Kategorie: " + category.getName() + " für Benutzer: " + userId, null);
         }
@@ -44,8 +55,9 @@ public class CategoryController {
      */
     public void updateCategory(Category category) {
         boolean success = categoryService.updateCategory(category);
+        invalidateBudgetRequests();
         if (success) {
-            LoggerUtils.logInfo(CategoryController.class.getName(), "Kategorie erfolgreich aktualisiert: " + category.getName());
+            LoggerUtils.logInfo(CategoryController.class.getName(), "Kategorie erfolgreich aktualisiert: {0}", category.getName());
         } else {
             LoggerUtils.logError(CategoryController.class.getName(), "Fehler beim Aktualisieren der Kategorie: " + category.getName(), null);
         }
@@ -57,8 +69,9 @@ public class CategoryController {
     // Methode zum Löschen einer Kategorie und Aktualisieren der Transaktionen
     public boolean deleteCategory(String categoryId, String userId) {
         boolean success = categoryService.deleteCategoryAndUpdateTransactions(categoryId, userId);
+        invalidateBudgetRequests();
         if (success) {
-            LoggerUtils.logInfo(CategoryController.class.getName(), "Kategorie und Transaktionen erfolgreich aktualisiert: " + categoryId);
+            LoggerUtils.logInfo(CategoryController.class.getName(), "Kategorie und Transaktionen erfolgreich aktualisiert: {0}", categoryId);
         } else {
             LoggerUtils.logError(CategoryController.class.getName(), "Fehler beim Löschen der Kategorie: " + categoryId, null);
         }
@@ -77,6 +90,7 @@ public class CategoryController {
 
     /**
      * Methode zum Abrufen des Budgetfortschritts für alle Kategorien eines Benutzers in einem bestimmten Zeitraum.
+     * Identische Aufrufe innerhalb eines Render-Durchlaufs teilen sich ein Ergebnis.
      *
      * @param userId    Die ID des Benutzers.
      * @param startDate Das Startdatum des Zeitraums.
@@ -85,7 +99,8 @@ public class CategoryController {
      */
     public Map<Category, Double> getCategoryBudgetProgress(String userId, LocalDate startDate, LocalDate endDate) {
         try {
-            return categoryService.getCategoryBudgetProgress(userId, startDate, endDate);
+            return budgetProgressRequests.get(new BudgetQuery(userId, startDate, endDate),
+                    () -> CompletableFuture.completedFuture(categoryService.getCategoryBudgetProgress(userId, startDate, endDate))).join();
         } catch (Exception e) {
             LoggerUtils.logError(CategoryController.class.getName(), "Fehler beim Abrufen des Kategorie-Budgetfortschritts: " + e.getMessage(), e);
             return new HashMap<>();
@@ -104,7 +119,7 @@ public class CategoryController {
         List<Category> allCategories = getAllCategoriesForUser(userId);
         Category category = allCategories.stream().filter(cat -> cat.getId().equals(categoryId)).findFirst().orElse(null);
         if (category != null) {
-            LoggerUtils.logInfo(CategoryController.class.getName(), "Kategorie gefunden: " + category.getName());
+            LoggerUtils.logInfo(CategoryController.class.getName(), "Kategorie gefunden: {0}", category.getName());
         } else {
             LoggerUtils.logError(CategoryController.class.getName(), "Kategorie mit ID: " + categoryId + " nicht gefunden für Benutzer: " + userId, null);
         }
@@ -121,7 +136,179 @@ public class CategoryController {
     public boolean isCategoryNameDuplicate(String name, String currentCategoryId) {
         List<Category> allCategories = categoryService.getAllCategoriesForUser(null); // Korrigiere den Benutzer, falls notwendig
         boolean isDuplicate = allCategories.stream().anyMatch(category -> category.getName().equalsIgnoreCase(name) && !category.getId().equals(currentCategoryId));
-        LoggerUtils.logInfo(CategoryController.class.getName(), "Überprüfung abgeschlossen: Kategorie ist ein Duplikat: " + isDuplicate);
+        LoggerUtils.logInfo(CategoryController.class.getName(), "Überprüfung abgeschlossen: Kategorie ist ein Duplikat: {0}", isDuplicate);
         return isDuplicate;
     }
+
+    /**
+     * Ruft alle Kategorien eines Benutzers asynchron ab.
+     *
+     * @param userId Die ID des Benutzers.
+     * @return Future mit der Liste der Kategorien.
+     */
+    public CompletableFuture<List<Category>> getAllCategoriesForUserAsync(String userId) {
+        return categoryService.getAllCategoriesForUserAsync(userId);
+    }
+
+    /**
+     * Berechnet den Budgetfortschritt aller Kategorien eines Benutzers asynchron.
+     *
+     * @param userId    Die ID des Benutzers.
+     * @param startDate Das Startdatum des Zeitraums.
+     * @param endDate   Das Enddatum des Zeitraums.
+     * @return Future mit den Ausgaben pro Kategorie.
+     */
+    public CompletableFuture<Map<Category, Double>> getCategoryBudgetProgressAsync(String userId, LocalDate startDate, LocalDate endDate) {
+        return budgetProgressRequests.get(new BudgetQuery(userId, startDate, endDate),
+                () -> categoryService.getCategoryBudgetProgressAsync(userId, startDate, endDate));
+    }
+
+    /**
+     * Berechnet Ausgaben und Budget aller Kategorien eines Benutzers asynchron in einer Abfrage.
+     *
+     * @param userId    Die ID des Benutzers.
+     * @param startDate Das Startdatum des Zeitraums.
+     * @param endDate   Das Enddatum des Zeitraums.
+     * @return Future mit einem Budgetstatus pro Kategorie.
+     */
+    public CompletableFuture<List<BudgetStatus>> evaluateBudgetsAsync(String userId, LocalDate startDate, LocalDate endDate) {
+        return budgetStatusRequests.get(new BudgetQuery(userId, startDate, endDate),
+                () -> categoryService.evaluateBudgetsAsync(userId, startDate, endDate));
+    }
+
+    /**
+     * Fügt eine Kategorie asynchron hinzu.
+     *
+     * @param category Die Kategorie, die hinzugefügt werden soll.
+     * @param userId   Die ID des Benutzers.
+     * @return Future, das nach dem Speichern abgeschlossen wird.
+     */
+    public CompletableFuture<Void> addCategoryAsync(Category category, String userId) {
+        return ServiceExecutor.supply(() -> {
+            addCategory(category, userId);
+            return null;
+        });
+    }
+
+    /**
+     * Aktualisiert eine Kategorie asynchron.
+     *
+     * @param category Die Kategorie, die aktualisiert werden soll.
+     * @return Future, das nach dem Speichern abgeschlossen wird.
+     */
+    public CompletableFuture<Void> updateCategoryAsync(Category category) {
+        return ServiceExecutor.supply(() -> {
+            updateCategory(category);
+            return null;
+        });
+    }
+
+    /**
+     * Löscht eine Kategorie asynchron und ordnet ihre Transaktionen "No Category" zu.
+     *
+     * @param categoryId Die ID der Kategorie.
+     * @param userId     Die ID des Benutzers.
+     * @return Future mit true, wenn die Kategorie gelöscht wurde.
+     */
+    public CompletableFuture<Boolean> deleteCategoryAsync(String categoryId, String userId) {
+        return ServiceExecutor.supply(() -> deleteCategory(categoryId, userId));
+    }
+
+    /**
+     * Prüft asynchron, ob ein Kategoriename bereits existiert.
+     *
+     * @param name              Der zu überprüfende Kategoriename.
+     * @param currentCategoryId Die ID der aktuellen Kategorie, um sich selbst auszuschließen.
+     * @return Future mit true, wenn der Name ein Duplikat ist.
+     */
+    public CompletableFuture<Boolean> isCategoryNameDuplicateAsync(String name, String currentCategoryId) {
+        return ServiceExecutor.supply(() -> isCategoryNameDuplicate(name, currentCategoryId));
+    }
+
+    /**
+     * Öffnet einen Render-Durchlauf. Bis zum Schließen werden wiederholte Budgetabfragen
+     * mit gleichem Benutzer und Zeitraum aus dem ersten Ergebnis beantwortet.
+     *
+     * @return Der Durchlauf, der nach dem Aufbau der Ansicht geschlossen werden muss.
+     */
+    public RenderPass openRenderPass() {
+        return new RenderPass(budgetProgressRequests.openRenderPass(), budgetStatusRequests.openRenderPass());
+    }
+
+    /**
+     * Liefert einen Listener für den TransactionService, der die zusammengefassten Budgetabfragen nach jeder
+     * Änderung an Transaktionen verwirft, weil sich damit die Ausgaben der Kategorien ändern.
+     *
+     * @return Der zu registrierende Listener.
+     */
+    public TransactionChangeListener budgetInvalidationListener() {
+        return new BudgetInvalidation();
+    }
+
+    /**
+     * @return Anzahl der Budgetabfragen, die ohne erneuten Aufruf des Services beantwortet wurden.
+     */
+    public long getSavedBackendCalls() {
+        return budgetProgressRequests.getSavedCalls() + budgetStatusRequests.getSavedCalls();
+    }
+
+    // Nach Schreiboperationen dürfen keine alten Budgetwerte mehr ausgeliefert werden
+    private void invalidateBudgetRequests() {
+        budgetProgressRequests.invalidate();
+        budgetStatusRequests.invalidate();
+    }
+
+    /**
+     * Ein Render-Durchlauf über alle Budgetabfragen des Controllers.
+     */
+    public static final class RenderPass implements AutoCloseable {
+        private final RequestCoalescer<?, ?>.RenderPass budgetProgressPass;
+        private final RequestCoalescer<?, ?>.RenderPass budgetStatusPass;
+
+        private RenderPass(RequestCoalescer<?, ?>.RenderPass budgetProgressPass, RequestCoalescer<?, ?>.RenderPass budgetStatusPass) {
+            this.budgetProgressPass = budgetProgressPass;
+            this.budgetStatusPass = budgetStatusPass;
+        }
+
+        @Override
+        public void close() {
+            budgetProgressPass.close();
+            budgetStatusPass.close();
+        }
+    }
+
+    // Verwirft die Budgetabfragen bei jeder Änderung an Transaktionen
+    private final class BudgetInvalidation implements TransactionChangeListener {
+
+        @Override
+        public void transactionsSaved(List<Transaction> transactions) {
+            invalidateBudgetRequests();
+        }
+
+        @Override
+        public void transactionUpdated(Transaction transaction) {
+            invalidateBudgetRequests();
+        }
+
+        @Override
+        public void transactionDeleted(Transaction transaction) {
+            invalidateBudgetRequests();
+        }
+
+        @Override
+        public void accountTransactionsDeleted(String accountId) {
+            invalidateBudgetRequests();
+        }
+
+        @Override
+        public void categoryReassigned(String userId, String categoryId, String replacementCategoryId) {
+            invalidateBudgetRequests();
+        }
+    }
+
+    /**
+     * Schlüssel einer Budgetabfrage.
+     */
+    private record BudgetQuery(String userId, LocalDate startDate, LocalDate endDate) {
+    }
 }
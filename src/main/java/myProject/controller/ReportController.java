@@ -1,19 +1,25 @@
 package myProject.controller;
 
 import myProject.model.Account;
+import myProject.model.BudgetStatus;
 import myProject.model.Category;
 import myProject.service.ReportService;
+import myProject.service.ReportSession;
 import myProject.util.LoggerUtils;
+import myProject.util.Money;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Der ReportController verwaltet die Logik für die Erstellung von Finanzberichten.
  * Er dient als Verbindung zwischen der Benutzeroberfläche und dem ReportService.
+ * Die vom Service in Cent gelieferten Beträge werden hier für die Diagramme in Währungseinheiten umgerechnet.
  */
 public class ReportController {
 
@@ -36,7 +42,7 @@ public class ReportController {
      */
     public Map<String, Double> getCategoryExpenses(String userId, LocalDate startDate, LocalDate endDate) {
         try {
-            return reportService.getCategoryExpenses(userId, startDate, endDate);
+            return toUnits(reportService.getCategoryExpenses(userId, startDate, endDate));
         } catch (Exception e) {
             LoggerUtils.logError(ReportController.class.getName(), "Fehler beim Abrufen der Kategorieausgaben: " + e.getMessage(), e);
             return new HashMap<>();
@@ -52,7 +58,7 @@ public class ReportController {
      */
     public Map<String, Map<String, Double>> getMonthlyIncomeAndExpenses(String userId, LocalDate startDate, LocalDate endDate) {
         try {
-            return reportService.getMonthlyIncomeAndExpenses(userId, startDate, endDate);
+            return toUnitsByType(reportService.getMonthlyIncomeAndExpenses(userId, startDate, endDate));
         } catch (Exception e) {
             LoggerUtils.logError(ReportController.class.getName(), "Fehler beim Abrufen der monatlichen Einnahmen und Ausgaben: " + e.getMessage(), e);
             return new HashMap<>();
@@ -66,7 +72,7 @@ public class ReportController {
      */
     public double getTotalBalance(String userId) {
         try {
-            return reportService.getTotalBalance(userId);
+            return Money.toDouble(reportService.getTotalBalanceCents(userId));
         } catch (Exception e) {
             LoggerUtils.logError(ReportController.class.getName(), "Fehler beim Abrufen des Gesamtkontostands: " + e.getMessage(), e);
             return 0.0;
@@ -118,4 +124,125 @@ public class ReportController {
             return new HashMap<>();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Ruft die Ausgaben pro Kategorie asynchron ab.
+     * @param userId Die ID des Benutzers.
+     * @param startDate Das Startdatum des Zeitraums.
+     * @param endDate Das Enddatum des Zeitraums.
+     * @return Future mit den Ausgaben pro Kategorie.
+     */
+    public CompletableFuture<Map<String, Double>> getCategoryExpensesAsync(String userId, LocalDate startDate, LocalDate endDate) {
+        return reportService.getCategoryExpensesAsync(userId, startDate, endDate).thenApply(ReportController::toUnits);
+    }
+
+    /**
+     * Ruft die monatlichen Einnahmen und Ausgaben asynchron ab.
+     * @param userId Die ID des Benutzers.
+     * @param startDate Das Startdatum des Zeitraums.
+     * @param endDate Das Enddatum des Zeitraums.
+     * @return Future mit den monatlichen Einnahmen und Ausgaben.
+     */
+    public CompletableFuture<Map<String, Map<String, Double>>> getMonthlyIncomeAndExpensesAsync(String userId, LocalDate startDate, LocalDate endDate) {
+        return reportService.getMonthlyIncomeAndExpensesAsync(userId, startDate, endDate).thenApply(ReportController::toUnitsByType);
+    }
+
+    /**
+     * Ruft den Gesamtkontostand asynchron ab.
+     * @param userId Die ID des Benutzers.
+     * @return Future mit dem Gesamtkontostand.
+     */
+    public CompletableFuture<Double> getTotalBalanceAsync(String userId) {
+        return reportService.getTotalBalanceCentsAsync(userId).thenApply(Money::toDouble);
+    }
+
+    /**
+     * Ruft die Konten eines Benutzers asynchron ab.
+     * @param userId Die ID des Benutzers.
+     * @return Future mit der Liste der Konten.
+     */
+    public CompletableFuture<List<Account>> getUserAccountsAsync(String userId) {
+        return reportService.getUserAccountsAsync(userId);
+    }
+
+    /**
+     * Ermittelt die Kategorie mit den höchsten Ausgaben asynchron.
+     * @param userId Die ID des Benutzers.
+     * @param startDate Das Startdatum des Zeitraums.
+     * @param endDate Das Enddatum des Zeitraums.
+     * @return Future mit der Kategorie oder null.
+     */
+    public CompletableFuture<Category> getMostSpentCategoryAsync(String userId, LocalDate startDate, LocalDate endDate) {
+        return reportService.getMostSpentCategoryAsync(userId, startDate, endDate);
+    }
+
+    /**
+     * Ruft den Budgetfortschritt aller Kategorien asynchron ab.
+     * @param userId Die ID des Benutzers.
+     * @param startDate Das Startdatum des Zeitraums.
+     * @param endDate Das Enddatum des Zeitraums.
+     * @return Future mit dem Budgetfortschritt pro Kategorie.
+     */
+    public CompletableFuture<Map<Category, Double>> getCategoryBudgetProgressAsync(String userId, LocalDate startDate, LocalDate endDate) {
+        return reportService.getCategoryBudgetProgressAsync(userId, startDate, endDate);
+    }
+
+    /**
+     * Berechnet Ausgaben und Budget aller Kategorien eines Benutzers asynchron in einer Abfrage.
+     * @param userId Die ID des Benutzers.
+     * @param startDate Das Startdatum des Zeitraums.
+     * @param endDate Das Enddatum des Zeitraums.
+     * @return Future mit einem Budgetstatus pro Kategorie.
+     */
+    public CompletableFuture<List<BudgetStatus>> evaluateBudgetsAsync(String userId, LocalDate startDate, LocalDate endDate) {
+        return reportService.evaluateBudgetsAsync(userId, startDate, endDate);
+    }
+
+    /**
+     * Öffnet eine Berichtssitzung, die bei geändertem Zeitraum nur die Differenz zum vorherigen Zeitraum berechnet.
+     * @param userId Die ID des Benutzers.
+     * @return Die neue Sitzung.
+     */
+    public ReportSession openReportSession(String userId) {
+        return reportService.openSession(userId);
+    }
+
+    /**
+     * Berechnet Kategorieausgaben, monatliche Einnahmen und Ausgaben und die Kategorie mit den höchsten Ausgaben
+     * für einen Zeitraum asynchron über eine Berichtssitzung.
+     * @param session Die Sitzung der Berichtsansicht.
+     * @param startDate Das Startdatum des Zeitraums.
+     * @param endDate Das Enddatum des Zeitraums.
+     * @return Future mit den Berichtsdaten in Währungseinheiten.
+     */
+    public CompletableFuture<RangeReport> refreshReportAsync(ReportSession session, LocalDate startDate, LocalDate endDate) {
+        return session.refreshAsync(startDate, endDate).thenApply(snapshot -> new RangeReport(
+                toUnits(snapshot.categoryExpenses()),
+                toUnitsByType(snapshot.monthlyIncomeAndExpenses()),
+                snapshot.mostSpentCategory()));
+    }
+
+    /**
+     * Die zeitraumabhängigen Berichtsdaten in Währungseinheiten.
+     * @param categoryExpenses Ausgaben pro Kategoriename.
+     * @param monthlyData Monatliche Einnahmen und Ausgaben.
+     * @param mostSpentCategory Die Kategorie mit den höchsten Ausgaben oder null.
+     */
+    public record RangeReport(Map<String, Double> categoryExpenses,
+                              Map<String, Map<String, Double>> monthlyData,
+                              Category mostSpentCategory) {
+    }
+
+    // Rechnet Cent-Summen in Währungseinheiten für die Diagramme um; sortierte Maps bleiben sortiert
+    private static Map<String, Double> toUnits(Map<String, Long> cents) {
+        Map<String, Double> units = cents instanceof TreeMap ? new TreeMap<>() : new HashMap<>();
+        cents.forEach((key, value) -> units.put(key, Money.toDouble(value)));
+        return units;
+    }
+
+    private static Map<String, Map<String, Double>> toUnitsByType(Map<String, Map<String, Long>> cents) {
+        Map<String, Map<String, Double>> units = new HashMap<>();
+        cents.forEach((type, totals) -> units.put(type, toUnits(totals)));
+        return units;
+    }
+}
@@ -0,0 +1,118 @@
+package myProject.controller;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Fasst identische Anfragen an das Backend zusammen.
+ * Gleichzeitige Anfragen mit demselben Schlüssel teilen sich ein Future. Solange ein
+ * {@link RenderPass} geöffnet ist, werden abgeschlossene Ergebnisse zusätzlich wiederverwendet;
+ * nach dem Schließen des letzten Durchlaufs bzw. nach {@link #invalidate()} wird neu geladen.
+ *
+ * @param <K> Typ des Anfrageschlüssels.
+ * @param <V> Typ des Ergebnisses.
+ */
+public class RequestCoalescer<K, V> {
+
+    private final Map<K, CompletableFuture<V>> requests = new ConcurrentHashMap<>();
+    private final AtomicInteger openPasses = new AtomicInteger();
+    private final AtomicLong backendCalls = new AtomicLong();
+    private final AtomicLong savedCalls = new AtomicLong();
+
+    /**
+     * Liefert das Ergebnis zu einem Schlüssel. Ist bereits eine Anfrage mit diesem Schlüssel
+     * unterwegs oder im aktuellen Durchlauf abgeschlossen, wird deren Ergebnis geteilt.
+     * Jeder Aufrufer erhält eine eigene Kopie des Futures, damit ein Abbruch die anderen nicht betrifft.
+     *
+     * @param key    Der Anfrageschlüssel.
+     * @param loader Startet die eigentliche Anfrage an das Backend.
+     * @return Future mit dem Ergebnis.
+     */
+    public CompletableFuture<V> get(K key, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = requests.putIfAbsent(key, created);
+        if (existing != null) {
+            savedCalls.incrementAndGet();
+            return existing.copy();
+        }
+
+        backendCalls.incrementAndGet();
+        CompletableFuture<V> source;
+        try {
+            source = loader.get();
+        } catch (RuntimeException e) {
+            source = CompletableFuture.failedFuture(e);
+        }
+        source.whenComplete((value, error) -> {
+            if (error != null) {
+                created.completeExceptionally(error);
+            } else {
+                created.complete(value);
+            }
+            // Erst nach dem Abschließen prüfen: Ein zwischenzeitlich geschlossener Durchlauf hat das noch laufende
+            // Future nicht entfernt. Ergebnis nur behalten, solange ein Durchlauf offen ist; Fehler nie zwischenspeichern
+            if (error != null || openPasses.get() == 0) {
+                requests.remove(key, created);
+            }
+        });
+        return created.copy();
+    }
+
+    /**
+     * Verwirft alle gespeicherten Ergebnisse, z. B. nach einer Schreiboperation.
+     * Bereits laufende Anfragen werden zu Ende geführt, aber nicht mehr an neue Aufrufer verteilt.
+     */
+    public void invalidate() {
+        requests.clear();
+    }
+
+    /**
+     * Öffnet einen Durchlauf, in dem wiederholte Anfragen aus dem Speicher beantwortet werden.
+     *
+     * @return Der Durchlauf, der nach dem Rendern geschlossen werden muss.
+     */
+    public RenderPass openRenderPass() {
+        openPasses.incrementAndGet();
+        return new RenderPass();
+    }
+
+    /**
+     * @return Anzahl der tatsächlich an das Backend weitergegebenen Anfragen.
+     */
+    public long getBackendCalls() {
+        return backendCalls.get();
+    }
+
+    /**
+     * @return Anzahl der Anfragen, die aus einer laufenden oder gespeicherten Anfrage beantwortet wurden.
+     */
+    public long getSavedCalls() {
+        return savedCalls.get();
+    }
+
+    /**
+     * Ein geöffneter Durchlauf. Schließt der letzte offene Durchlauf, werden die
+     * abgeschlossenen Ergebnisse verworfen; laufende Anfragen bleiben erhalten.
+     */
+    public final class RenderPass implements AutoCloseable {
+        private boolean closed;
+
+        private RenderPass() {
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (openPasses.decrementAndGet() == 0) {
+                requests.values().removeIf(CompletableFuture::isDone);
+            }
+        }
+    }
+}
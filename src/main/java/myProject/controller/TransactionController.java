@@ -4,16 +4,28 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.chart.PieChart;
 import myProject.model.Account;
+import myProject.model.BatchResult;
 import myProject.model.Category;
 import myProject.model.Transaction;
+import myProject.service.ServiceExecutor;
 import myProject.service.TransactionService;
+import myProject.service.importer.CsvColumnMapping;
+import myProject.service.importer.ImportProgress;
+import myProject.service.importer.TransactionImporter;
 import myProject.util.LoggerUtils;
+import myProject.util.Money;
 
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -24,10 +36,12 @@ import java.util.stream.Collectors;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionImporter transactionImporter;
 
-    // Konstruktor zum Initialisieren des TransactionService
-    public TransactionController(TransactionService transactionService) {
+    // Konstruktor zum Initialisieren des TransactionService und des Importers
+    public TransactionController(TransactionService transactionService, TransactionImporter transactionImporter) {
         this.transactionService = transactionService;
+        this.transactionImporter = transactionImporter;
     }
 
     /**
@@ -37,10 +51,52 @@ public class TransactionController {
     public void createTransaction(Transaction transaction) throws SQLException {
 
                 transactionService.addTransaction(transaction);
-                LoggerUtils.logInfo(TransactionController.class.getName(), "Reguläre Transaktion erfolgreich erstellt: " + transaction.getId());
+                LoggerUtils.logInfo(TransactionController.class.getName(), "Reguläre Transaktion erfolgreich erstellt: {0}", transaction.getId());
 
     }
 
+    /**
+     * Methode zum gebündelten Erstellen vieler Transaktionen, z. B. für Importe.
+     * Ungültige oder nicht speicherbare Transaktionen werden im Ergebnis gemeldet, ohne die übrigen abzubrechen.
+     *
+     * @param transactions Die zu erstellenden Transaktionen.
+     * @return Anzahl der gespeicherten Transaktionen und die fehlgeschlagenen Zeilen.
+     */
+    public BatchResult createTransactions(Collection<Transaction> transactions) {
+        BatchResult result = transactionService.addTransactions(transactions);
+        LoggerUtils.logInfo(TransactionController.class.getName(), "Transaktionen gebündelt erstellt: {0} gespeichert, {1} fehlgeschlagen", result.saved(), result.failures().size());
+        return result;
+    }
+
+    /**
+     * Importiert einen Kontoauszug im CSV-Format asynchron in ein Konto.
+     *
+     * @param file       Die CSV-Datei.
+     * @param charset    Die Zeichenkodierung der Datei.
+     * @param account    Das Zielkonto.
+     * @param mapping    Die Abbildung der Spalten.
+     * @param onProgress Wird im Hintergrund-Thread nach jedem gespeicherten Block aufgerufen.
+     * @param cancelled  Liefert true, wenn der Import abgebrochen werden soll.
+     * @return Future mit dem Endstand des Imports.
+     */
+    public CompletableFuture<ImportProgress> importCsvAsync(Path file, Charset charset, Account account, CsvColumnMapping mapping,
+                                                            Consumer<ImportProgress> onProgress, BooleanSupplier cancelled) {
+        return transactionImporter.importCsvAsync(file, charset, account, mapping, onProgress, cancelled);
+    }
+
+    /**
+     * Methode für eine Überweisung zwischen zwei Konten. Beide Buchungen werden gemeinsam oder gar nicht gespeichert.
+     *
+     * @param from   Das Quellkonto.
+     * @param to     Das Zielkonto.
+     * @param amount Der zu überweisende Betrag aus der Oberfläche; er wird auf Cent gerundet.
+     * @return Die Transfer-ID, die beide Buchungen verknüpft.
+     * @throws SQLException Wenn die Überweisung nicht gespeichert werden konnte.
+     */
+    public String transfer(Account from, Account to, double amount) throws SQLException {
+        return transactionService.transfer(from, to, Money.ofDouble(amount));
+    }
+
     /**
      * Methode zur Aktualisierung einer Transaktion (regulär oder wiederkehrend).
      * @param transaction Die zu aktualisierende Transaktion.
@@ -57,7 +113,7 @@ public class TransactionController {
     public void deleteTransaction(Transaction transaction) {
         try {
             transactionService.deleteTransaction(transaction);
-            LoggerUtils.logInfo(TransactionController.class.getName(), "Transaktion erfolgreich gelöscht: " + transaction.getId());
+            LoggerUtils.logInfo(TransactionController.class.getName(), "Transaktion erfolgreich gelöscht: {0}", transaction.getId());
         } catch (SQLException e) {
             LoggerUtils.logError(TransactionController.class.getName(), "Fehler beim Löschen der Transaktion: " + e.getMessage(), e);
         }
@@ -72,7 +128,7 @@ public class TransactionController {
     public void deleteTransactionsByAccount(String accountId) throws SQLException {
         try {
             transactionService.deleteTransactionsByAccount(accountId);
-            LoggerUtils.logInfo(TransactionController.class.getName(), "All transactions deleted for account: " + accountId);
+            LoggerUtils.logInfo(TransactionController.class.getName(), "All transactions deleted for account: {0}", accountId);
         } catch (SQLException e) {
             LoggerUtils.logError(TransactionController.class.getName(), "Error deleting transactions for account: " + accountId, e);
             throw e;
@@ -87,7 +143,7 @@ public class TransactionController {
     public List<Transaction> getTransactionsByCategory(Category category) {
         try {
             List<Transaction> transactions = transactionService.getTransactionsByCategory(category);
-            LoggerUtils.logInfo(TransactionController.class.getName(), "Transaktionen für Kategorie " + category.getName() + " abgerufen.");
+            LoggerUtils.logInfo(TransactionController.class.getName(), "Transaktionen für Kategorie {0} abgerufen.", category.getName());
             return transactions;
         } catch (Exception e) {
             LoggerUtils.logError(TransactionController.class.getName(), "Fehler beim Abrufen der Transaktionen für Kategorie: " + e.getMessage(), e);
@@ -103,7 +159,7 @@ public class TransactionController {
     public List<Transaction> getTransactionsForCategory(Category category) {
         try {
             List<Transaction> transactions = transactionService.getTransactionsByCategory(category);
-            LoggerUtils.logInfo(TransactionController.class.getName(), "Transaktionen für Kategorie " + category.getName() + " abgerufen.");
+            LoggerUtils.logInfo(TransactionController.class.getName(), "Transaktionen für Kategorie {0} abgerufen.", category.getName());
             return transactions;
         } catch (Exception e) {
             LoggerUtils.logError(TransactionController.class.getName(), "Fehler beim Abrufen der Transaktionen für Kategorie: " + e.getMessage(), e);
@@ -122,12 +178,12 @@ public class TransactionController {
             List<Transaction> allTransactions = new ArrayList<>(regularTransactions);
 
             // Nur Ausgaben (expense) Transaktionen summieren
-            double totalSpent = allTransactions.stream()
-                    .filter(transaction -> "expense".equals(transaction.getType()) && transaction.getAmount() < 0)
-                    .mapToDouble(Transaction::getAmount)
-                    .sum();
+            double totalSpent = Money.toDouble(allTransactions.stream()
+                    .filter(transaction -> "expense".equals(transaction.getType()) && transaction.getAmountCents() < 0)
+                    .mapToLong(Transaction::getAmountCents)
+                    .sum());
 
-            LoggerUtils.logInfo(TransactionController.class.getName(), "Ausgegebener Betrag für Kategorie " + category.getName() + ": " + totalSpent);
+            LoggerUtils.logInfo(TransactionController.class.getName(), "Ausgegebener Betrag für Kategorie {0}: {1}", category.getName(), totalSpent);
             return totalSpent;
         } catch (Exception e) {
             LoggerUtils.logError(TransactionController.class.getName(), "Fehler beim Abrufen des ausgegebenen Betrags für Kategorie: " + e.getMessage(), e);
@@ -147,11 +203,11 @@ public class TransactionController {
 
             for (Category category : categories) {
                 List<Transaction> transactions = getTransactionsForCategory(category);
-                double totalSpent = transactions.stream()
+                double totalSpent = Money.toDouble(transactions.stream()
                         .filter(t -> t.getAccount() != null && t.getAccount().getId().equals(account.getId()) &&
                                 t.getType().equalsIgnoreCase("expense"))
-                        .mapToDouble(t -> Math.abs(t.getAmount()))
-                        .sum();
+                        .mapToLong(t -> Math.abs(t.getAmountCents()))
+                        .sum());
                 categorySpendingMap.put(category.getName(), totalSpent);
             }
 
@@ -176,13 +232,13 @@ public class TransactionController {
 
     /**
      * Methode zum Filtern von Transaktionen nach Konto und Rückgabe als ObservableList.
-     * @param accountName Der Name des Kontos, für das die Transaktionen gefiltert werden sollen.
+     * @param account Das Konto, für das die Transaktionen gefiltert werden sollen.
      * @return ObservableList der gefilterten Transaktionen.
      */
-    public ObservableList<Transaction> getTransactionsByAccount(String accountName) {
+    public ObservableList<Transaction> getTransactionsByAccount(Account account) {
         try {
-            List<Transaction> transactions = transactionService.getTransactionsByAccount(accountName);
-            LoggerUtils.logInfo(TransactionController.class.getName(), "Transaktionen für Konto " + accountName + " abgerufen.");
+            List<Transaction> transactions = transactionService.getTransactionsByAccount(account);
+            LoggerUtils.logInfo(TransactionController.class.getName(), "Transaktionen für Konto {0} abgerufen.", account.getName());
             return FXCollections.observableArrayList(transactions);
         } catch (Exception e) {
             LoggerUtils.logError(TransactionController.class.getName(), "Fehler beim Abrufen der Transaktionen für Konto: " + e.getMessage(), e);
@@ -198,7 +254,7 @@ public class TransactionController {
     public ObservableList<Category> getAllCategoriesForUser(String userId) {
         try {
             List<Category> categories = transactionService.getAllCategoriesForUser(userId);
-            LoggerUtils.logInfo(TransactionController.class.getName(), "Kategorien für Benutzer " + userId + " abgerufen.");
+            LoggerUtils.logInfo(TransactionController.class.getName(), "Kategorien für Benutzer {0} abgerufen.", userId);
             return FXCollections.observableArrayList(categories);
         } catch (Exception e) {
             LoggerUtils.logError(TransactionController.class.getName(), "Fehler beim Abrufen der Kategorien für Benutzer: " + e.getMessage(), e);
@@ -214,7 +270,7 @@ public class TransactionController {
     public ObservableList<Account> getAccountsForUser(String userId) {
         try {
             List<Account> accounts = transactionService.getAccountsForUser(userId);
-            LoggerUtils.logInfo(TransactionController.class.getName(), "Konten für Benutzer " + userId + " abgerufen.");
+            LoggerUtils.logInfo(TransactionController.class.getName(), "Konten für Benutzer {0} abgerufen.", userId);
             return FXCollections.observableArrayList(accounts);
         } catch (Exception e) {
             LoggerUtils.logError(TransactionController.class.getName(), "Fehler beim Abrufen der Konten für Benutzer: " + e.getMessage(), e);
@@ -224,17 +280,138 @@ public class TransactionController {
 
     /**
      * Methode zum Abrufen abgeschlossener Transaktionen für ein bestimmtes Konto.
-     * @param accountName Der Name des Kontos.
+     * @param account Das Konto.
      * @return Liste der abgeschlossenen Transaktionen für das Konto.
      */
-    public List<Transaction> getCompletedTransactionsByAccount(String accountName) {
+    public List<Transaction> getCompletedTransactionsByAccount(Account account) {
         try {
-            List<Transaction> completedTransactions = transactionService.getCompletedTransactionsByAccount(accountName);
-            LoggerUtils.logInfo(TransactionController.class.getName(), "Abgeschlossene Transaktionen für Konto " + accountName + " abgerufen.");
+            List<Transaction> completedTransactions = transactionService.getCompletedTransactionsByAccount(account);
+            LoggerUtils.logInfo(TransactionController.class.getName(), "Abgeschlossene Transaktionen für Konto {0} abgerufen.", account.getName());
             return completedTransactions;
         } catch (Exception e) {
             LoggerUtils.logError(TransactionController.class.getName(), "Fehler beim Abrufen der abgeschlossenen Transaktionen: " + e.getMessage(), e);
             return new ArrayList<>();
         }
     }
+
+    /**
+     * Ruft die Transaktionen für ein Konto asynchron ab.
+     *
+     * @param account Das Konto.
+     * @return Future mit der Liste der Transaktionen für das Konto.
+     */
+    public CompletableFuture<List<Transaction>> getTransactionsByAccountAsync(Account account) {
+        return transactionService.getTransactionsByAccountAsync(account);
+    }
+
+    /**
+     * Ruft die Transaktionen für eine Kategorie asynchron ab.
+     *
+     * @param category Die Kategorie.
+     * @return Future mit der Liste der Transaktionen für die Kategorie.
+     */
+    public CompletableFuture<List<Transaction>> getTransactionsByCategoryAsync(Category category) {
+        return transactionService.getTransactionsByCategoryAsync(category);
+    }
+
+    /**
+     * Zählt die Transaktionen eines Kontos für den Kontoauszug asynchron.
+     *
+     * @param account Das Konto.
+     * @return Future mit der Anzahl der Transaktionen.
+     */
+    public CompletableFuture<Integer> countLedgerTransactionsAsync(Account account) {
+        return transactionService.countLedgerTransactionsAsync(account);
+    }
+
+    /**
+     * Lädt eine Seite des Kontoauszugs asynchron.
+     *
+     * @param account  Das Konto.
+     * @param previous Die letzte Transaktion der vorherigen Seite oder null.
+     * @param offset   Die Position der ersten Zeile der Seite.
+     * @param limit    Die Seitengröße.
+     * @return Future mit den Transaktionen der Seite.
+     */
+    public CompletableFuture<List<Transaction>> getLedgerPageAsync(Account account, Transaction previous, int offset, int limit) {
+        return transactionService.getLedgerPageAsync(account, previous, offset, limit);
+    }
+
+    /**
+     * Ruft alle Kategorien eines Benutzers asynchron ab.
+     *
+     * @param userId Die ID des Benutzers.
+     * @return Future mit der Liste der Kategorien des Benutzers.
+     */
+    public CompletableFuture<List<Category>> getAllCategoriesForUserAsync(String userId) {
+        return ServiceExecutor.supply(() -> transactionService.getAllCategoriesForUser(userId));
+    }
+
+    // Asynchrone Varianten der schreibenden Methoden; Fehler werden über das Future gemeldet
+
+    /**
+     * Erstellt eine Transaktion asynchron.
+     *
+     * @param transaction Die zu erstellende Transaktion.
+     * @return Future, das nach dem Speichern abgeschlossen wird.
+     */
+    public CompletableFuture<Void> createTransactionAsync(Transaction transaction) {
+        return ServiceExecutor.supply(() -> {
+            createTransaction(transaction);
+            return null;
+        });
+    }
+
+    /**
+     * Aktualisiert eine Transaktion asynchron.
+     *
+     * @param transaction Die zu aktualisierende Transaktion.
+     * @return Future, das nach dem Speichern abgeschlossen wird.
+     */
+    public CompletableFuture<Void> updateTransactionAsync(Transaction transaction) {
+        return ServiceExecutor.supply(() -> {
+            updateTransaction(transaction);
+            return null;
+        });
+    }
+
+    /**
+     * Löscht eine Transaktion asynchron. Anders als {@link #deleteTransaction(Transaction)} wird ein
+     * Datenbankfehler nicht nur protokolliert, sondern über das Future gemeldet.
+     *
+     * @param transaction Die zu löschende Transaktion.
+     * @return Future, das nach dem Löschen abgeschlossen wird.
+     */
+    public CompletableFuture<Void> deleteTransactionAsync(Transaction transaction) {
+        return ServiceExecutor.supply(() -> {
+            transactionService.deleteTransaction(transaction);
+            LoggerUtils.logInfo(TransactionController.class.getName(), "Transaktion erfolgreich gelöscht: {0}", transaction.getId());
+            return null;
+        });
+    }
+
+    /**
+     * Löscht alle Transaktionen eines Kontos asynchron.
+     *
+     * @param accountId ID des Kontos.
+     * @return Future, das nach dem Löschen abgeschlossen wird.
+     */
+    public CompletableFuture<Void> deleteTransactionsByAccountAsync(String accountId) {
+        return ServiceExecutor.supply(() -> {
+            deleteTransactionsByAccount(accountId);
+            return null;
+        });
+    }
+
+    /**
+     * Führt eine Überweisung zwischen zwei Konten asynchron aus.
+     *
+     * @param from   Das Quellkonto.
+     * @param to     Das Zielkonto.
+     * @param amount Der zu überweisende Betrag aus der Oberfläche.
+     * @return Future mit der Transfer-ID.
+     */
+    public CompletableFuture<String> transferAsync(Account from, Account to, double amount) {
+        return ServiceExecutor.supply(() -> transfer(from, to, amount));
+    }
 }
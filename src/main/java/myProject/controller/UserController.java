@@ -2,8 +2,11 @@ package myProject.controller;
 
 import myProject.model.User;
 import myProject.service.UserService;
+import myProject.service.ServiceExecutor;
 import myProject.util.LoggerUtils;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Der UserController ist für die Verwaltung der Benutzerinteraktionen verantwortlich.
  * Er bietet Funktionen für die Benutzeranmeldung, -registrierung und den Abruf des aktuell angemeldeten Benutzers.
@@ -59,4 +62,26 @@ public class UserController {
         }
         return isRegistered;
     }
+
+    /**
+     * Führt den Login-Vorgang asynchron aus, da das Prüfen des Passworts die Datenbank abfragt.
+     *
+     * @param username Der Benutzername des Benutzers.
+     * @param password Das Passwort des Benutzers.
+     * @return Future mit true, wenn die Authentifizierung erfolgreich war.
+     */
+    public CompletableFuture<Boolean> loginAsync(String username, String password) {
+        return ServiceExecutor.supply(() -> login(username, password));
+    }
+
+    /**
+     * Registriert einen Benutzer asynchron.
+     *
+     * @param username Der gewünschte Benutzername des neuen Benutzers.
+     * @param password Das Passwort des neuen Benutzers.
+     * @return Future mit true, wenn die Registrierung erfolgreich war.
+     */
+    public CompletableFuture<Boolean> registerAsync(String username, String password) {
+        return ServiceExecutor.supply(() -> register(username, password));
+    }
 }
@@ -0,0 +1,458 @@
+package myProject.db;
+
+import myProject.util.LoggerUtils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Begrenzter Pool von JDBC-Verbindungen zur H2-Datenbank.
+ * Verbindungen werden beim Ausleihen validiert, nach der Rückgabe wiederverwendet und
+ * nach einer konfigurierbaren Leerlaufzeit geschlossen, solange die Mindestgröße nicht unterschritten wird.
+ * Ausgeliehene Verbindungen werden durch {@link Connection#close()} an den Pool zurückgegeben.
+ * Ist eine {@link QueryStatistics} angegeben, werden alle erzeugten Anweisungen über einen {@link StatementTracer} gemessen.
+ */
+public class ConnectionPool {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+    // Ziel der Anweisungsstatistik oder null, wenn Anweisungen nicht gemessen werden
+    private final QueryStatistics queryStatistics;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition connectionReturned = lock.newCondition();
+    private final Deque<PooledConnection> idleConnections = new ArrayDeque<>();
+    private final ScheduledExecutorService evictor;
+
+    // Zustand und Statistiken, geschützt durch lock
+    private int totalConnections;
+    private int activeConnections;
+    private int waitingThreads;
+    private long borrowCount;
+    private long totalBorrowNanos;
+    private long maxBorrowNanos;
+    private long createdCount;
+    private long evictedCount;
+    private long validationFailures;
+    private long borrowTimeouts;
+    private boolean closed;
+
+    /**
+     * Erstellt einen neuen Pool und öffnet sofort die Mindestanzahl an Verbindungen.
+     *
+     * @param url                 JDBC-URL der Datenbank.
+     * @param user                Benutzername.
+     * @param password            Passwort.
+     * @param minSize             Anzahl der Verbindungen, die mindestens offen gehalten werden.
+     * @param maxSize             Maximale Anzahl gleichzeitig offener Verbindungen.
+     * @param idleTimeoutMillis   Leerlaufzeit, nach der überzählige Verbindungen geschlossen werden.
+     * @param borrowTimeoutMillis Maximale Wartezeit beim Ausleihen, wenn alle Verbindungen belegt sind.
+     */
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                          long idleTimeoutMillis, long borrowTimeoutMillis) {
+        this(url, user, password, minSize, maxSize, idleTimeoutMillis, borrowTimeoutMillis, null);
+    }
+
+    /**
+     * Erstellt einen neuen Pool, dessen Verbindungen alle Anweisungen in der übergebenen Statistik erfassen.
+     *
+     * @param url                 JDBC-URL der Datenbank.
+     * @param user                Benutzername.
+     * @param password            Passwort.
+     * @param minSize             Anzahl der Verbindungen, die mindestens offen gehalten werden.
+     * @param maxSize             Maximale Anzahl gleichzeitig offener Verbindungen.
+     * @param idleTimeoutMillis   Leerlaufzeit, nach der überzählige Verbindungen geschlossen werden.
+     * @param borrowTimeoutMillis Maximale Wartezeit beim Ausleihen, wenn alle Verbindungen belegt sind.
+     * @param queryStatistics     Ziel der Anweisungsstatistik oder null, um Anweisungen nicht zu messen.
+     */
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                          long idleTimeoutMillis, long borrowTimeoutMillis, QueryStatistics queryStatistics) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Ungültige Poolgröße: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.queryStatistics = queryStatistics;
+
+        fillToMinimum();
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Leiht eine Verbindung aus dem Pool aus. Ist keine freie Verbindung vorhanden und die
+     * Maximalgröße erreicht, wartet der Aufrufer bis zum Borrow-Timeout.
+     *
+     * @return Eine validierte Verbindung, die beim Schließen an den Pool zurückgegeben wird.
+     * @throws SQLException Wenn keine Verbindung geöffnet werden kann oder das Timeout abläuft.
+     */
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+
+        while (true) {
+            PooledConnection candidate = null;
+            boolean mayCreate = false;
+
+            lock.lock();
+            try {
+                if (closed) {
+                    throw new SQLException("Der Verbindungspool wurde bereits geschlossen.");
+                }
+                if (!idleConnections.isEmpty()) {
+                    candidate = idleConnections.pollFirst();
+                    activeConnections++;
+                } else if (totalConnections < maxSize) {
+                    // Platz reservieren, die Verbindung selbst wird außerhalb des Locks geöffnet
+                    totalConnections++;
+                    activeConnections++;
+                    mayCreate = true;
+                } else {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        borrowTimeouts++;
+                        throw new SQLException("Timeout beim Warten auf eine freie Datenbankverbindung.");
+                    }
+                    waitingThreads++;
+                    try {
+                        connectionReturned.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Warten auf eine Datenbankverbindung wurde unterbrochen.", e);
+                    } finally {
+                        waitingThreads--;
+                    }
+                    continue;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (mayCreate) {
+                try {
+                    PooledConnection created = openPhysicalConnection();
+                    recordBorrow(start);
+                    return created.lease();
+                } catch (SQLException e) {
+                    discard(null, true);
+                    throw e;
+                }
+            }
+
+            if (isValid(candidate)) {
+                recordBorrow(start);
+                return candidate.lease();
+            }
+
+            // Ungültige Verbindung verwerfen und erneut versuchen
+            lock.lock();
+            try {
+                validationFailures++;
+            } finally {
+                lock.unlock();
+            }
+            discard(candidate, true);
+        }
+    }
+
+    /**
+     * Liefert eine Momentaufnahme der Poolstatistiken.
+     *
+     * @return Die aktuellen Statistiken.
+     */
+    public Statistics getStatistics() {
+        lock.lock();
+        try {
+            double averageMillis = borrowCount == 0 ? 0.0 : totalBorrowNanos / (double) borrowCount / 1_000_000.0;
+            return new Statistics(activeConnections, idleConnections.size(), totalConnections, waitingThreads,
+                    borrowCount, averageMillis, maxBorrowNanos / 1_000_000.0, createdCount, evictedCount,
+                    validationFailures, borrowTimeouts);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Schließt alle freien Verbindungen und verhindert weiteres Ausleihen.
+     * Noch ausgeliehene Verbindungen werden bei ihrer Rückgabe geschlossen.
+     */
+    public void close() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayList<>(idleConnections);
+            totalConnections -= idleConnections.size();
+            idleConnections.clear();
+            connectionReturned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        evictor.shutdownNow();
+        toClose.forEach(PooledConnection::closePhysical);
+        LoggerUtils.logInfo(ConnectionPool.class.getName(), "Verbindungspool geschlossen.");
+    }
+
+    private void fillToMinimum() {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || totalConnections >= minSize) {
+                    return;
+                }
+                totalConnections++;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                PooledConnection created = openPhysicalConnection();
+                lock.lock();
+                try {
+                    created.lastReturned = System.nanoTime();
+                    idleConnections.addLast(created);
+                    connectionReturned.signal();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (SQLException e) {
+                LoggerUtils.logError(ConnectionPool.class.getName(), "Fehler beim Vorbefüllen des Verbindungspools.", e);
+                discard(null, false);
+                return;
+            }
+        }
+    }
+
+    private PooledConnection openPhysicalConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        lock.lock();
+        try {
+            createdCount++;
+        } finally {
+            lock.unlock();
+        }
+        return new PooledConnection(physical);
+    }
+
+    private boolean isValid(PooledConnection candidate) {
+        try {
+            return !candidate.physical.isClosed() && candidate.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void recordBorrow(long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        lock.lock();
+        try {
+            borrowCount++;
+            totalBorrowNanos += elapsed;
+            maxBorrowNanos = Math.max(maxBorrowNanos, elapsed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Gibt eine Verbindung zurück in den Pool; fehlerhafte Verbindungen werden verworfen
+    private void release(PooledConnection connection) {
+        boolean reusable;
+        try {
+            if (!connection.physical.getAutoCommit()) {
+                connection.physical.rollback();
+                connection.physical.setAutoCommit(true);
+            }
+            connection.physical.clearWarnings();
+            reusable = !connection.physical.isClosed();
+        } catch (SQLException e) {
+            LoggerUtils.logError(ConnectionPool.class.getName(), "Verbindung konnte nicht zurückgesetzt werden und wird verworfen.", e);
+            reusable = false;
+        }
+
+        lock.lock();
+        try {
+            if (reusable && !closed) {
+                activeConnections--;
+                connection.lastReturned = System.nanoTime();
+                idleConnections.addFirst(connection);
+                connectionReturned.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        discard(connection, true);
+    }
+
+    // Schließt eine Verbindung (falls vorhanden) und gibt ihren Platz im Pool frei
+    private void discard(PooledConnection connection, boolean wasActive) {
+        lock.lock();
+        try {
+            totalConnections--;
+            if (wasActive) {
+                activeConnections--;
+            }
+            connectionReturned.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (connection != null) {
+            connection.closePhysical();
+        }
+    }
+
+    private void evictIdleConnections() {
+        List<PooledConnection> evicted = new ArrayList<>();
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+
+        lock.lock();
+        try {
+            // Die am längsten ungenutzten Verbindungen liegen am Ende der Deque
+            Iterator<PooledConnection> iterator = idleConnections.descendingIterator();
+            while (iterator.hasNext() && totalConnections > minSize) {
+                PooledConnection candidate = iterator.next();
+                if (now - candidate.lastReturned < idleNanos) {
+                    break;
+                }
+                iterator.remove();
+                totalConnections--;
+                evictedCount++;
+                evicted.add(candidate);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        evicted.forEach(PooledConnection::closePhysical);
+        if (!evicted.isEmpty()) {
+            LoggerUtils.logInfo(ConnectionPool.class.getName(), "Leerlaufende Verbindungen geschlossen: {0}", evicted.size());
+        }
+        fillToMinimum();
+    }
+
+    /**
+     * Unveränderliche Momentaufnahme der Poolstatistiken.
+     *
+     * @param active              Anzahl aktuell ausgeliehener Verbindungen.
+     * @param idle                Anzahl freier Verbindungen.
+     * @param total               Anzahl physisch geöffneter Verbindungen.
+     * @param waiting             Anzahl der Threads, die auf eine Verbindung warten.
+     * @param borrowCount         Anzahl erfolgreicher Ausleihvorgänge.
+     * @param averageBorrowMillis Durchschnittliche Dauer eines Ausleihvorgangs in Millisekunden.
+     * @param maxBorrowMillis     Längste Dauer eines Ausleihvorgangs in Millisekunden.
+     * @param createdCount        Anzahl insgesamt geöffneter physischer Verbindungen.
+     * @param evictedCount        Anzahl wegen Leerlauf geschlossener Verbindungen.
+     * @param validationFailures  Anzahl beim Ausleihen als ungültig erkannter Verbindungen.
+     * @param borrowTimeouts      Anzahl der Ausleihvorgänge, die wegen Timeout fehlgeschlagen sind.
+     */
+    public record Statistics(int active, int idle, int total, int waiting, long borrowCount,
+                             double averageBorrowMillis, double maxBorrowMillis, long createdCount,
+                             long evictedCount, long validationFailures, long borrowTimeouts) {
+    }
+
+    /**
+     * Physische Verbindung im Pool. Jede Ausleihe erzeugt einen eigenen Proxy,
+     * damit ein doppeltes close() oder eine Nutzung nach der Rückgabe die nächste Ausleihe nicht beeinflusst.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private long lastReturned;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        private Connection lease() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new LeaseHandler(this));
+        }
+
+        private void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                LoggerUtils.logError(ConnectionPool.class.getName(), "Fehler beim Schließen einer Datenbankverbindung.", e);
+            }
+        }
+    }
+
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledConnection connection;
+        private boolean returned;
+
+        private LeaseHandler(PooledConnection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(connection);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || connection.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + connection.physical + "]";
+                default:
+                    if (returned) {
+                        throw new SQLException("Die Verbindung wurde bereits an den Pool zurückgegeben.");
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(connection.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (queryStatistics != null && result instanceof Statement statement) {
+                        // prepareStatement/prepareCall liefern den SQL-Text als erstes Argument, createStatement nicht
+                        String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                        return StatementTracer.wrap(method.getReturnType(), statement, (Connection) proxy,
+                                connection.physical, queryStatistics, sql);
+                    }
+                    return result;
+            }
+        }
+    }
+}
@@ -1,38 +1,168 @@
 package myProject.db;
 
+import myProject.metrics.Metrics;
 import myProject.util.LoggerUtils;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
 
 /**
  * Diese Klasse verwaltet die Datenbankverbindungen und die Initialisierung der Datenbanktabellen.
  * Sie stellt Methoden bereit, um eine Verbindung zur Datenbank herzustellen und die notwendigen Tabellen zu erstellen.
+ * Verbindungen werden aus einem begrenzten {@link ConnectionPool} ausgeliehen, dessen Größe und Timeouts
+ * über System-Properties (Präfix {@code smartfinance.db.pool.}) konfiguriert werden können.
+ * Alle Anweisungen werden in einer {@link QueryStatistics} erfasst; Anweisungen über {@code smartfinance.db.slowQueryMillis}
+ * werden mit ihrem Ausführungsplan protokolliert. Mit {@code -Dsmartfinance.db.queryStats.enabled=false} entfällt die Messung.
  */
 public class DatabaseManager {
 
-    // Datenbank-URL und Anmeldeinformationen
-    private static final String DB_URL = "jdbc:h2:./db;DB_CLOSE_DELAY=-1";
+    // Datenbank-URL und Anmeldeinformationen; die URL kann z. B. für Benchmarks über -Dsmartfinance.db.url überschrieben werden
+    private static final String DEFAULT_DB_URL = "jdbc:h2:./db;DB_CLOSE_DELAY=-1";
     private static final String DB_USER = "sa";
     private static final String DB_PASSWORD = "";
 
+    // Standardwerte für den Verbindungspool
+    private static final int DEFAULT_POOL_MIN_SIZE = 2;
+    private static final int DEFAULT_POOL_MAX_SIZE = 10;
+    private static final long DEFAULT_POOL_IDLE_TIMEOUT_MILLIS = 60_000;
+    private static final long DEFAULT_POOL_BORROW_TIMEOUT_MILLIS = 30_000;
+
+    // Schwellwert für das Protokollieren langsamer Anweisungen und Anzahl der beim Beenden ausgegebenen Anweisungen
+    private static final long DEFAULT_SLOW_QUERY_MILLIS = 200;
+    private static final int SHUTDOWN_STATISTICS_LIMIT = 15;
+
+    // Versionierte Schemaänderungen, die nach dem Anlegen der Tabellen der Reihe nach angewendet werden.
+    // Neue Migrationen werden ausschließlich mit der nächsthöheren Versionsnummer am Ende angefügt.
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Sekundärindizes für die Repository-Abfragen",
+                    "CREATE INDEX IF NOT EXISTS idx_transactions_account_date_time ON transactions(account_id, date, time)",
+                    "CREATE INDEX IF NOT EXISTS idx_transactions_category_type_date ON transactions(category_id, type, date)",
+                    "CREATE INDEX IF NOT EXISTS idx_transactions_date ON transactions(date)",
+                    "CREATE INDEX IF NOT EXISTS idx_accounts_user_name ON accounts(user_id, name)",
+                    "CREATE INDEX IF NOT EXISTS idx_accounts_name ON accounts(name)",
+                    "CREATE INDEX IF NOT EXISTS idx_categories_user_name ON categories(user_id, name)"),
+            new Migration(2, "Kontostände aus den gespeicherten Transaktionen neu berechnen",
+                    "UPDATE accounts a SET balance = COALESCE((SELECT SUM(t.amount) FROM transactions t WHERE t.account_id = a.id), 0)"),
+            new Migration(3, "Index für die seitenweise Anzeige der Kontotransaktionen",
+                    "CREATE INDEX IF NOT EXISTS idx_transactions_account_date_time_id ON transactions(account_id, date, time, id)",
+                    "DROP INDEX IF EXISTS idx_transactions_account_date_time"),
+            new Migration(4, "Gemeinsame Transfer-ID für beide Buchungen einer Überweisung",
+                    "ALTER TABLE transactions ADD COLUMN IF NOT EXISTS transfer_id VARCHAR(255)",
+                    "CREATE INDEX IF NOT EXISTS idx_transactions_transfer ON transactions(transfer_id)"),
+            // Die Cent-Spalten entstehen als berechnete Spalten beim Umbau der Tabelle und werden danach zu normalen
+            // Spalten; ein UPDATE über alle Zeilen wäre in H2 um ein Vielfaches langsamer. Die alten Spalten bleiben
+            // bis Version 6 bestehen, damit ein abgebrochener Lauf wiederholt werden kann.
+            new Migration(5, "Geldbeträge als Cent in BIGINT-Spalten speichern",
+                    "ALTER TABLE transactions ADD COLUMN IF NOT EXISTS amount_cents BIGINT GENERATED ALWAYS AS (CAST(ROUND(amount * 100) AS BIGINT))",
+                    "ALTER TABLE transactions ALTER COLUMN amount_cents DROP EXPRESSION",
+                    "ALTER TABLE transactions ALTER COLUMN amount_cents SET NOT NULL",
+                    "ALTER TABLE accounts ADD COLUMN IF NOT EXISTS balance_cents BIGINT GENERATED ALWAYS AS (CAST(ROUND(balance * 100) AS BIGINT))",
+                    "ALTER TABLE accounts ALTER COLUMN balance_cents DROP EXPRESSION",
+                    "ALTER TABLE accounts ALTER COLUMN balance_cents SET NOT NULL",
+                    "ALTER TABLE categories ADD COLUMN IF NOT EXISTS budget_cents BIGINT GENERATED ALWAYS AS (CAST(ROUND(budget * 100) AS BIGINT))",
+                    "ALTER TABLE categories ALTER COLUMN budget_cents DROP EXPRESSION"),
+            new Migration(6, "Gleitkommaspalten der Geldbeträge entfernen",
+                    "ALTER TABLE transactions DROP COLUMN IF EXISTS amount",
+                    "ALTER TABLE accounts DROP COLUMN IF EXISTS balance",
+                    "ALTER TABLE categories DROP COLUMN IF EXISTS budget"),
+            new Migration(7, "Monatssummen je Konto, Kategorie und Typ für Berichte über ganze Monate",
+                    MonthlyRollup.CREATE_TABLE,
+                    MonthlyRollup.CREATE_USER_INDEX,
+                    MonthlyRollup.CREATE_CATEGORY_INDEX,
+                    MonthlyRollup.CLEAR,
+                    MonthlyRollup.POPULATE)
+    );
+
+    private static ConnectionPool connectionPool;
+
+    // Bleibt über Neuanlagen des Pools hinweg erhalten; null, wenn die Messung abgeschaltet ist
+    private static final QueryStatistics QUERY_STATISTICS =
+            Boolean.parseBoolean(System.getProperty("smartfinance.db.queryStats.enabled", "true"))
+                    ? new QueryStatistics(Long.getLong("smartfinance.db.slowQueryMillis", DEFAULT_SLOW_QUERY_MILLIS),
+                            Boolean.getBoolean("smartfinance.db.slowQuery.logBinds"))
+                    : null;
+
+    static {
+        Metrics.gauge("db.pool.active", () -> currentPoolStatistics().active());
+        Metrics.gauge("db.pool.idle", () -> currentPoolStatistics().idle());
+        Metrics.gauge("db.pool.waiting", () -> currentPoolStatistics().waiting());
+        Metrics.gauge("db.pool.averageBorrowMillis", () -> currentPoolStatistics().averageBorrowMillis());
+    }
+
     /**
-     * Stellt eine Verbindung zur Datenbank her und gibt diese zurück.
+     * Leiht eine Verbindung aus dem Verbindungspool aus. Das Schließen der Verbindung gibt sie an den Pool zurück.
      *
      * @return Connection Objekt, das die Verbindung zur Datenbank darstellt.
      * @throws SQLException Wenn ein Fehler bei der Verbindung auftritt.
      */
     public static Connection getConnection() throws SQLException {
         try {
-            return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            return getConnectionPool().borrow();
         } catch (SQLException e) {
             LoggerUtils.logError(DatabaseManager.class.getName(), "Fehler bei der Verbindung zur Datenbank.", e);
             throw e;
         }
     }
 
+    /**
+     * Liefert die aktuellen Statistiken des Verbindungspools.
+     *
+     * @return Momentaufnahme der Poolstatistiken.
+     */
+    public static ConnectionPool.Statistics getPoolStatistics() {
+        return getConnectionPool().getStatistics();
+    }
+
+    /**
+     * Liefert die Laufzeitstatistik aller bisher ausgeführten Anweisungen, absteigend nach Gesamtzeit sortiert.
+     *
+     * @return Statistik je SQL-Text; leer, wenn die Messung abgeschaltet ist.
+     */
+    public static List<QueryStatistics.StatementStatistics> getQueryStatistics() {
+        return QUERY_STATISTICS != null ? QUERY_STATISTICS.snapshot() : List.of();
+    }
+
+    // Statistiken des bestehenden Pools, ohne dafür einen neuen Pool anzulegen
+    private static synchronized ConnectionPool.Statistics currentPoolStatistics() {
+        return connectionPool != null ? connectionPool.getStatistics()
+                : new ConnectionPool.Statistics(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Schließt den Verbindungspool. Ein späterer Aufruf von {@link #getConnection()} erzeugt einen neuen Pool.
+     */
+    public static synchronized void shutdown() {
+        if (connectionPool != null) {
+            LoggerUtils.logInfo(DatabaseManager.class.getName(), "Poolstatistik beim Beenden: {0}", connectionPool.getStatistics());
+            if (QUERY_STATISTICS != null) {
+                LoggerUtils.logInfo(DatabaseManager.class.getName(), () -> "Teuerste Anweisungen:" + System.lineSeparator()
+                        + QUERY_STATISTICS.format(SHUTDOWN_STATISTICS_LIMIT));
+            }
+            connectionPool.close();
+            connectionPool = null;
+        }
+    }
+
+    // Erstellt den Pool beim ersten Zugriff mit der über System-Properties konfigurierten Größe
+    private static synchronized ConnectionPool getConnectionPool() {
+        if (connectionPool == null) {
+            int minSize = Integer.getInteger("smartfinance.db.pool.minSize", DEFAULT_POOL_MIN_SIZE);
+            int maxSize = Integer.getInteger("smartfinance.db.pool.maxSize", DEFAULT_POOL_MAX_SIZE);
+            long idleTimeout = Long.getLong("smartfinance.db.pool.idleTimeoutMillis", DEFAULT_POOL_IDLE_TIMEOUT_MILLIS);
+            long borrowTimeout = Long.getLong("smartfinance.db.pool.borrowTimeoutMillis", DEFAULT_POOL_BORROW_TIMEOUT_MILLIS);
+
+            String url = System.getProperty("smartfinance.db.url", DEFAULT_DB_URL);
+            connectionPool = new ConnectionPool(url, DB_USER, DB_PASSWORD, minSize, maxSize, idleTimeout, borrowTimeout,
+                    QUERY_STATISTICS);
+            LoggerUtils.logInfo(DatabaseManager.class.getName(), "Verbindungspool erstellt (min={0}, max={1}).", minSize, maxSize);
+        }
+        return connectionPool;
+    }
+
     /**
      * Initialisiert die Datenbank, indem alle erforderlichen Tabellen erstellt werden.
      * Diese Methode wird beim Start der Anwendung aufgerufen, um sicherzustellen,
@@ -78,10 +208,85 @@ public class DatabaseManager {
                     + "FOREIGN KEY (category_id) REFERENCES categories(id), "
                     + "FOREIGN KEY (account_id) REFERENCES accounts(id))");
 
+            // Tabelle für die angewendeten Schemaversionen
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version ("
+                    + "version INT PRIMARY KEY, "
+                    + "description VARCHAR(255), "
+                    + "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+
+            applyMigrations(connection);
+
         } catch (SQLException e) {
             LoggerUtils.logError(DatabaseManager.class.getName(), "Fehler bei der Datenbankinitialisierung.", e);
         }
     }
 
+    /**
+     * Liefert die aktuell angewendete Schemaversion.
+     *
+     * @return Die höchste angewendete Migrationsversion oder 0, wenn noch keine Migration angewendet wurde.
+     * @throws SQLException Wenn ein Fehler bei der Abfrage auftritt.
+     */
+    public static int getSchemaVersion() throws SQLException {
+        try (Connection connection = getConnection()) {
+            return readSchemaVersion(connection);
+        }
+    }
+
+    /**
+     * Wendet alle Migrationen an, deren Version größer als die gespeicherte Schemaversion ist.
+     * Jede Migration wird zusammen mit ihrem Eintrag in {@code schema_version} in einer eigenen Transaktion ausgeführt.
+     * Da H2 DDL-Anweisungen sofort festschreibt, sind alle Anweisungen so formuliert, dass eine erneute
+     * Ausführung nach einem Abbruch keinen Fehler verursacht.
+     *
+     * @param connection Die zu verwendende Verbindung.
+     * @throws SQLException Wenn eine Migration fehlschlägt.
+     */
+    private static void applyMigrations(Connection connection) throws SQLException {
+        int currentVersion = readSchemaVersion(connection);
+
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version() <= currentVersion) {
+                continue;
+            }
+
+            connection.setAutoCommit(false);
+            try (Statement stmt = connection.createStatement();
+                 PreparedStatement versionStmt = connection.prepareStatement("INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                for (String sql : migration.statements()) {
+                    stmt.execute(sql);
+                }
+                versionStmt.setInt(1, migration.version());
+                versionStmt.setString(2, migration.description());
+                versionStmt.executeUpdate();
+                connection.commit();
+                LoggerUtils.logInfo(DatabaseManager.class.getName(), "Schemamigration {0} angewendet: {1}", migration.version(), migration.description());
+            } catch (SQLException e) {
+                connection.rollback();
+                LoggerUtils.logError(DatabaseManager.class.getName(), "Fehler bei Schemamigration " + migration.version() + ": " + migration.description(), e);
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static int readSchemaVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Eine versionierte Schemaänderung.
+     *
+     * @param version     Fortlaufende Versionsnummer.
+     * @param description Kurze Beschreibung der Änderung.
+     * @param statements  Die auszuführenden SQL-Anweisungen.
+     */
+    private record Migration(int version, String description, String... statements) {
+    }
+
 
 }
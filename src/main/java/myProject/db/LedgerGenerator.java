@@ -0,0 +1,617 @@
+package myProject.db;
+
+import myProject.util.LoggerUtils;
+import myProject.util.Money;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Erzeugt reproduzierbare, synthetische Haushaltsbücher für Last- und Skalierungstests.
+ * Aus einem Seed entstehen mehrere Benutzer mit Konten, budgetierten Kategorien und mehrjährigen
+ * Transaktionen mit saisonalem Verlauf (Weihnachtsgeschäft, Urlaubszeit, Urlaubs- und Weihnachtsgeld)
+ * und log-normal verteilten Beträgen mit gelegentlichen Ausreißern.
+ * Die Daten werden mit gebündelten Inserts über mehrere Threads direkt in das Schema aus
+ * {@link DatabaseManager#initializeDatabase()} geschrieben; ist die Transaktionstabelle leer, werden die
+ * Sekundärindizes erst nach dem Laden aufgebaut. Die Kontostände werden anschließend berechnet.
+ * Das Ergebnis hängt nur von der Konfiguration ab, nicht von der Anzahl der Threads.
+ */
+public class LedgerGenerator {
+
+    // Anzahl der Transaktionen, die jeweils aus einem eigenen Zufallsstrom erzeugt werden
+    private static final int BLOCK_SIZE = 50_000;
+    private static final double MAX_INCOME_SHARE = 0.3;
+    private static final double OUTLIER_SHARE = 0.01;
+    private static final double MAX_AMOUNT = 50_000;
+    private static final String INCOME_CATEGORY = "Salary";
+    // Auffangkategorie, auf die Löschen von Kategorien und der CSV-Import zurückgreifen
+    private static final String NO_CATEGORY = "No Category";
+
+    // Name, relative Häufigkeit, Median des Betrags, Streuung (Sigma der Log-Normalverteilung), Monatsbudget
+    private static final List<CategoryProfile> PROFILES = List.of(
+            new CategoryProfile("Groceries", 30, 45, 0.6, 600, "Supermarket", "Bakery", "Farmers Market"),
+            new CategoryProfile("Dining", 12, 28, 0.7, 250, "Restaurant", "Cafe", "Delivery"),
+            new CategoryProfile("Transport", 12, 35, 0.8, 200, "Fuel", "Train Ticket", "Parking"),
+            new CategoryProfile("Shopping", 10, 60, 1.0, 300, "Clothing Store", "Online Shop", "Electronics"),
+            new CategoryProfile("Entertainment", 8, 30, 0.9, 150, "Cinema", "Concert", "Streaming"),
+            new CategoryProfile("Subscriptions", 6, 12, 0.4, 60, "Mobile Plan", "Newspaper", "Gym"),
+            new CategoryProfile("Household", 5, 35, 0.8, 120, "Hardware Store", "Drugstore"),
+            new CategoryProfile("Utilities", 4, 90, 0.4, 150, "Electricity", "Heating", "Internet"),
+            new CategoryProfile("Health", 4, 40, 1.0, 120, "Pharmacy", "Doctor"),
+            new CategoryProfile("Travel", 3, 250, 1.1, 500, "Hotel", "Flight", "Car Rental"),
+            new CategoryProfile("Gifts", 3, 40, 0.9, 100, "Gift Shop", "Flowers"),
+            new CategoryProfile("Pets", 3, 25, 0.7, 80, "Pet Store", "Veterinarian"),
+            new CategoryProfile("Insurance", 2, 120, 0.3, 150, "Insurance Premium"),
+            new CategoryProfile("Education", 2, 80, 0.8, 100, "Books", "Course Fee"),
+            new CategoryProfile("Rent", 2, 850, 0.05, 900, "Rent")
+    );
+
+    private static final String INSERT_TRANSACTION = "INSERT INTO transactions "
+            + "(id, amount_cents, date, time, description, category_id, type, account_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final Config config;
+
+    /**
+     * Erstellt einen Generator für die angegebene Konfiguration.
+     *
+     * @param config Umfang und Seed des zu erzeugenden Haushaltsbuchs.
+     */
+    public LedgerGenerator(Config config) {
+        this.config = config;
+    }
+
+    /**
+     * Erzeugt Benutzer, Konten, Kategorien und Transaktionen in der über {@link DatabaseManager} konfigurierten Datenbank.
+     *
+     * @param reset true, um vorher alle vorhandenen Benutzerdaten zu löschen.
+     * @return Zusammenfassung der erzeugten Daten.
+     * @throws SQLException Wenn das Schreiben fehlschlägt.
+     */
+    public Summary generate(boolean reset) throws SQLException {
+        long start = System.nanoTime();
+        DatabaseManager.initializeDatabase();
+        if (reset) {
+            clear();
+        }
+
+        List<GeneratedAccount> accounts = insertMasterData();
+        List<String> suspendedIndexes = suspendIndexes();
+        long transactions;
+        try {
+            transactions = insertTransactions(accounts);
+        } finally {
+            restoreIndexes(suspendedIndexes);
+        }
+        finish();
+
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        Summary summary = new Summary(config.users(), accounts.size(), config.users() * (config.categoriesPerUser() + 2),
+                transactions, durationMillis);
+        LoggerUtils.logInfo(LedgerGenerator.class.getName(), "Haushaltsbuch erzeugt: {0}", summary);
+        return summary;
+    }
+
+    private void clear() throws SQLException {
+        try (Connection connection = DatabaseManager.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("TRUNCATE TABLE transactions");
+            stmt.execute("DELETE FROM accounts");
+            stmt.execute("DELETE FROM categories");
+            stmt.execute("DELETE FROM users");
+        }
+    }
+
+    /**
+     * Entfernt bei leerer Transaktionstabelle die Sekundärindizes, die zu keiner Constraint gehören.
+     * Ein anschließender Neuaufbau ist deutlich schneller als die Pflege der Indizes bei jedem Insert.
+     *
+     * @return Die Anweisungen zum Wiederherstellen der entfernten Indizes.
+     */
+    private List<String> suspendIndexes() throws SQLException {
+        List<String> createStatements = new ArrayList<>();
+        try (Connection connection = DatabaseManager.getConnection();
+             Statement stmt = connection.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM transactions")) {
+                if (!rs.next() || rs.getLong(1) > 0) {
+                    return createStatements;
+                }
+            }
+
+            Map<String, List<String>> columnsByIndex = new LinkedHashMap<>();
+            try (ResultSet rs = stmt.executeQuery("SELECT ic.INDEX_NAME, ic.COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS ic "
+                    + "JOIN INFORMATION_SCHEMA.INDEXES i ON i.INDEX_SCHEMA = ic.INDEX_SCHEMA AND i.INDEX_NAME = ic.INDEX_NAME "
+                    + "WHERE ic.TABLE_NAME = 'TRANSACTIONS' AND i.INDEX_TYPE_NAME = 'INDEX' "
+                    + "AND NOT EXISTS (SELECT 1 FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc WHERE tc.INDEX_NAME = ic.INDEX_NAME) "
+                    + "ORDER BY ic.INDEX_NAME, ic.ORDINAL_POSITION")) {
+                while (rs.next()) {
+                    columnsByIndex.computeIfAbsent(rs.getString(1), name -> new ArrayList<>()).add(rs.getString(2));
+                }
+            }
+
+            for (Map.Entry<String, List<String>> index : columnsByIndex.entrySet()) {
+                createStatements.add("CREATE INDEX IF NOT EXISTS " + index.getKey() + " ON transactions(" + String.join(", ", index.getValue()) + ")");
+                stmt.execute("DROP INDEX " + index.getKey());
+            }
+        }
+        return createStatements;
+    }
+
+    private void restoreIndexes(List<String> createStatements) throws SQLException {
+        if (createStatements.isEmpty()) {
+            return;
+        }
+        LoggerUtils.logInfo(LedgerGenerator.class.getName(), "Baue {0} Indizes neu auf.", createStatements.size());
+        try (Connection connection = DatabaseManager.getConnection();
+             Statement stmt = connection.createStatement()) {
+            for (String sql : createStatements) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    // Benutzer, Konten und Kategorien stammen aus dem Hauptstrom des Seeds
+    private List<GeneratedAccount> insertMasterData() throws SQLException {
+        Random random = new Random(config.seed());
+        List<GeneratedAccount> accounts = new ArrayList<>();
+
+        try (Connection connection = DatabaseManager.getConnection();
+             PreparedStatement userStmt = connection.prepareStatement("INSERT INTO users (id, username, password) VALUES (?, ?, ?)");
+             PreparedStatement accountStmt = connection.prepareStatement("INSERT INTO accounts (id, user_id, name, balance_cents) VALUES (?, ?, ?, 0)");
+             PreparedStatement categoryStmt = connection.prepareStatement("INSERT INTO categories (id, name, budget_cents, user_id) VALUES (?, ?, ?, ?)")) {
+            connection.setAutoCommit(false);
+            try {
+                for (int u = 0; u < config.users(); u++) {
+                    String userId = randomId(random);
+                    userStmt.setString(1, userId);
+                    userStmt.setString(2, "user" + (u + 1));
+                    userStmt.setString(3, "password");
+                    userStmt.addBatch();
+
+                    String[] categoryIds = new String[config.categoriesPerUser()];
+                    for (int c = 0; c < categoryIds.length; c++) {
+                        CategoryProfile profile = PROFILES.get(c % PROFILES.size());
+                        int round = c / PROFILES.size();
+                        categoryIds[c] = randomId(random);
+                        categoryStmt.setString(1, categoryIds[c]);
+                        categoryStmt.setString(2, round == 0 ? profile.name() : profile.name() + " " + (round + 1));
+                        categoryStmt.setLong(3, toCents(profile.budget()));
+                        categoryStmt.setString(4, userId);
+                        categoryStmt.addBatch();
+                    }
+                    String incomeCategoryId = randomId(random);
+                    categoryStmt.setString(1, incomeCategoryId);
+                    categoryStmt.setString(2, INCOME_CATEGORY);
+                    categoryStmt.setNull(3, java.sql.Types.DOUBLE);
+                    categoryStmt.setString(4, userId);
+                    categoryStmt.addBatch();
+                    // Die ID wird aus dem Benutzer abgeleitet, damit ein Seed weiterhin dieselben Daten liefert
+                    categoryStmt.setString(1, UUID.nameUUIDFromBytes((NO_CATEGORY + ":" + userId).getBytes(StandardCharsets.UTF_8)).toString());
+                    categoryStmt.setString(2, NO_CATEGORY);
+                    categoryStmt.setNull(3, java.sql.Types.DOUBLE);
+                    categoryStmt.setString(4, userId);
+                    categoryStmt.addBatch();
+
+                    // Jeder Benutzer verdient 0 bis 30 % mehr, als er im Mittel ausgibt
+                    double salary = salaryPerIncome() * (1.0 + random.nextDouble() * 0.3);
+                    for (int a = 0; a < config.accountsPerUser(); a++) {
+                        String accountId = randomId(random);
+                        accountStmt.setString(1, accountId);
+                        accountStmt.setString(2, userId);
+                        accountStmt.setString(3, a == 0 ? "Checking" : "Account " + (a + 1));
+                        accountStmt.addBatch();
+                        accounts.add(new GeneratedAccount(accountId, categoryIds, incomeCategoryId, salary));
+                    }
+                }
+                userStmt.executeBatch();
+                accountStmt.executeBatch();
+                categoryStmt.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+        return accounts;
+    }
+
+    // Verteilt die Blöcke auf die Threads; jeder Block hat einen eigenen, aus Seed und Blocknummer abgeleiteten Zufallsstrom
+    private long insertTransactions(List<GeneratedAccount> accounts) throws SQLException {
+        long blocks = (config.transactions() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        AtomicLong inserted = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(config.threads());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long block = 0; block < blocks; block++) {
+                long first = block * BLOCK_SIZE;
+                int count = (int) Math.min(BLOCK_SIZE, config.transactions() - first);
+                long blockIndex = block;
+                futures.add(executor.submit(() -> {
+                    insertBlock(accounts, blockIndex, count);
+                    logProgress(inserted.addAndGet(count), count);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new IllegalStateException("Fehler beim Erzeugen der Transaktionen.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Erzeugen der Transaktionen wurde unterbrochen.", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return inserted.get();
+    }
+
+    private void insertBlock(List<GeneratedAccount> accounts, long blockIndex, int count) throws SQLException {
+        SplittableRandom random = new SplittableRandom(config.seed() * 0x9E3779B97F4A7C15L + blockIndex);
+        long days = ChronoUnit.DAYS.between(config.startDate(), config.endDate()) + 1;
+
+        try (Connection connection = DatabaseManager.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(INSERT_TRANSACTION)) {
+            connection.setAutoCommit(false);
+            try {
+                for (int i = 0; i < count; i++) {
+                    GeneratedAccount account = accounts.get(random.nextInt(accounts.size()));
+                    if (random.nextDouble() < incomeShare()) {
+                        bindIncome(stmt, random, account, days);
+                    } else {
+                        bindExpense(stmt, random, account, days);
+                    }
+                    stmt.setString(1, new UUID(random.nextLong(), random.nextLong()).toString());
+                    stmt.setTime(4, Time.valueOf(LocalTime.ofSecondOfDay(7 * 3600 + random.nextInt(15 * 3600))));
+                    stmt.setString(8, account.id());
+                    stmt.addBatch();
+                    if ((i + 1) % config.batchSize() == 0) {
+                        stmt.executeBatch();
+                        connection.commit();
+                    }
+                }
+                stmt.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    // Gehalt Anfang des Monats; im Juni und November kommen Urlaubs- bzw. Weihnachtsgeld hinzu
+    private void bindIncome(PreparedStatement stmt, SplittableRandom random, GeneratedAccount account, long days) throws SQLException {
+        LocalDate date = config.startDate().plusDays(random.nextLong(days)).withDayOfMonth(1 + random.nextInt(3));
+        if (date.isBefore(config.startDate())) {
+            date = config.startDate();
+        } else if (date.isAfter(config.endDate())) {
+            date = config.endDate();
+        }
+        double factor = date.getMonthValue() == 6 || date.getMonthValue() == 11 ? 2.0 : 1.0;
+        double amount = account.salary() * factor * Math.exp(0.05 * random.nextGaussian());
+
+        stmt.setLong(2, toCents(amount));
+        stmt.setDate(3, Date.valueOf(date));
+        stmt.setString(5, factor > 1 ? "Salary incl. bonus" : "Salary");
+        stmt.setString(6, account.incomeCategoryId());
+        stmt.setString(7, "income");
+    }
+
+    private void bindExpense(PreparedStatement stmt, SplittableRandom random, GeneratedAccount account, long days) throws SQLException {
+        int categoryIndex = pickCategory(random, account.categoryIds().length);
+        CategoryProfile profile = PROFILES.get(categoryIndex % PROFILES.size());
+
+        // Log-normal verteilter Betrag; ein kleiner Anteil erhält einen Pareto-verteilten Aufschlag
+        double amount = profile.median() * Math.exp(profile.sigma() * random.nextGaussian());
+        if (random.nextDouble() < OUTLIER_SHARE) {
+            amount *= Math.pow(1 - random.nextDouble(), -1 / 1.5);
+        }
+
+        stmt.setLong(2, -toCents(Math.min(amount, MAX_AMOUNT)));
+        stmt.setDate(3, Date.valueOf(seasonalDate(random, days)));
+        stmt.setString(5, profile.merchants()[random.nextInt(profile.merchants().length)]);
+        stmt.setString(6, account.categoryIds()[categoryIndex]);
+        stmt.setString(7, "expense");
+    }
+
+    // Etwa eine Gehaltsbuchung je Konto und Monat, höchstens aber 30 % aller Transaktionen
+    private double incomeShare() {
+        long months = 12L * config.years();
+        long accounts = (long) config.users() * config.accountsPerUser();
+        return config.transactions() == 0 ? 0 : Math.min(MAX_INCOME_SHARE, (double) accounts * months / config.transactions());
+    }
+
+    // Gehalt je Buchung, sodass die Einnahmen über das Jahr (inkl. zweier doppelter Monate) den mittleren Ausgaben entsprechen
+    private double salaryPerIncome() {
+        double weightSum = 0;
+        double meanExpense = 0;
+        for (int c = 0; c < config.categoriesPerUser(); c++) {
+            CategoryProfile profile = PROFILES.get(c % PROFILES.size());
+            weightSum += profile.weight();
+            meanExpense += profile.weight() * profile.median() * Math.exp(profile.sigma() * profile.sigma() / 2);
+        }
+        meanExpense /= weightSum;
+
+        double share = incomeShare();
+        return share == 0 ? 0 : meanExpense * (1 - share) / share * 12 / 14;
+    }
+
+    // Wählt eine Kategorie gewichtet nach der Häufigkeit ihres Profils
+    private static int pickCategory(SplittableRandom random, int categories) {
+        double total = 0;
+        for (int c = 0; c < categories; c++) {
+            total += PROFILES.get(c % PROFILES.size()).weight();
+        }
+        double target = random.nextDouble() * total;
+        for (int c = 0; c < categories; c++) {
+            target -= PROFILES.get(c % PROFILES.size()).weight();
+            if (target < 0) {
+                return c;
+            }
+        }
+        return categories - 1;
+    }
+
+    // Verwerfungsmethode: mehr Ausgaben im Dezember, in der Urlaubszeit und am Wochenende, weniger im Jänner und Februar
+    private LocalDate seasonalDate(SplittableRandom random, long days) {
+        while (true) {
+            LocalDate date = config.startDate().plusDays(random.nextLong(days));
+            double weight = switch (date.getMonthValue()) {
+                case 12 -> 1.5;
+                case 11, 7, 8 -> 1.2;
+                case 1, 2 -> 0.85;
+                default -> 1.0;
+            };
+            if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                weight *= 1.2;
+            }
+            if (random.nextDouble() * 1.8 < weight) {
+                return date;
+            }
+        }
+    }
+
+    private void logProgress(long inserted, int count) {
+        long step = Math.max(config.transactions() / 10, 1);
+        if (inserted / step != (inserted - count) / step || inserted == config.transactions()) {
+            LoggerUtils.logInfo(LedgerGenerator.class.getName(), "Transaktionen erzeugt: {0} / {1}", inserted, config.transactions());
+        }
+    }
+
+    // Kontostände und Monatssummen aus den Transaktionen berechnen und Statistiken für den Optimierer aktualisieren
+    private void finish() throws SQLException {
+        try (Connection connection = DatabaseManager.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("UPDATE accounts a SET balance_cents = COALESCE((SELECT SUM(t.amount_cents) FROM transactions t WHERE t.account_id = a.id), 0)");
+            MonthlyRollup.rebuild(connection);
+            stmt.execute("ANALYZE");
+        }
+    }
+
+    private static String randomId(Random random) {
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+
+    // Rundet wie bisher auf ganze Cent, sodass ein Seed dieselben Beträge wie vor der Umstellung auf Cent liefert
+    private static long toCents(double amount) {
+        return Math.round(amount * Money.CENTS_PER_UNIT);
+    }
+
+    /**
+     * Kommandozeilen-Einstieg ohne Oberfläche, z. B. für große Datenbanken zum Profiling:
+     * <pre>
+     * mvn -B compile exec:java -Dexec.mainClass=myProject.db.LedgerGenerator \
+     *     -Dexec.args="--url jdbc:h2:./target/ledger --transactions 10000000 --reset"
+     * </pre>
+     *
+     * @param args Optionen, siehe {@code --help}.
+     */
+    public static void main(String[] args) {
+        Config config = Config.defaults();
+        String url = null;
+        boolean reset = false;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                switch (option) {
+                    case "--help" -> {
+                        printUsage();
+                        return;
+                    }
+                    case "--reset" -> reset = true;
+                    case "--url" -> url = value(args, ++i, option);
+                    case "--seed" -> config = config.withSeed(Long.parseLong(value(args, ++i, option)));
+                    case "--users" -> config = config.withUsers(Integer.parseInt(value(args, ++i, option)));
+                    case "--accounts" -> config = config.withAccountsPerUser(Integer.parseInt(value(args, ++i, option)));
+                    case "--categories" -> config = config.withCategoriesPerUser(Integer.parseInt(value(args, ++i, option)));
+                    case "--transactions" -> config = config.withTransactions(Long.parseLong(value(args, ++i, option)));
+                    case "--years" -> config = config.withYears(Integer.parseInt(value(args, ++i, option)));
+                    case "--end-date" -> config = config.withEndDate(LocalDate.parse(value(args, ++i, option)));
+                    case "--threads" -> config = config.withThreads(Integer.parseInt(value(args, ++i, option)));
+                    case "--batch-size" -> config = config.withBatchSize(Integer.parseInt(value(args, ++i, option)));
+                    default -> throw new IllegalArgumentException("Unbekannte Option: " + option);
+                }
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+
+        if (url != null) {
+            System.setProperty("smartfinance.db.url", url);
+        }
+        // Jeder Thread hält während seines Blocks eine Verbindung
+        if (System.getProperty("smartfinance.db.pool.maxSize") == null) {
+            System.setProperty("smartfinance.db.pool.maxSize", String.valueOf(Math.max(config.threads() + 1, 10)));
+        }
+
+        try {
+            Summary summary = new LedgerGenerator(config).generate(reset);
+            System.out.printf("%d Benutzer, %d Konten, %d Kategorien, %d Transaktionen in %.1f s (%.0f Zeilen/s)%n",
+                    summary.users(), summary.accounts(), summary.categories(), summary.transactions(),
+                    summary.durationMillis() / 1000.0, summary.rowsPerSecond());
+        } catch (SQLException e) {
+            LoggerUtils.logError(LedgerGenerator.class.getName(), "Fehler beim Erzeugen des Haushaltsbuchs.", e);
+            System.exit(1);
+        } finally {
+            DatabaseManager.shutdown();
+        }
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Fehlender Wert für " + option);
+        }
+        return args[index];
+    }
+
+    private static void printUsage() {
+        Config defaults = Config.defaults();
+        System.err.println("Optionen (Standardwerte in Klammern):");
+        System.err.println("  --url <jdbc-url>         Zieldatenbank (smartfinance.db.url bzw. ./db)");
+        System.err.println("  --reset                  vorhandene Benutzerdaten vorher löschen");
+        System.err.println("  --seed <n>               Seed (" + defaults.seed() + ")");
+        System.err.println("  --users <n>              Benutzer (" + defaults.users() + ")");
+        System.err.println("  --accounts <n>           Konten je Benutzer (" + defaults.accountsPerUser() + ")");
+        System.err.println("  --categories <n>         Ausgabenkategorien je Benutzer (" + defaults.categoriesPerUser() + ")");
+        System.err.println("  --transactions <n>       Transaktionen insgesamt (" + defaults.transactions() + ")");
+        System.err.println("  --years <n>              Zeitraum in Jahren (" + defaults.years() + ")");
+        System.err.println("  --end-date <yyyy-mm-dd>  letzter Tag des Zeitraums (heute)");
+        System.err.println("  --threads <n>            Schreib-Threads (" + defaults.threads() + ")");
+        System.err.println("  --batch-size <n>         Zeilen je Batch (" + defaults.batchSize() + ")");
+    }
+
+    /**
+     * Umfang und Seed eines zu erzeugenden Haushaltsbuchs. Gleiche Konfigurationen ergeben gleiche Daten.
+     *
+     * @param seed              Seed für alle Zufallsströme.
+     * @param users             Anzahl der Benutzer ({@code user1}, {@code user2}, ... mit Passwort {@code password}).
+     * @param accountsPerUser   Konten je Benutzer.
+     * @param categoriesPerUser Budgetierte Ausgabenkategorien je Benutzer; zusätzlich werden die Kategorien "Salary" und "No Category" angelegt.
+     * @param transactions      Anzahl der Transaktionen über alle Benutzer.
+     * @param years             Länge des Zeitraums in Jahren.
+     * @param endDate           Letzter Tag des Zeitraums.
+     * @param threads           Anzahl der Schreib-Threads; der Verbindungspool sollte mindestens so groß sein.
+     * @param batchSize         Zeilen je JDBC-Batch und Commit.
+     */
+    public record Config(long seed, int users, int accountsPerUser, int categoriesPerUser, long transactions,
+                         int years, LocalDate endDate, int threads, int batchSize) {
+
+        public Config {
+            if (users < 1 || accountsPerUser < 1 || categoriesPerUser < 1) {
+                throw new IllegalArgumentException("Benutzer, Konten und Kategorien müssen mindestens 1 sein.");
+            }
+            if (transactions < 0 || years < 1 || threads < 1 || batchSize < 1) {
+                throw new IllegalArgumentException("Ungültiger Umfang für das Haushaltsbuch.");
+            }
+        }
+
+        /**
+         * @return Standardkonfiguration: 5 Benutzer, je 3 Konten und 15 Kategorien, 100.000 Transaktionen über 3 Jahre bis heute.
+         */
+        public static Config defaults() {
+            return new Config(42, 5, 3, PROFILES.size(), 100_000, 3, LocalDate.now(),
+                    Math.min(4, Runtime.getRuntime().availableProcessors()), 5_000);
+        }
+
+        /**
+         * @return Erster Tag des Zeitraums.
+         */
+        public LocalDate startDate() {
+            return endDate.minusYears(years).plusDays(1);
+        }
+
+        public Config withSeed(long seed) {
+            return new Config(seed, users, accountsPerUser, categoriesPerUser, transactions, years, endDate, threads, batchSize);
+        }
+
+        public Config withUsers(int users) {
+            return new Config(seed, users, accountsPerUser, categoriesPerUser, transactions, years, endDate, threads, batchSize);
+        }
+
+        public Config withAccountsPerUser(int accountsPerUser) {
+            return new Config(seed, users, accountsPerUser, categoriesPerUser, transactions, years, endDate, threads, batchSize);
+        }
+
+        public Config withCategoriesPerUser(int categoriesPerUser) {
+            return new Config(seed, users, accountsPerUser, categoriesPerUser, transactions, years, endDate, threads, batchSize);
+        }
+
+        public Config withTransactions(long transactions) {
+            return new Config(seed, users, accountsPerUser, categoriesPerUser, transactions, years, endDate, threads, batchSize);
+        }
+
+        public Config withYears(int years) {
+            return new Config(seed, users, accountsPerUser, categoriesPerUser, transactions, years, endDate, threads, batchSize);
+        }
+
+        public Config withEndDate(LocalDate endDate) {
+            return new Config(seed, users, accountsPerUser, categoriesPerUser, transactions, years, endDate, threads, batchSize);
+        }
+
+        public Config withThreads(int threads) {
+            return new Config(seed, users, accountsPerUser, categoriesPerUser, transactions, years, endDate, threads, batchSize);
+        }
+
+        public Config withBatchSize(int batchSize) {
+            return new Config(seed, users, accountsPerUser, categoriesPerUser, transactions, years, endDate, threads, batchSize);
+        }
+    }
+
+    /**
+     * Zusammenfassung eines Generatorlaufs.
+     *
+     * @param users          Erzeugte Benutzer.
+     * @param accounts       Erzeugte Konten.
+     * @param categories     Erzeugte Kategorien einschließlich der Einnahmenkategorien.
+     * @param transactions   Erzeugte Transaktionen.
+     * @param durationMillis Gesamtdauer in Millisekunden.
+     */
+    public record Summary(int users, int accounts, int categories, long transactions, long durationMillis) {
+
+        /**
+         * @return Geschriebene Transaktionen pro Sekunde.
+         */
+        public double rowsPerSecond() {
+            return durationMillis == 0 ? transactions : transactions * 1000.0 / durationMillis;
+        }
+    }
+
+    private record CategoryProfile(String name, double weight, double median, double sigma, double budget, String... merchants) {
+    }
+
+    private record GeneratedAccount(String id, String[] categoryIds, String incomeCategoryId, double salary) {
+    }
+}
@@ -0,0 +1,274 @@
+package myProject.db;
+
+import myProject.util.LoggerUtils;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Pflegt die Tabelle {@code monthly_rollup} mit den Monatssummen aller Transaktionen je Benutzer, Konto,
+ * Kategorie, Monat und Typ. Berichte über ganze Monate lesen diese Summen statt der einzelnen Transaktionen.
+ * <p>
+ * Die Repositories schreiben die Tabelle in derselben Datenbanktransaktion fort, in der sie Transaktionen
+ * einfügen, ändern, löschen oder umhängen. Fehlende Werte werden als Leerstring abgelegt, da sie Teil des
+ * Primärschlüssels sind: {@code category_id = ''} steht für Transaktionen ohne Kategorie, {@code type = ''}
+ * für Transaktionen ohne Typ. Der Typ wird in Kleinbuchstaben gespeichert, Startguthaben werden über
+ * {@code initial_balance} getrennt gezählt. Zeilen, deren Anzahl auf 0 fällt, werden entfernt.
+ */
+public final class MonthlyRollup {
+
+    static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS monthly_rollup ("
+            + "user_id VARCHAR(255) NOT NULL, "
+            + "account_id VARCHAR(255) NOT NULL, "
+            + "category_id VARCHAR(255) NOT NULL, "
+            + "month_start DATE NOT NULL, "
+            + "type VARCHAR(255) NOT NULL, "
+            + "initial_balance BOOLEAN NOT NULL, "
+            + "total_cents BIGINT NOT NULL, "
+            + "abs_cents BIGINT NOT NULL, "
+            + "row_count BIGINT NOT NULL, "
+            + "PRIMARY KEY (account_id, category_id, month_start, type, initial_balance))";
+
+    static final String CREATE_USER_INDEX = "CREATE INDEX IF NOT EXISTS idx_monthly_rollup_user_month ON monthly_rollup(user_id, month_start)";
+    static final String CREATE_CATEGORY_INDEX = "CREATE INDEX IF NOT EXISTS idx_monthly_rollup_category_month ON monthly_rollup(category_id, month_start)";
+
+    static final String CLEAR = "DELETE FROM monthly_rollup";
+
+    // Baut alle Summen aus den Transaktionen neu auf; Transaktionen ohne Konto fließen in keinen Bericht ein
+    static final String POPULATE = "INSERT INTO monthly_rollup "
+            + "(user_id, account_id, category_id, month_start, type, initial_balance, total_cents, abs_cents, row_count) "
+            + "SELECT a.user_id, t.account_id, COALESCE(t.category_id, ''), DATEADD(DAY, 1 - DAY(t.date), t.date), "
+            + "COALESCE(LOWER(t.type), ''), COALESCE(LOWER(t.description) = 'initial balance', FALSE), "
+            + "SUM(t.amount_cents), SUM(ABS(t.amount_cents)), COUNT(*) "
+            + "FROM transactions t JOIN accounts a ON a.id = t.account_id "
+            + "GROUP BY a.user_id, t.account_id, COALESCE(t.category_id, ''), DATEADD(DAY, 1 - DAY(t.date), t.date), "
+            + "COALESCE(LOWER(t.type), ''), COALESCE(LOWER(t.description) = 'initial balance', FALSE)";
+
+    // Addiert eine Differenz auf eine Summenzeile; der Benutzer wird über das Konto ermittelt
+    private static final String MERGE_DELTA = "MERGE INTO monthly_rollup r USING (SELECT a.user_id, a.id AS account_id, "
+            + "CAST(? AS VARCHAR(255)) AS category_id, CAST(? AS DATE) AS month_start, CAST(? AS VARCHAR(255)) AS type, "
+            + "CAST(? AS BOOLEAN) AS initial_balance, CAST(? AS BIGINT) AS total_cents, CAST(? AS BIGINT) AS abs_cents, "
+            + "CAST(? AS BIGINT) AS row_count FROM accounts a WHERE a.id = ?) d "
+            + "ON r.account_id = d.account_id AND r.category_id = d.category_id AND r.month_start = d.month_start "
+            + "AND r.type = d.type AND r.initial_balance = d.initial_balance "
+            + "WHEN MATCHED AND r.row_count + d.row_count = 0 THEN DELETE "
+            + "WHEN MATCHED THEN UPDATE SET total_cents = r.total_cents + d.total_cents, abs_cents = r.abs_cents + d.abs_cents, "
+            + "row_count = r.row_count + d.row_count "
+            + "WHEN NOT MATCHED THEN INSERT (user_id, account_id, category_id, month_start, type, initial_balance, total_cents, abs_cents, row_count) "
+            + "VALUES (d.user_id, d.account_id, d.category_id, d.month_start, d.type, d.initial_balance, d.total_cents, d.abs_cents, d.row_count)";
+
+    // Addiert die Summen einer Kategorie auf die Ersatzkategorie desselben Kontos
+    private static final String MERGE_CATEGORY = "MERGE INTO monthly_rollup r USING (SELECT user_id, account_id, "
+            + "CAST(? AS VARCHAR(255)) AS category_id, month_start, type, initial_balance, total_cents, abs_cents, row_count "
+            + "FROM monthly_rollup WHERE category_id = ? AND user_id = ?) d "
+            + "ON r.account_id = d.account_id AND r.category_id = d.category_id AND r.month_start = d.month_start "
+            + "AND r.type = d.type AND r.initial_balance = d.initial_balance "
+            + "WHEN MATCHED THEN UPDATE SET total_cents = r.total_cents + d.total_cents, abs_cents = r.abs_cents + d.abs_cents, "
+            + "row_count = r.row_count + d.row_count "
+            + "WHEN NOT MATCHED THEN INSERT (user_id, account_id, category_id, month_start, type, initial_balance, total_cents, abs_cents, row_count) "
+            + "VALUES (d.user_id, d.account_id, d.category_id, d.month_start, d.type, d.initial_balance, d.total_cents, d.abs_cents, d.row_count)";
+
+    private static final String DELETE_CATEGORY = "DELETE FROM monthly_rollup WHERE category_id = ? AND user_id = ?";
+    private static final String DELETE_ACCOUNT = "DELETE FROM monthly_rollup WHERE account_id = ?";
+
+    private MonthlyRollup() {
+    }
+
+    /**
+     * Baut die Monatssummen in einer Datenbanktransaktion vollständig aus den Transaktionen neu auf,
+     * z. B. nach einem direkten Import in die Datenbank oder zur Prüfung.
+     *
+     * @return Die Anzahl der Summenzeilen.
+     * @throws SQLException Wenn ein Datenbankfehler auftritt; die bisherigen Summen bleiben dann erhalten.
+     */
+    public static int rebuild() throws SQLException {
+        try (Connection connection = DatabaseManager.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                int rows = rebuild(connection);
+                connection.commit();
+                LoggerUtils.logInfo(MonthlyRollup.class.getName(), "Monatssummen neu aufgebaut: {0} Zeilen", rows);
+                return rows;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            LoggerUtils.logError(MonthlyRollup.class.getName(), "Fehler beim Neuaufbau der Monatssummen", e);
+            throw e;
+        }
+    }
+
+    static int rebuild(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate(CLEAR);
+            return stmt.executeUpdate(POPULATE);
+        }
+    }
+
+    /**
+     * Hängt die Summen aller Konten eines Benutzers von einer Kategorie an eine andere,
+     * passend zu {@code UPDATE transactions SET category_id = ...}.
+     *
+     * @param connection            Die Verbindung der laufenden Datenbanktransaktion.
+     * @param userId                Die ID des Benutzers.
+     * @param categoryId            Die ID der bisherigen Kategorie.
+     * @param replacementCategoryId Die ID der neuen Kategorie.
+     * @throws SQLException Wenn ein Datenbankfehler auftritt.
+     */
+    public static void moveCategory(Connection connection, String userId, String categoryId, String replacementCategoryId) throws SQLException {
+        try (PreparedStatement merge = connection.prepareStatement(MERGE_CATEGORY);
+             PreparedStatement delete = connection.prepareStatement(DELETE_CATEGORY)) {
+            merge.setString(1, categoryKey(replacementCategoryId));
+            merge.setString(2, categoryKey(categoryId));
+            merge.setString(3, userId);
+            merge.executeUpdate();
+            delete.setString(1, categoryKey(categoryId));
+            delete.setString(2, userId);
+            delete.executeUpdate();
+        }
+    }
+
+    /**
+     * Entfernt alle Summen eines Kontos, passend zum Löschen seiner Transaktionen oder des Kontos selbst.
+     *
+     * @param connection Die Verbindung der laufenden Datenbanktransaktion.
+     * @param accountId  Die ID des Kontos.
+     * @throws SQLException Wenn ein Datenbankfehler auftritt.
+     */
+    public static void deleteAccount(Connection connection, String accountId) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(DELETE_ACCOUNT)) {
+            pstmt.setString(1, accountId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static String categoryKey(String categoryId) {
+        return categoryId != null ? categoryId : "";
+    }
+
+    /**
+     * Sammelt die Änderungen mehrerer Transaktionen je Summenzeile, damit ein Block von Transaktionen
+     * mit einer Anweisung pro betroffener Zeile fortgeschrieben wird.
+     */
+    public static final class Deltas {
+
+        // Je Schlüssel: Summe, Summe der Absolutwerte und Anzahl
+        private final Map<Key, long[]> deltas = new HashMap<>();
+
+        /**
+         * Zählt eine eingefügte Transaktion hinzu.
+         */
+        public void add(String accountId, String categoryId, LocalDate date, String type, String description, long amountCents) {
+            apply(accountId, categoryId, date, type, description, amountCents, 1);
+        }
+
+        /**
+         * Zieht eine gelöschte oder überschriebene Transaktion ab.
+         */
+        public void subtract(String accountId, String categoryId, LocalDate date, String type, String description, long amountCents) {
+            apply(accountId, categoryId, date, type, description, amountCents, -1);
+        }
+
+        /**
+         * @return true, wenn keine Änderung gesammelt wurde.
+         */
+        public boolean isEmpty() {
+            return deltas.isEmpty();
+        }
+
+        /**
+         * Schreibt die gesammelten Änderungen per JDBC-Batch fort. Die Transaktion steuert der Aufrufer.
+         *
+         * @param connection Die Verbindung der laufenden Datenbanktransaktion.
+         * @throws SQLException Wenn ein Datenbankfehler auftritt.
+         */
+        public void writeTo(Connection connection) throws SQLException {
+            if (deltas.isEmpty()) {
+                return;
+            }
+            try (PreparedStatement pstmt = connection.prepareStatement(MERGE_DELTA)) {
+                for (Map.Entry<Key, long[]> entry : deltas.entrySet()) {
+                    Key key = entry.getKey();
+                    long[] delta = entry.getValue();
+                    if (delta[0] == 0 && delta[1] == 0 && delta[2] == 0) {
+                        continue;
+                    }
+                    pstmt.setString(1, key.categoryId());
+                    pstmt.setDate(2, Date.valueOf(key.monthStart()));
+                    pstmt.setString(3, key.type());
+                    pstmt.setBoolean(4, key.initialBalance());
+                    pstmt.setLong(5, delta[0]);
+                    pstmt.setLong(6, delta[1]);
+                    pstmt.setLong(7, delta[2]);
+                    pstmt.setString(8, key.accountId());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+        }
+
+        private void apply(String accountId, String categoryId, LocalDate date, String type, String description, long amountCents, int sign) {
+            // Transaktionen ohne Konto fließen in keinen Bericht ein
+            if (accountId == null) {
+                return;
+            }
+            Key key = new Key(accountId, categoryKey(categoryId), date.withDayOfMonth(1),
+                    type != null ? type.toLowerCase(Locale.ROOT) : "", "initial balance".equalsIgnoreCase(description));
+            long[] delta = deltas.computeIfAbsent(key, k -> new long[3]);
+            delta[0] += sign * amountCents;
+            delta[1] += sign * Math.abs(amountCents);
+            delta[2] += sign;
+        }
+
+        private record Key(String accountId, String categoryId, LocalDate monthStart, String type, boolean initialBalance) {
+        }
+    }
+
+    /**
+     * Kommandozeilen-Einstieg zum Neuaufbau der Monatssummen:
+     * <pre>
+     * mvn -B compile exec:java -Dexec.mainClass=myProject.db.MonthlyRollup \
+     *     -Dexec.args="--url jdbc:h2:./target/ledger"
+     * </pre>
+     * Ohne {@code --url} wird die Standarddatenbank der Anwendung verwendet.
+     *
+     * @param args Optional {@code --url <jdbc-url>}.
+     */
+    public static void main(String[] args) {
+        if (args.length == 2 && args[0].equals("--url")) {
+            System.setProperty("smartfinance.db.url", args[1]);
+        } else if (args.length != 0) {
+            System.err.println("Verwendung: MonthlyRollup [--url <jdbc-url>]");
+            System.exit(2);
+            return;
+        }
+
+        try {
+            DatabaseManager.initializeDatabase();
+            long start = System.nanoTime();
+            int rows = rebuild();
+            System.out.println("Monatssummen neu aufgebaut: " + rows + " Zeilen in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            try (Connection connection = DatabaseManager.getConnection();
+                 Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COALESCE(SUM(row_count), 0) FROM monthly_rollup")) {
+                rs.next();
+                System.out.println("Erfasste Transaktionen: " + rs.getLong(1));
+            }
+        } catch (SQLException e) {
+            System.err.println("Neuaufbau fehlgeschlagen: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            DatabaseManager.shutdown();
+            LoggerUtils.flush(2000);
+        }
+    }
+}
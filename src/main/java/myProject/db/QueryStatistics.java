@@ -0,0 +1,287 @@
+package myProject.db;
+
+import myProject.metrics.Counter;
+import myProject.metrics.Metrics;
+import myProject.util.LoggerUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Sammelt Laufzeitstatistiken je SQL-Anweisung (Aufrufe, Gesamt- und Maximalzeit, gelieferte Zeilen).
+ * Gemessen wird die Ausführung selbst und die Zeit, die beim Durchlaufen des {@link ResultSet} vergeht.
+ * <p>
+ * Anweisungen, die länger als der Schwellwert ({@code smartfinance.db.slowQueryMillis}) laufen, werden
+ * zusammen mit den Bind-Parametern, dem aufrufenden Code und dem von H2 per {@code EXPLAIN} ermittelten Plan protokolliert.
+ * Von den Bind-Parametern werden nur Typ und Länge ausgegeben; die Werte selbst erst nach ausdrücklicher Freigabe
+ * ({@code smartfinance.db.slowQuery.logBinds}) und für Anweisungen auf der Tabelle {@code users} nie, weil dort
+ * Passwörter gebunden werden.
+ * Die Tabelle ist per JMX unter {@code myProject:type=QueryStatistics} abrufbar.
+ */
+public final class QueryStatistics {
+
+    // Klassen der Messung selbst, die bei der Suche nach dem Aufrufer übersprungen werden
+    private static final List<String> INTERNAL_CLASSES = List.of(
+            QueryStatistics.class.getName(), StatementTracer.class.getName(), ConnectionPool.class.getName());
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    // Anweisungen auf diesen Tabellen binden Zugangsdaten; ihre Bind-Werte werden nie protokolliert
+    private static final Pattern SENSITIVE_TABLES = Pattern.compile("\\busers\\b", Pattern.CASE_INSENSITIVE);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter slowQueries = Metrics.counter("db.slowQueries");
+    private final boolean logBindValues;
+    private volatile long slowQueryNanos;
+
+    /**
+     * Erstellt eine leere Statistik und registriert sie bei JMX.
+     *
+     * @param slowQueryMillis Schwellwert in Millisekunden, ab dem eine Anweisung als langsam protokolliert wird.
+     * @param logBindValues   Ob langsame Anweisungen mit ihren Bind-Werten statt nur mit deren Typen protokolliert werden.
+     */
+    public QueryStatistics(long slowQueryMillis, boolean logBindValues) {
+        this.logBindValues = logBindValues;
+        setSlowQueryMillis(slowQueryMillis);
+        Metrics.register("QueryStatistics", new Control());
+    }
+
+    /**
+     * @return Schwellwert für langsame Anweisungen in Millisekunden.
+     */
+    public long getSlowQueryMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowQueryNanos);
+    }
+
+    /**
+     * Ändert den Schwellwert für langsame Anweisungen.
+     *
+     * @param slowQueryMillis Schwellwert in Millisekunden.
+     */
+    public void setSlowQueryMillis(long slowQueryMillis) {
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+    }
+
+    /**
+     * Liefert die Statistiken aller bisher ausgeführten Anweisungen, absteigend nach Gesamtzeit sortiert.
+     *
+     * @return Momentaufnahme je SQL-Text.
+     */
+    public List<StatementStatistics> snapshot() {
+        List<StatementStatistics> result = new ArrayList<>(entries.size());
+        entries.forEach((sql, entry) -> result.add(entry.snapshot(sql)));
+        result.sort(Comparator.comparingDouble(StatementStatistics::totalMillis).reversed());
+        return result;
+    }
+
+    /**
+     * Erstellt eine Textübersicht der teuersten Anweisungen.
+     *
+     * @param limit Maximale Anzahl an Zeilen.
+     * @return Die Übersicht, eine Anweisung je Zeile.
+     */
+    public String format(int limit) {
+        StringBuilder text = new StringBuilder(String.format(Locale.ROOT, "%8s %12s %10s %10s %10s  %s%n",
+                "calls", "total ms", "avg ms", "max ms", "rows", "sql"));
+        snapshot().stream().limit(limit).forEach(s -> text.append(String.format(Locale.ROOT, "%8d %12.3f %10.3f %10.3f %10d  %s%n",
+                s.calls(), s.totalMillis(), s.averageMillis(), s.maxMillis(), s.rows(), abbreviate(s.sql()))));
+        return text.toString();
+    }
+
+    /**
+     * Verwirft alle gesammelten Werte.
+     */
+    public void reset() {
+        entries.clear();
+    }
+
+    /**
+     * Erfasst eine abgeschlossene Ausführung und protokolliert sie, wenn sie den Schwellwert überschreitet.
+     *
+     * @param connection Physische Verbindung, auf der bei Bedarf der Plan ermittelt wird.
+     * @param sql        SQL-Text.
+     * @param binds      Bind-Werte der letzten Parametersetzung (Index 0 entspricht Parameter 1).
+     * @param bindCount  Anzahl übergebener Bind-Werte, bei Batches über alle Zeilen.
+     * @param nanos      Ausführungszeit in Nanosekunden.
+     * @param rows       Gelieferte bzw. geänderte Zeilen.
+     */
+    void record(Connection connection, String sql, Object[] binds, int bindCount, long nanos, long rows) {
+        Entry entry = entries.get(sql);
+        if (entry == null) {
+            entry = entries.computeIfAbsent(sql, key -> new Entry());
+        }
+        entry.add(nanos, rows);
+
+        if (nanos >= slowQueryNanos) {
+            slowQueries.increment();
+            if (LoggerUtils.isInfoEnabled()) {
+                String message = String.format(Locale.ROOT,
+                        "Langsame Anweisung (%.3f ms, %d Zeilen, %d Binds) aus %s:%n  %s%n  Binds: %s%n  Plan: %s",
+                        nanos / 1_000_000.0, rows, bindCount, findCaller(), sql, describe(sql, binds), explain(connection, sql, binds));
+                LoggerUtils.logInfo(QueryStatistics.class.getName(), message);
+            }
+        }
+    }
+
+    // Erste Aufrufstelle außerhalb von JDBC, Proxy und Messung
+    private static String findCaller() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> !isInternal(frame.getClassName()))
+                .findFirst()
+                .map(frame -> frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unbekannt"));
+    }
+
+    private static boolean isInternal(String className) {
+        if (className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("org.h2.")) {
+            return true;
+        }
+        for (String internal : INTERNAL_CLASSES) {
+            if (className.startsWith(internal)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Ermittelt den Ausführungsplan mit denselben Bind-Werten; DDL und sonstige Anweisungen werden übersprungen
+    private static String explain(Connection connection, String sql, Object[] binds) {
+        String keyword = sql.stripLeading().split("\\s", 2)[0].toUpperCase(Locale.ROOT);
+        if (!List.of("SELECT", "WITH", "INSERT", "UPDATE", "DELETE", "MERGE").contains(keyword)) {
+            return "-";
+        }
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < binds.length; i++) {
+                if (binds[i] instanceof StatementTracer.NullValue nullValue) {
+                    explain.setNull(i + 1, nullValue.sqlType());
+                } else {
+                    explain.setObject(i + 1, binds[i]);
+                }
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                return plan.next() ? plan.getString(1).replace("\n", System.lineSeparator() + "        ") : "-";
+            }
+        } catch (SQLException e) {
+            return "nicht verfügbar (" + e.getMessage() + ")";
+        }
+    }
+
+    // Bind-Werte nur nach Freigabe und nie für sensible Tabellen, sonst Typ und bei Texten die Länge
+    private String describe(String sql, Object[] binds) {
+        boolean withValues = logBindValues && !SENSITIVE_TABLES.matcher(sql).find();
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 0; i < binds.length; i++) {
+            text.append(i == 0 ? "" : ", ");
+            Object bind = binds[i];
+            if (bind == null || bind instanceof StatementTracer.NullValue) {
+                text.append("NULL");
+            } else if (withValues) {
+                text.append(bind instanceof String ? "'" + bind + "'" : bind);
+            } else if (bind instanceof String string) {
+                text.append("String(").append(string.length()).append(')');
+            } else {
+                text.append(bind.getClass().getSimpleName());
+            }
+        }
+        return text.append(']').toString();
+    }
+
+    private static String abbreviate(String sql) {
+        String singleLine = sql.replaceAll("\\s+", " ").trim();
+        return singleLine.length() > 160 ? singleLine.substring(0, 157) + "..." : singleLine;
+    }
+
+    /**
+     * Momentaufnahme der Statistik einer Anweisung.
+     *
+     * @param sql           SQL-Text.
+     * @param calls         Anzahl der Ausführungen.
+     * @param totalMillis   Summe der Ausführungszeiten in Millisekunden.
+     * @param averageMillis Durchschnittliche Ausführungszeit in Millisekunden.
+     * @param maxMillis     Längste Ausführungszeit in Millisekunden.
+     * @param rows          Summe der gelieferten bzw. geänderten Zeilen.
+     */
+    public record StatementStatistics(String sql, long calls, double totalMillis, double averageMillis,
+                                      double maxMillis, long rows) {
+    }
+
+    private static final class Entry {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void add(long nanos, long rowCount) {
+            calls.increment();
+            totalNanos.add(nanos);
+            rows.add(rowCount);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        private StatementStatistics snapshot(String sql) {
+            long count = calls.sum();
+            double totalMillis = totalNanos.sum() / 1_000_000.0;
+            return new StatementStatistics(sql, count, totalMillis, count == 0 ? 0.0 : totalMillis / count,
+                    maxNanos.get() / 1_000_000.0, rows.sum());
+        }
+    }
+
+    /**
+     * JMX-Sicht auf die Anweisungsstatistik.
+     */
+    public interface QueryStatisticsMXBean {
+
+        long getSlowQueryMillis();
+
+        void setSlowQueryMillis(long slowQueryMillis);
+
+        /**
+         * @return Textübersicht der 50 teuersten Anweisungen.
+         */
+        String getTable();
+
+        List<StatementStatistics> getStatements();
+
+        void reset();
+    }
+
+    private final class Control implements QueryStatisticsMXBean {
+
+        @Override
+        public long getSlowQueryMillis() {
+            return QueryStatistics.this.getSlowQueryMillis();
+        }
+
+        @Override
+        public void setSlowQueryMillis(long slowQueryMillis) {
+            QueryStatistics.this.setSlowQueryMillis(slowQueryMillis);
+        }
+
+        @Override
+        public String getTable() {
+            return format(50);
+        }
+
+        @Override
+        public List<StatementStatistics> getStatements() {
+            return snapshot();
+        }
+
+        @Override
+        public void reset() {
+            QueryStatistics.this.reset();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package myProject.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Proxy für {@link Statement}, {@link java.sql.PreparedStatement} und {@link java.sql.CallableStatement},
+ * der Bind-Werte mitschreibt, die Ausführung samt Durchlauf des {@link ResultSet} misst und das Ergebnis an
+ * {@link QueryStatistics} meldet. Eine Ausführung gilt als abgeschlossen, sobald ihr ResultSet oder die Anweisung
+ * geschlossen oder die Anweisung erneut ausgeführt wird.
+ */
+final class StatementTracer implements InvocationHandler {
+
+    private static final Object[] NO_BINDS = new Object[0];
+
+    private final Statement target;
+    private final Connection lease;
+    private final Connection physical;
+    private final QueryStatistics statistics;
+    // SQL-Text vorbereiteter Anweisungen, bei einfachen Statements null
+    private final String preparedSql;
+
+    private Object[] binds = NO_BINDS;
+    private int batchRows;
+    private String batchSql;
+    private Execution current;
+
+    private StatementTracer(Statement target, Connection lease, Connection physical, QueryStatistics statistics, String preparedSql) {
+        this.target = target;
+        this.lease = lease;
+        this.physical = physical;
+        this.statistics = statistics;
+        this.preparedSql = preparedSql;
+    }
+
+    /**
+     * Umhüllt eine Anweisung mit einem messenden Proxy.
+     *
+     * @param type        Schnittstelle der Anweisung, z. B. {@code PreparedStatement.class}.
+     * @param target      Die Anweisung der physischen Verbindung.
+     * @param lease       Die ausgeliehene Verbindung, die {@link Statement#getConnection()} liefern soll.
+     * @param physical    Die physische Verbindung, auf der Pläne ermittelt werden.
+     * @param statistics  Ziel der Messwerte.
+     * @param preparedSql SQL-Text vorbereiteter Anweisungen oder null.
+     * @return Der Proxy.
+     */
+    static Object wrap(Class<?> type, Statement target, Connection lease, Connection physical,
+                       QueryStatistics statistics, String preparedSql) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new StatementTracer(target, lease, physical, statistics, preparedSql));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+            case "executeQuery", "executeUpdate", "executeLargeUpdate", "execute" -> {
+                return execute(proxy, method, args);
+            }
+            case "executeBatch", "executeLargeBatch" -> {
+                return executeBatch(method, args);
+            }
+            case "addBatch" -> {
+                batchRows++;
+                if (batchSql == null) {
+                    batchSql = args == null ? preparedSql : (String) args[0];
+                }
+            }
+            case "clearBatch" -> {
+                batchRows = 0;
+                batchSql = null;
+            }
+            case "clearParameters" -> binds = NO_BINDS;
+            case "getResultSet" -> {
+                ResultSet resultSet = (ResultSet) invokeTarget(method, args);
+                return current != null && resultSet != null ? current.track(proxy, resultSet) : resultSet;
+            }
+            case "getConnection" -> {
+                return lease;
+            }
+            case "close" -> finish();
+            case "equals" -> {
+                return proxy == args[0];
+            }
+            case "hashCode" -> {
+                return System.identityHashCode(proxy);
+            }
+            case "toString" -> {
+                return "TracedStatement[" + target + "]";
+            }
+            default -> {
+                if (preparedSql != null && name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    bind(index, name.equals("setNull") ? new NullValue((Integer) args[1]) : args[1]);
+                }
+            }
+        }
+        return invokeTarget(method, args);
+    }
+
+    private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+        finish();
+        String sql = preparedSql != null ? preparedSql : (String) args[0];
+        long started = System.nanoTime();
+        Object result = invokeTarget(method, args);
+        current = new Execution(sql, binds.clone(), binds.length, System.nanoTime() - started);
+
+        if (result instanceof ResultSet resultSet) {
+            return current.track(proxy, resultSet);
+        }
+        if (result instanceof Number updateCount) {
+            current.rows = updateCount.longValue();
+            finish();
+        } else if (Boolean.FALSE.equals(result)) {
+            current.rows = Math.max(0, target.getUpdateCount());
+            finish();
+        }
+        // Bei execute() == true wird die Messung mit dem über getResultSet() gelieferten Ergebnis fortgesetzt
+        return result;
+    }
+
+    private Object executeBatch(Method method, Object[] args) throws Throwable {
+        finish();
+        String sql = batchSql != null ? batchSql : String.valueOf(preparedSql);
+        int bindCount = binds.length * Math.max(1, batchRows);
+        batchRows = 0;
+        batchSql = null;
+
+        long started = System.nanoTime();
+        Object result = invokeTarget(method, args);
+        current = new Execution(sql, binds.clone(), bindCount, System.nanoTime() - started);
+        if (result instanceof int[] counts) {
+            current.rows = Arrays.stream(counts).filter(count -> count > 0).asLongStream().sum();
+        } else if (result instanceof long[] counts) {
+            current.rows = Arrays.stream(counts).filter(count -> count > 0).sum();
+        }
+        finish();
+        return result;
+    }
+
+    private void bind(int index, Object value) {
+        if (index < 1) {
+            return;
+        }
+        if (index > binds.length) {
+            binds = Arrays.copyOf(binds, index);
+        }
+        binds[index - 1] = value;
+    }
+
+    private void finish() {
+        if (current != null) {
+            Execution execution = current;
+            current = null;
+            statistics.record(physical, execution.sql, execution.binds, execution.bindCount, execution.nanos, execution.rows);
+        }
+    }
+
+    private Object invokeTarget(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Mit {@code setNull} gesetzter Parameter, damit der Plan mit demselben SQL-Typ ermittelt werden kann.
+     *
+     * @param sqlType SQL-Typ aus {@link java.sql.Types}.
+     */
+    record NullValue(int sqlType) {
+        @Override
+        public String toString() {
+            return "NULL";
+        }
+    }
+
+    // Eine einzelne Ausführung; Zeit und Zeilen wachsen, solange das ResultSet durchlaufen wird
+    private final class Execution {
+        private final String sql;
+        private final Object[] binds;
+        private final int bindCount;
+        private long nanos;
+        private long rows;
+
+        private Execution(String sql, Object[] binds, int bindCount, long nanos) {
+            this.sql = sql;
+            this.binds = binds;
+            this.bindCount = bindCount;
+            this.nanos = nanos;
+        }
+
+        private ResultSet track(Object statement, ResultSet resultSet) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "next" -> {
+                                long started = System.nanoTime();
+                                boolean hasRow = resultSet.next();
+                                nanos += System.nanoTime() - started;
+                                if (hasRow) {
+                                    rows++;
+                                }
+                                return hasRow;
+                            }
+                            case "close" -> {
+                                resultSet.close();
+                                if (current == this) {
+                                    finish();
+                                }
+                                return null;
+                            }
+                            case "getStatement" -> {
+                                return statement;
+                            }
+                            case "equals" -> {
+                                return proxy == args[0];
+                            }
+                            case "hashCode" -> {
+                                return System.identityHashCode(proxy);
+                            }
+                            default -> {
+                                try {
+                                    return method.invoke(resultSet, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                }
+                            }
+                        }
+                    });
+        }
+    }
+}
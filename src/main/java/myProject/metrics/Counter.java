@@ -0,0 +1,32 @@
+package myProject.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Threadsicherer, monoton steigender Zähler.
+ */
+public class Counter implements CounterMXBean {
+
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Erhöht den Zähler um eins.
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * Erhöht den Zähler.
+     *
+     * @param amount Der zu addierende Wert.
+     */
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+}
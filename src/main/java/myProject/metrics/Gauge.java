@@ -0,0 +1,23 @@
+package myProject.metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Momentanwert, der erst beim Auslesen ermittelt wird, z. B. die Anzahl aktiver Verbindungen.
+ */
+public class Gauge implements GaugeMXBean {
+
+    private final DoubleSupplier supplier;
+
+    /**
+     * @param supplier Liefert den aktuellen Wert.
+     */
+    public Gauge(DoubleSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    @Override
+    public double getValue() {
+        return supplier.getAsDouble();
+    }
+}
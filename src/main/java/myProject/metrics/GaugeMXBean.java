@@ -0,0 +1,9 @@
+package myProject.metrics;
+
+/**
+ * JMX-Sicht auf eine {@link Gauge}.
+ */
+public interface GaugeMXBean {
+
+    double getValue();
+}
@@ -0,0 +1,170 @@
+package myProject.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Threadsicheres Latenz-Histogramm mit festen, logarithmisch-linearen Buckets.
+ * Jede Zweierpotenz ist in 16 Buckets unterteilt, die ausgegebenen Perzentile weichen daher höchstens
+ * etwa 3 % vom tatsächlichen Wert ab. Erfasst werden Werte bis etwa 18 Minuten; größere Werte landen im letzten Bucket.
+ * Das Erfassen eines Werts kommt ohne Sperren und ohne Allokation aus.
+ */
+public class LatencyHistogram implements LatencyHistogramMXBean {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param name Name des Histogramms, z. B. {@code AccountRepository.addAccount}.
+     */
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return Name des Histogramms.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Erfasst eine Dauer.
+     *
+     * @param nanos Dauer in Nanosekunden.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        buckets.incrementAndGet(indexOf(value));
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Liefert eine Momentaufnahme der erfassten Werte.
+     *
+     * @return Anzahl, Mittelwert, Perzentile und Maximum in Millisekunden.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        double mean = count == 0 ? 0 : sum.sum() / (double) count;
+        long maxValue = max.get();
+        // Die Bucketmitte kann über dem tatsächlich gemessenen Maximum liegen
+        return new Snapshot(name, count, toMillis(mean),
+                toMillis(Math.min(percentile(counts, count, 0.50), maxValue)),
+                toMillis(Math.min(percentile(counts, count, 0.99), maxValue)),
+                toMillis(Math.min(percentile(counts, count, 0.999), maxValue)),
+                toMillis(maxValue));
+    }
+
+    @Override
+    public long getCount() {
+        return snapshot().count();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return snapshot().meanMillis();
+    }
+
+    @Override
+    public double getP50Millis() {
+        return snapshot().p50Millis();
+    }
+
+    @Override
+    public double getP99Millis() {
+        return snapshot().p99Millis();
+    }
+
+    @Override
+    public double getP999Millis() {
+        return snapshot().p999Millis();
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return snapshot().maxMillis();
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        sum.reset();
+        max.set(0);
+    }
+
+    // Kleine Werte haben einen eigenen Bucket, größere teilen sich 16 Buckets je Zweierpotenz
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    // Mitte des Wertebereichs eines Buckets
+    private static double valueOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + ((1L << shift) - 1) / 2.0;
+    }
+
+    private static double percentile(long[] counts, long count, double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return valueOf(i);
+            }
+        }
+        return valueOf(counts.length - 1);
+    }
+
+    private static double toMillis(double nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Momentaufnahme eines Histogramms.
+     *
+     * @param name       Name des Histogramms.
+     * @param count      Anzahl der erfassten Werte.
+     * @param meanMillis Mittelwert in Millisekunden.
+     * @param p50Millis  Median in Millisekunden.
+     * @param p99Millis  99. Perzentil in Millisekunden.
+     * @param p999Millis 99,9. Perzentil in Millisekunden.
+     * @param maxMillis  Größter Wert in Millisekunden.
+     */
+    public record Snapshot(String name, long count, double meanMillis, double p50Millis, double p99Millis,
+                           double p999Millis, double maxMillis) {
+    }
+}
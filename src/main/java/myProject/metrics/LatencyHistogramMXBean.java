@@ -0,0 +1,24 @@
+package myProject.metrics;
+
+/**
+ * JMX-Sicht auf ein {@link LatencyHistogram}. Alle Zeiten in Millisekunden.
+ */
+public interface LatencyHistogramMXBean {
+
+    long getCount();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    double getMaxMillis();
+
+    /**
+     * Setzt alle erfassten Werte zurück.
+     */
+    void reset();
+}
@@ -0,0 +1,65 @@
+package myProject.metrics;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Erfasst die Laufzeiten der Methoden einer Klasse in je einem {@link LatencyHistogram}
+ * mit dem Namen {@code <Klasse>.<Methode>}. Verwendung:
+ * <pre>
+ * long started = Metrics.start();
+ * try {
+ *     ...
+ * } finally {
+ *     TIMER.stop("methode", started);
+ * }
+ * </pre>
+ * Ist die Messung ausgeschaltet, liefert {@link Metrics#start()} 0 und es wird nichts erfasst.
+ */
+public final class MethodTimer {
+
+    private final String prefix;
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    MethodTimer(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Beendet eine Zeitmessung.
+     *
+     * @param method  Name der Methode.
+     * @param started Rückgabewert von {@link Metrics#start()}.
+     */
+    public void stop(String method, long started) {
+        if (started != 0) {
+            histogram(method).record(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Misst eine asynchrone Methode bis zum Abschluss ihres Futures, einschließlich der Wartezeit im Executor.
+     *
+     * @param method  Name der Methode.
+     * @param started Rückgabewert von {@link Metrics#start()}.
+     * @param future  Das Future der Methode.
+     * @param <T>     Typ des Ergebnisses.
+     * @return Dasselbe Future.
+     */
+    public <T> CompletableFuture<T> timeAsync(String method, long started, CompletableFuture<T> future) {
+        if (started != 0) {
+            LatencyHistogram histogram = histogram(method);
+            future.whenComplete((value, error) -> histogram.record(System.nanoTime() - started));
+        }
+        return future;
+    }
+
+    private LatencyHistogram histogram(String method) {
+        LatencyHistogram histogram = histograms.get(method);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(method, key -> Metrics.histogram(prefix + "." + key));
+        }
+        return histogram;
+    }
+}
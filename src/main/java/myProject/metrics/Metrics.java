@@ -0,0 +1,196 @@
+package myProject.metrics;
+
+import myProject.util.LoggerUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Zentrale Registrierung für Zähler, Momentwerte und Latenz-Histogramme.
+ * Jede Metrik wird beim ersten Anlegen unter {@code myProject:type=<Typ>,name=<Name>} als MXBean registriert;
+ * über {@code myProject:type=Metrics} lässt sich die Erfassung zur Laufzeit ein- und ausschalten.
+ * <p>
+ * Die Zeitmessung ist standardmäßig ausgeschaltet und wird mit {@code -Dsmartfinance.metrics.enabled=true}
+ * aktiviert. Ausgeschaltet kostet eine Messung nur das Lesen eines volatile-Felds.
+ */
+public final class Metrics {
+
+    private static final String DOMAIN = "myProject";
+
+    private static volatile boolean enabled = Boolean.getBoolean("smartfinance.metrics.enabled");
+
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Gauge> GAUGES = new ConcurrentHashMap<>();
+
+    static {
+        register("Metrics", null, new MetricsControl());
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * @return true, wenn Zeitmessungen erfasst werden.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Schaltet die Zeitmessung ein oder aus. Bereits erfasste Werte bleiben erhalten.
+     *
+     * @param value true zum Einschalten.
+     */
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    /**
+     * Beginnt eine Zeitmessung.
+     *
+     * @return Der Startzeitpunkt oder 0, wenn die Messung ausgeschaltet ist.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Liefert das Histogramm mit dem angegebenen Namen und legt es bei Bedarf an.
+     *
+     * @param name Name, z. B. {@code AccountRepository.addAccount}.
+     * @return Das Histogramm.
+     */
+    public static LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = HISTOGRAMS.get(name);
+        if (histogram != null) {
+            return histogram;
+        }
+        return HISTOGRAMS.computeIfAbsent(name, key -> register("Latency", key, new LatencyHistogram(key)));
+    }
+
+    /**
+     * Liefert den Zähler mit dem angegebenen Namen und legt ihn bei Bedarf an.
+     *
+     * @param name Name des Zählers.
+     * @return Der Zähler.
+     */
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, key -> register("Counter", key, new Counter()));
+    }
+
+    /**
+     * Registriert einen Momentwert. Ein bereits vorhandener Wert mit gleichem Namen bleibt bestehen.
+     *
+     * @param name     Name des Werts.
+     * @param supplier Liefert den aktuellen Wert.
+     */
+    public static void gauge(String name, DoubleSupplier supplier) {
+        GAUGES.computeIfAbsent(name, key -> register("Gauge", key, new Gauge(supplier)));
+    }
+
+    /**
+     * Liefert einen Zeitmesser für die Methoden einer Klasse.
+     *
+     * @param owner Die Klasse, deren Methoden gemessen werden.
+     * @return Zeitmesser mit dem einfachen Klassennamen als Präfix.
+     */
+    public static MethodTimer timer(Class<?> owner) {
+        return new MethodTimer(owner.getSimpleName());
+    }
+
+    /**
+     * Registriert eine eigene MXBean unter {@code myProject:type=<Typ>}, z. B. für Statistiken mit eigener Struktur.
+     *
+     * @param type  Typ im JMX-Namen.
+     * @param mbean Die MXBean.
+     * @param <T>   Typ der MXBean.
+     * @return Die übergebene MXBean.
+     */
+    public static <T> T register(String type, T mbean) {
+        return register(type, null, mbean);
+    }
+
+    /**
+     * Erstellt eine Textübersicht aller Metriken, nach Namen sortiert.
+     *
+     * @return Die Übersicht, eine Metrik je Zeile.
+     */
+    public static String dump() {
+        StringBuilder text = new StringBuilder();
+        for (LatencyHistogram histogram : new TreeMap<>(HISTOGRAMS).values()) {
+            LatencyHistogram.Snapshot s = histogram.snapshot();
+            if (s.count() > 0) {
+                text.append(String.format("%-60s n=%-8d mean=%9.3f p50=%9.3f p99=%9.3f p999=%9.3f max=%9.3f ms%n",
+                        s.name(), s.count(), s.meanMillis(), s.p50Millis(), s.p99Millis(), s.p999Millis(), s.maxMillis()));
+            }
+        }
+        new TreeMap<>(COUNTERS).forEach((name, counter) -> text.append(String.format("%-60s %d%n", name, counter.getCount())));
+        new TreeMap<>(GAUGES).forEach((name, gauge) -> text.append(String.format("%-60s %.3f%n", name, gauge.getValue())));
+        return text.toString();
+    }
+
+    // Fehler bei der JMX-Registrierung verhindern nicht die Erfassung
+    private static <T> T register(String type, String name, T mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            String objectName = DOMAIN + ":type=" + type + (name == null ? "" : ",name=" + ObjectName.quote(name));
+            ObjectName id = new ObjectName(objectName);
+            if (!server.isRegistered(id)) {
+                server.registerMBean(mbean, id);
+            }
+        } catch (JMException | RuntimeException e) {
+            LoggerUtils.logError(Metrics.class.getName(), "Metrik konnte nicht bei JMX registriert werden: " + name, e);
+        }
+        return mbean;
+    }
+
+    /**
+     * JMX-Steuerung der Metriken.
+     */
+    public interface MetricsControlMXBean {
+
+        boolean isEnabled();
+
+        void setEnabled(boolean enabled);
+
+        /**
+         * @return Textübersicht aller Metriken.
+         */
+        String dump();
+
+        /**
+         * Setzt alle Histogramme zurück.
+         */
+        void resetHistograms();
+    }
+
+    private static final class MetricsControl implements MetricsControlMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return Metrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            Metrics.setEnabled(enabled);
+        }
+
+        @Override
+        public String dump() {
+            return Metrics.dump();
+        }
+
+        @Override
+        public void resetHistograms() {
+            HISTOGRAMS.values().forEach(LatencyHistogram::reset);
+        }
+    }
+}
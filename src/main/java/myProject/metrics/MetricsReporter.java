@@ -0,0 +1,53 @@
+package myProject.metrics;
+
+import myProject.util.LoggerUtils;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schreibt in festen Abständen eine Textübersicht aller Metriken ins Log, solange die Messung eingeschaltet ist.
+ * Das Intervall kann über die System-Property {@code smartfinance.metrics.reportIntervalSeconds} angepasst werden.
+ */
+public class MetricsReporter {
+
+    private static final long DEFAULT_INTERVAL_SECONDS = 60;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Startet die periodische Ausgabe. Die erste Ausgabe erfolgt nach einem Intervall.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        long interval = Long.getLong("smartfinance.metrics.reportIntervalSeconds", DEFAULT_INTERVAL_SECONDS);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::report, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Beendet die periodische Ausgabe.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Schreibt die aktuelle Übersicht ins Log, sofern die Messung eingeschaltet ist.
+     */
+    public void report() {
+        if (Metrics.isEnabled()) {
+            LoggerUtils.logInfo(MetricsReporter.class.getName(), () -> "Metriken:" + System.lineSeparator() + Metrics.dump());
+        }
+    }
+}
@@ -1,9 +1,10 @@
 package myProject.model;
 
-import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.StringProperty;
+import myProject.util.Money;
 
 import java.util.Objects;
 import java.util.UUID;
@@ -12,26 +13,27 @@ import java.util.UUID;
  * Die Account-Klasse stellt ein Konto dar, das einem Benutzer zugeordnet ist.
  * Sie enthält Informationen wie die ID des Kontos, die ID des Benutzers, den Namen des Kontos und den Kontostand.
  * Die Klasse verwendet JavaFX Properties, um eine Datenbindung in der Benutzeroberfläche zu unterstützen.
+ * Der Kontostand wird in Cent gehalten, siehe {@link Money}.
  */
 public class Account {
 
     private final StringProperty id;  // Eindeutige ID des Kontos
     private final StringProperty userId;  // ID des Benutzers, dem das Konto gehört
     private final StringProperty name;  // Name des Kontos
-    private final DoubleProperty balance;  // Kontostand
+    private final LongProperty balanceCents;  // Kontostand in Cent
 
     /**
      * Konstruktor ohne ID. Eine neue ID wird automatisch generiert.
      *
      * @param userId  Die ID des Benutzers, dem das Konto gehört.
      * @param name    Der Name des Kontos.
-     * @param balance Der anfängliche Kontostand.
+     * @param balanceCents Der anfängliche Kontostand in Cent.
      */
-    public Account(String userId, String name, double balance) {
+    public Account(String userId, String name, long balanceCents) {
         this.id = new SimpleStringProperty(UUID.randomUUID().toString());
         this.userId = new SimpleStringProperty(userId);
         this.name = new SimpleStringProperty(name);
-        this.balance = new SimpleDoubleProperty(balance);
+        this.balanceCents = new SimpleLongProperty(balanceCents);
     }
 
     /**
@@ -40,13 +42,13 @@ public class Account {
      * @param id      Die eindeutige ID des Kontos.
      * @param userId  Die ID des Benutzers, dem das Konto gehört.
      * @param name    Der Name des Kontos.
-     * @param balance Der anfängliche Kontostand.
+     * @param balanceCents Der anfängliche Kontostand in Cent.
      */
-    public Account(String id, String userId, String name, double balance) {
+    public Account(String id, String userId, String name, long balanceCents) {
         this.id = new SimpleStringProperty(id);
         this.userId = new SimpleStringProperty(userId);
         this.name = new SimpleStringProperty(name);
-        this.balance = new SimpleDoubleProperty(balance);
+        this.balanceCents = new SimpleLongProperty(balanceCents);
     }
 
     // Getter und Setter für die Eigenschaften
@@ -96,18 +98,26 @@ public class Account {
     }
 
 
-    public DoubleProperty balanceProperty() {
-        return balance;
+    public LongProperty balanceCentsProperty() {
+        return balanceCents;
     }
 
 
-    public double getBalance() {
-        return balance.get();
+    public long getBalanceCents() {
+        return balanceCents.get();
+    }
+
+
+    public void setBalanceCents(long balanceCents) {
+        this.balanceCents.set(balanceCents);
     }
 
 
-    public void setBalance(double balance) {
-        this.balance.set(balance);
+    /**
+     * @return Der Kontostand in Währungseinheiten, nur für die Anzeige.
+     */
+    public double getBalance() {
+        return Money.toDouble(balanceCents.get());
     }
 
 
@@ -0,0 +1,21 @@
+package myProject.model;
+
+import myProject.util.Money;
+
+import java.time.LocalDate;
+
+/**
+ * Ein Punkt im Kontostandsverlauf: der Kontostand am Ende eines Tages.
+ *
+ * @param date         Der Tag.
+ * @param balanceCents Der Kontostand in Cent am Ende des Tages.
+ */
+public record BalancePoint(LocalDate date, long balanceCents) {
+
+    /**
+     * @return Der Kontostand in Währungseinheiten, nur für die Anzeige.
+     */
+    public double balance() {
+        return Money.toDouble(balanceCents);
+    }
+}
@@ -0,0 +1,36 @@
+package myProject.model;
+
+import java.time.LocalDate;
+
+/**
+ * Tägliche Kontostände eines Kontos über einen zusammenhängenden Zeitraum, jeweils zum Ende des Tages.
+ * Die Werte liegen als primitives Array vor, damit auch Reihen über viele Jahre keine Objekte pro Tag erzeugen.
+ *
+ * @param startDate     Der erste Tag der Reihe.
+ * @param balancesCents Der Kontostand in Cent am Ende jedes Tages ab {@code startDate}.
+ */
+public record BalanceSeries(LocalDate startDate, long[] balancesCents) {
+
+    /**
+     * @return Die Anzahl der Tage.
+     */
+    public int size() {
+        return balancesCents.length;
+    }
+
+    /**
+     * @param index Der Index des Tages, beginnend bei 0.
+     * @return Das Datum des Tages.
+     */
+    public LocalDate date(int index) {
+        return startDate.plusDays(index);
+    }
+
+    /**
+     * @param index Der Index des Tages, beginnend bei 0.
+     * @return Der Kontostand in Cent am Ende des Tages.
+     */
+    public long balanceCents(int index) {
+        return balancesCents[index];
+    }
+}
@@ -0,0 +1,30 @@
+package myProject.model;
+
+import java.util.List;
+
+/**
+ * Das BatchResult beschreibt das Ergebnis einer Massenspeicherung von Transaktionen.
+ * Fehlerhafte Zeilen brechen den Vorgang nicht ab, sondern werden einzeln mit ihrer Position gemeldet.
+ *
+ * @param saved    Anzahl der erfolgreich gespeicherten Transaktionen.
+ * @param failures Die fehlgeschlagenen Zeilen.
+ */
+public record BatchResult(int saved, List<Failure> failures) {
+
+    /**
+     * @return true, wenn alle Transaktionen gespeichert wurden.
+     */
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * Eine fehlgeschlagene Zeile.
+     *
+     * @param index         Position der Transaktion in der übergebenen Sammlung.
+     * @param transactionId Die ID der Transaktion.
+     * @param message       Die Fehlermeldung.
+     */
+    public record Failure(int index, String transactionId, String message) {
+    }
+}
@@ -0,0 +1,50 @@
+package myProject.model;
+
+import myProject.util.Money;
+
+/**
+ * Der BudgetStatus beschreibt die Ausgaben einer Kategorie in einem Zeitraum im Verhältnis zu ihrem Budget.
+ * Er wird vom BudgetEvaluator für alle Kategorien eines Benutzers gemeinsam berechnet.
+ *
+ * @param category   Die Kategorie.
+ * @param spentCents Die Ausgaben der Kategorie im Zeitraum in Cent als positiver Wert.
+ */
+public record BudgetStatus(Category category, long spentCents) {
+
+    /**
+     * @return Die Ausgaben in Währungseinheiten, nur für die Anzeige.
+     */
+    public double spent() {
+        return Money.toDouble(spentCents);
+    }
+
+    /**
+     * @return Das Budget der Kategorie in Cent oder null, wenn kein Budget gesetzt ist.
+     */
+    public Long budgetCents() {
+        return category.getBudgetCents();
+    }
+
+    /**
+     * @return true, wenn für die Kategorie ein Budget gesetzt ist.
+     */
+    public boolean hasBudget() {
+        return category.getBudgetCents() != null;
+    }
+
+    /**
+     * @return true, wenn für die Kategorie ein Budget größer 0 gesetzt ist.
+     */
+    public boolean hasPositiveBudget() {
+        Long budget = category.getBudgetCents();
+        return budget != null && budget > 0;
+    }
+
+    /**
+     * @return Verhältnis der Ausgaben zum Budget oder 0, wenn kein positives Budget gesetzt ist.
+     */
+    public double ratio() {
+        Long budget = category.getBudgetCents();
+        return budget != null && budget > 0 ? spentCents / (double) budget : 0.0;
+    }
+}
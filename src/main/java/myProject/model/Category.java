@@ -1,31 +1,32 @@
 package myProject.model;
 
 import javafx.beans.property.*;
+import myProject.util.Money;
 
 import java.util.Objects;
 import java.util.UUID;
 
 /**
  * Die Category-Klasse repräsentiert eine Kategorie, die entweder als Standard oder benutzerdefiniert
- * existieren kann. Jede Kategorie hat eine eindeutige ID, einen Namen und optional ein Budget.
+ * existieren kann. Jede Kategorie hat eine eindeutige ID, einen Namen und optional ein Budget in Cent.
  */
 public class Category {
 
     private final StringProperty id;  // Eindeutige ID der Kategorie
     private final StringProperty name;  // Name der Kategorie
-    private ObjectProperty<Double> budget;  // Optionales Budget der Kategorie
+    private final ObjectProperty<Long> budgetCents;  // Optionales Budget der Kategorie in Cent
 
     /**
      * Konstruktor zur Erstellung einer benutzerdefinierten Kategorie.
      *
      * @param id     Eindeutige ID der Kategorie. Wenn null, wird eine UUID generiert.
      * @param name   Name der Kategorie.
-     * @param budget Optionales Budget der Kategorie. Kann null sein.
+     * @param budgetCents Optionales Budget der Kategorie in Cent. Kann null sein.
      */
-    public Category(String id, String name, Double budget) {
+    public Category(String id, String name, Long budgetCents) {
         this.id = new SimpleStringProperty((id == null) ? UUID.randomUUID().toString() : id);
         this.name = new SimpleStringProperty(name);
-        this.budget = new SimpleObjectProperty<>(budget);
+        this.budgetCents = new SimpleObjectProperty<>(budgetCents);
     }
 
     // Getter und Setter für die Eigenschaften
@@ -53,16 +54,24 @@ public class Category {
         this.name.set(name);
     }
 
-    public Double getBudget() {
-        return budget.get();
+    public Long getBudgetCents() {
+        return budgetCents.get();
+    }
+
+    public ObjectProperty<Long> budgetCentsProperty() {
+        return budgetCents;
     }
 
-    public ObjectProperty<Double> budgetProperty() {
-        return budget;
+    public void setBudgetCents(Long budgetCents) {
+        this.budgetCents.set(budgetCents);
     }
 
-    public void setBudget(Double budget) {
-        this.budget.set(budget);
+    /**
+     * @return Das Budget in Währungseinheiten oder null, nur für die Anzeige.
+     */
+    public Double getBudget() {
+        Long cents = budgetCents.get();
+        return cents != null ? Money.toDouble(cents) : null;
     }
 
     /**
@@ -71,7 +80,8 @@ public class Category {
      * @return true, wenn die Kategorie ein Budget größer als 0 hat, sonst false.
      */
     public boolean hasBudget() {
-        return budget.get() != null && budget.get() > 0;
+        Long cents = budgetCents.get();
+        return cents != null && cents > 0;
     }
 
     // equals() und hashCode() basierend auf der 'id'-Eigenschaft
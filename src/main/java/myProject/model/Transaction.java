@@ -1,36 +1,45 @@
 package myProject.model;
 
 import javafx.beans.property.*;
+import myProject.util.Money;
 import java.sql.Time;  // Verwende java.sql.Time für Zeit
 import java.util.UUID;
 
 /**
  * Die Transaction-Klasse repräsentiert eine finanzielle Transaktion,
  * die mit einem Benutzer, einem Konto und einer Kategorie verknüpft ist.
+ * <p>
+ * Die Werte werden in einfachen Feldern gehalten. JavaFX-Properties werden erst beim ersten Aufruf der
+ * jeweiligen {@code ...Property()}-Methode angelegt, also erst wenn die Transaktion tatsächlich an eine
+ * Tabelle gebunden wird; danach lesen und schreiben Getter und Setter über die Property.
+ * Beträge werden als Cent ({@code long}) gehalten, siehe {@link Money}.
  */
 public class Transaction {
 
-    private final StringProperty id;  // Eindeutige ID der Transaktion
-    private final StringProperty description;  // Beschreibung der Transaktion
-    private final ObjectProperty<java.sql.Date> date;  // Verwende java.sql.Date anstelle von java.util.Date
-    private final ObjectProperty<Time> time;  // Uhrzeit der Transaktion
-    private final DoubleProperty amount;  // Betrag der Transaktion
-    private final StringProperty type;  // Typ der Transaktion (z. B. "Einnahme" oder "Ausgabe")
+    private String id;  // Eindeutige ID der Transaktion
+    private String description;  // Beschreibung der Transaktion
+    private java.sql.Date date;  // Verwende java.sql.Date anstelle von java.util.Date
+    private Time time;  // Uhrzeit der Transaktion
+    private long amountCents;  // Betrag der Transaktion in Cent
+    private String type;  // Typ der Transaktion (z. B. "Einnahme" oder "Ausgabe")
+    private String transferId;  // Gemeinsame ID beider Buchungen einer Überweisung, sonst null
 
     // Verknüpfungen zu anderen Modellen
-    private final ObjectProperty<User> user;  // Benutzer, der die Transaktion erstellt hat
-    private final ObjectProperty<Account> account;  // Konto, dem die Transaktion zugeordnet ist
-    private final ObjectProperty<Category> category;  // Kategorie der Transaktion
+    private final User user;  // Benutzer, der die Transaktion erstellt hat
+    private Account account;  // Konto, dem die Transaktion zugeordnet ist
+    private Category category;  // Kategorie der Transaktion
 
-    // Zeitstempel
-    private final ObjectProperty<java.sql.Date> createdAt;  // Zeitpunkt der Erstellung der Transaktion
-    private final ObjectProperty<java.sql.Date> updatedAt;  // Zeitpunkt der letzten Aktualisierung der Transaktion
+    // Erst bei Bedarf angelegte Properties für die Datenbindung
+    private StringProperty descriptionProperty;
+    private LongProperty amountCentsProperty;
+    private ObjectProperty<java.sql.Date> dateProperty;
+    private StringProperty typeProperty;
 
     /**
      * Konstruktor für die Erstellung einer neuen Transaktion.
      *
      * @param description Beschreibung der Transaktion.
-     * @param amount      Betrag der Transaktion.
+     * @param amountCents Betrag der Transaktion in Cent.
      * @param type        Typ der Transaktion (z. B. "Einnahme" oder "Ausgabe").
      * @param user        Benutzer, der die Transaktion erstellt hat.
      * @param account     Konto, dem die Transaktion zugeordnet ist.
@@ -38,98 +47,153 @@ public class Transaction {
      * @param date        Datum der Transaktion.
      * @param time        Uhrzeit der Transaktion.
      */
-    public Transaction(String description, double amount, String type, User user, Account account, Category category, java.sql.Date date, Time time) {
-        this.id = new SimpleStringProperty(UUID.randomUUID().toString());
-        this.description = new SimpleStringProperty(description);
-        this.amount = new SimpleDoubleProperty(amount);
-        this.type = new SimpleStringProperty(type);
-        this.user = new SimpleObjectProperty<>(user);
-        this.account = new SimpleObjectProperty<>(account);
-        this.category = new SimpleObjectProperty<>(category);
-        this.date = new SimpleObjectProperty<>(date);
-        this.time = new SimpleObjectProperty<>(time);
+    public Transaction(String description, long amountCents, String type, User user, Account account, Category category, java.sql.Date date, Time time) {
+        this(UUID.randomUUID().toString(), description, amountCents, type, user, account, category, date, time);
+    }
+
+    private Transaction(String id, String description, long amountCents, String type, User user, Account account, Category category, java.sql.Date date, Time time) {
+        this.id = id;
+        this.description = description;
+        this.amountCents = amountCents;
+        this.type = type;
+        this.user = user;
+        this.account = account;
+        this.category = category;
+        this.date = date;
+        this.time = time;
+    }
 
-        this.createdAt = new SimpleObjectProperty<>(new java.sql.Date(System.currentTimeMillis()));
-        this.updatedAt = new SimpleObjectProperty<>(new java.sql.Date(System.currentTimeMillis()));
+    /**
+     * Erstellt eine Transaktion für die Oberfläche aus einer geladenen Zeile, ohne eine neue ID zu erzeugen.
+     *
+     * @param row      Die gespeicherte Zeile.
+     * @param account  Das Konto der Zeile oder null.
+     * @param category Die Kategorie der Zeile oder null.
+     * @return Die Transaktion.
+     */
+    public static Transaction of(TransactionRecord row, Account account, Category category) {
+        Transaction transaction = new Transaction(row.id(), row.description(), row.amountCents(), row.type(), null, account, category,
+                row.sqlDate(), row.sqlTime());
+        transaction.transferId = row.transferId();
+        return transaction;
     }
 
     // Getter- und Setter-Methoden für die Eigenschaften
 
     public String getId() {
-        return id.get();
+        return id;
     }
 
     public void setId(String id) {
-        this.id.set(id);
+        this.id = id;
     }
 
     public String getDescription() {
-        return description.get();
+        return descriptionProperty != null ? descriptionProperty.get() : description;
     }
 
     public void setDescription(String description) {
-        this.description.set(description);
+        if (descriptionProperty != null) {
+            descriptionProperty.set(description);
+        } else {
+            this.description = description;
+        }
     }
 
     public java.sql.Date getDate() {
-        return date.get();
+        return dateProperty != null ? dateProperty.get() : date;
     }
 
     public void setDate(java.sql.Date date) {
-        this.date.set(date);
+        if (dateProperty != null) {
+            dateProperty.set(date);
+        } else {
+            this.date = date;
+        }
     }
 
     public Time getTime() {
-        return time.get();
+        return time;
     }
 
     public void setTime(Time time) {
-        this.time.set(time);
+        this.time = time;
     }
 
-    public double getAmount() {
-        return amount.get();
+    public long getAmountCents() {
+        return amountCentsProperty != null ? amountCentsProperty.get() : amountCents;
+    }
+
+    public void setAmountCents(long amountCents) {
+        if (amountCentsProperty != null) {
+            amountCentsProperty.set(amountCents);
+        } else {
+            this.amountCents = amountCents;
+        }
     }
 
-    public void setAmount(double amount) {
-        this.amount.set(amount);
+    /**
+     * @return Der Betrag in Währungseinheiten, nur für die Anzeige.
+     */
+    public double getAmount() {
+        return Money.toDouble(getAmountCents());
     }
 
     public String getType() {
-        return type.get();
+        return typeProperty != null ? typeProperty.get() : type;
+    }
+
+    public String getTransferId() {
+        return transferId;
+    }
+
+    public void setTransferId(String transferId) {
+        this.transferId = transferId;
     }
 
 
     public Account getAccount() {
-        return account.get();
+        return account;
     }
 
     public void setAccount(Account account) {
-        this.account.set(account);
+        this.account = account;
     }
 
     public Category getCategory() {
-        return category.get();
+        return category;
     }
 
     public void setCategory(Category category) {
-        this.category.set(category);
+        this.category = category;
     }
 
     public StringProperty descriptionProperty() {
-        return description;
+        if (descriptionProperty == null) {
+            descriptionProperty = new SimpleStringProperty(this, "description", description);
+        }
+        return descriptionProperty;
     }
 
-    public DoubleProperty amountProperty() {
-        return amount;
+    public LongProperty amountCentsProperty() {
+        if (amountCentsProperty == null) {
+            amountCentsProperty = new SimpleLongProperty(this, "amountCents", amountCents);
+        }
+        return amountCentsProperty;
     }
 
     public ObjectProperty<java.sql.Date> dateProperty() {
-        return date;
+        if (dateProperty == null) {
+            dateProperty = new SimpleObjectProperty<>(this, "date", date);
+        }
+        return dateProperty;
     }
 
     public StringProperty typeProperty() {
-        return type;
+        if (typeProperty == null) {
+            typeProperty = new SimpleStringProperty(this, "type", type);
+        }
+        return typeProperty;
     }
 
 }
@@ -0,0 +1,84 @@
+package myProject.model;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Kompakte, unveränderliche Zeile der Tabelle {@code transactions}, wie sie die Repositories für Auswertungen liefern.
+ * Datum und Uhrzeit werden als Zahlen gehalten, Konto und Kategorie nur über ihre IDs referenziert;
+ * JavaFX-Properties entstehen erst, wenn eine Zeile über {@link Transaction#of} in die Oberfläche gelangt.
+ *
+ * @param id          ID der Transaktion.
+ * @param accountId   ID des Kontos oder null.
+ * @param categoryId  ID der Kategorie oder null.
+ * @param amountCents Betrag in Cent, Ausgaben negativ.
+ * @param epochDay    Datum als Tage seit dem 1970-01-01.
+ * @param secondOfDay Uhrzeit als Sekunden seit Mitternacht.
+ * @param type        Typ ("income" oder "expense").
+ * @param description Beschreibung oder null.
+ * @param transferId  Gemeinsame ID beider Buchungen einer Überweisung oder null.
+ */
+public record TransactionRecord(String id, String accountId, String categoryId, long amountCents, int epochDay,
+                                int secondOfDay, String type, String description, String transferId) {
+
+    public TransactionRecord {
+        // Die wenigen Typwerte teilen sich eine Instanz, statt pro Zeile einen neuen String zu halten
+        if ("income".equals(type)) {
+            type = "income";
+        } else if ("expense".equals(type)) {
+            type = "expense";
+        }
+    }
+
+    /**
+     * Erstellt die kompakte Zeile einer Transaktion aus der Oberfläche, z. B. für Caches nach einem Schreibvorgang.
+     *
+     * @param transaction Die Transaktion.
+     * @return Die Zeile mit den aktuellen Werten der Transaktion.
+     */
+    public static TransactionRecord of(Transaction transaction) {
+        return new TransactionRecord(transaction.getId(),
+                transaction.getAccount() != null ? transaction.getAccount().getId() : null,
+                transaction.getCategory() != null ? transaction.getCategory().getId() : null,
+                transaction.getAmountCents(), (int) transaction.getDate().toLocalDate().toEpochDay(),
+                transaction.getTime().toLocalTime().toSecondOfDay(), transaction.getType(), transaction.getDescription(),
+                transaction.getTransferId());
+    }
+
+    /**
+     * @return Das Datum der Transaktion.
+     */
+    public LocalDate date() {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * @return Die Uhrzeit der Transaktion.
+     */
+    public LocalTime time() {
+        return LocalTime.ofSecondOfDay(secondOfDay);
+    }
+
+    /**
+     * @return Das Datum als {@link Date} für JDBC und die Oberfläche.
+     */
+    public Date sqlDate() {
+        return Date.valueOf(date());
+    }
+
+    /**
+     * @return Die Uhrzeit als {@link Time} für JDBC und die Oberfläche.
+     */
+    public Time sqlTime() {
+        return Time.valueOf(time());
+    }
+
+    /**
+     * @return true für Einnahmen.
+     */
+    public boolean isIncome() {
+        return "income".equals(type);
+    }
+}
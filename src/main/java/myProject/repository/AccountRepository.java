@@ -2,7 +2,11 @@ package myProject.repository;
 
 import myProject.model.Account;
 import myProject.db.DatabaseManager;
+import myProject.db.MonthlyRollup;
+import myProject.metrics.MethodTimer;
+import myProject.metrics.Metrics;
 import myProject.util.LoggerUtils;
+import myProject.util.Money;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -11,9 +15,22 @@ import java.util.List;
 /**
  * Das AccountRepository ist für die Datenbankzugriffe im Zusammenhang mit Konten verantwortlich.
  * Hier werden Konten in die Datenbank eingefügt, abgerufen, aktualisiert und gelöscht.
+ * Geladene Konten werden prozessweit nach ID, nach (Benutzer, Name) und als Kontenliste pro Benutzer
+ * zwischengespeichert; schreibende Methoden aktualisieren bzw. invalidieren diese Caches.
+ * Der Kontostand in {@code accounts.balance_cents} wird vom TransactionRepository in derselben Datenbanktransaktion
+ * wie die zugehörige Transaktionsänderung fortgeschrieben und kann daher direkt gelesen werden.
  */
 public class AccountRepository {
 
+    private static final MethodTimer TIMER = Metrics.timer(AccountRepository.class);
+
+    private static final int MAX_CACHED_ACCOUNTS = 1_000;
+    private static final int MAX_CACHED_USERS = 100;
+
+    private static final EntityCache<String, Account> ACCOUNTS_BY_ID = new EntityCache<>("accountsById", MAX_CACHED_ACCOUNTS);
+    private static final EntityCache<String, Account> ACCOUNTS_BY_NAME = new EntityCache<>("accountsByName", MAX_CACHED_ACCOUNTS);
+    private static final EntityCache<String, List<Account>> ACCOUNTS_BY_USER = new EntityCache<>("accountsByUser", MAX_CACHED_USERS);
+
     /**
      * Methode zum Hinzufügen eines neuen Kontos in die Datenbank.
      *
@@ -21,65 +38,103 @@ public class AccountRepository {
      * @return true, wenn das Konto erfolgreich hinzugefügt wurde, false bei einem Fehler.
      */
     public boolean addAccount(Account account) {
-        String sql = "INSERT INTO accounts (id, user_id, name, balance) VALUES (?, ?, ?, ?)";
+        long started = Metrics.start();
+        try {
+            String sql = "INSERT INTO accounts (id, user_id, name, balance_cents) VALUES (?, ?, ?, ?)";
+
+            try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
 
-        try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, account.getId());
+                pstmt.setString(2, account.getUserId());
+                pstmt.setString(3, account.getName());
+                pstmt.setLong(4, account.getBalanceCents());
 
-            pstmt.setString(1, account.getId());
-            pstmt.setString(2, account.getUserId());
-            pstmt.setString(3, account.getName());
-            pstmt.setDouble(4, account.getBalance());
+                pstmt.executeUpdate();
 
-            pstmt.executeUpdate();
+                ACCOUNTS_BY_ID.put(account.getId(), account);
+                ACCOUNTS_BY_NAME.put(nameKey(account.getUserId(), account.getName()), account);
+                ACCOUNTS_BY_USER.remove(account.getUserId());
 
-            LoggerUtils.logInfo(AccountRepository.class.getName(), "Account erfolgreich hinzugefügt: " + account.getUserId());
-            return true;
+                LoggerUtils.logInfo(AccountRepository.class.getName(), "Account erfolgreich hinzugefügt: {0}", account.getUserId());
+                return true;
 
-        } catch (SQLException e) {
-            LoggerUtils.logError(AccountRepository.class.getName(), "Fehler beim hinzufügen des Accounts:: " + account.getUserId(), e);
-            return false;
+            } catch (SQLException e) {
+                LoggerUtils.logError(AccountRepository.class.getName(), "Fehler beim hinzufügen des Accounts:: " + account.getUserId(), e);
+                return false;
+            }
+        } finally {
+            TIMER.stop("addAccount", started);
         }
     }
 
     /**
      * Methode zum Aktualisieren eines bestehenden Kontos in der Datenbank.
+     * Der Kontostand wird nicht überschrieben, da er ausschließlich aus den Transaktionen fortgeschrieben wird.
      *
      * @param account Das zu aktualisierende Konto.
      */
     public void updateAccount(Account account) {
-        String sql = "UPDATE accounts SET name = ?, balance = ? WHERE id = ?";
+        long started = Metrics.start();
+        try {
+            String sql = "UPDATE accounts SET name = ? WHERE id = ?";
+
+            try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
 
-        try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, account.getName());
+                pstmt.setString(2, account.getId());
 
-            pstmt.setString(1, account.getName());
-            pstmt.setDouble(2, account.getBalance());
-            pstmt.setString(3, account.getId());
+                pstmt.executeUpdate();
 
-            pstmt.executeUpdate();
+                // Die kanonische Instanz bleibt im Cache und übernimmt den Namen; der Kontostand des übergebenen
+                // Objekts kann veraltet sein und wird nicht übertragen
+                Account canonical = ACCOUNTS_BY_ID.putIfAbsent(account.getId(), account);
+                if (canonical != account) {
+                    String name = account.getName();
+                    SharedInstanceUpdates.apply(canonical, () -> canonical.setName(name));
+                }
+                ACCOUNTS_BY_NAME.removeIf((key, cached) -> cached.getId().equals(account.getId()));
+                ACCOUNTS_BY_NAME.put(nameKey(account.getUserId(), account.getName()), canonical);
+                ACCOUNTS_BY_USER.remove(account.getUserId());
 
-            LoggerUtils.logInfo(AccountRepository.class.getName(), "Account erfolgreich aktualisiert: " + account.getName());
+                LoggerUtils.logInfo(AccountRepository.class.getName(), "Account erfolgreich aktualisiert: {0}", account.getName());
 
-        } catch (SQLException e) {
-            LoggerUtils.logError(AccountRepository.class.getName(), "Fehler beim aktualisieren des Accounts: " + account.getName(), e);
+            } catch (SQLException e) {
+                LoggerUtils.logError(AccountRepository.class.getName(), "Fehler beim aktualisieren des Accounts: " + account.getName(), e);
+            }
+        } finally {
+            TIMER.stop("updateAccount", started);
         }
     }
 
     /**
-     * Löscht einen Account mit dieser spezifischen ID
+     * Löscht einen Account mit dieser spezifischen ID zusammen mit seinen Monatssummen
      *
      * @param accountId ID des zu löschenden Accounts
      * @throws SQLException Error Exception
      */
     public void deleteAccount(String accountId) throws SQLException {
-        String sql = "DELETE FROM accounts WHERE id = ?";
-        try (Connection connection = DatabaseManager.getConnection();
-             PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, accountId);
-            pstmt.executeUpdate();
-            LoggerUtils.logInfo(AccountRepository.class.getName(), "Deleted account: " + accountId);
-        } catch (SQLException e) {
-            LoggerUtils.logError(AccountRepository.class.getName(), "Error deleting account: " + accountId, e);
-            throw e;
+        long started = Metrics.start();
+        try {
+            String sql = "DELETE FROM accounts WHERE id = ?";
+            try (Connection connection = DatabaseManager.getConnection()) {
+                connection.setAutoCommit(false);
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    MonthlyRollup.deleteAccount(connection, accountId);
+                    pstmt.setString(1, accountId);
+                    pstmt.executeUpdate();
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                }
+                evictAccount(accountId);
+                LoggerUtils.logInfo(AccountRepository.class.getName(), "Deleted account: {0}", accountId);
+            } catch (SQLException e) {
+                LoggerUtils.logError(AccountRepository.class.getName(), "Error deleting account: " + accountId, e);
+                throw e;
+            }
+        } finally {
+            TIMER.stop("deleteAccount", started);
         }
     }
 
@@ -90,18 +145,23 @@ public class AccountRepository {
      * @throws SQLException bei einem Fehler im Datenbankzugriff.
      */
     public List<String> getAllAccountNames() throws SQLException {
-        List<String> accountNames = new ArrayList<>();
-        String sql = "SELECT name FROM accounts";
-        try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql); ResultSet rs = pstmt.executeQuery()) {
+        long started = Metrics.start();
+        try {
+            List<String> accountNames = new ArrayList<>();
+            String sql = "SELECT name FROM accounts";
+            try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql); ResultSet rs = pstmt.executeQuery()) {
 
-            while (rs.next()) {
-                accountNames.add(rs.getString("name"));
+                while (rs.next()) {
+                    accountNames.add(rs.getString("name"));
+                }
+            } catch (SQLException e) {
+                LoggerUtils.logError(AccountRepository.class.getName(), "Fehler beim abrufen der Accountnamen", e);
+                throw e;
             }
-        } catch (SQLException e) {
-            LoggerUtils.logError(AccountRepository.class.getName(), "Fehler beim abrufen der Accountnamen", e);
-            throw e;
+            return accountNames;
+        } finally {
+            TIMER.stop("getAllAccountNames", started);
         }
-        return accountNames;
     }
 
     /**
@@ -113,20 +173,32 @@ public class AccountRepository {
      * @throws SQLException bei einem Fehler im Datenbankzugriff.
      */
     public Account findAccountByName(String userId, String accountName) throws SQLException {
-        String sql = "SELECT * FROM accounts WHERE user_id = ? AND name = ?";
-        try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, userId);
-            pstmt.setString(2, accountName);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    LoggerUtils.logInfo(AccountRepository.class.getName(), "Account gefunden von Benutzer: " + userId + " und Accountname: " + accountName);
-                    return mapResultSetToAccount(rs);
+        long started = Metrics.start();
+        try {
+            Account cached = ACCOUNTS_BY_NAME.get(nameKey(userId, accountName));
+            if (cached != null) {
+                return cached;
+            }
+
+            String sql = "SELECT * FROM accounts WHERE user_id = ? AND name = ?";
+            try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, userId);
+                pstmt.setString(2, accountName);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        LoggerUtils.logInfo(AccountRepository.class.getName(), "Account gefunden von Benutzer: {0} und Accountname: {1}", userId, accountName);
+                        Account account = cacheAccount(mapResultSetToAccount(rs));
+                        ACCOUNTS_BY_NAME.put(nameKey(userId, accountName), account);
+                        return account;
+                    }
                 }
+
             }
 
+            return null;
+        } finally {
+            TIMER.stop("findAccountByName", started);
         }
-
-        return null;
     }
 
     /**
@@ -137,21 +209,32 @@ public class AccountRepository {
      * @throws SQLException bei einem Fehler im Datenbankzugriff.
      */
     public List<Account> getAllAccountsForUser(String userId) throws SQLException {
-        List<Account> accounts = new ArrayList<>();
-        String sql = "SELECT * FROM accounts WHERE user_id = ?";
-        try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, userId);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    accounts.add(mapResultSetToAccount(rs));
-                }
+        long started = Metrics.start();
+        try {
+            List<Account> cached = ACCOUNTS_BY_USER.get(userId);
+            if (cached != null) {
+                return new ArrayList<>(cached);
             }
 
-        } catch (SQLException e) {
-            LoggerUtils.logError(AccountRepository.class.getName(), "Fehler beim Abrufen der Accounts von Benutzer: " + userId, e);
-            throw e;
+            List<Account> accounts = new ArrayList<>();
+            String sql = "SELECT * FROM accounts WHERE user_id = ?";
+            try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, userId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        accounts.add(cacheAccount(mapResultSetToAccount(rs)));
+                    }
+                }
+
+            } catch (SQLException e) {
+                LoggerUtils.logError(AccountRepository.class.getName(), "Fehler beim Abrufen der Accounts von Benutzer: " + userId, e);
+                throw e;
+            }
+            ACCOUNTS_BY_USER.put(userId, List.copyOf(accounts));
+            return accounts;
+        } finally {
+            TIMER.stop("getAllAccountsForUser", started);
         }
-        return accounts;
     }
 
     /**
@@ -162,22 +245,288 @@ public class AccountRepository {
      * @throws SQLException bei einem Fehler im Datenbankzugriff.
      */
     public Account findAccountById(String accountId) throws SQLException {
-        if (accountId == null) return null;
-        String sql = "SELECT * FROM accounts WHERE id = ?";
-        try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        long started = Metrics.start();
+        try {
+            if (accountId == null) return null;
+            Account cached = ACCOUNTS_BY_ID.get(accountId);
+            if (cached != null) {
+                return cached;
+            }
+
+            String sql = "SELECT * FROM accounts WHERE id = ?";
+            try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, accountId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        LoggerUtils.logInfo(AccountRepository.class.getName(), "Account gefunden mit ID: {0}", accountId);
+                        return cacheAccount(mapResultSetToAccount(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                LoggerUtils.logError(AccountRepository.class.getName(), "Fehler beim Account abrufen mit Account ID: " + accountId, e);
+                throw e;
+            }
+            LoggerUtils.logInfo(AccountRepository.class.getName(), "Kein Account gefunden mit der ID: {0}", accountId);
+            return null;
+        } finally {
+            TIMER.stop("findAccountById", started);
+        }
+    }
+
+    /**
+     * Liest den gespeicherten Kontostand eines Kontos und aktualisiert die zwischengespeicherte Instanz.
+     *
+     * @param accountId Die ID des Kontos.
+     * @return Der aktuelle Kontostand in Cent oder 0, wenn das Konto nicht existiert.
+     * @throws SQLException bei einem Fehler im Datenbankzugriff.
+     */
+    public long getBalanceCents(String accountId) throws SQLException {
+        long started = Metrics.start();
+        try {
+            String sql = "SELECT balance_cents FROM accounts WHERE id = ?";
+            try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, accountId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return 0L;
+                    }
+                    long balance = rs.getLong("balance_cents");
+                    Account cached = ACCOUNTS_BY_ID.peek(accountId);
+                    if (cached != null) {
+                        applyBalanceCents(cached, balance);
+                    }
+                    return balance;
+                }
+            } catch (SQLException e) {
+                LoggerUtils.logError(AccountRepository.class.getName(), "Fehler beim Abrufen des Kontostands für Account: " + accountId, e);
+                throw e;
+            }
+        } finally {
+            TIMER.stop("getBalanceCents", started);
+        }
+    }
+
+    /**
+     * Liest die Summe der gespeicherten Kontostände aller Konten eines Benutzers direkt aus der Datenbank.
+     *
+     * @param userId Die ID des Benutzers.
+     * @return Die Summe der Kontostände in Cent, 0 für Benutzer ohne Konten.
+     * @throws SQLException bei einem Fehler im Datenbankzugriff.
+     */
+    public long getTotalBalanceCents(String userId) throws SQLException {
+        long started = Metrics.start();
+        try {
+            String sql = "SELECT COALESCE(SUM(balance_cents), 0) FROM accounts WHERE user_id = ?";
+            try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, userId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    return rs.getLong(1);
+                }
+            } catch (SQLException e) {
+                LoggerUtils.logError(AccountRepository.class.getName(), "Fehler beim Abrufen der Gesamtbilanz für Benutzer: " + userId, e);
+                throw e;
+            }
+        } finally {
+            TIMER.stop("getTotalBalanceCents", started);
+        }
+    }
+
+    /**
+     * Gleicht die gespeicherten Kontostände mit der Summe der Transaktionen ab und korrigiert Abweichungen.
+     * Jedes abweichende Konto wird unter einer Zeilensperre neu berechnet, sodass gleichzeitig laufende
+     * Buchungen entweder vollständig vor oder vollständig nach der Korrektur wirksam werden.
+     *
+     * @return Die Anzahl der korrigierten Konten.
+     * @throws SQLException bei einem Fehler im Datenbankzugriff.
+     */
+    public int reconcileBalances() throws SQLException {
+        long started = Metrics.start();
+        try {
+            String findDriftSql = "SELECT a.id FROM accounts a "
+                    + "LEFT JOIN (SELECT account_id, SUM(amount_cents) AS total FROM transactions GROUP BY account_id) t ON t.account_id = a.id "
+                    + "WHERE a.balance_cents <> COALESCE(t.total, 0)";
+            String lockSql = "SELECT balance_cents FROM accounts WHERE id = ? FOR UPDATE";
+            String sumSql = "SELECT COALESCE(SUM(amount_cents), 0) FROM transactions WHERE account_id = ?";
+            String updateSql = "UPDATE accounts SET balance_cents = ? WHERE id = ?";
+
+            List<String> driftedAccountIds = new ArrayList<>();
+            int corrected = 0;
+            try (Connection connection = DatabaseManager.getConnection()) {
+                try (PreparedStatement pstmt = connection.prepareStatement(findDriftSql);
+                     ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        driftedAccountIds.add(rs.getString(1));
+                    }
+                }
+
+                for (String accountId : driftedAccountIds) {
+                    connection.setAutoCommit(false);
+                    try (PreparedStatement lockStmt = connection.prepareStatement(lockSql);
+                         PreparedStatement sumStmt = connection.prepareStatement(sumSql);
+                         PreparedStatement updateStmt = connection.prepareStatement(updateSql)) {
+                        lockStmt.setString(1, accountId);
+                        long storedBalance;
+                        try (ResultSet rs = lockStmt.executeQuery()) {
+                            if (!rs.next()) {
+                                connection.rollback();
+                                continue;
+                            }
+                            storedBalance = rs.getLong(1);
+                        }
+                        sumStmt.setString(1, accountId);
+                        long expectedBalance;
+                        try (ResultSet rs = sumStmt.executeQuery()) {
+                            rs.next();
+                            expectedBalance = rs.getLong(1);
+                        }
+                        if (storedBalance != expectedBalance) {
+                            updateStmt.setLong(1, expectedBalance);
+                            updateStmt.setString(2, accountId);
+                            updateStmt.executeUpdate();
+                            corrected++;
+                            LoggerUtils.logInfo(AccountRepository.class.getName(), () -> "Kontostand korrigiert für Account: " + accountId
+                                    + " (gespeichert: " + Money.format(storedBalance) + ", erwartet: " + Money.format(expectedBalance) + ")");
+                        }
+                        connection.commit();
+                        Account cached = ACCOUNTS_BY_ID.peek(accountId);
+                        if (cached != null) {
+                            applyBalanceCents(cached, expectedBalance);
+                        }
+                    } catch (SQLException e) {
+                        connection.rollback();
+                        throw e;
+                    } finally {
+                        connection.setAutoCommit(true);
+                    }
+                }
+            } catch (SQLException e) {
+                LoggerUtils.logError(AccountRepository.class.getName(), "Fehler beim Abgleich der Kontostände", e);
+                throw e;
+            }
+            return corrected;
+        } finally {
+            TIMER.stop("reconcileBalances", started);
+        }
+    }
+
+    /**
+     * Schreibt eine Änderung des Kontostands innerhalb einer laufenden Datenbanktransaktion fort und liefert den
+     * neuen Kontostand, den die Transaktion unter der Zeilensperre gelesen hat.
+     *
+     * @param connection Die Verbindung der laufenden Transaktion.
+     * @param accountId  Die ID des Kontos, darf null sein.
+     * @param delta      Die Änderung des Kontostands in Cent.
+     * @return Der neue Kontostand in Cent oder null, wenn nichts geändert wurde.
+     * @throws SQLException bei einem Fehler im Datenbankzugriff.
+     */
+    Long applyBalanceDelta(Connection connection, String accountId, long delta) throws SQLException {
+        if (accountId == null || delta == 0) {
+            return null;
+        }
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "SELECT balance_cents FROM FINAL TABLE (UPDATE accounts SET balance_cents = balance_cents + ? WHERE id = ?)")) {
+            pstmt.setLong(1, delta);
+            pstmt.setString(2, accountId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Sperrt ein Konto bis zum Ende der UnitOfWork und liefert seinen gespeicherten Kontostand.
+     *
+     * @param work      Die laufende UnitOfWork.
+     * @param accountId Die ID des Kontos.
+     * @return Der gespeicherte Kontostand in Cent.
+     * @throws SQLException Wenn das Konto nicht existiert oder ein Datenbankfehler auftritt.
+     */
+    public long lockBalanceCents(UnitOfWork work, String accountId) throws SQLException {
+        long started = Metrics.start();
+        try (PreparedStatement pstmt = work.getConnection().prepareStatement("SELECT balance_cents FROM accounts WHERE id = ? FOR UPDATE")) {
             pstmt.setString(1, accountId);
             try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    LoggerUtils.logInfo(AccountRepository.class.getName(), "Account gefunden mit ID: " + accountId);
-                    return mapResultSetToAccount(rs);
+                if (!rs.next()) {
+                    throw new SQLException("Kein Account gefunden mit der ID: " + accountId);
                 }
+                return rs.getLong("balance_cents");
             }
-        } catch (SQLException e) {
-            LoggerUtils.logError(AccountRepository.class.getName(), "Fehler beim Account abrufen mit Account ID: " + accountId, e);
-            throw e;
+        } finally {
+            TIMER.stop("lockBalanceCents", started);
+        }
+    }
+
+    /**
+     * Überträgt einen festgeschriebenen Kontostand auf die zwischengespeicherte Instanz. Übertragen wird der absolute
+     * Wert aus {@link #applyBalanceDelta}, keine Differenz: Hat ein gleichzeitiges Laden denselben Stand bereits
+     * übernommen, wird er nicht ein zweites Mal addiert.
+     *
+     * @param accountId    Die ID des Kontos, darf null sein.
+     * @param balanceCents Der festgeschriebene Kontostand in Cent oder null, wenn er sich nicht geändert hat.
+     */
+    void applyCachedBalance(String accountId, Long balanceCents) {
+        if (accountId == null || balanceCents == null) {
+            return;
+        }
+        Account cached = ACCOUNTS_BY_ID.peek(accountId);
+        if (cached != null) {
+            applyBalanceCents(cached, balanceCents);
+        }
+    }
+
+    /**
+     * Überträgt einen gelesenen Kontostand auf ein Kontoobjekt, das zwischengespeichert und an die Oberfläche
+     * gebunden sein kann. Außerhalb des JavaFX Application Thread wird die Änderung dorthin weitergereicht.
+     *
+     * @param account      Das Konto.
+     * @param balanceCents Der Kontostand in Cent.
+     */
+    public void applyBalanceCents(Account account, long balanceCents) {
+        SharedInstanceUpdates.apply(account, () -> account.setBalanceCents(balanceCents));
+    }
+
+    /**
+     * Liefert die Statistiken der Konto-Caches.
+     *
+     * @return Eine Liste mit den Statistiken aller Konto-Caches.
+     */
+    public static List<EntityCache.Statistics> getCacheStatistics() {
+        return List.of(ACCOUNTS_BY_ID.getStatistics(), ACCOUNTS_BY_NAME.getStatistics(), ACCOUNTS_BY_USER.getStatistics());
+    }
+
+    /**
+     * Liefert die zwischengespeicherte Instanz eines geladenen Kontos. Ist das Konto bereits bekannt,
+     * wird die vorhandene Instanz mit den geladenen Werten aktualisiert und zurückgegeben,
+     * sodass im ganzen Prozess pro Konto-ID nur ein Objekt existiert. Die Aktualisierung läuft wie alle
+     * Änderungen an geteilten Instanzen über {@link SharedInstanceUpdates}.
+     *
+     * @param loaded Das aus der Datenbank geladene Konto.
+     * @return Die kanonische Instanz des Kontos.
+     */
+    Account cacheAccount(Account loaded) {
+        Account cached = ACCOUNTS_BY_ID.putIfAbsent(loaded.getId(), loaded);
+        if (cached != loaded) {
+            String name = loaded.getName();
+            long balanceCents = loaded.getBalanceCents();
+            SharedInstanceUpdates.apply(cached, () -> {
+                cached.setName(name);
+                cached.setBalanceCents(balanceCents);
+            });
         }
-        LoggerUtils.logInfo(AccountRepository.class.getName(), "Kein Account gefunden mit der ID: " + accountId);
-        return null;
+        return cached;
+    }
+
+    // Entfernt ein Konto aus allen Caches
+    private static void evictAccount(String accountId) {
+        ACCOUNTS_BY_ID.remove(accountId);
+        ACCOUNTS_BY_NAME.removeIf((key, cached) -> cached.getId().equals(accountId));
+        ACCOUNTS_BY_USER.removeIf((userId, accounts) -> accounts.stream().anyMatch(cached -> cached.getId().equals(accountId)));
+    }
+
+    // Schlüssel für den Cache nach Benutzer und Kontoname
+    private static String nameKey(String userId, String accountName) {
+        return userId + '\u0000' + accountName;
     }
 
     /**
@@ -188,7 +537,7 @@ public class AccountRepository {
      * @throws SQLException bei einem Fehler beim Abrufen der Daten.
      */
     private Account mapResultSetToAccount(ResultSet rs) throws SQLException {
-        return new Account(rs.getString("id"), rs.getString("user_id"), rs.getString("name"), rs.getDouble("balance"));
+        return new Account(rs.getString("id"), rs.getString("user_id"), rs.getString("name"), rs.getLong("balance_cents"));
     }
 
 }
@@ -2,6 +2,9 @@ package myProject.repository;
 
 import myProject.model.Category;
 import myProject.db.DatabaseManager;
+import myProject.db.MonthlyRollup;
+import myProject.metrics.MethodTimer;
+import myProject.metrics.Metrics;
 import myProject.util.LoggerUtils;
 
 import java.sql.*;
@@ -13,9 +16,20 @@ import java.util.UUID;
 /**
  * Das CategoryRepository ist für die Datenbankzugriffe im Zusammenhang mit Kategorien verantwortlich.
  * Es bietet Methoden zum Hinzufügen, Abrufen, Aktualisieren und Löschen von Kategorien.
+ * Geladene Kategorien werden prozessweit nach ID, nach (Benutzer, Name) und als Kategorienliste pro Benutzer
+ * zwischengespeichert; schreibende Methoden aktualisieren bzw. invalidieren diese Caches.
  */
 public class CategoryRepository {
 
+    private static final MethodTimer TIMER = Metrics.timer(CategoryRepository.class);
+
+    private static final int MAX_CACHED_CATEGORIES = 1_000;
+    private static final int MAX_CACHED_USERS = 100;
+
+    private static final EntityCache<String, Category> CATEGORIES_BY_ID = new EntityCache<>("categoriesById", MAX_CACHED_CATEGORIES);
+    private static final EntityCache<String, Category> CATEGORIES_BY_NAME = new EntityCache<>("categoriesByName", MAX_CACHED_CATEGORIES);
+    private static final EntityCache<String, List<Category>> CATEGORIES_BY_USER = new EntityCache<>("categoriesByUser", MAX_CACHED_USERS);
+
     /**
      * Methode zum Hinzufügen einer neuen Kategorie in die Datenbank. Benutzerdefinierte Kategorien sind mit einem Benutzer verknüpft.
      *
@@ -24,30 +38,39 @@ public class CategoryRepository {
      * @return true, wenn die Kategorie erfolgreich hinzugefügt wurde, false bei einem Fehler.
      */
     public boolean addCategory(Category category, String userId) {
-        String sql = "INSERT INTO categories (id, name, budget, user_id) VALUES (?, ?, ?, ?)";
+        long started = Metrics.start();
+        try {
+            String sql = "INSERT INTO categories (id, name, budget_cents, user_id) VALUES (?, ?, ?, ?)";
 
-        try (Connection connection = DatabaseManager.getConnection();
-             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            try (Connection connection = DatabaseManager.getConnection();
+                 PreparedStatement pstmt = connection.prepareStatement(sql)) {
 
-            pstmt.setString(1, category.getId());
-            pstmt.setString(2, category.getName());
+                pstmt.setString(1, category.getId());
+                pstmt.setString(2, category.getName());
 
-            if (category.getBudget() != null) {
-                pstmt.setDouble(3, category.getBudget());
-            } else {
-                pstmt.setNull(3, java.sql.Types.DOUBLE);
-            }
+                if (category.getBudgetCents() != null) {
+                    pstmt.setLong(3, category.getBudgetCents());
+                } else {
+                    pstmt.setNull(3, java.sql.Types.BIGINT);
+                }
 
-            pstmt.setString(4, userId);
+                pstmt.setString(4, userId);
 
-            pstmt.executeUpdate();
+                pstmt.executeUpdate();
 
-            LoggerUtils.logInfo(CategoryRepository.class.getName(), "Kategorie erfolgreich hinzugefügt: " + category.getName());
-            return true;
+                CATEGORIES_BY_ID.put(category.getId(), category);
+                CATEGORIES_BY_NAME.put(nameKey(userId, category.getName()), category);
+                CATEGORIES_BY_USER.remove(userId);
 
-        } catch (SQLException e) {
-            LoggerUtils.logError(CategoryRepository.class.getName(), "Fehler beim Hinzufügen der Kategorie: " + category.getName(), e);
-            return false;
+                LoggerUtils.logInfo(CategoryRepository.class.getName(), "Kategorie erfolgreich hinzugefügt: {0}", category.getName());
+                return true;
+
+            } catch (SQLException e) {
+                LoggerUtils.logError(CategoryRepository.class.getName(), "Fehler beim Hinzufügen der Kategorie: " + category.getName(), e);
+                return false;
+            }
+        } finally {
+            TIMER.stop("addCategory", started);
         }
     }
 
@@ -60,69 +83,108 @@ public class CategoryRepository {
      * @return true, wenn die Kategorie erfolgreich aktualisiert wurde, false bei einem Fehler.
      */
     public boolean updateCategory(Category category) {
-        String sql = "UPDATE categories SET name = ?, budget = ? WHERE id = ?";
+        long started = Metrics.start();
+        try {
+            String sql = "UPDATE categories SET name = ?, budget_cents = ? WHERE id = ?";
 
-        try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
 
-            pstmt.setString(1, category.getName());
-            if (category.getBudget() != null) {
-                pstmt.setDouble(2, category.getBudget());
-            } else {
-                pstmt.setNull(2, java.sql.Types.DOUBLE);  // Set NULL if the budget is not provided
-            }
-            pstmt.setString(3, category.getId());
+                pstmt.setString(1, category.getName());
+                if (category.getBudgetCents() != null) {
+                    pstmt.setLong(2, category.getBudgetCents());
+                } else {
+                    pstmt.setNull(2, java.sql.Types.BIGINT);  // Set NULL if the budget is not provided
+                }
+                pstmt.setString(3, category.getId());
 
-            pstmt.executeUpdate();
-            LoggerUtils.logInfo(CategoryRepository.class.getName(), "Kategorie erfolgreich aktualisiert: " + category.getName());
-            return true;
+                pstmt.executeUpdate();
 
-        } catch (SQLException e) {
-            LoggerUtils.logError(CategoryRepository.class.getName(), "Fehler beim Aktualisieren der Kategorie: " + category.getName(), e);
-            return false;
+                // Die kanonische Instanz bleibt im Cache und übernimmt die neuen Werte; der Benutzer der Kategorie
+                // ist hier nicht bekannt, daher werden Namens- und Listeneinträge invalidiert
+                cacheCategory(category);
+                CATEGORIES_BY_NAME.removeIf((key, cached) -> cached.getId().equals(category.getId()));
+                CATEGORIES_BY_USER.removeIf((userId, categories) -> categories.stream().anyMatch(cached -> cached.getId().equals(category.getId())));
+
+                LoggerUtils.logInfo(CategoryRepository.class.getName(), "Kategorie erfolgreich aktualisiert: {0}", category.getName());
+                return true;
+
+            } catch (SQLException e) {
+                LoggerUtils.logError(CategoryRepository.class.getName(), "Fehler beim Aktualisieren der Kategorie: " + category.getName(), e);
+                return false;
+            }
+        } finally {
+            TIMER.stop("updateCategory", started);
         }
     }
 
 
     // Methode zum Löschen einer Kategorie
     public boolean deleteCategory(String categoryId) {
-        String sql = "DELETE FROM categories WHERE id = ?";
+        long started = Metrics.start();
+        try {
+            String sql = "DELETE FROM categories WHERE id = ?";
 
-        try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
 
-            pstmt.setString(1, categoryId);
-            pstmt.executeUpdate();
+                pstmt.setString(1, categoryId);
+                pstmt.executeUpdate();
 
-            LoggerUtils.logInfo(CategoryRepository.class.getName(), "Kategorie erfolgreich gelöscht: " + categoryId);
-            return true;
+                evictCategory(categoryId);
 
-        } catch (SQLException e) {
-            LoggerUtils.logError(CategoryRepository.class.getName(), "Fehler beim Löschen der Kategorie: " + categoryId, e);
-            return false;
-        }
-    }
+                LoggerUtils.logInfo(CategoryRepository.class.getName(), "Kategorie erfolgreich gelöscht: {0}", categoryId);
+                return true;
 
-    public void updateTransactionsToNoCategory(String categoryId, String userId) {
-        // Ermitteln der "No Category" ID für den Benutzer
-        String noCategoryId = findNoCategoryIdForUser(userId);
-        if (noCategoryId == null) {
-            LoggerUtils.logError(CategoryRepository.class.getName(), "Keine 'No Category' Kategorie gefunden für Benutzer: " + userId, null);
-            return;
+            } catch (SQLException e) {
+                LoggerUtils.logError(CategoryRepository.class.getName(), "Fehler beim Löschen der Kategorie: " + categoryId, e);
+                return false;
+            }
+        } finally {
+            TIMER.stop("deleteCategory", started);
         }
+    }
 
-        String sql = "UPDATE transactions SET category_id = ? WHERE category_id = ? AND account_id IN (SELECT id FROM accounts WHERE user_id = ?)";
-
-        try (Connection connection = DatabaseManager.getConnection();
-             PreparedStatement pstmt = connection.prepareStatement(sql)) {
-
-            pstmt.setString(1, noCategoryId);
-            pstmt.setString(2, categoryId);
-            pstmt.setString(3, userId);
-            pstmt.executeUpdate();
+    /**
+     * Ordnet alle Transaktionen einer Kategorie der "No Category" des Benutzers zu und hängt die
+     * Monatssummen in derselben Datenbanktransaktion um.
+     *
+     * @param categoryId Die ID der bisherigen Kategorie.
+     * @param userId     Die ID des Benutzers.
+     * @return Die ID der "No Category" oder null bei einem Fehler.
+     */
+    public String updateTransactionsToNoCategory(String categoryId, String userId) {
+        long started = Metrics.start();
+        try {
+            // Ermitteln der "No Category" ID für den Benutzer
+            String noCategoryId = findNoCategoryIdForUser(userId);
+            if (noCategoryId == null) {
+                LoggerUtils.logError(CategoryRepository.class.getName(), "Keine 'No Category' Kategorie gefunden für Benutzer: " + userId, null);
+                return null;
+            }
 
-            LoggerUtils.logInfo(CategoryRepository.class.getName(), "Transaktionen erfolgreich auf 'No Category' gesetzt für Kategorie: " + categoryId);
+            String sql = "UPDATE transactions SET category_id = ? WHERE category_id = ? AND account_id IN (SELECT id FROM accounts WHERE user_id = ?)";
+
+            try (Connection connection = DatabaseManager.getConnection()) {
+                connection.setAutoCommit(false);
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    pstmt.setString(1, noCategoryId);
+                    pstmt.setString(2, categoryId);
+                    pstmt.setString(3, userId);
+                    pstmt.executeUpdate();
+                    MonthlyRollup.moveCategory(connection, userId, categoryId, noCategoryId);
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                }
 
-        } catch (SQLException e) {
-            LoggerUtils.logError(CategoryRepository.class.getName(), "Fehler beim Aktualisieren der Transaktionen für Kategorie: " + categoryId, e);
+                LoggerUtils.logInfo(CategoryRepository.class.getName(), "Transaktionen erfolgreich auf ''No Category'' gesetzt für Kategorie: {0}", categoryId);
+                return noCategoryId;
+            } catch (SQLException e) {
+                LoggerUtils.logError(CategoryRepository.class.getName(), "Fehler beim Aktualisieren der Transaktionen für Kategorie: " + categoryId, e);
+                return null;
+            }
+        } finally {
+            TIMER.stop("updateTransactionsToNoCategory", started);
         }
     }
 
@@ -152,25 +214,35 @@ public class CategoryRepository {
      * @throws SQLException Wenn ein Fehler bei der Datenbankabfrage auftritt.
      */
     public Category findCategoryById(String categoryId) throws SQLException {
-        if (categoryId == null) return null;
-        String sql = "SELECT * FROM categories WHERE id = ?";
+        long started = Metrics.start();
+        try {
+            if (categoryId == null) return null;
+            Category cached = CATEGORIES_BY_ID.get(categoryId);
+            if (cached != null) {
+                return cached;
+            }
 
-        try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            String sql = "SELECT * FROM categories WHERE id = ?";
 
-            pstmt.setString(1, categoryId);
+            try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
 
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    LoggerUtils.logInfo(CategoryRepository.class.getName(), "Kategorie erfolgreich gefunden: " + categoryId);
-                    return mapResultSetToCategory(rs);
+                pstmt.setString(1, categoryId);
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        LoggerUtils.logInfo(CategoryRepository.class.getName(), "Kategorie erfolgreich gefunden: {0}", categoryId);
+                        return cacheCategory(mapResultSetToCategory(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                LoggerUtils.logError(CategoryRepository.class.getName(), "Fehler beim Abrufen der Kategorie mit ID: " + categoryId, e);
+                throw e;
             }
-        } catch (SQLException e) {
-            LoggerUtils.logError(CategoryRepository.class.getName(), "Fehler beim Abrufen der Kategorie mit ID: " + categoryId, e);
-            throw e;
-        }
 
-        return null;
+            return null;
+        } finally {
+            TIMER.stop("findCategoryById", started);
+        }
     }
 
     /**
@@ -182,23 +254,35 @@ public class CategoryRepository {
      * @throws SQLException Wenn ein Datenbankfehler auftritt.
      */
     public Category findCategoryByName(String userId, String categoryName) throws SQLException {
-        String sql = "SELECT * FROM categories WHERE user_id = ? AND name = ?";
-        try (Connection connection = DatabaseManager.getConnection();
-             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        long started = Metrics.start();
+        try {
+            Category cached = CATEGORIES_BY_NAME.get(nameKey(userId, categoryName));
+            if (cached != null) {
+                return cached;
+            }
 
-            pstmt.setString(1, userId);
-            pstmt.setString(2, categoryName);
+            String sql = "SELECT * FROM categories WHERE user_id = ? AND name = ?";
+            try (Connection connection = DatabaseManager.getConnection();
+                 PreparedStatement pstmt = connection.prepareStatement(sql)) {
 
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSetToCategory(rs);
+                pstmt.setString(1, userId);
+                pstmt.setString(2, categoryName);
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        Category category = cacheCategory(mapResultSetToCategory(rs));
+                        CATEGORIES_BY_NAME.put(nameKey(userId, categoryName), category);
+                        return category;
+                    }
                 }
+            } catch (SQLException e) {
+                LoggerUtils.logError(CategoryRepository.class.getName(), "Fehler beim Abrufen der Kategorie mit Namen: " + categoryName + " für Benutzer: " + userId, e);
+                throw e;
             }
-        } catch (SQLException e) {
-            LoggerUtils.logError(CategoryRepository.class.getName(), "Fehler beim Abrufen der Kategorie mit Namen: " + categoryName + " für Benutzer: " + userId, e);
-            throw e;
+            return null;
+        } finally {
+            TIMER.stop("findCategoryByName", started);
         }
-        return null;
     }
 
 
@@ -210,25 +294,38 @@ public class CategoryRepository {
      * @return Eine Liste aller Kategorien des Benutzers.
      */
     public List<Category> getAllCategoriesForUser(String userId) {
-        String sql = "SELECT * FROM categories WHERE user_id = ?";
-        List<Category> categories = new ArrayList<>();
+        long started = Metrics.start();
+        try {
+            List<Category> cached = userId != null ? CATEGORIES_BY_USER.get(userId) : null;
+            if (cached != null) {
+                return new ArrayList<>(cached);
+            }
 
-        try (Connection connection = DatabaseManager.getConnection();
-             PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, userId);
+            String sql = "SELECT * FROM categories WHERE user_id = ?";
+            List<Category> categories = new ArrayList<>();
 
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    categories.add(mapResultSetToCategory(rs));
+            try (Connection connection = DatabaseManager.getConnection();
+                 PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, userId);
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        categories.add(cacheCategory(mapResultSetToCategory(rs)));
+                    }
+                }
+
+                if (userId != null) {
+                    CATEGORIES_BY_USER.put(userId, List.copyOf(categories));
                 }
+                LoggerUtils.logInfo(CategoryRepository.class.getName(), "Kategorien erfolgreich abgerufen für Benutzer: {0}", userId);
+            } catch (SQLException e) {
+                LoggerUtils.logError(CategoryRepository.class.getName(), "Fehler beim Abrufen der Kategorien für Benutzer: " + userId, e);
             }
 
-            LoggerUtils.logInfo(CategoryRepository.class.getName(), "Kategorien erfolgreich abgerufen für Benutzer: " + userId);
-        } catch (SQLException e) {
-            LoggerUtils.logError(CategoryRepository.class.getName(), "Fehler beim Abrufen der Kategorien für Benutzer: " + userId, e);
+            return categories;
+        } finally {
+            TIMER.stop("getAllCategoriesForUser", started);
         }
-
-        return categories;
     }
 
 
@@ -238,28 +335,76 @@ public class CategoryRepository {
      * @param categoryId Die ID der Kategorie.
      * @param startDate  Das Startdatum des Zeitraums.
      * @param endDate    Das Enddatum des Zeitraums.
-     * @return Die Gesamtsumme der Ausgaben für die Kategorie in dem Zeitraum.
+     * @return Die Gesamtsumme der Ausgaben für die Kategorie in dem Zeitraum in Cent.
      */
-    public double getSpentAmountForCategoryInPeriod(String categoryId, LocalDate startDate, LocalDate endDate) {
-        String sql = "SELECT SUM(amount) AS totalSpent FROM transactions WHERE category_id = ? AND date >= ? AND date <= ? AND type = 'expense'";
-        double totalSpent = 0;
+    public long getSpentCentsForCategoryInPeriod(String categoryId, LocalDate startDate, LocalDate endDate) {
+        long started = Metrics.start();
+        try {
+            String sql = "SELECT SUM(amount_cents) AS totalSpent FROM transactions WHERE category_id = ? AND date >= ? AND date <= ? AND type = 'expense'";
+            long totalSpent = 0;
+
+            try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+
+                pstmt.setString(1, categoryId);
+                pstmt.setDate(2, java.sql.Date.valueOf(startDate));
+                pstmt.setDate(3, java.sql.Date.valueOf(endDate));
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        totalSpent = rs.getLong("totalSpent");
+                    }
+                }
+            } catch (SQLException e) {
+                LoggerUtils.logError(CategoryRepository.class.getName(), "Fehler beim Abrufen der Ausgaben für Kategorie: " + categoryId + " im Zeitraum von " + startDate + " bis " + endDate, e);
+            }
 
-        try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            return totalSpent;
+        } finally {
+            TIMER.stop("getSpentCentsForCategoryInPeriod", started);
+        }
+    }
 
-            pstmt.setString(1, categoryId);
-            pstmt.setDate(2, java.sql.Date.valueOf(startDate));
-            pstmt.setDate(3, java.sql.Date.valueOf(endDate));
+    /**
+     * Liefert die Statistiken der Kategorie-Caches.
+     *
+     * @return Eine Liste mit den Statistiken aller Kategorie-Caches.
+     */
+    public static List<EntityCache.Statistics> getCacheStatistics() {
+        return List.of(CATEGORIES_BY_ID.getStatistics(), CATEGORIES_BY_NAME.getStatistics(), CATEGORIES_BY_USER.getStatistics());
+    }
 
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    totalSpent = rs.getDouble("totalSpent");
-                }
-            }
-        } catch (SQLException e) {
-            LoggerUtils.logError(CategoryRepository.class.getName(), "Fehler beim Abrufen der Ausgaben für Kategorie: " + categoryId + " im Zeitraum von " + startDate + " bis " + endDate, e);
+    /**
+     * Liefert die zwischengespeicherte Instanz einer geladenen Kategorie. Ist die Kategorie bereits bekannt,
+     * wird die vorhandene Instanz mit den geladenen Werten aktualisiert und zurückgegeben,
+     * sodass im ganzen Prozess pro Kategorie-ID nur ein Objekt existiert. Die Aktualisierung läuft wie alle
+     * Änderungen an geteilten Instanzen über {@link SharedInstanceUpdates}.
+     *
+     * @param loaded Die aus der Datenbank geladene Kategorie.
+     * @return Die kanonische Instanz der Kategorie.
+     */
+    Category cacheCategory(Category loaded) {
+        Category cached = CATEGORIES_BY_ID.putIfAbsent(loaded.getId(), loaded);
+        if (cached != loaded) {
+            String name = loaded.getName();
+            Long budgetCents = loaded.getBudgetCents();
+            SharedInstanceUpdates.apply(cached, () -> {
+                cached.setName(name);
+                cached.setBudgetCents(budgetCents);
+            });
         }
+        return cached;
+    }
+
+    // Entfernt eine Kategorie aus allen Caches
+    private static void evictCategory(String categoryId) {
+        CATEGORIES_BY_ID.remove(categoryId);
+        CATEGORIES_BY_NAME.removeIf((key, cached) -> cached.getId().equals(categoryId));
+        CATEGORIES_BY_USER.removeIf((userId, categories) -> categories.stream().anyMatch(cached -> cached.getId().equals(categoryId)));
+    }
 
-        return totalSpent;
+    // Schlüssel für den Cache nach Benutzer und Kategoriename
+    private static String nameKey(String userId, String categoryName) {
+        return userId + '\u0000' + categoryName;
     }
 
     /**
@@ -270,6 +415,6 @@ public class CategoryRepository {
      * @throws SQLException Wenn ein Fehler bei der Abfrage auftritt.
      */
     private Category mapResultSetToCategory(ResultSet rs) throws SQLException {
-        return new Category(rs.getString("id"), rs.getString("name"), rs.getObject("budget") != null ? rs.getDouble("budget") : null);
+        return new Category(rs.getString("id"), rs.getString("name"), rs.getObject("budget_cents", Long.class));
     }
 }
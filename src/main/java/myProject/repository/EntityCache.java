@@ -0,0 +1,157 @@
+package myProject.repository;
+
+import myProject.metrics.Metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * Begrenzter, threadsicherer LRU-Cache für Entitäten der Repositories.
+ * Werden mehr als {@code maxSize} Einträge gespeichert, wird der am längsten nicht verwendete Eintrag verdrängt.
+ * Treffer, Fehlzugriffe und Verdrängungen werden gezählt und können über {@link #getStatistics()} abgefragt werden;
+ * Größe und Trefferquote stehen zusätzlich als Metriken {@code cache.<Name>.size} und {@code cache.<Name>.hitRate} bereit.
+ *
+ * @param <K> Typ des Schlüssels.
+ * @param <V> Typ der gespeicherten Werte.
+ */
+public final class EntityCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final LinkedHashMap<K, V> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Erstellt einen neuen Cache.
+     *
+     * @param name    Name des Caches, wird in den Statistiken ausgegeben.
+     * @param maxSize Maximale Anzahl an Einträgen.
+     */
+    public EntityCache(String name, int maxSize) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > EntityCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+        Metrics.gauge("cache." + name + ".size", () -> getStatistics().size());
+        Metrics.gauge("cache." + name + ".hitRate", () -> getStatistics().hitRate());
+    }
+
+    /**
+     * Liefert den Wert zu einem Schlüssel und zählt Treffer bzw. Fehlzugriffe.
+     *
+     * @param key Der Schlüssel.
+     * @return Der gespeicherte Wert oder null, wenn kein Eintrag vorhanden ist.
+     */
+    public synchronized V get(K key) {
+        V value = entries.get(key);
+        if (value != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return value;
+    }
+
+    /**
+     * Liefert den Wert zu einem Schlüssel, ohne die Statistiken zu verändern.
+     *
+     * @param key Der Schlüssel.
+     * @return Der gespeicherte Wert oder null, wenn kein Eintrag vorhanden ist.
+     */
+    public synchronized V peek(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Speichert oder ersetzt einen Eintrag.
+     *
+     * @param key   Der Schlüssel.
+     * @param value Der Wert.
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    /**
+     * Speichert einen Wert nur, wenn noch kein Eintrag vorhanden ist.
+     *
+     * @param key   Der Schlüssel.
+     * @param value Der Wert.
+     * @return Der bereits gespeicherte Wert oder der neu gespeicherte Wert.
+     */
+    public synchronized V putIfAbsent(K key, V value) {
+        V existing = entries.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        entries.put(key, value);
+        return value;
+    }
+
+    /**
+     * Entfernt einen Eintrag.
+     *
+     * @param key Der Schlüssel.
+     */
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Entfernt alle Einträge, auf die die Bedingung zutrifft.
+     *
+     * @param condition Bedingung auf Schlüssel und Wert.
+     */
+    public synchronized void removeIf(BiPredicate<K, V> condition) {
+        entries.entrySet().removeIf(entry -> condition.test(entry.getKey(), entry.getValue()));
+    }
+
+    /**
+     * Leert den Cache. Die Statistiken bleiben erhalten.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Liefert eine Momentaufnahme der Cache-Statistiken.
+     *
+     * @return Die aktuellen Statistiken.
+     */
+    public synchronized Statistics getStatistics() {
+        return new Statistics(name, entries.size(), maxSize, hits, misses, evictions);
+    }
+
+    /**
+     * Unveränderliche Momentaufnahme der Cache-Statistiken.
+     *
+     * @param name      Name des Caches.
+     * @param size      Aktuelle Anzahl an Einträgen.
+     * @param maxSize   Maximale Anzahl an Einträgen.
+     * @param hits      Anzahl der Treffer.
+     * @param misses    Anzahl der Fehlzugriffe.
+     * @param evictions Anzahl der verdrängten Einträge.
+     */
+    public record Statistics(String name, int size, int maxSize, long hits, long misses, long evictions) {
+
+        /**
+         * @return Anteil der Treffer an allen Zugriffen zwischen 0 und 1.
+         */
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package myProject.repository;
+
+import myProject.db.DatabaseManager;
+import myProject.util.LoggerUtils;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Das ReportRepository berechnet die Aggregationen für Finanzberichte direkt in der Datenbank.
+ * Gruppierung und Summenbildung erfolgen per GROUP BY in H2, sodass pro Gruppe nur eine kompakte
+ * Ergebniszeile übertragen wird und keine Transaction-Objekte erzeugt werden. Alle Summen werden exakt in Cent geliefert.
+ * <p>
+ * Ganze Monate eines Zeitraums werden aus den Monatssummen der Tabelle {@code monthly_rollup} gelesen
+ * (siehe {@link myProject.db.MonthlyRollup}); nur angebrochene Monate am Anfang und Ende des Zeitraums werden aus
+ * den einzelnen Transaktionen summiert. Mit {@code -Dsmartfinance.reports.rollup.enabled=false} wird immer
+ * über die Transaktionen summiert.
+ */
+public class ReportRepository {
+
+    private static final boolean ROLLUP_ENABLED = Boolean.parseBoolean(System.getProperty("smartfinance.reports.rollup.enabled", "true"));
+
+    // Ausgaben pro Kategoriename; Transaktionen ohne Kategorie werden unter "Uncategorized" zusammengefasst
+    private static final String SELECT_CATEGORY_EXPENSES = "SELECT COALESCE(c.name, 'Uncategorized') AS category_name, SUM(ABS(t.amount_cents)) AS total "
+            + "FROM transactions t "
+            + "JOIN accounts a ON a.id = t.account_id "
+            + "LEFT JOIN categories c ON c.id = t.category_id "
+            + "WHERE a.user_id = ? AND t.date >= ? AND t.date <= ? AND LOWER(t.type) = 'expense' "
+            + "GROUP BY COALESCE(c.name, 'Uncategorized')";
+
+    // Ausgaben pro Kategorie des Benutzers; Kategorien ohne Ausgaben im Zeitraum liefern 0
+    private static final String SELECT_SPENT_BY_CATEGORY = "SELECT c.id AS category_id, COALESCE(SUM(ABS(t.amount_cents)), 0) AS spent "
+            + "FROM categories c "
+            + "LEFT JOIN transactions t ON t.category_id = c.id AND t.date >= ? AND t.date <= ? AND LOWER(t.type) = 'expense' "
+            + "WHERE c.user_id = ? "
+            + "GROUP BY c.id";
+
+    // Summen pro Jahr, Monat und Typ; ohne "No Category", ohne Transaktionen ohne Kategorie und ohne Startguthaben
+    private static final String SELECT_MONTHLY_TOTALS = "SELECT YEAR(t.date) AS year_value, MONTH(t.date) AS month_value, LOWER(t.type) AS type, "
+            + "SUM(CASE WHEN LOWER(t.type) = 'expense' THEN ABS(t.amount_cents) ELSE t.amount_cents END) AS total "
+            + "FROM transactions t "
+            + "JOIN accounts a ON a.id = t.account_id "
+            + "JOIN categories c ON c.id = t.category_id "
+            + "WHERE a.user_id = ? AND t.date >= ? AND t.date <= ? AND t.type IS NOT NULL "
+            + "AND LOWER(c.name) <> 'no category' "
+            + "AND (t.description IS NULL OR LOWER(t.description) <> 'initial balance') "
+            + "GROUP BY YEAR(t.date), MONTH(t.date), LOWER(t.type)";
+
+    // Summe aller Beträge eines Kontos pro Tag, nach Datum sortiert; Grundlage für Kontostände zu einem Stichtag
+    private static final String SELECT_DAILY_TOTALS = "SELECT t.date AS day_value, SUM(t.amount_cents) AS total "
+            + "FROM transactions t "
+            + "WHERE t.account_id = ? "
+            + "GROUP BY t.date "
+            + "ORDER BY t.date";
+
+    // Dieselben Abfragen über die Monatssummen; die Parameter entsprechen denen der Abfragen oben,
+    // wobei Start und Ende den ersten Tag des ersten und des letzten ganzen Monats angeben
+    private static final String ROLLUP_CATEGORY_EXPENSES = "SELECT COALESCE(c.name, 'Uncategorized') AS category_name, SUM(r.abs_cents) AS total "
+            + "FROM monthly_rollup r "
+            + "LEFT JOIN categories c ON c.id = r.category_id "
+            + "WHERE r.user_id = ? AND r.month_start >= ? AND r.month_start <= ? AND r.type = 'expense' "
+            + "GROUP BY COALESCE(c.name, 'Uncategorized')";
+
+    private static final String ROLLUP_SPENT_BY_CATEGORY = "SELECT c.id AS category_id, COALESCE(SUM(r.abs_cents), 0) AS spent "
+            + "FROM categories c "
+            + "LEFT JOIN monthly_rollup r ON r.category_id = c.id AND r.month_start >= ? AND r.month_start <= ? AND r.type = 'expense' "
+            + "WHERE c.user_id = ? "
+            + "GROUP BY c.id";
+
+    private static final String ROLLUP_MONTHLY_TOTALS = "SELECT YEAR(r.month_start) AS year_value, MONTH(r.month_start) AS month_value, r.type AS type, "
+            + "SUM(CASE WHEN r.type = 'expense' THEN r.abs_cents ELSE r.total_cents END) AS total "
+            + "FROM monthly_rollup r "
+            + "JOIN categories c ON c.id = r.category_id "
+            + "WHERE r.user_id = ? AND r.month_start >= ? AND r.month_start <= ? AND r.type <> '' "
+            + "AND LOWER(c.name) <> 'no category' "
+            + "AND NOT r.initial_balance "
+            + "GROUP BY YEAR(r.month_start), MONTH(r.month_start), r.type";
+
+    /**
+     * Berechnet die Ausgaben jeder Kategorie eines Benutzers in einem Zeitraum mit einer gruppierten Abfrage.
+     *
+     * @param userId    Die ID des Benutzers.
+     * @param startDate Startdatum des Zeitraums (einschließlich).
+     * @param endDate   Enddatum des Zeitraums (einschließlich).
+     * @return Die Ausgaben in Cent als positiver Wert pro Kategorie-ID; Kategorien ohne Ausgaben sind mit 0 enthalten.
+     * @throws SQLException bei einem Fehler im Datenbankzugriff.
+     */
+    public Map<String, Long> getSpentByCategory(String userId, LocalDate startDate, LocalDate endDate) throws SQLException {
+        Map<String, Long> spentByCategoryId = new HashMap<>();
+        try (Connection connection = DatabaseManager.getConnection()) {
+            for (RangePart part : RangePart.split(startDate, endDate)) {
+                try (PreparedStatement pstmt = connection.prepareStatement(part.rollup() ? ROLLUP_SPENT_BY_CATEGORY : SELECT_SPENT_BY_CATEGORY)) {
+                    pstmt.setDate(1, Date.valueOf(part.from()));
+                    pstmt.setDate(2, Date.valueOf(part.to()));
+                    pstmt.setString(3, userId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            spentByCategoryId.merge(rs.getString("category_id"), rs.getLong("spent"), Long::sum);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LoggerUtils.logError(ReportRepository.class.getName(), "Fehler beim Aggregieren der Kategorieausgaben für Budgets von Benutzer: " + userId, e);
+            throw e;
+        }
+        return spentByCategoryId;
+    }
+
+    /**
+     * Berechnet die Ausgaben pro Kategoriename für einen Benutzer in einem Zeitraum.
+     *
+     * @param userId    Die ID des Benutzers.
+     * @param startDate Startdatum des Zeitraums (einschließlich).
+     * @param endDate   Enddatum des Zeitraums (einschließlich).
+     * @return Eine Zeile pro Kategoriename mit der Summe der Beträge als positiver Wert.
+     * @throws SQLException bei einem Fehler im Datenbankzugriff.
+     */
+    public List<CategoryTotal> getCategoryExpenses(String userId, LocalDate startDate, LocalDate endDate) throws SQLException {
+        Map<String, Long> totalsByName = new LinkedHashMap<>();
+        try (Connection connection = DatabaseManager.getConnection()) {
+            for (RangePart part : RangePart.split(startDate, endDate)) {
+                try (PreparedStatement pstmt = connection.prepareStatement(part.rollup() ? ROLLUP_CATEGORY_EXPENSES : SELECT_CATEGORY_EXPENSES)) {
+                    pstmt.setString(1, userId);
+                    pstmt.setDate(2, Date.valueOf(part.from()));
+                    pstmt.setDate(3, Date.valueOf(part.to()));
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            totalsByName.merge(rs.getString("category_name"), rs.getLong("total"), Long::sum);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LoggerUtils.logError(ReportRepository.class.getName(), "Fehler beim Aggregieren der Kategorieausgaben für Benutzer: " + userId, e);
+            throw e;
+        }
+        List<CategoryTotal> totals = new ArrayList<>(totalsByName.size());
+        totalsByName.forEach((name, total) -> totals.add(new CategoryTotal(name, total)));
+        return totals;
+    }
+
+    /**
+     * Berechnet die monatlichen Summen pro Transaktionstyp für einen Benutzer in einem Zeitraum.
+     * Ausgaben werden als positive Werte summiert, alle anderen Typen mit ihrem Vorzeichen.
+     *
+     * @param userId    Die ID des Benutzers.
+     * @param startDate Startdatum des Zeitraums (einschließlich).
+     * @param endDate   Enddatum des Zeitraums (einschließlich).
+     * @return Eine Zeile pro Monat und Typ.
+     * @throws SQLException bei einem Fehler im Datenbankzugriff.
+     */
+    public List<MonthlyTotal> getMonthlyTotals(String userId, LocalDate startDate, LocalDate endDate) throws SQLException {
+        List<MonthlyTotal> totals = new ArrayList<>();
+        try (Connection connection = DatabaseManager.getConnection()) {
+            // Die Teilzeiträume überschneiden sich nicht in Monaten, die Zeilen können daher einfach aneinandergehängt werden
+            for (RangePart part : RangePart.split(startDate, endDate)) {
+                try (PreparedStatement pstmt = connection.prepareStatement(part.rollup() ? ROLLUP_MONTHLY_TOTALS : SELECT_MONTHLY_TOTALS)) {
+                    pstmt.setString(1, userId);
+                    pstmt.setDate(2, Date.valueOf(part.from()));
+                    pstmt.setDate(3, Date.valueOf(part.to()));
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            totals.add(new MonthlyTotal(rs.getInt("year_value"), rs.getInt("month_value"), rs.getString("type"), rs.getLong("total")));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LoggerUtils.logError(ReportRepository.class.getName(), "Fehler beim Aggregieren der Monatssummen für Benutzer: " + userId, e);
+            throw e;
+        }
+        return totals;
+    }
+
+    /**
+     * Summiert die Beträge eines Kontos pro Tag über seine gesamte Historie.
+     *
+     * @param accountId Die ID des Kontos.
+     * @return Eine Zeile pro Tag mit Buchungen, nach Datum aufsteigend sortiert.
+     * @throws SQLException bei einem Fehler im Datenbankzugriff.
+     */
+    public List<DailyTotal> getDailyTotals(String accountId) throws SQLException {
+        List<DailyTotal> totals = new ArrayList<>();
+        try (Connection connection = DatabaseManager.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(SELECT_DAILY_TOTALS)) {
+            pstmt.setString(1, accountId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(new DailyTotal(rs.getObject("day_value", LocalDate.class), rs.getLong("total")));
+                }
+            }
+        } catch (SQLException e) {
+            LoggerUtils.logError(ReportRepository.class.getName(), "Fehler beim Aggregieren der Tagessummen für Konto: " + accountId, e);
+            throw e;
+        }
+        return totals;
+    }
+
+    /**
+     * Teil eines Berichtszeitraums, der entweder aus den Monatssummen oder aus den Transaktionen summiert wird.
+     *
+     * @param from   Bei Monatssummen der erste Tag des ersten Monats, sonst das Startdatum (einschließlich).
+     * @param to     Bei Monatssummen der erste Tag des letzten Monats, sonst das Enddatum (einschließlich).
+     * @param rollup true für ganze Monate aus {@code monthly_rollup}.
+     */
+    record RangePart(LocalDate from, LocalDate to, boolean rollup) {
+
+        /**
+         * Zerlegt einen Zeitraum in die ganzen Monate und höchstens zwei angebrochene Randmonate.
+         */
+        static List<RangePart> split(LocalDate startDate, LocalDate endDate) {
+            LocalDate firstFullMonth = startDate.getDayOfMonth() == 1 ? startDate : startDate.withDayOfMonth(1).plusMonths(1);
+            LocalDate afterLastFullMonth = endDate.plusDays(1).getDayOfMonth() == 1 ? endDate.plusDays(1) : endDate.withDayOfMonth(1);
+            if (!ROLLUP_ENABLED || !firstFullMonth.isBefore(afterLastFullMonth)) {
+                return List.of(new RangePart(startDate, endDate, false));
+            }
+
+            List<RangePart> parts = new ArrayList<>(3);
+            if (startDate.isBefore(firstFullMonth)) {
+                parts.add(new RangePart(startDate, firstFullMonth.minusDays(1), false));
+            }
+            parts.add(new RangePart(firstFullMonth, afterLastFullMonth.minusMonths(1), true));
+            if (!afterLastFullMonth.isAfter(endDate)) {
+                parts.add(new RangePart(afterLastFullMonth, endDate, false));
+            }
+            return parts;
+        }
+    }
+
+    /**
+     * Summe der Ausgaben einer Kategorie.
+     *
+     * @param categoryName Name der Kategorie oder "Uncategorized".
+     * @param totalCents   Summe der Ausgaben in Cent als positiver Wert.
+     */
+    public record CategoryTotal(String categoryName, long totalCents) {
+    }
+
+    /**
+     * Summe eines Transaktionstyps in einem Monat.
+     *
+     * @param year  Das Jahr.
+     * @param month Der Monat (1-12).
+     * @param type  Der Transaktionstyp in Kleinbuchstaben.
+     * @param totalCents Die Summe der Beträge in Cent.
+     */
+    public record MonthlyTotal(int year, int month, String type, long totalCents) {
+    }
+
+    /**
+     * Summe aller Beträge eines Kontos an einem Tag.
+     *
+     * @param date       Der Tag.
+     * @param totalCents Die Summe der Beträge in Cent, Ausgaben negativ.
+     */
+    public record DailyTotal(LocalDate date, long totalCents) {
+    }
+}
@@ -0,0 +1,43 @@
+package myProject.repository;
+
+import javafx.application.Platform;
+
+/**
+ * Schreibt Änderungen in die geteilten Instanzen der Entity-Caches. Dieselbe Instanz ist an die Oberfläche gebunden
+ * und wird gleichzeitig von Hintergrundthreads aktualisiert; jede Änderung läuft deshalb unter der Sperre der Instanz
+ * und, solange JavaFX läuft, auf dem JavaFX Application Thread, damit gebundene Zellen nur dort benachrichtigt werden.
+ * Ohne laufendes JavaFX, z. B. in Benchmarks, wird direkt im aufrufenden Thread geschrieben.
+ */
+final class SharedInstanceUpdates {
+
+    // Wird gesetzt, sobald Platform.runLater mangels gestartetem oder nach beendetem JavaFX abgelehnt wurde
+    private static volatile boolean fxUnavailable;
+
+    private SharedInstanceUpdates() {
+    }
+
+    /**
+     * Führt eine Änderung an einer geteilten Instanz aus. Aufrufe außerhalb des JavaFX Application Thread kehren
+     * zurück, bevor die Änderung sichtbar ist; Änderungen werden in Aufrufreihenfolge angewendet.
+     *
+     * @param instance Die geteilte Instanz, auf deren Sperre die Änderung läuft.
+     * @param update   Die Änderung; sie darf den bisherigen Wert lesen, z. B. um einen Betrag zu addieren.
+     */
+    static void apply(Object instance, Runnable update) {
+        Runnable locked = () -> {
+            synchronized (instance) {
+                update.run();
+            }
+        };
+        if (fxUnavailable || Platform.isFxApplicationThread()) {
+            locked.run();
+            return;
+        }
+        try {
+            Platform.runLater(locked);
+        } catch (IllegalStateException e) {
+            fxUnavailable = true;
+            locked.run();
+        }
+    }
+}
@@ -1,21 +1,64 @@
 package myProject.repository;
 
 import myProject.model.Account;
+import myProject.model.BatchResult;
 import myProject.model.Category;
 import myProject.model.Transaction;
+import myProject.model.TransactionRecord;
 import myProject.db.DatabaseManager;
+import myProject.db.MonthlyRollup;
+import myProject.metrics.Counter;
+import myProject.metrics.MethodTimer;
+import myProject.metrics.Metrics;
 import myProject.util.LoggerUtils;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 /**
  * Das TransactionRepository ist für die Datenbankzugriffe im Zusammenhang mit Transaktionen verantwortlich.
  * Hier werden Transaktionen in die Datenbank eingefügt, abgerufen, aktualisiert und gelöscht.
+ * Kontostände und die Monatssummen in {@link MonthlyRollup} werden in derselben Datenbanktransaktion fortgeschrieben.
  */
 public class TransactionRepository {
+
+    private static final MethodTimer TIMER = Metrics.timer(TransactionRepository.class);
+    private static final Counter BATCH_ROWS_SAVED = Metrics.counter("TransactionRepository.batchRowsSaved");
+    private static final Counter BATCH_ROWS_FAILED = Metrics.counter("TransactionRepository.batchRowsFailed");
+
+    // Reihenfolge, in der mehrere Konten gesperrt werden; entspricht der von TransactionService.transfer
+    private static final Comparator<String> ACCOUNT_LOCK_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    // Lädt Transaktionen zusammen mit Konto und Kategorie in einer einzigen Abfrage
+    private static final String SELECT_TRANSACTIONS_WITH_REFERENCES = "SELECT t.id, t.amount_cents, t.date, t.time, t.description, t.type, t.transfer_id, "
+            + "a.id AS account_id, a.user_id AS account_user_id, a.name AS account_name, a.balance_cents AS account_balance_cents, "
+            + "c.id AS category_id, c.name AS category_name, c.budget_cents AS category_budget_cents "
+            + "FROM transactions t "
+            + "LEFT JOIN accounts a ON a.id = t.account_id "
+            + "LEFT JOIN categories c ON c.id = t.category_id ";
+
+    // Lädt nur die Spalten der Transaktion selbst, für kompakte Zeilen ohne Konto- und Kategorieobjekte
+    private static final String SELECT_TRANSACTION_RECORDS = "SELECT t.id, t.account_id, t.category_id, t.amount_cents, t.date, t.time, "
+            + "t.description, t.type, t.transfer_id FROM transactions t ";
+
+    private static final String INSERT_TRANSACTION = "INSERT INTO transactions (id, amount_cents, date, time, description, category_id, type, account_id, transfer_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    // Kontoauszug ohne die beim Anlegen des Kontos erzeugte Startbuchung
+    private static final String LEDGER_FILTER = "(t.description IS NULL OR t.description <> 'Initial Balance')";
+
     private final AccountRepository accountRepository;
     private final CategoryRepository categoryRepository;
 
@@ -25,110 +68,480 @@ public class TransactionRepository {
     }
 
     /**
-     * Speichert eine neue Transaktion in der Datenbank.
+     * Speichert eine neue Transaktion in der Datenbank und schreibt den Kontostand in derselben
+     * Datenbanktransaktion fort.
      *
      * @param transaction Die hinzuzufügende Transaktion.
+     * @return true, wenn die Transaktion gespeichert wurde.
      */
-    public void saveTransaction(Transaction transaction) {
-        String sql = "INSERT INTO transactions (id, amount, date, time, description, category_id, type, account_id) " + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, transaction.getId());
-            pstmt.setDouble(2, transaction.getAmount());
-            pstmt.setDate(3, new java.sql.Date(transaction.getDate().getTime()));
-            pstmt.setTime(4, transaction.getTime());
-            pstmt.setString(5, transaction.getDescription());
-            pstmt.setString(6, transaction.getCategory() != null ? transaction.getCategory().getId() : null);
-            pstmt.setString(7, transaction.getType());
-            pstmt.setString(8, transaction.getAccount() != null ? transaction.getAccount().getId() : null);
-            pstmt.executeUpdate();
-            LoggerUtils.logInfo(TransactionRepository.class.getName(), "Transaktion erfolgreich gespeichert: " + transaction.getId());
+    public boolean saveTransaction(Transaction transaction) {
+        long started = Metrics.start();
+        try {
+            UnitOfWork.execute(work -> {
+                insertTransaction(work, transaction);
+                return null;
+            });
+            LoggerUtils.logInfo(TransactionRepository.class.getName(), "Transaktion erfolgreich gespeichert: {0}", transaction.getId());
+            return true;
         } catch (SQLException e) {
             LoggerUtils.logError(TransactionRepository.class.getName(), "Fehler beim Speichern der Transaktion: " + transaction.getId(), e);
+            return false;
+        } finally {
+            TIMER.stop("saveTransaction", started);
+        }
+    }
+
+    /**
+     * Fügt eine Transaktion innerhalb einer UnitOfWork ein und schreibt Kontostand und Monatssummen in derselben
+     * Datenbanktransaktion fort. Der zwischengespeicherte Kontostand wird erst nach dem Commit angepasst.
+     *
+     * @param work        Die laufende UnitOfWork.
+     * @param transaction Die hinzuzufügende Transaktion.
+     * @throws SQLException Wenn ein Datenbankfehler auftritt.
+     */
+    public void insertTransaction(UnitOfWork work, Transaction transaction) throws SQLException {
+        long started = Metrics.start();
+        try {
+            String accountId = accountIdOf(transaction);
+            try (PreparedStatement pstmt = work.getConnection().prepareStatement(INSERT_TRANSACTION)) {
+                bindInsert(pstmt, transaction);
+                pstmt.executeUpdate();
+            }
+            Long balanceCents = accountRepository.applyBalanceDelta(work.getConnection(), accountId, transaction.getAmountCents());
+            MonthlyRollup.Deltas rollup = new MonthlyRollup.Deltas();
+            addToRollup(rollup, transaction);
+            rollup.writeTo(work.getConnection());
+            work.afterCommit(() -> accountRepository.applyCachedBalance(accountId, balanceCents));
+        } finally {
+            TIMER.stop("insertTransaction", started);
         }
     }
 
 
     /**
-     * Aktualisiert eine bestehende Transaktion in der Datenbank.
+     * Speichert viele Transaktionen per JDBC-Batch mit der konfigurierten Blockgröße
+     * (Systemeigenschaft {@code smartfinance.transactions.batchSize}, Standard 500).
      *
-     * @param transaction Die zu aktualisierende Transaktion.
+     * @param transactions Die zu speichernden Transaktionen.
+     * @return Anzahl der gespeicherten Transaktionen und die fehlgeschlagenen Zeilen.
+     */
+    public BatchResult saveTransactions(Collection<Transaction> transactions) {
+        return saveTransactions(transactions, Integer.getInteger("smartfinance.transactions.batchSize", DEFAULT_BATCH_SIZE));
+    }
+
+    /**
+     * Speichert viele Transaktionen per JDBC-Batch. Je {@code batchSize} Zeilen werden zusammen mit den
+     * Kontoständen in einer Datenbanktransaktion festgeschrieben. Schlägt eine Zeile fehl, wird sie gemeldet
+     * und die übrigen Zeilen des Blocks werden trotzdem gespeichert.
+     *
+     * @param transactions Die zu speichernden Transaktionen.
+     * @param batchSize    Die Anzahl der Zeilen pro Commit.
+     * @return Anzahl der gespeicherten Transaktionen und die fehlgeschlagenen Zeilen.
      */
-    public void updateTransaction(Transaction transaction) {
-        String sql = "UPDATE transactions SET amount = ?, date = ?, time = ?, description = ?, category_id = ?, type = ?, account_id = ? WHERE id = ?";
-        try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setDouble(1, transaction.getAmount());
-            pstmt.setDate(2, new java.sql.Date(transaction.getDate().getTime()));
-            pstmt.setTime(3, transaction.getTime());
-            pstmt.setString(4, transaction.getDescription());
-            pstmt.setString(5, transaction.getCategory() != null ? transaction.getCategory().getId() : null);
-            pstmt.setString(6, transaction.getType());
-            pstmt.setString(7, transaction.getAccount() != null ? transaction.getAccount().getId() : null);
-            pstmt.setString(8, transaction.getId());
-            pstmt.executeUpdate();
-            LoggerUtils.logInfo(TransactionRepository.class.getName(), "Transaktion erfolgreich aktualisiert: " + transaction.getId());
+    public BatchResult saveTransactions(Collection<Transaction> transactions, int batchSize) {
+        long started = Metrics.start();
+        try {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Die Blockgröße muss positiv sein: " + batchSize);
+            }
+            List<Transaction> rows = new ArrayList<>(transactions);
+            List<BatchResult.Failure> failures = new ArrayList<>();
+            int saved = 0;
+
+            try (Connection connection = DatabaseManager.getConnection();
+                 PreparedStatement pstmt = connection.prepareStatement(INSERT_TRANSACTION)) {
+                connection.setAutoCommit(false);
+                for (int start = 0; start < rows.size(); start += batchSize) {
+                    int end = Math.min(start + batchSize, rows.size());
+                    saved += saveChunk(connection, pstmt, rows, start, end, failures);
+                }
+            } catch (SQLException e) {
+                LoggerUtils.logError(TransactionRepository.class.getName(), "Fehler beim Speichern der Transaktionen im Batch", e);
+                // Alle noch nicht verarbeiteten Zeilen als fehlgeschlagen melden
+                for (int index = saved + failures.size(); index < rows.size(); index++) {
+                    failures.add(new BatchResult.Failure(index, rows.get(index).getId(), e.getMessage()));
+                }
+            }
+
+            int savedRows = saved;
+            LoggerUtils.logInfo(TransactionRepository.class.getName(), () -> "Batch gespeichert: " + savedRows + " von " + rows.size() + " Transaktionen, " + failures.size() + " Fehler");
+            BATCH_ROWS_SAVED.add(saved);
+            BATCH_ROWS_FAILED.add(failures.size());
+            return new BatchResult(saved, failures);
+        } finally {
+            TIMER.stop("saveTransactions", started);
+        }
+    }
+
+    // Speichert die Zeilen [start, end) in einer Datenbanktransaktion und liefert die Anzahl der gespeicherten Zeilen
+    private int saveChunk(Connection connection, PreparedStatement pstmt, List<Transaction> rows, int start, int end,
+                          List<BatchResult.Failure> failures) throws SQLException {
+        boolean[] inserted = new boolean[end - start];
+        List<BatchResult.Failure> chunkFailures = new ArrayList<>();
+        try {
+            for (int index = start; index < end; index++) {
+                bindInsert(pstmt, rows.get(index));
+                pstmt.addBatch();
+            }
+            try {
+                pstmt.executeBatch();
+                Arrays.fill(inserted, true);
+            } catch (BatchUpdateException e) {
+                int[] counts = e.getUpdateCounts();
+                if (counts != null && counts.length == inserted.length) {
+                    // Der Treiber hat alle Zeilen verarbeitet; nur die markierten sind fehlgeschlagen
+                    for (int i = 0; i < counts.length; i++) {
+                        inserted[i] = counts[i] != Statement.EXECUTE_FAILED;
+                    }
+                    // Die verketteten Exceptions gehören der Reihe nach zu den fehlgeschlagenen Zeilen
+                    SQLException cause = e.getNextException() != null ? e.getNextException() : e;
+                    for (int i = 0; i < counts.length; i++) {
+                        if (!inserted[i]) {
+                            chunkFailures.add(new BatchResult.Failure(start + i, rows.get(start + i).getId(), cause.getMessage()));
+                            if (cause.getNextException() != null) {
+                                cause = cause.getNextException();
+                            }
+                        }
+                    }
+                } else {
+                    // Der Treiber hat nach dem ersten Fehler abgebrochen: Block zeilenweise wiederholen
+                    connection.rollback();
+                    pstmt.clearBatch();
+                    for (int i = 0; i < inserted.length; i++) {
+                        Transaction transaction = rows.get(start + i);
+                        try {
+                            bindInsert(pstmt, transaction);
+                            pstmt.executeUpdate();
+                            inserted[i] = true;
+                        } catch (SQLException rowError) {
+                            chunkFailures.add(new BatchResult.Failure(start + i, transaction.getId(), rowError.getMessage()));
+                        }
+                    }
+                }
+            }
+
+            // Summen je Konto in einem long[1] statt Long, damit pro Zeile kein Objekt entsteht; nach Konto-ID sortiert,
+            // damit die Konten in derselben Reihenfolge wie bei Überweisungen gesperrt werden
+            Map<String, long[]> deltas = new TreeMap<>(ACCOUNT_LOCK_ORDER);
+            MonthlyRollup.Deltas rollup = new MonthlyRollup.Deltas();
+            for (int i = 0; i < inserted.length; i++) {
+                if (inserted[i]) {
+                    Transaction transaction = rows.get(start + i);
+                    deltas.computeIfAbsent(accountIdOf(transaction), key -> new long[1])[0] += transaction.getAmountCents();
+                    addToRollup(rollup, transaction);
+                }
+            }
+            Map<String, Long> balances = new HashMap<>();
+            for (Map.Entry<String, long[]> delta : deltas.entrySet()) {
+                balances.put(delta.getKey(), accountRepository.applyBalanceDelta(connection, delta.getKey(), delta.getValue()[0]));
+            }
+            rollup.writeTo(connection);
+            connection.commit();
+
+            balances.forEach(accountRepository::applyCachedBalance);
+            failures.addAll(chunkFailures);
+            return inserted.length - chunkFailures.size();
         } catch (SQLException e) {
-            LoggerUtils.logError(TransactionRepository.class.getName(), "Fehler beim Aktualisieren der Transaktion: " + transaction.getId(), e);
+            // Kontostände konnten nicht fortgeschrieben werden: der ganze Block wird verworfen
+            connection.rollback();
+            pstmt.clearBatch();
+            LoggerUtils.logError(TransactionRepository.class.getName(), "Fehler beim Speichern des Blocks ab Zeile " + start, e);
+            for (int index = start; index < end; index++) {
+                failures.add(new BatchResult.Failure(index, rows.get(index).getId(), e.getMessage()));
+            }
+            return 0;
         }
     }
 
+    // Setzt die Parameter von INSERT_TRANSACTION
+    private static void bindInsert(PreparedStatement pstmt, Transaction transaction) throws SQLException {
+        pstmt.setString(1, transaction.getId());
+        pstmt.setLong(2, transaction.getAmountCents());
+        pstmt.setDate(3, new java.sql.Date(transaction.getDate().getTime()));
+        pstmt.setTime(4, transaction.getTime());
+        pstmt.setString(5, transaction.getDescription());
+        pstmt.setString(6, transaction.getCategory() != null ? transaction.getCategory().getId() : null);
+        pstmt.setString(7, transaction.getType());
+        pstmt.setString(8, accountIdOf(transaction));
+        pstmt.setString(9, transaction.getTransferId());
+    }
+
+    private static String accountIdOf(Transaction transaction) {
+        return transaction.getAccount() != null ? transaction.getAccount().getId() : null;
+    }
+
+    private static void addToRollup(MonthlyRollup.Deltas rollup, Transaction transaction) {
+        rollup.add(accountIdOf(transaction), transaction.getCategory() != null ? transaction.getCategory().getId() : null,
+                transaction.getDate().toLocalDate(), transaction.getType(), transaction.getDescription(), transaction.getAmountCents());
+    }
 
     /**
-     * Löscht eine Transaktion aus der Datenbank.
+     * Aktualisiert eine bestehende Transaktion in der Datenbank. Der bisherige Betrag wird vom bisherigen Konto
+     * abgezogen und der neue Betrag dem neuen Konto gutgeschrieben; die Monatssummen werden ebenso umgebucht,
+     * alles in derselben Datenbanktransaktion.
+     *
+     * @param transaction Die zu aktualisierende Transaktion.
+     * @return true, wenn die Transaktion gefunden und aktualisiert wurde.
+     */
+    public boolean updateTransaction(Transaction transaction) {
+        long started = Metrics.start();
+        try {
+            String sql = "UPDATE transactions SET amount_cents = ?, date = ?, time = ?, description = ?, category_id = ?, type = ?, account_id = ? WHERE id = ?";
+            String accountId = transaction.getAccount() != null ? transaction.getAccount().getId() : null;
+            try (Connection connection = DatabaseManager.getConnection()) {
+                connection.setAutoCommit(false);
+                StoredRow previous;
+                Long previousBalanceCents;
+                Long balanceCents;
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    previous = lockStoredRow(connection, transaction.getId());
+                    if (previous == null) {
+                        connection.rollback();
+                        LoggerUtils.logInfo(TransactionRepository.class.getName(), "Keine Transaktion zum Aktualisieren gefunden: {0}", transaction.getId());
+                        return false;
+                    }
+                    pstmt.setLong(1, transaction.getAmountCents());
+                    pstmt.setDate(2, new java.sql.Date(transaction.getDate().getTime()));
+                    pstmt.setTime(3, transaction.getTime());
+                    pstmt.setString(4, transaction.getDescription());
+                    pstmt.setString(5, transaction.getCategory() != null ? transaction.getCategory().getId() : null);
+                    pstmt.setString(6, transaction.getType());
+                    pstmt.setString(7, accountId);
+                    pstmt.setString(8, transaction.getId());
+                    pstmt.executeUpdate();
+                    // Beide Konten nach ID geordnet sperren, wie bei Überweisungen
+                    if (ACCOUNT_LOCK_ORDER.compare(previous.accountId(), accountId) <= 0) {
+                        previousBalanceCents = accountRepository.applyBalanceDelta(connection, previous.accountId(), -previous.amountCents());
+                        balanceCents = accountRepository.applyBalanceDelta(connection, accountId, transaction.getAmountCents());
+                    } else {
+                        balanceCents = accountRepository.applyBalanceDelta(connection, accountId, transaction.getAmountCents());
+                        previousBalanceCents = accountRepository.applyBalanceDelta(connection, previous.accountId(), -previous.amountCents());
+                    }
+                    MonthlyRollup.Deltas rollup = new MonthlyRollup.Deltas();
+                    previous.subtractFrom(rollup);
+                    addToRollup(rollup, transaction);
+                    rollup.writeTo(connection);
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                }
+                // Bei unverändertem Konto enthält der zweite Wert beide Änderungen
+                if (accountId != null && accountId.equals(previous.accountId())) {
+                    accountRepository.applyCachedBalance(accountId, balanceCents != null ? balanceCents : previousBalanceCents);
+                } else {
+                    accountRepository.applyCachedBalance(previous.accountId(), previousBalanceCents);
+                    accountRepository.applyCachedBalance(accountId, balanceCents);
+                }
+                LoggerUtils.logInfo(TransactionRepository.class.getName(), "Transaktion erfolgreich aktualisiert: {0}", transaction.getId());
+                return true;
+            } catch (SQLException e) {
+                LoggerUtils.logError(TransactionRepository.class.getName(), "Fehler beim Aktualisieren der Transaktion: " + transaction.getId(), e);
+                return false;
+            }
+        } finally {
+            TIMER.stop("updateTransaction", started);
+        }
+    }
+
+
+    /**
+     * Löscht eine Transaktion aus der Datenbank und zieht ihren gespeicherten Betrag vom Kontostand und den Monatssummen ab.
      *
      * @param transaction Die zu löschende Transaktion.
+     * @return true, wenn die Transaktion gefunden und gelöscht wurde.
      */
-    public void deleteTransaction(Transaction transaction) {
-        String sql = "DELETE FROM transactions WHERE id = ?";
-        try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, transaction.getId());
-            pstmt.executeUpdate();
-            LoggerUtils.logInfo(TransactionRepository.class.getName(), "Transaktion erfolgreich gelöscht: " + transaction.getId());
-        } catch (SQLException e) {
-            LoggerUtils.logError(TransactionRepository.class.getName(), "Fehler beim Löschen der Transaktion: " + transaction.getId(), e);
+    public boolean deleteTransaction(Transaction transaction) {
+        long started = Metrics.start();
+        try {
+            String sql = "DELETE FROM transactions WHERE id = ?";
+            try (Connection connection = DatabaseManager.getConnection()) {
+                connection.setAutoCommit(false);
+                StoredRow previous;
+                Long balanceCents;
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    previous = lockStoredRow(connection, transaction.getId());
+                    if (previous == null) {
+                        connection.rollback();
+                        LoggerUtils.logInfo(TransactionRepository.class.getName(), "Keine Transaktion zum Löschen gefunden: {0}", transaction.getId());
+                        return false;
+                    }
+                    pstmt.setString(1, transaction.getId());
+                    pstmt.executeUpdate();
+                    balanceCents = accountRepository.applyBalanceDelta(connection, previous.accountId(), -previous.amountCents());
+                    MonthlyRollup.Deltas rollup = new MonthlyRollup.Deltas();
+                    previous.subtractFrom(rollup);
+                    rollup.writeTo(connection);
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                }
+                accountRepository.applyCachedBalance(previous.accountId(), balanceCents);
+                LoggerUtils.logInfo(TransactionRepository.class.getName(), "Transaktion erfolgreich gelöscht: {0}", transaction.getId());
+                return true;
+            } catch (SQLException e) {
+                LoggerUtils.logError(TransactionRepository.class.getName(), "Fehler beim Löschen der Transaktion: " + transaction.getId(), e);
+                return false;
+            }
+        } finally {
+            TIMER.stop("deleteTransaction", started);
         }
     }
 
     /**
-     * Löscht alle Transaktionen die mit einem bestimmten Account in Verbindung stehen
+     * Löscht alle Transaktionen die mit einem bestimmten Account in Verbindung stehen,
+     * zieht ihre Summe vom Kontostand ab und entfernt die Monatssummen des Kontos.
      *
      * @param accountId ID des Accounts dessen Transaktionen gelöscht werden
      * @throws SQLException Error Exception
      */
     public void deleteTransactionsByAccount(String accountId) throws SQLException {
-        String sql = "DELETE FROM transactions WHERE account_id = ?";
-        try (Connection connection = DatabaseManager.getConnection();
-             PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, accountId);
-            pstmt.executeUpdate();
-            LoggerUtils.logInfo(TransactionRepository.class.getName(), "Deleted all transactions for account: " + accountId);
-        } catch (SQLException e) {
-            LoggerUtils.logError(TransactionRepository.class.getName(), "Error deleting transactions for account: " + accountId, e);
-            throw e;
+        long started = Metrics.start();
+        try {
+            String sumSql = "SELECT COALESCE(SUM(amount_cents), 0) FROM transactions WHERE account_id = ?";
+            String sql = "DELETE FROM transactions WHERE account_id = ?";
+            try (Connection connection = DatabaseManager.getConnection()) {
+                connection.setAutoCommit(false);
+                long total;
+                Long balanceCents;
+                try (PreparedStatement sumStmt = connection.prepareStatement(sumSql);
+                     PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    sumStmt.setString(1, accountId);
+                    try (ResultSet rs = sumStmt.executeQuery()) {
+                        rs.next();
+                        total = rs.getLong(1);
+                    }
+                    pstmt.setString(1, accountId);
+                    pstmt.executeUpdate();
+                    balanceCents = accountRepository.applyBalanceDelta(connection, accountId, -total);
+                    MonthlyRollup.deleteAccount(connection, accountId);
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                }
+                accountRepository.applyCachedBalance(accountId, balanceCents);
+                LoggerUtils.logInfo(TransactionRepository.class.getName(), "Deleted all transactions for account: {0}", accountId);
+            } catch (SQLException e) {
+                LoggerUtils.logError(TransactionRepository.class.getName(), "Error deleting transactions for account: " + accountId, e);
+                throw e;
+            }
+        } finally {
+            TIMER.stop("deleteTransactionsByAccount", started);
         }
     }
 
     /**
-     * Ruft die Transaktionen für ein bestimmtes Konto ab.
+     * Ruft die Transaktionen für ein bestimmtes Konto ab. Gefiltert wird über die Konto-ID,
+     * da Kontonamen nur je Benutzer eindeutig sind.
      *
-     * @param accountName Der Name des Kontos.
+     * @param account Das Konto.
      * @return Eine Liste der Transaktionen für das Konto.
      */
-    public List<Transaction> getTransactionsByAccount(String accountName) {
-        List<Transaction> transactions = new ArrayList<>();
-        String sql = "SELECT * FROM transactions WHERE account_id = (SELECT id FROM accounts WHERE name = ?)";
-        try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, accountName);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    Transaction transaction = mapResultSetToTransaction(rs);
-                    transactions.add(transaction);
+    public List<Transaction> getTransactionsByAccount(Account account) {
+        long started = Metrics.start();
+        try {
+            List<Transaction> transactions = new ArrayList<>();
+            String sql = SELECT_TRANSACTIONS_WITH_REFERENCES + "WHERE t.account_id = ?";
+            try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, account.getId());
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    TransactionRowMapper rowMapper = new TransactionRowMapper();
+                    while (rs.next()) {
+                        Transaction transaction = rowMapper.map(rs);
+                        transactions.add(transaction);
+                    }
                 }
+                LoggerUtils.logInfo(TransactionRepository.class.getName(), "Transaktionen erfolgreich abgerufen für Konto: {0}", account.getId());
+            } catch (SQLException e) {
+                LoggerUtils.logError(TransactionRepository.class.getName(), "Fehler beim Abrufen der Transaktionen für Konto: " + account.getId(), e);
             }
-            LoggerUtils.logInfo(TransactionRepository.class.getName(), "Transaktionen erfolgreich abgerufen für Konto: " + accountName);
-        } catch (SQLException e) {
-            LoggerUtils.logError(TransactionRepository.class.getName(), "Fehler beim Abrufen der Transaktionen für Konto: " + accountName, e);
+            return transactions;
+        } finally {
+            TIMER.stop("getTransactionsByAccount", started);
+        }
+    }
+
+    /**
+     * Zählt die Transaktionen eines Kontos ohne die "Initial Balance"-Buchung.
+     *
+     * @param accountId Die ID des Kontos.
+     * @return Die Anzahl der Transaktionen.
+     */
+    public int countLedgerTransactions(String accountId) {
+        long started = Metrics.start();
+        try {
+            String sql = "SELECT COUNT(*) FROM transactions t WHERE t.account_id = ? AND " + LEDGER_FILTER;
+            try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, accountId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            } catch (SQLException e) {
+                LoggerUtils.logError(TransactionRepository.class.getName(), "Fehler beim Zählen der Transaktionen für Konto-ID: " + accountId, e);
+                throw new RuntimeException("Fehler beim Zählen der Transaktionen: " + e.getMessage(), e);
+            }
+        } finally {
+            TIMER.stop("countLedgerTransactions", started);
+        }
+    }
+
+    /**
+     * Lädt eine Seite von Transaktionen eines Kontos, sortiert nach (Datum, Uhrzeit, ID), ohne die
+     * "Initial Balance"-Buchung. Ist {@code after} gesetzt, beginnt die Seite direkt hinter diesem
+     * Schlüssel (Keyset-Pagination über den Index). Ohne Schlüssel wird über {@code offset} positioniert,
+     * etwa wenn beim Scrollen eine Seite übersprungen wurde.
+     *
+     * @param accountId Die ID des Kontos.
+     * @param after     Der Schlüssel der letzten Transaktion der vorherigen Seite oder null.
+     * @param offset    Die Position der ersten Zeile, wird nur ohne {@code after} verwendet.
+     * @param limit     Die maximale Anzahl an Zeilen.
+     * @return Die Transaktionen der Seite.
+     */
+    public List<Transaction> getLedgerPage(String accountId, PageKey after, int offset, int limit) {
+        long started = Metrics.start();
+        try {
+            StringBuilder sql = new StringBuilder(SELECT_TRANSACTIONS_WITH_REFERENCES)
+                    .append("WHERE t.account_id = ? AND ").append(LEDGER_FILTER);
+            if (after != null) {
+                sql.append(" AND t.date >= ? AND (t.date > ? OR (t.date = ? AND (t.time > ? OR (t.time = ? AND t.id > ?))))");
+            }
+            sql.append(" ORDER BY t.date, t.time, t.id LIMIT ?");
+            if (after == null && offset > 0) {
+                sql.append(" OFFSET ?");
+            }
+
+            List<Transaction> transactions = new ArrayList<>(limit);
+            try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql.toString())) {
+                int index = 1;
+                pstmt.setString(index++, accountId);
+                if (after != null) {
+                    pstmt.setDate(index++, after.date());
+                    pstmt.setDate(index++, after.date());
+                    pstmt.setDate(index++, after.date());
+                    pstmt.setTime(index++, after.time());
+                    pstmt.setTime(index++, after.time());
+                    pstmt.setString(index++, after.id());
+                }
+                pstmt.setInt(index++, limit);
+                if (after == null && offset > 0) {
+                    pstmt.setInt(index, offset);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    TransactionRowMapper rowMapper = new TransactionRowMapper();
+                    while (rs.next()) {
+                        transactions.add(rowMapper.map(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                LoggerUtils.logError(TransactionRepository.class.getName(), "Fehler beim Laden einer Transaktionsseite für Konto-ID: " + accountId, e);
+                throw new RuntimeException("Fehler beim Laden der Transaktionsseite: " + e.getMessage(), e);
+            }
+            return transactions;
+        } finally {
+            TIMER.stop("getLedgerPage", started);
         }
-        return transactions;
     }
 
     /**
@@ -138,62 +551,238 @@ public class TransactionRepository {
      * @return Eine Liste der Transaktionen für die Kategorie.
      */
     public List<Transaction> getTransactionsByCategory(String categoryId) {
-        List<Transaction> transactions = new ArrayList<>();
-        String sql = "SELECT * FROM transactions WHERE category_id = ?";
-        try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, categoryId);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    Transaction transaction = mapResultSetToTransaction(rs);
-                    transactions.add(transaction);
+        long started = Metrics.start();
+        try {
+            List<Transaction> transactions = new ArrayList<>();
+            String sql = SELECT_TRANSACTIONS_WITH_REFERENCES + "WHERE t.category_id = ?";
+            try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, categoryId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    TransactionRowMapper rowMapper = new TransactionRowMapper();
+                    while (rs.next()) {
+                        Transaction transaction = rowMapper.map(rs);
+                        transactions.add(transaction);
+                    }
                 }
+                LoggerUtils.logInfo(TransactionRepository.class.getName(), "Transaktionen erfolgreich abgerufen für Kategorie-ID: {0}", categoryId);
+            } catch (SQLException e) {
+                LoggerUtils.logError(TransactionRepository.class.getName(), "Fehler beim Abrufen der Transaktionen für Kategorie-ID: " + categoryId, e);
+                throw new RuntimeException("Fehler beim Speichern der Transaktion: " + e.getMessage(), e);
             }
-            LoggerUtils.logInfo(TransactionRepository.class.getName(), "Transaktionen erfolgreich abgerufen für Kategorie-ID: " + categoryId);
-        } catch (SQLException e) {
-            LoggerUtils.logError(TransactionRepository.class.getName(), "Fehler beim Abrufen der Transaktionen für Kategorie-ID: " + categoryId, e);
-            throw new RuntimeException("Fehler beim Speichern der Transaktion: " + e.getMessage(), e);
-        }
 
-        return transactions;
+            return transactions;
+        } finally {
+            TIMER.stop("getTransactionsByCategory", started);
+        }
     }
 
     public List<Transaction> getTransactionsByUserAndPeriod(String userId, LocalDate startDate, LocalDate endDate) {
-        List<Transaction> transactions = new ArrayList<>();
-        String sql = "SELECT * FROM transactions WHERE account_id IN (SELECT id FROM accounts WHERE user_id = ?) " +
-                "AND date >= ? AND date <= ?";
-        try (Connection connection = DatabaseManager.getConnection();
-             PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, userId);
-            pstmt.setDate(2, Date.valueOf(startDate));
-            pstmt.setDate(3, Date.valueOf(endDate));
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    Transaction transaction = mapResultSetToTransaction(rs);
-                    transactions.add(transaction);
+        long started = Metrics.start();
+        try {
+            List<Transaction> transactions = new ArrayList<>();
+            String sql = SELECT_TRANSACTIONS_WITH_REFERENCES + "WHERE a.user_id = ? AND t.date >= ? AND t.date <= ?";
+            try (Connection connection = DatabaseManager.getConnection();
+                 PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, userId);
+                pstmt.setDate(2, Date.valueOf(startDate));
+                pstmt.setDate(3, Date.valueOf(endDate));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    TransactionRowMapper rowMapper = new TransactionRowMapper();
+                    while (rs.next()) {
+                        Transaction transaction = rowMapper.map(rs);
+                        transactions.add(transaction);
+                    }
                 }
+                LoggerUtils.logInfo(TransactionRepository.class.getName(), "Transaktionen erfolgreich für Zeitraum abgerufen.");
+            } catch (SQLException e) {
+                LoggerUtils.logError(TransactionRepository.class.getName(), "Fehler beim Abrufen der Transaktionen für Zeitraum", e);
             }
-            LoggerUtils.logInfo(TransactionRepository.class.getName(), "Transaktionen erfolgreich für Zeitraum abgerufen.");
-        } catch (SQLException e) {
-            LoggerUtils.logError(TransactionRepository.class.getName(), "Fehler beim Abrufen der Transaktionen für Zeitraum", e);
+            return transactions;
+        } finally {
+            TIMER.stop("getTransactionsByUserAndPeriod", started);
         }
-        return transactions;
     }
 
+    /**
+     * Ruft die Transaktionen eines Kontos als kompakte Zeilen ab, sortiert nach Datum und Uhrzeit.
+     * Es werden weder Konto- und Kategorieobjekte noch JavaFX-Properties erzeugt.
+     *
+     * @param accountId Die ID des Kontos.
+     * @return Die Zeilen des Kontos.
+     */
+    public List<TransactionRecord> getTransactionRecordsByAccount(String accountId) {
+        long started = Metrics.start();
+        try {
+            String sql = SELECT_TRANSACTION_RECORDS + "WHERE t.account_id = ? ORDER BY t.date, t.time, t.id";
+            try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, accountId);
+                return readRecords(pstmt);
+            } catch (SQLException e) {
+                LoggerUtils.logError(TransactionRepository.class.getName(), "Fehler beim Abrufen der Transaktionszeilen für Konto-ID: " + accountId, e);
+                return new ArrayList<>();
+            }
+        } finally {
+            TIMER.stop("getTransactionRecordsByAccount", started);
+        }
+    }
 
-    // Hilfsmethode zum Mapping eines ResultSet auf ein Transaction-Objekt, mit Berücksichtigung von wiederkehrenden Transaktionen.
-    private Transaction mapResultSetToTransaction(ResultSet rs) throws SQLException {
-        Category category = categoryRepository.findCategoryById(rs.getString("category_id"));
-        Account account = accountRepository.findAccountById(rs.getString("account_id"));
-        Date date = rs.getDate("date");  // Korrigiert, um immer "date" zu verwenden
-        Time time = rs.getTime("time");
+    /**
+     * Ruft die Transaktionen aller Konten eines Benutzers in einem Zeitraum als kompakte Zeilen ab.
+     *
+     * @param userId    Die ID des Benutzers.
+     * @param startDate Erster Tag des Zeitraums.
+     * @param endDate   Letzter Tag des Zeitraums.
+     * @return Die Zeilen des Zeitraums.
+     */
+    public List<TransactionRecord> getTransactionRecordsByUserAndPeriod(String userId, LocalDate startDate, LocalDate endDate) {
+        long started = Metrics.start();
+        try {
+            String sql = SELECT_TRANSACTION_RECORDS + "JOIN accounts a ON a.id = t.account_id WHERE a.user_id = ? AND t.date >= ? AND t.date <= ?";
+            try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, userId);
+                pstmt.setDate(2, Date.valueOf(startDate));
+                pstmt.setDate(3, Date.valueOf(endDate));
+                return readRecords(pstmt);
+            } catch (SQLException e) {
+                LoggerUtils.logError(TransactionRepository.class.getName(), "Fehler beim Abrufen der Transaktionszeilen für Zeitraum", e);
+                return new ArrayList<>();
+            }
+        } finally {
+            TIMER.stop("getTransactionRecordsByUserAndPeriod", started);
+        }
+    }
 
-        Transaction transaction = new Transaction(rs.getString("description"), rs.getDouble("amount"), rs.getString("type"), null, account, category, date, time);
-        transaction.setId(rs.getString("id"));
+    /**
+     * Liest alle Transaktionen der Konten eines Benutzers als kompakte Zeilen, aufsteigend nach Datum, und übergibt
+     * sie einzeln, ohne eine Liste aufzubauen. Gedacht für Caches, die die Zeilen in eigene Strukturen übernehmen.
+     *
+     * @param userId Die ID des Benutzers.
+     * @param action Wird für jede Zeile aufgerufen.
+     * @throws SQLException bei einem Fehler im Datenbankzugriff.
+     */
+    public void forEachTransactionRecordOfUser(String userId, Consumer<TransactionRecord> action) throws SQLException {
+        long started = Metrics.start();
+        try {
+            String sql = SELECT_TRANSACTION_RECORDS + "JOIN accounts a ON a.id = t.account_id WHERE a.user_id = ? ORDER BY t.date";
+            try (Connection connection = DatabaseManager.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, userId);
+                Map<String, String> references = new HashMap<>();
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        action.accept(mapRecord(rs, references));
+                    }
+                }
+            } catch (SQLException e) {
+                LoggerUtils.logError(TransactionRepository.class.getName(), "Fehler beim Lesen der Transaktionszeilen für Benutzer: " + userId, e);
+                throw e;
+            }
+        } finally {
+            TIMER.stop("forEachTransactionRecordOfUser", started);
+        }
+    }
+
+    private static List<TransactionRecord> readRecords(PreparedStatement pstmt) throws SQLException {
+        List<TransactionRecord> records = new ArrayList<>();
+        Map<String, String> references = new HashMap<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                records.add(mapRecord(rs, references));
+            }
+        }
+        return records;
+    }
+
+    // Bildet die Transaktionsspalten einer Zeile ab; Datum und Uhrzeit werden ohne java.sql.Date/Time gelesen.
+    // Konto- und Kategorie-IDs sowie viele Beschreibungen wiederholen sich und werden je Abfrage nur einmal gehalten.
+    private static TransactionRecord mapRecord(ResultSet rs, Map<String, String> references) throws SQLException {
+        return new TransactionRecord(rs.getString("id"), canonical(references, rs.getString("account_id")),
+                canonical(references, rs.getString("category_id")),
+                rs.getLong("amount_cents"), (int) rs.getObject("date", LocalDate.class).toEpochDay(),
+                rs.getObject("time", LocalTime.class).toSecondOfDay(), rs.getString("type"), canonical(references, rs.getString("description")),
+                rs.getString("transfer_id"));
+    }
 
-        return transaction;
+    private static String canonical(Map<String, String> references, String value) {
+        return value == null ? null : references.computeIfAbsent(value, key -> key);
     }
 
+    // Liest die summenrelevanten Spalten einer gespeicherten Transaktion und sperrt die Zeile bis zum Ende der Transaktion
+    private StoredRow lockStoredRow(Connection connection, String transactionId) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "SELECT amount_cents, account_id, category_id, date, type, description FROM transactions WHERE id = ? FOR UPDATE")) {
+            pstmt.setString(1, transactionId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? new StoredRow(rs.getLong("amount_cents"), rs.getString("account_id"), rs.getString("category_id"),
+                        rs.getObject("date", LocalDate.class), rs.getString("type"), rs.getString("description")) : null;
+            }
+        }
+    }
 
+    // Gespeicherter Zustand einer Transaktion vor einer Änderung, soweit er in Kontostand und Monatssummen eingeht
+    private record StoredRow(long amountCents, String accountId, String categoryId, LocalDate date, String type, String description) {
 
+        void subtractFrom(MonthlyRollup.Deltas rollup) {
+            rollup.subtract(accountId, categoryId, date, type, description, amountCents);
+        }
+    }
+
+    /**
+     * Bildet die Zeilen einer Abfrage mit {@link #SELECT_TRANSACTIONS_WITH_REFERENCES} auf Transaktionen ab.
+     * Konten und Kategorien werden pro Abfrage nur einmal erzeugt und für alle weiteren Zeilen
+     * mit derselben ID wiederverwendet (Identity Map). Die erzeugten Objekte werden über die
+     * Repository-Caches auf die prozessweit kanonischen Instanzen abgebildet.
+     */
+    private final class TransactionRowMapper {
+        private final Map<String, Account> accountsById = new HashMap<>();
+        private final Map<String, Category> categoriesById = new HashMap<>();
+        private final Map<String, String> references = new HashMap<>();
 
+        private Transaction map(ResultSet rs) throws SQLException {
+            return Transaction.of(mapRecord(rs, references), mapAccount(rs), mapCategory(rs));
+        }
+
+        private Account mapAccount(ResultSet rs) throws SQLException {
+            String accountId = rs.getString("account_id");
+            if (accountId == null) {
+                return null;
+            }
+            Account account = accountsById.get(accountId);
+            if (account == null) {
+                account = accountRepository.cacheAccount(new Account(accountId, rs.getString("account_user_id"), rs.getString("account_name"), rs.getLong("account_balance_cents")));
+                accountsById.put(accountId, account);
+            }
+            return account;
+        }
+
+        private Category mapCategory(ResultSet rs) throws SQLException {
+            String categoryId = rs.getString("category_id");
+            if (categoryId == null) {
+                return null;
+            }
+            Category category = categoriesById.get(categoryId);
+            if (category == null) {
+                category = categoryRepository.cacheCategory(new Category(categoryId, rs.getString("category_name"), rs.getObject("category_budget_cents", Long.class)));
+                categoriesById.put(categoryId, category);
+            }
+            return category;
+        }
+    }
+
+    /**
+     * Position einer Transaktion in der Sortierung (Datum, Uhrzeit, ID) für die Keyset-Pagination.
+     *
+     * @param date Das Datum der Transaktion.
+     * @param time Die Uhrzeit der Transaktion.
+     * @param id   Die ID der Transaktion.
+     */
+    public record PageKey(Date date, Time time, String id) {
+
+        /**
+         * @param transaction Die Transaktion.
+         * @return Der Schlüssel der Transaktion.
+         */
+        public static PageKey of(Transaction transaction) {
+            return new PageKey(transaction.getDate(), transaction.getTime(), transaction.getId());
+        }
+    }
 }
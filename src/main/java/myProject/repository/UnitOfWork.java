@@ -0,0 +1,94 @@
+package myProject.repository;
+
+import myProject.db.DatabaseManager;
+import myProject.util.LoggerUtils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Eine UnitOfWork führt mehrere Repository-Operationen auf einer Verbindung in einer Datenbanktransaktion aus.
+ * Entweder werden alle Änderungen gemeinsam festgeschrieben oder keine. Aktionen, die erst nach dem Commit
+ * ausgeführt werden dürfen (z. B. das Fortschreiben der Caches), werden über {@link #afterCommit(Runnable)} registriert.
+ * <pre>{@code
+ * UnitOfWork.execute(work -> {
+ *     transactionRepository.insertTransaction(work, expense);
+ *     transactionRepository.insertTransaction(work, income);
+ *     return null;
+ * });
+ * }</pre>
+ */
+public final class UnitOfWork {
+
+    /**
+     * Die Arbeit, die innerhalb einer UnitOfWork ausgeführt wird.
+     *
+     * @param <T> Typ des Ergebnisses.
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T run(UnitOfWork work) throws SQLException;
+    }
+
+    private final Connection connection;
+    private final List<Runnable> afterCommitActions = new ArrayList<>();
+
+    private UnitOfWork(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Führt die Arbeit auf einer Verbindung aus und schreibt sie mit einem Commit fest.
+     * Wirft die Arbeit eine Exception, wird die Transaktion zurückgerollt und die Exception weitergereicht.
+     *
+     * @param work Die auszuführende Arbeit.
+     * @param <T>  Typ des Ergebnisses.
+     * @return Das Ergebnis der Arbeit.
+     * @throws SQLException Wenn ein Datenbankfehler auftritt.
+     */
+    public static <T> T execute(Work<T> work) throws SQLException {
+        try (Connection connection = DatabaseManager.getConnection()) {
+            connection.setAutoCommit(false);
+            UnitOfWork unitOfWork = new UnitOfWork(connection);
+            T result;
+            try {
+                result = work.run(unitOfWork);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+            unitOfWork.runAfterCommitActions();
+            return result;
+        }
+    }
+
+    /**
+     * @return Die Verbindung dieser UnitOfWork. Sie darf weder geschlossen noch festgeschrieben werden.
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Registriert eine Aktion, die nur nach erfolgreichem Commit ausgeführt wird.
+     *
+     * @param action Die Aktion.
+     */
+    public void afterCommit(Runnable action) {
+        afterCommitActions.add(action);
+    }
+
+    // Fehler einer Aktion dürfen die bereits festgeschriebene Transaktion nicht als fehlgeschlagen melden
+    private void runAfterCommitActions() {
+        for (Runnable action : afterCommitActions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                LoggerUtils.logError(UnitOfWork.class.getName(), "Fehler in einer Aktion nach dem Commit", e);
+            }
+        }
+    }
+}
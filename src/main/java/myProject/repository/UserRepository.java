@@ -2,6 +2,8 @@ package myProject.repository;
 
 import myProject.model.User;
 import myProject.db.DatabaseManager;
+import myProject.metrics.MethodTimer;
+import myProject.metrics.Metrics;
 import myProject.util.LoggerUtils;
 
 import java.sql.Connection;
@@ -16,28 +18,35 @@ import java.util.Optional;
  */
 public class UserRepository {
 
+    private static final MethodTimer TIMER = Metrics.timer(UserRepository.class);
+
     /**
      * Methode zum Hinzufügen eines neuen Benutzers in die Datenbank.
      * @param user Der Benutzer, der hinzugefügt werden soll.
      * @return true, wenn das Hinzufügen erfolgreich war, false bei einem Fehler.
      */
     public boolean addUser(User user) {
-        String sql = "INSERT INTO users (id, username, password) VALUES (?, ?, ?)";
+        long started = Metrics.start();
+        try {
+            String sql = "INSERT INTO users (id, username, password) VALUES (?, ?, ?)";
 
-        try (Connection connection = DatabaseManager.getConnection();
-             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            try (Connection connection = DatabaseManager.getConnection();
+                 PreparedStatement pstmt = connection.prepareStatement(sql)) {
 
-            pstmt.setString(1, user.getId());  // Eindeutige Benutzer-ID
-            pstmt.setString(2, user.getUsername());
-            pstmt.setString(3, user.getPassword());  // Passwort sollte normalerweise gehasht werden
+                pstmt.setString(1, user.getId());  // Eindeutige Benutzer-ID
+                pstmt.setString(2, user.getUsername());
+                pstmt.setString(3, user.getPassword());  // Passwort sollte normalerweise gehasht werden
 
-            pstmt.executeUpdate();
-            LoggerUtils.logInfo(UserRepository.class.getName(), "Benutzer erfolgreich hinzugefügt: " + user.getUsername());
-            return true;
+                pstmt.executeUpdate();
+                LoggerUtils.logInfo(UserRepository.class.getName(), "Benutzer erfolgreich hinzugefügt: {0}", user.getUsername());
+                return true;
 
-        } catch (SQLException e) {
-            LoggerUtils.logError(UserRepository.class.getName(), "Fehler beim Hinzufügen des Benutzers: " + user.getUsername(), e);
-            return false;
+            } catch (SQLException e) {
+                LoggerUtils.logError(UserRepository.class.getName(), "Fehler beim Hinzufügen des Benutzers: " + user.getUsername(), e);
+                return false;
+            }
+        } finally {
+            TIMER.stop("addUser", started);
         }
     }
 
@@ -47,26 +56,31 @@ public class UserRepository {
      * @return Ein Optional-Objekt, das den Benutzer enthält, falls er gefunden wurde.
      */
     public Optional<User> findByUsername(String username) {
-        String sql = "SELECT * FROM users WHERE username = ?";
+        long started = Metrics.start();
+        try {
+            String sql = "SELECT * FROM users WHERE username = ?";
 
-        try (Connection connection = DatabaseManager.getConnection();
-             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            try (Connection connection = DatabaseManager.getConnection();
+                 PreparedStatement pstmt = connection.prepareStatement(sql)) {
 
-            pstmt.setString(1, username);
+                pstmt.setString(1, username);
 
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    String id = rs.getString("id");
-                    String password = rs.getString("password");
-                    LoggerUtils.logInfo(UserRepository.class.getName(), "Benutzer erfolgreich gefunden: " + username);
-                    return Optional.of(new User(id, username, password));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        String id = rs.getString("id");
+                        String password = rs.getString("password");
+                        LoggerUtils.logInfo(UserRepository.class.getName(), "Benutzer erfolgreich gefunden: {0}", username);
+                        return Optional.of(new User(id, username, password));
+                    }
                 }
+
+            } catch (SQLException e) {
+                LoggerUtils.logError(UserRepository.class.getName(), "Fehler beim Suchen des Benutzers: " + username, e);
             }
 
-        } catch (SQLException e) {
-            LoggerUtils.logError(UserRepository.class.getName(), "Fehler beim Suchen des Benutzers: " + username, e);
+            return Optional.empty();
+        } finally {
+            TIMER.stop("findByUsername", started);
         }
-
-        return Optional.empty();
     }
 }
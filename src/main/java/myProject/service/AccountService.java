@@ -1,26 +1,42 @@
 package myProject.service;
 
+import myProject.metrics.MethodTimer;
+import myProject.metrics.Metrics;
 import myProject.model.Account;
+import myProject.model.BalancePoint;
+import myProject.model.BalanceSeries;
 import myProject.repository.AccountRepository;
+import myProject.repository.ReportRepository;
+import myProject.service.analytics.AccountBalanceIndex;
 import myProject.util.LoggerUtils;
 
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Der AccountService verwaltet die Geschäftslogik für Konten.
  * Er bietet Methoden zum Hinzufügen, Aktualisieren und Abrufen von Konten
- * sowie zur Berechnung von Kontobilanzen auf Basis abgeschlossener Transaktionen.
- * Die Klasse interagiert mit dem AccountRepository für Datenbankoperationen und
- * dem TransactionService, um Transaktionen zu verarbeiten.
+ * sowie zum Lesen der fortgeschriebenen Kontostände und der Kontostände zu einem Stichtag.
+ * Die Klasse interagiert mit dem AccountRepository für Datenbankoperationen.
  */
 public class AccountService {
 
+    private static final MethodTimer TIMER = Metrics.timer(AccountService.class);
+
     private final AccountRepository accountRepository;
+    private final AccountBalanceIndex balanceIndex;
 
-    // Konstruktor, um AccountRepository und TransactionService zu initialisieren
+    // Ohne registrierten Index, z. B. für den BalanceReconciler: Stichtagsabfragen lesen jedes Mal die Tagessummen
     public AccountService(AccountRepository accountRepository) {
+        this(accountRepository, new AccountBalanceIndex(new ReportRepository(), false));
+    }
+
+    // Der Index muss beim TransactionService als Listener registriert sein, damit er aktuell bleibt
+    public AccountService(AccountRepository accountRepository, AccountBalanceIndex balanceIndex) {
         this.accountRepository = accountRepository;
+        this.balanceIndex = balanceIndex;
     }
 
     /**
@@ -28,16 +44,21 @@ public class AccountService {
      *
      * @param userId Die ID des Benutzers.
      * @param name Der Name des Kontos.
-     * @param balance Der Startkontostand.
+     * @param balanceCents Der Startkontostand in Cent.
      * @return true, wenn das Konto erfolgreich hinzugefügt wurde, false bei einem Fehler.
      */
-    public boolean addAccount(String userId, String name, double balance) {
-        Account newAccount = new Account(userId, name, balance);  // Verknüpft das Konto mit dem Benutzer
+    public boolean addAccount(String userId, String name, long balanceCents) {
+        long started = Metrics.start();
         try {
-            return accountRepository.addAccount(newAccount);
-        } catch (Exception e) {
-            LoggerUtils.logError(AccountService.class.getName(), "Fehler beim Hinzufügen eines Kontos für Benutzer: " + userId, e);
-            return false;
+            Account newAccount = new Account(userId, name, balanceCents);  // Verknüpft das Konto mit dem Benutzer
+            try {
+                return accountRepository.addAccount(newAccount);
+            } catch (Exception e) {
+                LoggerUtils.logError(AccountService.class.getName(), "Fehler beim Hinzufügen eines Kontos für Benutzer: " + userId, e);
+                return false;
+            }
+        } finally {
+            TIMER.stop("addAccount", started);
         }
     }
 
@@ -47,10 +68,13 @@ public class AccountService {
      * @param account Das Konto, das aktualisiert werden soll.
      */
     public void updateAccount(Account account) {
+        long started = Metrics.start();
         try {
             accountRepository.updateAccount(account);  // Aktualisiere das Konto in der Datenbank
         } catch (Exception e) {
             LoggerUtils.logError(AccountService.class.getName(), "Fehler beim Aktualisieren des Kontos: " + account.getName(), e);
+        } finally {
+            TIMER.stop("updateAccount", started);
         }
     }
 
@@ -61,11 +85,15 @@ public class AccountService {
      * @throws SQLException Error Exception
      */
     public void deleteAccount(String accountId) throws SQLException {
+        long started = Metrics.start();
         try {
             accountRepository.deleteAccount(accountId);
+            balanceIndex.unload(accountId);
         } catch (SQLException e) {
             LoggerUtils.logError(AccountService.class.getName(), "Error deleting account: " + accountId, e);
             throw e;
+        } finally {
+            TIMER.stop("deleteAccount", started);
         }
     }
 
@@ -77,11 +105,14 @@ public class AccountService {
      * @throws SQLException bei einem Datenbankfehler.
      */
     public List<Account> getAllAccountsForUser(String userId) throws SQLException {
+        long started = Metrics.start();
         try {
             return accountRepository.getAllAccountsForUser(userId);
         } catch (SQLException e) {
             LoggerUtils.logError(AccountService.class.getName(), "Fehler beim Abrufen der Konten für Benutzer: " + userId, e);
             throw e;
+        } finally {
+            TIMER.stop("getAllAccountsForUser", started);
         }
     }
 
@@ -94,30 +125,201 @@ public class AccountService {
      * @throws SQLException bei einem Datenbankfehler.
      */
     public Account findAccountByName(String userId, String accountName) throws SQLException {
+        long started = Metrics.start();
         try {
             return accountRepository.findAccountByName(userId, accountName);
         } catch (SQLException e) {
             LoggerUtils.logError(AccountService.class.getName(), "Fehler beim Finden des Kontos: " + accountName + " für Benutzer: " + userId, e);
             throw e;
+        } finally {
+            TIMER.stop("findAccountByName", started);
+        }
+    }
+
+    /**
+     * Liest den gespeicherten Kontostand eines Kontos und überträgt ihn auf das übergebene Objekt.
+     *
+     * @param account Das Konto.
+     * @return Der aktuelle Kontostand in Cent.
+     * @throws SQLException bei einem Datenbankfehler.
+     */
+    public long getAccountBalanceCents(Account account) throws SQLException {
+        long started = Metrics.start();
+        try {
+            long balanceCents = accountRepository.getBalanceCents(account.getId());
+            accountRepository.applyBalanceCents(account, balanceCents);
+            return balanceCents;
+        } catch (SQLException e) {
+            LoggerUtils.logError(AccountService.class.getName(), "Fehler beim Abrufen des Kontostands für Konto: " + account.getName(), e);
+            throw e;
+        } finally {
+            TIMER.stop("getAccountBalanceCents", started);
         }
     }
 
     /**
-     * Methode zur Berechnung der Gesamtbilanz eines bestimmten Benutzers.
+     * Liefert den Kontostand eines Kontos am Ende eines Tages aus dem Index der Tagessummen.
+     *
+     * @param account Das Konto.
+     * @param date    Der Stichtag (einschließlich).
+     * @return Die Summe aller Buchungen bis einschließlich {@code date} in Cent.
+     * @throws SQLException bei einem Datenbankfehler.
+     */
+    public long getBalanceCentsAsOf(Account account, LocalDate date) throws SQLException {
+        long started = Metrics.start();
+        try {
+            return balanceIndex.balanceAsOf(account, date);
+        } catch (SQLException e) {
+            LoggerUtils.logError(AccountService.class.getName(), "Fehler beim Abrufen des Kontostands zum " + date + " für Konto: " + account.getName(), e);
+            throw e;
+        } finally {
+            TIMER.stop("getBalanceCentsAsOf", started);
+        }
+    }
+
+    /**
+     * Liefert die täglichen Kontostände eines Kontos in einem Zeitraum aus dem Index der Tagessummen.
+     *
+     * @param account   Das Konto.
+     * @param startDate Der erste Tag (einschließlich).
+     * @param endDate   Der letzte Tag (einschließlich), nicht vor {@code startDate}.
+     * @return Der Kontostand am Ende jedes Tages in Cent.
+     * @throws SQLException bei einem Datenbankfehler.
+     */
+    public BalanceSeries getDailyBalances(Account account, LocalDate startDate, LocalDate endDate) throws SQLException {
+        long started = Metrics.start();
+        try {
+            return new BalanceSeries(startDate, balanceIndex.dailyBalances(account, startDate, endDate));
+        } catch (SQLException e) {
+            LoggerUtils.logError(AccountService.class.getName(), "Fehler beim Abrufen der täglichen Kontostände für Konto: " + account.getName(), e);
+            throw e;
+        } finally {
+            TIMER.stop("getDailyBalances", started);
+        }
+    }
+
+    /**
+     * Liefert den Kontostandsverlauf eines Kontos von der ersten Buchung bis heute, reduziert auf höchstens zwei Punkte
+     * pro Pixel eines Diagramms der angegebenen Breite.
+     *
+     * @param account Das Konto.
+     * @param width   Die Breite des Diagramms in Pixeln, mindestens 1.
+     * @return Die Punkte in zeitlicher Reihenfolge; für Konten ohne Buchungen nur der heutige Kontostand.
+     * @throws SQLException bei einem Datenbankfehler.
+     */
+    public List<BalancePoint> getBalanceHistory(Account account, int width) throws SQLException {
+        long started = Metrics.start();
+        try {
+            LocalDate today = LocalDate.now();
+            LocalDate firstBooking = balanceIndex.firstBookingDate(account);
+            LocalDate startDate = firstBooking != null && firstBooking.isBefore(today) ? firstBooking : today;
+            return balanceIndex.balanceHistory(account, startDate, today, width);
+        } catch (SQLException e) {
+            LoggerUtils.logError(AccountService.class.getName(), "Fehler beim Abrufen des Kontostandsverlaufs für Konto: " + account.getName(), e);
+            throw e;
+        } finally {
+            TIMER.stop("getBalanceHistory", started);
+        }
+    }
+
+    /**
+     * Gleicht alle gespeicherten Kontostände mit der Summe ihrer Transaktionen ab.
+     *
+     * @return Die Anzahl der korrigierten Konten.
+     * @throws SQLException bei einem Datenbankfehler.
+     */
+    public int reconcileBalances() throws SQLException {
+        long started = Metrics.start();
+        try {
+            return accountRepository.reconcileBalances();
+        } finally {
+            TIMER.stop("reconcileBalances", started);
+        }
+    }
+
+    /**
+     * Methode zur Berechnung der Gesamtbilanz eines bestimmten Benutzers. Die Summe wird in der Datenbank gebildet,
+     * nicht aus den zwischengespeicherten Konten, deren Kontostand erst verzögert auf dem JavaFX-Thread nachgezogen wird.
      *
      * @param userId Die ID des Benutzers.
-     * @return Die berechnete Gesamtbilanz.
+     * @return Die berechnete Gesamtbilanz in Cent.
      * @throws SQLException bei einem Datenbankfehler.
      */
-    public double calculateOverallBalanceForUser(String userId) throws SQLException {
+    public long calculateOverallBalanceCentsForUser(String userId) throws SQLException {
+        long started = Metrics.start();
         try {
-            return accountRepository.getAllAccountsForUser(userId)
-                    .stream()
-                    .mapToDouble(Account::getBalance)
-                    .sum();
+            return accountRepository.getTotalBalanceCents(userId);
         } catch (SQLException e) {
             LoggerUtils.logError(AccountService.class.getName(), "Fehler bei der Berechnung der Gesamtbilanz für Benutzer: " + userId, e);
             throw e;
+        } finally {
+            TIMER.stop("calculateOverallBalanceCentsForUser", started);
         }
     }
+
+    // Asynchrone Varianten der lesenden Methoden, ausgeführt über den ServiceExecutor
+
+    /**
+     * Ruft alle Konten eines Benutzers asynchron ab.
+     *
+     * @param userId Die ID des Benutzers.
+     * @return Future mit der Liste der Konten des Benutzers.
+     */
+    public CompletableFuture<List<Account>> getAllAccountsForUserAsync(String userId) {
+        return TIMER.timeAsync("getAllAccountsForUserAsync", Metrics.start(), ServiceExecutor.supply(() -> getAllAccountsForUser(userId)));
+    }
+
+    /**
+     * Liest den gespeicherten Kontostand eines Kontos asynchron.
+     *
+     * @param account Das Konto.
+     * @return Future mit dem aktuellen Kontostand in Cent.
+     */
+    public CompletableFuture<Long> getAccountBalanceCentsAsync(Account account) {
+        return TIMER.timeAsync("getAccountBalanceCentsAsync", Metrics.start(), ServiceExecutor.supply(() -> getAccountBalanceCents(account)));
+    }
+
+    /**
+     * Liefert den Kontostand eines Kontos an einem Stichtag asynchron.
+     *
+     * @param account Das Konto.
+     * @param date    Der Stichtag (einschließlich).
+     * @return Future mit dem Kontostand in Cent.
+     */
+    public CompletableFuture<Long> getBalanceCentsAsOfAsync(Account account, LocalDate date) {
+        return TIMER.timeAsync("getBalanceCentsAsOfAsync", Metrics.start(), ServiceExecutor.supply(() -> getBalanceCentsAsOf(account, date)));
+    }
+
+    /**
+     * Liefert die täglichen Kontostände eines Kontos in einem Zeitraum asynchron.
+     *
+     * @param account   Das Konto.
+     * @param startDate Der erste Tag (einschließlich).
+     * @param endDate   Der letzte Tag (einschließlich).
+     * @return Future mit den täglichen Kontoständen in Cent.
+     */
+    public CompletableFuture<BalanceSeries> getDailyBalancesAsync(Account account, LocalDate startDate, LocalDate endDate) {
+        return TIMER.timeAsync("getDailyBalancesAsync", Metrics.start(), ServiceExecutor.supply(() -> getDailyBalances(account, startDate, endDate)));
+    }
+
+    /**
+     * Liefert den Kontostandsverlauf eines Kontos für ein Diagramm asynchron.
+     *
+     * @param account Das Konto.
+     * @param width   Die Breite des Diagramms in Pixeln.
+     * @return Future mit den Punkten in zeitlicher Reihenfolge.
+     */
+    public CompletableFuture<List<BalancePoint>> getBalanceHistoryAsync(Account account, int width) {
+        return TIMER.timeAsync("getBalanceHistoryAsync", Metrics.start(), ServiceExecutor.supply(() -> getBalanceHistory(account, width)));
+    }
+
+    /**
+     * Berechnet die Gesamtbilanz eines Benutzers asynchron.
+     *
+     * @param userId Die ID des Benutzers.
+     * @return Future mit der Gesamtbilanz in Cent.
+     */
+    public CompletableFuture<Long> calculateOverallBalanceCentsForUserAsync(String userId) {
+        return TIMER.timeAsync("calculateOverallBalanceCentsForUserAsync", Metrics.start(), ServiceExecutor.supply(() -> calculateOverallBalanceCentsForUser(userId)));
+    }
 }
@@ -0,0 +1,72 @@
+package myProject.service;
+
+import myProject.util.LoggerUtils;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Der BalanceReconciler prüft im Hintergrund in festen Abständen, ob die fortgeschriebenen Kontostände
+ * mit der Summe der gespeicherten Transaktionen übereinstimmen, und korrigiert Abweichungen.
+ * Das Prüfintervall kann über die System-Property {@code smartfinance.balance.reconcileIntervalSeconds}
+ * angepasst werden.
+ */
+public class BalanceReconciler {
+
+    private static final long DEFAULT_INTERVAL_SECONDS = 300;
+
+    private final AccountService accountService;
+    private ScheduledExecutorService scheduler;
+
+    // Konstruktor mit dem AccountService, über den der Abgleich ausgeführt wird
+    public BalanceReconciler(AccountService accountService) {
+        this.accountService = accountService;
+    }
+
+    /**
+     * Startet den periodischen Abgleich. Der erste Abgleich wird sofort ausgeführt.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        long interval = Long.getLong("smartfinance.balance.reconcileIntervalSeconds", DEFAULT_INTERVAL_SECONDS);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "balance-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::reconcile, 0, interval, TimeUnit.SECONDS);
+        LoggerUtils.logInfo(BalanceReconciler.class.getName(), "Kontostandsabgleich gestartet (Intervall: {0}s).", interval);
+    }
+
+    /**
+     * Beendet den periodischen Abgleich.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Führt einen einzelnen Abgleich aus.
+     *
+     * @return Die Anzahl der korrigierten Konten oder -1 bei einem Fehler.
+     */
+    public int reconcile() {
+        try {
+            int corrected = accountService.reconcileBalances();
+            if (corrected > 0) {
+                LoggerUtils.logInfo(BalanceReconciler.class.getName(), "Abweichende Kontostände korrigiert: {0}", corrected);
+            }
+            return corrected;
+        } catch (SQLException e) {
+            LoggerUtils.logError(BalanceReconciler.class.getName(), "Fehler beim Abgleich der Kontostände", e);
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package myProject.service;
+
+import myProject.model.BudgetStatus;
+import myProject.model.Category;
+import myProject.repository.CategoryRepository;
+import myProject.repository.ReportRepository;
+import myProject.service.analytics.AnalyticsStore;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Der BudgetEvaluator berechnet die Ausgaben aller Kategorien eines Benutzers in einem Zeitraum
+ * mit einer einzigen gruppierten Abfrage und ordnet sie den Kategorien und ihren Budgets zu.
+ * Sowohl der CategoryService als auch der ReportService leiten ihren Budgetfortschritt aus diesem Ergebnis ab.
+ * Ist der Benutzer im {@link AnalyticsStore} geladen, werden die Ausgaben dort statt in der Datenbank summiert.
+ */
+public class BudgetEvaluator {
+
+    private final CategoryRepository categoryRepository;
+    private final ReportRepository reportRepository;
+    private final AnalyticsStore analyticsStore;
+
+    // Konstruktor mit Dependency Injection
+    public BudgetEvaluator(CategoryRepository categoryRepository, ReportRepository reportRepository, AnalyticsStore analyticsStore) {
+        this.categoryRepository = categoryRepository;
+        this.reportRepository = reportRepository;
+        this.analyticsStore = analyticsStore;
+    }
+
+    /**
+     * Berechnet den Budgetstatus aller Kategorien eines Benutzers.
+     *
+     * @param userId    Die ID des Benutzers.
+     * @param startDate Startdatum des Zeitraums (einschließlich).
+     * @param endDate   Enddatum des Zeitraums (einschließlich).
+     * @return Ein Budgetstatus pro Kategorie in der Reihenfolge der Kategorien des Benutzers.
+     * @throws SQLException bei einem Fehler im Datenbankzugriff.
+     */
+    public List<BudgetStatus> evaluate(String userId, LocalDate startDate, LocalDate endDate) throws SQLException {
+        Map<String, Long> spentByCategoryId = analyticsStore.getSpentByCategory(userId, startDate, endDate);
+        if (spentByCategoryId == null) {
+            spentByCategoryId = reportRepository.getSpentByCategory(userId, startDate, endDate);
+        }
+        List<Category> categories = categoryRepository.getAllCategoriesForUser(userId);
+
+        List<BudgetStatus> statuses = new ArrayList<>(categories.size());
+        for (Category category : categories) {
+            statuses.add(new BudgetStatus(category, spentByCategoryId.getOrDefault(category.getId(), 0L)));
+        }
+        return statuses;
+    }
+}
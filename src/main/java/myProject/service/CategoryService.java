@@ -1,13 +1,19 @@
 package myProject.service;
 
+import myProject.metrics.MethodTimer;
+import myProject.metrics.Metrics;
+import myProject.model.BudgetStatus;
 import myProject.model.Category;
 import myProject.repository.CategoryRepository;
 import myProject.util.LoggerUtils;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Der CategoryService verwaltet die Geschäftslogik für Kategorien.
@@ -15,11 +21,32 @@ import java.util.Map;
  * und interagiert mit dem CategoryRepository für Datenbankoperationen.
  */
 public class CategoryService {
+
+    private static final MethodTimer TIMER = Metrics.timer(CategoryService.class);
     private final CategoryRepository categoryRepository;
+    private final BudgetEvaluator budgetEvaluator;
+    private final TransactionChangeNotifier changeNotifier = new TransactionChangeNotifier();
 
     // Konstruktor mit Dependency Injection
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, BudgetEvaluator budgetEvaluator) {
         this.categoryRepository = categoryRepository;
+        this.budgetEvaluator = budgetEvaluator;
+    }
+
+    /**
+     * Registriert einen Listener, der benachrichtigt wird, wenn Transaktionen einer gelöschten Kategorie umgehängt wurden.
+     *
+     * @param listener Der Listener.
+     */
+    public void addChangeListener(TransactionChangeListener listener) {
+        changeNotifier.add(listener);
+    }
+
+    /**
+     * @return Eine Nummer, die sich ändert, wenn Kategorien umbenannt oder ihre Transaktionen umgehängt werden.
+     */
+    public long getChangeVersion() {
+        return changeNotifier.version();
     }
 
     /**
@@ -29,15 +56,18 @@ public class CategoryService {
      * @return true, wenn das Hinzufügen erfolgreich war, false bei einem Fehler.
      */
     public boolean addCategory(Category category, String userId) {
+        long started = Metrics.start();
         try {
             boolean success = categoryRepository.addCategory(category, userId);
             if (success) {
-                LoggerUtils.logInfo(CategoryService.class.getName(), "Kategorie erfolgreich hinzugefügt: " + category.getName() + " für Benutzer: " + userId);
+                LoggerUtils.logInfo(CategoryService.class.getName(), "Kategorie erfolgreich hinzugefügt: {0} für Benutzer: {1}", category.getName(), userId);
             }
             return success;
         } catch (Exception e) {
             LoggerUtils.logError(CategoryService.class.getName(), "Fehler beim Hinzufügen der Kategorie: " + category.getName() + " für Benutzer: " + userId, e);
             return false;
+        } finally {
+            TIMER.stop("addCategory", started);
         }
     }
 
@@ -47,15 +77,20 @@ public class CategoryService {
      * @return true, wenn die Aktualisierung erfolgreich war, false bei einem Fehler.
      */
     public boolean updateCategory(Category category) {
+        long started = Metrics.start();
         try {
             boolean success = categoryRepository.updateCategory(category);
             if (success) {
-                LoggerUtils.logInfo(CategoryService.class.getName(), "Kategorie erfolgreich aktualisiert: " + category.getName());
+                // Berichte nach Kategorienamen sind nach einer Umbenennung veraltet
+                changeNotifier.changed();
+                LoggerUtils.logInfo(CategoryService.class.getName(), "Kategorie erfolgreich aktualisiert: {0}", category.getName());
             }
             return success;
         } catch (Exception e) {
             LoggerUtils.logError(CategoryService.class.getName(), "Fehler beim Aktualisieren der Kategorie: " + category.getName(), e);
             return false;
+        } finally {
+            TIMER.stop("updateCategory", started);
         }
     }
 
@@ -68,20 +103,31 @@ public class CategoryService {
      * @return true, wenn das Löschen und Aktualisieren erfolgreich war, false bei einem Fehler.
      */
     public boolean deleteCategoryAndUpdateTransactions(String categoryId, String userId) {
+        long started = Metrics.start();
         try {
             // Aktualisiere Transaktionen auf die "No Category" des Benutzers
-            categoryRepository.updateTransactionsToNoCategory(categoryId, userId);
+            changeNotifier.writeStarted();
+            try {
+                String noCategoryId = categoryRepository.updateTransactionsToNoCategory(categoryId, userId);
+                if (noCategoryId != null) {
+                    changeNotifier.fire(listener -> listener.categoryReassigned(userId, categoryId, noCategoryId));
+                }
+            } finally {
+                changeNotifier.writeFinished();
+            }
 
             // Lösche die Kategorie
             boolean success = categoryRepository.deleteCategory(categoryId);
             if (success) {
-                LoggerUtils.logInfo(CategoryService.class.getName(), "Kategorie erfolgreich gelöscht und Transaktionen aktualisiert: " + categoryId);
+                LoggerUtils.logInfo(CategoryService.class.getName(), "Kategorie erfolgreich gelöscht und Transaktionen aktualisiert: {0}", categoryId);
             }
             return success;
 
         } catch (Exception e) {
             LoggerUtils.logError(CategoryService.class.getName(), "Fehler beim Löschen der Kategorie und Aktualisieren der Transaktionen: " + categoryId, e);
             return false;
+        } finally {
+            TIMER.stop("deleteCategoryAndUpdateTransactions", started);
         }
     }
 
@@ -93,7 +139,12 @@ public class CategoryService {
      * @return Eine Liste aller Kategorien des Benutzers.
      */
     public List<Category> getAllCategoriesForUser(String userId) {
-        return categoryRepository.getAllCategoriesForUser(userId);
+        long started = Metrics.start();
+        try {
+            return categoryRepository.getAllCategoriesForUser(userId);
+        } finally {
+            TIMER.stop("getAllCategoriesForUser", started);
+        }
     }
 
 
@@ -104,20 +155,21 @@ public class CategoryService {
      * @return Die gefundene Kategorie oder null, wenn keine Kategorie gefunden wurde.
      */
     public Category getCategoryByName(String userId, String categoryName) {
+        long started = Metrics.start();
         try {
             Category category = categoryRepository.findCategoryByName(userId, categoryName);
             if (category != null) {
-                LoggerUtils.logInfo(CategoryService.class.getName(), "Kategorie erfolgreich abgerufen: " + categoryName + " für Benutzer: " + userId);
+                LoggerUtils.logInfo(CategoryService.class.getName(), "Kategorie erfolgreich abgerufen: {0} für Benutzer: {1}", categoryName, userId);
             } else {
-                LoggerUtils.logInfo(CategoryService.class.getName(), "Keine Kategorie gefunden mit Namen: " + categoryName + " für Benutzer: " + userId);
+                LoggerUtils.logInfo(CategoryService.class.getName(), "Keine Kategorie gefunden mit Namen: {0} für Benutzer: {1}", categoryName, userId);
             }
             return category;
         } catch (Exception e) {
             LoggerUtils.logError(CategoryService.class.getName(), "Fehler beim Abrufen der Kategorie: " + categoryName + " für Benutzer: " + userId, e);
             return null;
+        } finally {
+            TIMER.stop("getCategoryByName", started);
         }
-
-
     }
 
     /**
@@ -129,19 +181,74 @@ public class CategoryService {
      * @return Map mit Kategorien als Schlüssel und ihrem Budgetfortschritt als Werte.
      */
     public Map<Category, Double> getCategoryBudgetProgress(String userId, LocalDate startDate, LocalDate endDate) {
-        List<Category> categories = categoryRepository.getAllCategoriesForUser(userId);
-        Map<Category, Double> budgetProgress = new HashMap<>();
-
-        for (Category category : categories) {
-            if (category.getBudget() != null) {
-
-                double spent = Math.abs(categoryRepository.getSpentAmountForCategoryInPeriod(category.getId(), startDate, endDate));
+        long started = Metrics.start();
+        try {
+            Map<Category, Double> budgetProgress = new HashMap<>();
 
-                budgetProgress.put(category, spent);
+            for (BudgetStatus status : evaluateBudgets(userId, startDate, endDate)) {
+                if (status.hasBudget()) {
+                    budgetProgress.put(status.category(), status.spent());
+                }
             }
+            return budgetProgress;
+        } finally {
+            TIMER.stop("getCategoryBudgetProgress", started);
         }
-        return budgetProgress;
     }
 
-}
+    /**
+     * Berechnet Ausgaben und Budget aller Kategorien eines Benutzers in einem Zeitraum mit einer einzigen Abfrage.
+     *
+     * @param userId Die ID des Benutzers.
+     * @param startDate Das Startdatum des Zeitraums.
+     * @param endDate Das Enddatum des Zeitraums.
+     * @return Ein Budgetstatus pro Kategorie, bei einem Fehler eine leere Liste.
+     */
+    public List<BudgetStatus> evaluateBudgets(String userId, LocalDate startDate, LocalDate endDate) {
+        long started = Metrics.start();
+        try {
+            return budgetEvaluator.evaluate(userId, startDate, endDate);
+        } catch (SQLException e) {
+            LoggerUtils.logError(CategoryService.class.getName(), "Fehler beim Berechnen der Budgets für Benutzer: " + userId, e);
+            return new ArrayList<>();
+        } finally {
+            TIMER.stop("evaluateBudgets", started);
+        }
+    }
+
+    // Asynchrone Varianten der lesenden Methoden, ausgeführt über den ServiceExecutor
+
+    /**
+     * Ruft alle Kategorien eines Benutzers asynchron ab.
+     *
+     * @param userId Die ID des Benutzers.
+     * @return Future mit der Liste der Kategorien des Benutzers.
+     */
+    public CompletableFuture<List<Category>> getAllCategoriesForUserAsync(String userId) {
+        return TIMER.timeAsync("getAllCategoriesForUserAsync", Metrics.start(), ServiceExecutor.supply(() -> getAllCategoriesForUser(userId)));
+    }
 
+    /**
+     * Berechnet den Budgetfortschritt aller Kategorien eines Benutzers asynchron.
+     *
+     * @param userId    Die ID des Benutzers.
+     * @param startDate Das Startdatum des Zeitraums.
+     * @param endDate   Das Enddatum des Zeitraums.
+     * @return Future mit den Ausgaben pro Kategorie.
+     */
+    public CompletableFuture<Map<Category, Double>> getCategoryBudgetProgressAsync(String userId, LocalDate startDate, LocalDate endDate) {
+        return TIMER.timeAsync("getCategoryBudgetProgressAsync", Metrics.start(), ServiceExecutor.supply(() -> getCategoryBudgetProgress(userId, startDate, endDate)));
+    }
+
+    /**
+     * Berechnet Ausgaben und Budget aller Kategorien eines Benutzers asynchron.
+     *
+     * @param userId    Die ID des Benutzers.
+     * @param startDate Das Startdatum des Zeitraums.
+     * @param endDate   Das Enddatum des Zeitraums.
+     * @return Future mit einem Budgetstatus pro Kategorie.
+     */
+    public CompletableFuture<List<BudgetStatus>> evaluateBudgetsAsync(String userId, LocalDate startDate, LocalDate endDate) {
+        return TIMER.timeAsync("evaluateBudgetsAsync", Metrics.start(), ServiceExecutor.supply(() -> evaluateBudgets(userId, startDate, endDate)));
+    }
+}
@@ -1,33 +1,53 @@
 package myProject.service;
 
+import myProject.metrics.MethodTimer;
+import myProject.metrics.Metrics;
 import myProject.model.Account;
+import myProject.model.BudgetStatus;
 import myProject.model.Category;
-import myProject.model.Transaction;
+import myProject.repository.ReportRepository;
+import myProject.service.analytics.AnalyticsStore;
 import myProject.util.LoggerUtils;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Der ReportService ist verantwortlich für die Erstellung von Finanzberichten.
  * Er verwendet TransactionService, AccountService und CategoryService, um die erforderlichen Daten zu sammeln und zu verarbeiten.
+ * Kategorie- und Monatssummen kommen aus dem {@link AnalyticsStore}, sofern der Benutzer dort geladen ist,
+ * und werden sonst über das ReportRepository direkt in der Datenbank aggregiert.
+ * Alle Beträge werden in Cent geliefert; die Umrechnung für Diagramme übernimmt der ReportController.
  */
 public class ReportService {
 
+    private static final MethodTimer TIMER = Metrics.timer(ReportService.class);
+
     private final TransactionService transactionService;
     private final AccountService accountService;
     private final CategoryService categoryService;
+    private final ReportRepository reportRepository;
+    private final BudgetEvaluator budgetEvaluator;
+    private final AnalyticsStore analyticsStore;
 
     /**
      * Konstruktor für den ReportService.
      * @param transactionService Service für Transaktionsoperationen.
      * @param accountService Service für Kontooperationen.
      * @param categoryService Service für Kategorieoperationen.
+     * @param reportRepository Repository für die Aggregationsabfragen.
+     * @param budgetEvaluator Berechnet die Budgets aller Kategorien in einer Abfrage.
+     * @param analyticsStore Spaltenweiser Speicher für Auswertungen ohne Datenbankzugriff.
      */
-    public ReportService(TransactionService transactionService, AccountService accountService, CategoryService categoryService) {
+    public ReportService(TransactionService transactionService, AccountService accountService, CategoryService categoryService,
+                         ReportRepository reportRepository, BudgetEvaluator budgetEvaluator, AnalyticsStore analyticsStore) {
         this.transactionService = transactionService;
         this.accountService = accountService;
         this.categoryService = categoryService;
+        this.reportRepository = reportRepository;
+        this.budgetEvaluator = budgetEvaluator;
+        this.analyticsStore = analyticsStore;
     }
 
     /**
@@ -35,20 +55,17 @@ public class ReportService {
      * @param userId ID des Benutzers.
      * @param startDate Startdatum des Zeitraums.
      * @param endDate Enddatum des Zeitraums.
-     * @return Map mit Kategorienamen als Schlüssel und Ausgabensummen als Werte.
+     * @return Map mit Kategorienamen als Schlüssel und Ausgabensummen in Cent als Werte.
      */
-    public Map<String, Double> getCategoryExpenses(String userId, LocalDate startDate, LocalDate endDate) {
+    public Map<String, Long> getCategoryExpenses(String userId, LocalDate startDate, LocalDate endDate) {
+        long started = Metrics.start();
         try {
-            List<Transaction> transactions = transactionService.getTransactionsByUserAndPeriod(userId, startDate, endDate);
-            return transactions.stream()
-                    .filter(t -> "expense".equalsIgnoreCase(t.getType()))
-                    .collect(Collectors.groupingBy(
-                            t -> t.getCategory() != null ? t.getCategory().getName() : "Uncategorized",
-                            Collectors.summingDouble(t -> Math.abs(t.getAmount()))
-                    ));
+            return loadCategoryExpenses(userId, startDate, endDate);
         } catch (Exception e) {
             LoggerUtils.logError(ReportService.class.getName(), "Fehler beim Berechnen der Kategorieausgaben: " + e.getMessage(), e);
             return new HashMap<>();
+        } finally {
+            TIMER.stop("getCategoryExpenses", started);
         }
     }
 
@@ -57,42 +74,72 @@ public class ReportService {
      * @param userId ID des Benutzers.
      * @param startDate Startdatum des Zeitraums.
      * @param endDate Enddatum des Zeitraums.
-     * @return Map mit "income" und "expense" als Schlüssel, die jeweils auf Maps mit Monaten und Summen verweisen.
+     * @return Map mit "income" und "expense" als Schlüssel, die jeweils auf Maps mit Monaten und Summen in Cent verweisen.
      */
-    public Map<String, Map<String, Double>> getMonthlyIncomeAndExpenses(String userId, LocalDate startDate, LocalDate endDate) {
+    public Map<String, Map<String, Long>> getMonthlyIncomeAndExpenses(String userId, LocalDate startDate, LocalDate endDate) {
+        long started = Metrics.start();
         try {
-            List<Transaction> transactions = transactionService.getTransactionsByUserAndPeriod(userId, startDate, endDate);
-
-            Map<String, Map<String, Double>> result = new HashMap<>();
-            result.put("income", new TreeMap<>());  // Verwenden Sie TreeMap für sortierte Schlüssel
-            result.put("expense", new TreeMap<>());
-
-            transactions.forEach(t -> {
-                // Exkludiere Transaktionen mit der Beschreibung "Initial Balance"
-                if (t.getCategory() == null
-                        || "No Category".equalsIgnoreCase(t.getCategory().getName())
-                        || "Initial Balance".equalsIgnoreCase(t.getDescription())) {
-                    return;
-                }
+            return loadMonthlyIncomeAndExpenses(userId, startDate, endDate);
+        } catch (Exception e) {
+            LoggerUtils.logError(ReportService.class.getName(), "Fehler beim Berechnen der monatlichen Einnahmen und Ausgaben: " + e.getMessage(), e);
+            return new HashMap<>();
+        } finally {
+            TIMER.stop("getMonthlyIncomeAndExpenses", started);
+        }
+    }
 
-                String month = String.format("%d-%02d", t.getDate().toLocalDate().getYear(), t.getDate().toLocalDate().getMonthValue());
-                String type = t.getType().toLowerCase();
-                double amount = "expense".equalsIgnoreCase(type) ? Math.abs(t.getAmount()) : t.getAmount();
+    // Ausgaben pro Kategoriename; Fehler werden an den Aufrufer weitergegeben, z. B. an eine ReportSession
+    Map<String, Long> loadCategoryExpenses(String userId, LocalDate startDate, LocalDate endDate) throws SQLException {
+        Map<String, Long> categoryExpenses = new HashMap<>();
+        List<ReportRepository.CategoryTotal> totals = analyticsStore.getCategoryExpenses(userId, startDate, endDate);
+        if (totals == null) {
+            totals = reportRepository.getCategoryExpenses(userId, startDate, endDate);
+        }
+        for (ReportRepository.CategoryTotal total : totals) {
+            categoryExpenses.put(total.categoryName(), total.totalCents());
+        }
+        return categoryExpenses;
+    }
 
-                LoggerUtils.logInfo(ReportService.class.getName(), "Processing Transaction - Month: " + month + ", Type: " + type + ", Amount: " + amount);
+    // Monatliche Einnahmen und Ausgaben; Fehler werden an den Aufrufer weitergegeben
+    Map<String, Map<String, Long>> loadMonthlyIncomeAndExpenses(String userId, LocalDate startDate, LocalDate endDate) throws SQLException {
+        Map<String, Map<String, Long>> result = new HashMap<>();
+        result.put("income", new TreeMap<>());  // Verwenden Sie TreeMap für sortierte Schlüssel
+        result.put("expense", new TreeMap<>());
 
-                if (result.containsKey(type)) {
-                    result.get(type).merge(month, amount, Double::sum);
-                } else {
-                    LoggerUtils.logError(ReportService.class.getName(), "Unknown transaction type: " + type, null);
-                }
-            });
+        // Transaktionen ohne Kategorie, mit "No Category" oder mit der Beschreibung "Initial Balance" schließt die Abfrage aus
+        List<ReportRepository.MonthlyTotal> totals = analyticsStore.getMonthlyTotals(userId, startDate, endDate);
+        if (totals == null) {
+            totals = reportRepository.getMonthlyTotals(userId, startDate, endDate);
+        }
+        for (ReportRepository.MonthlyTotal total : totals) {
+            String month = String.format("%d-%02d", total.year(), total.month());
 
-            return result;
-        } catch (Exception e) {
-            LoggerUtils.logError(ReportService.class.getName(), "Fehler beim Berechnen der monatlichen Einnahmen und Ausgaben: " + e.getMessage(), e);
-            return new HashMap<>();
+            if (result.containsKey(total.type())) {
+                result.get(total.type()).merge(month, total.totalCents(), Long::sum);
+            } else {
+                LoggerUtils.logError(ReportService.class.getName(), "Unknown transaction type: " + total.type(), null);
+            }
         }
+
+        return result;
+    }
+
+    /**
+     * Öffnet eine Berichtssitzung, die bei wechselndem Zeitraum nur die hinzugekommenen oder
+     * weggefallenen Tage neu berechnet.
+     * @param userId ID des Benutzers.
+     * @return Eine neue Sitzung ohne berechneten Zeitraum.
+     */
+    public ReportSession openSession(String userId) {
+        return new ReportSession(this, userId);
+    }
+
+    /**
+     * @return Eine Nummer, die sich ändert, sobald Transaktionen geschrieben oder Kategorien umbenannt werden.
+     */
+    long getChangeVersion() {
+        return transactionService.getChangeVersion() + categoryService.getChangeVersion();
     }
 
 
@@ -100,14 +147,17 @@ public class ReportService {
     /**
      * Berechnet den Gesamtkontostand eines Benutzers.
      * @param userId ID des Benutzers.
-     * @return Gesamtkontostand des Benutzers.
+     * @return Gesamtkontostand des Benutzers in Cent.
      */
-    public double getTotalBalance(String userId) {
+    public long getTotalBalanceCents(String userId) {
+        long started = Metrics.start();
         try {
-            return accountService.calculateOverallBalanceForUser(userId);
+            return accountService.calculateOverallBalanceCentsForUser(userId);
         } catch (Exception e) {
             LoggerUtils.logError(ReportService.class.getName(), "Fehler beim Berechnen des Gesamtkontostands: " + e.getMessage(), e);
-            return 0.0;
+            return 0L;
+        } finally {
+            TIMER.stop("getTotalBalanceCents", started);
         }
     }
 
@@ -117,11 +167,14 @@ public class ReportService {
      * @return Liste aller Konten des Benutzers.
      */
     public List<Account> getUserAccounts(String userId) {
+        long started = Metrics.start();
         try {
             return accountService.getAllAccountsForUser(userId);
         } catch (Exception e) {
             LoggerUtils.logError(ReportService.class.getName(), "Fehler beim Abrufen der Benutzerkonten: " + e.getMessage(), e);
             return new ArrayList<>();
+        } finally {
+            TIMER.stop("getUserAccounts", started);
         }
     }
 
@@ -133,18 +186,25 @@ public class ReportService {
      * @return Kategorie mit den höchsten Ausgaben oder null, wenn keine gefunden wurde.
      */
     public Category getMostSpentCategory(String userId, LocalDate startDate, LocalDate endDate) {
+        long started = Metrics.start();
         try {
-            Map<String, Double> categoryExpenses = getCategoryExpenses(userId, startDate, endDate);
-            return categoryExpenses.entrySet().stream()
-                    .max(Map.Entry.comparingByValue())
-                    .map(entry -> categoryService.getCategoryByName(userId, entry.getKey()))
-                    .orElse(null);
+            return mostSpentCategory(userId, getCategoryExpenses(userId, startDate, endDate));
         } catch (Exception e) {
             LoggerUtils.logError(ReportService.class.getName(), "Fehler beim Ermitteln der Kategorie mit den höchsten Ausgaben: " + e.getMessage(), e);
             return null;
+        } finally {
+            TIMER.stop("getMostSpentCategory", started);
         }
     }
 
+    // Kategorie mit der größten Ausgabensumme oder null
+    Category mostSpentCategory(String userId, Map<String, Long> categoryExpenses) {
+        return categoryExpenses.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(entry -> categoryService.getCategoryByName(userId, entry.getKey()))
+                .orElse(null);
+    }
+
 
     /**
      * Berechnet den Budgetfortschritt für alle Kategorien eines Benutzers.
@@ -154,15 +214,13 @@ public class ReportService {
      * @return Map mit Kategorien als Schlüssel und ihrem Budgetfortschritt als Werte.
      */
     public Map<Category, Double> getCategoryBudgetProgress(String userId, LocalDate startDate, LocalDate endDate) {
+        long started = Metrics.start();
         try {
-            List<Category> categories = categoryService.getAllCategoriesForUser(userId);
             Map<Category, Double> budgetProgress = new HashMap<>();
 
-            for (Category category : categories) {
-                if (category.getBudget() != null && category.getBudget() > 0) {
-                    double spent = Math.abs(getCategoryExpenses(userId, startDate, endDate).getOrDefault(category.getName(), 0.0));
-                    double progress = spent / category.getBudget();
-                    budgetProgress.put(category, progress);
+            for (BudgetStatus status : budgetEvaluator.evaluate(userId, startDate, endDate)) {
+                if (status.hasPositiveBudget()) {
+                    budgetProgress.put(status.category(), status.ratio());
                 }
             }
 
@@ -170,6 +228,102 @@ public class ReportService {
         } catch (Exception e) {
             LoggerUtils.logError(ReportService.class.getName(), "Fehler beim Berechnen des Kategorie-Budgetfortschritts: " + e.getMessage(), e);
             return new HashMap<>();
+        } finally {
+            TIMER.stop("getCategoryBudgetProgress", started);
         }
     }
+
+    /**
+     * Berechnet Ausgaben und Budget aller Kategorien eines Benutzers in einem Zeitraum mit einer einzigen Abfrage.
+     * @param userId ID des Benutzers.
+     * @param startDate Startdatum des Zeitraums.
+     * @param endDate Enddatum des Zeitraums.
+     * @return Ein Budgetstatus pro Kategorie, bei einem Fehler eine leere Liste.
+     */
+    public List<BudgetStatus> evaluateBudgets(String userId, LocalDate startDate, LocalDate endDate) {
+        long started = Metrics.start();
+        try {
+            return budgetEvaluator.evaluate(userId, startDate, endDate);
+        } catch (Exception e) {
+            LoggerUtils.logError(ReportService.class.getName(), "Fehler beim Berechnen der Budgets: " + e.getMessage(), e);
+            return new ArrayList<>();
+        } finally {
+            TIMER.stop("evaluateBudgets", started);
+        }
+    }
+
+    // Asynchrone Varianten der Berichtsmethoden, ausgeführt über den ServiceExecutor
+
+    /**
+     * Berechnet die Ausgaben pro Kategorie asynchron.
+     * @param userId ID des Benutzers.
+     * @param startDate Startdatum des Zeitraums.
+     * @param endDate Enddatum des Zeitraums.
+     * @return Future mit den Ausgabensummen in Cent pro Kategoriename.
+     */
+    public CompletableFuture<Map<String, Long>> getCategoryExpensesAsync(String userId, LocalDate startDate, LocalDate endDate) {
+        return TIMER.timeAsync("getCategoryExpensesAsync", Metrics.start(), ServiceExecutor.supply(() -> getCategoryExpenses(userId, startDate, endDate)));
+    }
+
+    /**
+     * Berechnet die monatlichen Einnahmen und Ausgaben asynchron.
+     * @param userId ID des Benutzers.
+     * @param startDate Startdatum des Zeitraums.
+     * @param endDate Enddatum des Zeitraums.
+     * @return Future mit den monatlichen Summen in Cent für "income" und "expense".
+     */
+    public CompletableFuture<Map<String, Map<String, Long>>> getMonthlyIncomeAndExpensesAsync(String userId, LocalDate startDate, LocalDate endDate) {
+        return TIMER.timeAsync("getMonthlyIncomeAndExpensesAsync", Metrics.start(), ServiceExecutor.supply(() -> getMonthlyIncomeAndExpenses(userId, startDate, endDate)));
+    }
+
+    /**
+     * Berechnet den Gesamtkontostand eines Benutzers asynchron.
+     * @param userId ID des Benutzers.
+     * @return Future mit dem Gesamtkontostand in Cent.
+     */
+    public CompletableFuture<Long> getTotalBalanceCentsAsync(String userId) {
+        return TIMER.timeAsync("getTotalBalanceCentsAsync", Metrics.start(), ServiceExecutor.supply(() -> getTotalBalanceCents(userId)));
+    }
+
+    /**
+     * Ruft alle Konten eines Benutzers asynchron ab.
+     * @param userId ID des Benutzers.
+     * @return Future mit der Liste der Konten.
+     */
+    public CompletableFuture<List<Account>> getUserAccountsAsync(String userId) {
+        return TIMER.timeAsync("getUserAccountsAsync", Metrics.start(), ServiceExecutor.supply(() -> getUserAccounts(userId)));
+    }
+
+    /**
+     * Ermittelt die Kategorie mit den höchsten Ausgaben asynchron.
+     * @param userId ID des Benutzers.
+     * @param startDate Startdatum des Zeitraums.
+     * @param endDate Enddatum des Zeitraums.
+     * @return Future mit der Kategorie oder null.
+     */
+    public CompletableFuture<Category> getMostSpentCategoryAsync(String userId, LocalDate startDate, LocalDate endDate) {
+        return TIMER.timeAsync("getMostSpentCategoryAsync", Metrics.start(), ServiceExecutor.supply(() -> getMostSpentCategory(userId, startDate, endDate)));
+    }
+
+    /**
+     * Berechnet den Budgetfortschritt aller Kategorien asynchron.
+     * @param userId ID des Benutzers.
+     * @param startDate Startdatum des Zeitraums.
+     * @param endDate Enddatum des Zeitraums.
+     * @return Future mit dem Budgetfortschritt pro Kategorie.
+     */
+    public CompletableFuture<Map<Category, Double>> getCategoryBudgetProgressAsync(String userId, LocalDate startDate, LocalDate endDate) {
+        return TIMER.timeAsync("getCategoryBudgetProgressAsync", Metrics.start(), ServiceExecutor.supply(() -> getCategoryBudgetProgress(userId, startDate, endDate)));
+    }
+
+    /**
+     * Berechnet Ausgaben und Budget aller Kategorien asynchron.
+     * @param userId ID des Benutzers.
+     * @param startDate Startdatum des Zeitraums.
+     * @param endDate Enddatum des Zeitraums.
+     * @return Future mit einem Budgetstatus pro Kategorie.
+     */
+    public CompletableFuture<List<BudgetStatus>> evaluateBudgetsAsync(String userId, LocalDate startDate, LocalDate endDate) {
+        return TIMER.timeAsync("evaluateBudgetsAsync", Metrics.start(), ServiceExecutor.supply(() -> evaluateBudgets(userId, startDate, endDate)));
+    }
 }
@@ -0,0 +1,181 @@
+package myProject.service;
+
+import myProject.metrics.Counter;
+import myProject.metrics.MethodTimer;
+import myProject.metrics.Metrics;
+import myProject.model.Category;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Eine ReportSession merkt sich den zuletzt berechneten Zeitraum einer Berichtsansicht zusammen mit den
+ * Ausgaben pro Kategorie und den monatlichen Einnahmen und Ausgaben. Bei einem neuen Zeitraum werden nur die
+ * hinzugekommenen Tage addiert und die weggefallenen Tage abgezogen, sodass z. B. das Verschieben des Enddatums
+ * um eine Woche nur diese Woche kostet, unabhängig von der Länge des Zeitraums.
+ * <p>
+ * Neu berechnet wird der ganze Zeitraum, wenn sich alter und neuer Zeitraum nicht überschneiden, wenn die
+ * Differenz mehr Tage umfasst als der neue Zeitraum selbst, oder wenn seit der letzten Berechnung Transaktionen
+ * geschrieben oder Kategorien umbenannt wurden. Summen, die durch Abziehen auf 0 fallen, werden entfernt,
+ * damit Kategorien und Monate ohne verbleibende Transaktionen wie bei einer vollständigen Berechnung fehlen.
+ * <p>
+ * Alle Beträge sind in Cent. Die Methoden sind synchronisiert; gleichzeitige Anfragen werden nacheinander angewendet.
+ */
+public class ReportSession {
+
+    private static final MethodTimer TIMER = Metrics.timer(ReportSession.class);
+    private static final Counter FULL_REFRESHES = Metrics.counter("ReportSession.fullRefreshes");
+    private static final Counter DELTA_REFRESHES = Metrics.counter("ReportSession.deltaRefreshes");
+
+    private final ReportService reportService;
+    private final String userId;
+
+    // Zuletzt berechneter Zeitraum; null, solange nichts berechnet wurde oder die Summen verworfen wurden
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private long changeVersion;
+    private final Map<String, Long> categoryExpenses = new HashMap<>();
+    private final Map<String, Map<String, Long>> monthlyIncomeAndExpenses = new HashMap<>();
+
+    ReportSession(ReportService reportService, String userId) {
+        this.reportService = reportService;
+        this.userId = userId;
+    }
+
+    /**
+     * Berechnet die Berichtsdaten für einen neuen Zeitraum, möglichst aus den Summen des vorherigen Zeitraums.
+     *
+     * @param newStartDate Startdatum des Zeitraums (einschließlich).
+     * @param newEndDate   Enddatum des Zeitraums (einschließlich).
+     * @return Eine Kopie der Summen für den neuen Zeitraum.
+     * @throws SQLException Wenn ein Datenbankfehler auftritt; die Sitzung berechnet danach wieder den ganzen Zeitraum.
+     */
+    public synchronized Snapshot refresh(LocalDate newStartDate, LocalDate newEndDate) throws SQLException {
+        long started = Metrics.start();
+        try {
+            long version = reportService.getChangeVersion();
+            List<Slice> slices = startDate != null && version == changeVersion ? slices(newStartDate, newEndDate) : null;
+            try {
+                if (slices == null) {
+                    recompute(newStartDate, newEndDate);
+                    FULL_REFRESHES.increment();
+                } else {
+                    for (Slice slice : slices) {
+                        apply(slice);
+                    }
+                    DELTA_REFRESHES.increment();
+                }
+            } catch (SQLException | RuntimeException e) {
+                startDate = null;
+                endDate = null;
+                throw e;
+            }
+            startDate = newStartDate;
+            endDate = newEndDate;
+            changeVersion = version;
+            return snapshot();
+        } finally {
+            TIMER.stop("refresh", started);
+        }
+    }
+
+    /**
+     * Berechnet die Berichtsdaten für einen neuen Zeitraum asynchron über den ServiceExecutor.
+     *
+     * @param newStartDate Startdatum des Zeitraums (einschließlich).
+     * @param newEndDate   Enddatum des Zeitraums (einschließlich).
+     * @return Future mit den Summen für den neuen Zeitraum.
+     */
+    public CompletableFuture<Snapshot> refreshAsync(LocalDate newStartDate, LocalDate newEndDate) {
+        return TIMER.timeAsync("refreshAsync", Metrics.start(), ServiceExecutor.supply(() -> refresh(newStartDate, newEndDate)));
+    }
+
+    /**
+     * Verwirft die gemerkten Summen; die nächste Berechnung umfasst den ganzen Zeitraum.
+     */
+    public synchronized void invalidate() {
+        startDate = null;
+        endDate = null;
+    }
+
+    // Bestimmt die zu addierenden und abzuziehenden Teilzeiträume oder null, wenn eine vollständige Berechnung günstiger ist
+    private List<Slice> slices(LocalDate newStartDate, LocalDate newEndDate) {
+        if (newStartDate.isAfter(newEndDate) || newStartDate.isAfter(endDate) || newEndDate.isBefore(startDate)) {
+            return null;
+        }
+        List<Slice> slices = new ArrayList<>(2);
+        if (newStartDate.isBefore(startDate)) {
+            slices.add(new Slice(newStartDate, startDate.minusDays(1), 1));
+        } else if (newStartDate.isAfter(startDate)) {
+            slices.add(new Slice(startDate, newStartDate.minusDays(1), -1));
+        }
+        if (newEndDate.isAfter(endDate)) {
+            slices.add(new Slice(endDate.plusDays(1), newEndDate, 1));
+        } else if (newEndDate.isBefore(endDate)) {
+            slices.add(new Slice(newEndDate.plusDays(1), endDate, -1));
+        }
+
+        long sliceDays = 0;
+        for (Slice slice : slices) {
+            sliceDays += slice.days();
+        }
+        return sliceDays <= ChronoUnit.DAYS.between(newStartDate, newEndDate) + 1 ? slices : null;
+    }
+
+    private void recompute(LocalDate newStartDate, LocalDate newEndDate) throws SQLException {
+        categoryExpenses.clear();
+        monthlyIncomeAndExpenses.clear();
+        apply(new Slice(newStartDate, newEndDate, 1));
+    }
+
+    private void apply(Slice slice) throws SQLException {
+        merge(categoryExpenses, reportService.loadCategoryExpenses(userId, slice.from(), slice.to()), slice.sign());
+        reportService.loadMonthlyIncomeAndExpenses(userId, slice.from(), slice.to()).forEach((type, totals) ->
+                merge(monthlyIncomeAndExpenses.computeIfAbsent(type, key -> new TreeMap<>()), totals, slice.sign()));
+    }
+
+    private static void merge(Map<String, Long> target, Map<String, Long> slice, int sign) {
+        slice.forEach((key, cents) -> {
+            long total = target.getOrDefault(key, 0L) + sign * cents;
+            if (total == 0 && sign < 0) {
+                target.remove(key);
+            } else {
+                target.put(key, total);
+            }
+        });
+    }
+
+    private Snapshot snapshot() {
+        Map<String, Map<String, Long>> monthly = new HashMap<>();
+        monthlyIncomeAndExpenses.forEach((type, totals) -> monthly.put(type, new TreeMap<>(totals)));
+        Map<String, Long> expenses = new HashMap<>(categoryExpenses);
+        return new Snapshot(expenses, monthly, reportService.mostSpentCategory(userId, expenses));
+    }
+
+    // Ein zusammenhängender Teilzeitraum, der addiert (+1) oder abgezogen (-1) wird
+    private record Slice(LocalDate from, LocalDate to, int sign) {
+
+        long days() {
+            return ChronoUnit.DAYS.between(from, to) + 1;
+        }
+    }
+
+    /**
+     * Die Berichtsdaten eines Zeitraums.
+     *
+     * @param categoryExpenses         Ausgaben in Cent pro Kategoriename.
+     * @param monthlyIncomeAndExpenses Monatliche Summen in Cent für "income" und "expense", nach Monat sortiert.
+     * @param mostSpentCategory        Die Kategorie mit den höchsten Ausgaben oder null.
+     */
+    public record Snapshot(Map<String, Long> categoryExpenses,
+                           Map<String, Map<String, Long>> monthlyIncomeAndExpenses,
+                           Category mostSpentCategory) {
+    }
+}
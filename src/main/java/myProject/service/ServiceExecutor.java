@@ -0,0 +1,50 @@
+package myProject.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Gemeinsamer Executor für die asynchronen Methoden der Services.
+ * Jede Aufgabe läuft auf einem eigenen virtuellen Thread, sodass blockierende Datenbankzugriffe
+ * weder den JavaFX Application Thread noch andere Aufgaben aufhalten.
+ * Wird ein zurückgegebenes Future abgebrochen, bevor die Aufgabe begonnen hat, wird sie nicht mehr ausgeführt.
+ * Laufende Aufgaben werden nicht unterbrochen, da ein Interrupt während eines Dateizugriffs die H2-Datenbank schließen kann.
+ */
+public final class ServiceExecutor {
+
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("service-", 0).factory());
+
+    private ServiceExecutor() {
+    }
+
+    /**
+     * Führt eine Aufgabe asynchron aus.
+     *
+     * @param task Die auszuführende Aufgabe.
+     * @param <T>  Typ des Ergebnisses.
+     * @return Ein Future, das mit dem Ergebnis oder der aufgetretenen Exception abgeschlossen wird.
+     */
+    public static <T> CompletableFuture<T> supply(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        EXECUTOR.execute(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(task.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Beendet den Executor. Bereits gestartete Aufgaben laufen zu Ende.
+     */
+    public static void shutdown() {
+        EXECUTOR.shutdown();
+    }
+}
@@ -0,0 +1,68 @@
+package myProject.service;
+
+import myProject.model.Transaction;
+
+import java.util.List;
+
+/**
+ * Wird vom TransactionService und CategoryService nach jedem erfolgreich festgeschriebenen Schreibvorgang benachrichtigt,
+ * damit abgeleitete Strukturen wie Caches und Auswertungen ohne erneutes Lesen der Datenbank nachgeführt werden können.
+ * Die Methoden laufen im Thread des Schreibvorgangs und sollten daher schnell zurückkehren; Ausnahmen werden
+ * protokolliert und brechen den Schreibvorgang nicht ab.
+ * <p>
+ * Jeder Schreibvorgang wird zusätzlich von {@link #writeStarted()} und {@link #writeFinished()} eingerahmt, damit
+ * Listener, die ihren Stand selbst aus der Datenbank laden, erkennen, dass ein bereits festgeschriebener Schreibvorgang
+ * noch nicht gemeldet wurde.
+ */
+public interface TransactionChangeListener {
+
+    /**
+     * Ein Schreibvorgang beginnt; wird vor dem ersten Datenbankzugriff aufgerufen. Auf jeden Aufruf folgt genau ein
+     * {@link #writeFinished()}, auch wenn der Schreibvorgang scheitert.
+     */
+    default void writeStarted() {
+    }
+
+    /**
+     * Ein Schreibvorgang ist beendet; seine Ereignisse wurden, falls er erfolgreich war, bereits gemeldet.
+     */
+    default void writeFinished() {
+    }
+
+    /**
+     * Neue Transaktionen wurden gespeichert, z. B. einzeln, als Überweisung oder beim Import.
+     *
+     * @param transactions Die gespeicherten Transaktionen.
+     */
+    void transactionsSaved(List<Transaction> transactions);
+
+    /**
+     * Eine bestehende Transaktion wurde mit ihren aktuellen Werten überschrieben.
+     *
+     * @param transaction Die Transaktion mit den neuen Werten.
+     */
+    void transactionUpdated(Transaction transaction);
+
+    /**
+     * Eine Transaktion wurde gelöscht.
+     *
+     * @param transaction Die gelöschte Transaktion.
+     */
+    void transactionDeleted(Transaction transaction);
+
+    /**
+     * Alle Transaktionen eines Kontos wurden gelöscht.
+     *
+     * @param accountId Die ID des Kontos.
+     */
+    void accountTransactionsDeleted(String accountId);
+
+    /**
+     * Alle Transaktionen eines Benutzers wurden von einer Kategorie in eine andere verschoben.
+     *
+     * @param userId                Die ID des Benutzers.
+     * @param categoryId            Die ID der bisherigen Kategorie.
+     * @param replacementCategoryId Die ID der neuen Kategorie.
+     */
+    void categoryReassigned(String userId, String categoryId, String replacementCategoryId);
+}
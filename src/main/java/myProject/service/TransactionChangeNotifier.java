@@ -0,0 +1,61 @@
+package myProject.service;
+
+import myProject.util.LoggerUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Verwaltet die {@link TransactionChangeListener} eines Services und benachrichtigt sie der Reihe nach.
+ * Fehler einzelner Listener werden protokolliert, damit ein bereits festgeschriebener Schreibvorgang nicht scheitert.
+ * Jeder Schreibvorgang erhöht außerdem eine Versionsnummer, an der zwischengespeicherte Auswertungen erkennen,
+ * dass sie veraltet sind.
+ */
+final class TransactionChangeNotifier {
+
+    private final List<TransactionChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong version = new AtomicLong();
+
+    void add(TransactionChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    void remove(TransactionChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    long version() {
+        return version.get();
+    }
+
+    // Für Änderungen, die Auswertungen betreffen, aber kein Listener-Ereignis haben, z. B. umbenannte Kategorien
+    void changed() {
+        version.incrementAndGet();
+    }
+
+    // Vor dem Datenbankzugriff eines Schreibvorgangs; muss in einem finally von writeFinished() gefolgt werden
+    void writeStarted() {
+        dispatch(TransactionChangeListener::writeStarted);
+    }
+
+    void writeFinished() {
+        dispatch(TransactionChangeListener::writeFinished);
+    }
+
+    void fire(Consumer<TransactionChangeListener> event) {
+        version.incrementAndGet();
+        dispatch(event);
+    }
+
+    private void dispatch(Consumer<TransactionChangeListener> event) {
+        for (TransactionChangeListener listener : listeners) {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                LoggerUtils.logError(TransactionChangeNotifier.class.getName(), "Fehler in TransactionChangeListener " + listener.getClass().getName(), e);
+            }
+        }
+    }
+}
@@ -1,27 +1,46 @@
 package myProject.service;
 
+import myProject.metrics.MethodTimer;
+import myProject.metrics.Metrics;
 import myProject.model.Account;
+import myProject.model.BatchResult;
 import myProject.model.Category;
 import myProject.model.Transaction;
+import myProject.model.TransactionRecord;
 import myProject.repository.AccountRepository;
 import myProject.repository.TransactionRepository;
+import myProject.repository.UnitOfWork;
 import myProject.util.LoggerUtils;
+import myProject.util.Money;
+import java.sql.Date;
 import java.sql.SQLException;
+import java.sql.Time;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Der TransactionService ist für die Geschäftslogik im Zusammenhang mit Transaktionen verantwortlich.
  * Er arbeitet mit dem TransactionRepository zusammen, um Transaktionen zu erstellen, zu aktualisieren, zu löschen und abzurufen.
+ * Nach jedem erfolgreichen Schreibvorgang werden die registrierten {@link TransactionChangeListener} benachrichtigt.
  */
 public class TransactionService {
 
+    private static final MethodTimer TIMER = Metrics.timer(TransactionService.class);
+
     private final TransactionRepository transactionRepository;
     private final CategoryService categoryService;
     private final AccountRepository accountRepository;
+    private final TransactionChangeNotifier changeNotifier = new TransactionChangeNotifier();
 
     // Konstruktor mit den benötigten Abhängigkeiten
     public TransactionService(TransactionRepository transactionRepository, CategoryService categoryService,
@@ -31,6 +50,31 @@ public class TransactionService {
         this.accountRepository = accountRepository;
     }
 
+    /**
+     * Registriert einen Listener, der nach jedem erfolgreichen Schreibvorgang benachrichtigt wird.
+     *
+     * @param listener Der Listener.
+     */
+    public void addChangeListener(TransactionChangeListener listener) {
+        changeNotifier.add(listener);
+    }
+
+    /**
+     * Entfernt einen zuvor registrierten Listener.
+     *
+     * @param listener Der Listener.
+     */
+    public void removeChangeListener(TransactionChangeListener listener) {
+        changeNotifier.remove(listener);
+    }
+
+    /**
+     * @return Eine Nummer, die sich mit jedem erfolgreichen Schreibvorgang ändert.
+     */
+    public long getChangeVersion() {
+        return changeNotifier.version();
+    }
+
 
     /**
      * Fügt eine neue Transaktion hinzu.
@@ -38,6 +82,103 @@ public class TransactionService {
      * @param transaction Die hinzuzufügende Transaktion.
      */
     public void addTransaction(Transaction transaction) {
+        long started = Metrics.start();
+        try {
+            prepareNewTransaction(transaction);
+            changeNotifier.writeStarted();
+            try {
+                boolean saved;
+                try {
+                    saved = transactionRepository.saveTransaction(transaction);
+                } catch (Exception e) {
+                    LoggerUtils.logError(TransactionService.class.getName(), "Fehler beim Hinzufügen der Transaktion: " + transaction.getId(), e);
+                    throw e;
+                }
+                if (saved) {
+                    changeNotifier.fire(listener -> listener.transactionsSaved(List.of(transaction)));
+                }
+            } finally {
+                changeNotifier.writeFinished();
+            }
+        } finally {
+            TIMER.stop("addTransaction", started);
+        }
+    }
+
+    /**
+     * Fügt viele Transaktionen gebündelt hinzu, z. B. beim Import. Jede Transaktion wird wie bei
+     * {@link #addTransaction(Transaction)} geprüft; ungültige Transaktionen werden als Fehler gemeldet
+     * und nicht gespeichert, ohne die übrigen abzubrechen.
+     *
+     * @param transactions Die hinzuzufügenden Transaktionen.
+     * @return Anzahl der gespeicherten Transaktionen und die fehlgeschlagenen Zeilen, bezogen auf die übergebene Reihenfolge.
+     */
+    public BatchResult addTransactions(Collection<Transaction> transactions) {
+        long started = Metrics.start();
+        try {
+            return addTransactions(transactions, transactionRepository::saveTransactions);
+        } finally {
+            TIMER.stop("addTransactions", started);
+        }
+    }
+
+    /**
+     * Fügt viele Transaktionen gebündelt hinzu und schreibt je {@code batchSize} gültige Transaktionen
+     * in einer Datenbanktransaktion fest.
+     *
+     * @param transactions Die hinzuzufügenden Transaktionen.
+     * @param batchSize    Die Anzahl der Transaktionen pro Commit.
+     * @return Anzahl der gespeicherten Transaktionen und die fehlgeschlagenen Zeilen, bezogen auf die übergebene Reihenfolge.
+     */
+    public BatchResult addTransactions(Collection<Transaction> transactions, int batchSize) {
+        long started = Metrics.start();
+        try {
+            return addTransactions(transactions, valid -> transactionRepository.saveTransactions(valid, batchSize));
+        } finally {
+            TIMER.stop("addTransactions", started);
+        }
+    }
+
+    private BatchResult addTransactions(Collection<Transaction> transactions, Function<List<Transaction>, BatchResult> store) {
+        List<Transaction> valid = new ArrayList<>(transactions.size());
+        List<Integer> validIndices = new ArrayList<>(transactions.size());
+        List<BatchResult.Failure> failures = new ArrayList<>();
+
+        int index = 0;
+        for (Transaction transaction : transactions) {
+            try {
+                prepareNewTransaction(transaction);
+                valid.add(transaction);
+                validIndices.add(index);
+            } catch (IllegalArgumentException e) {
+                failures.add(new BatchResult.Failure(index, transaction.getId(), e.getMessage()));
+            }
+            index++;
+        }
+
+        BatchResult stored;
+        changeNotifier.writeStarted();
+        try {
+            stored = store.apply(valid);
+            // Positionen des Repositorys auf die übergebene Reihenfolge zurückführen
+            Set<String> failedIds = new HashSet<>();
+            for (BatchResult.Failure failure : stored.failures()) {
+                failures.add(new BatchResult.Failure(validIndices.get(failure.index()), failure.transactionId(), failure.message()));
+                failedIds.add(failure.transactionId());
+            }
+            if (stored.saved() > 0) {
+                List<Transaction> saved = failedIds.isEmpty() ? valid : valid.stream().filter(t -> !failedIds.contains(t.getId())).toList();
+                changeNotifier.fire(listener -> listener.transactionsSaved(saved));
+            }
+        } finally {
+            changeNotifier.writeFinished();
+        }
+        failures.sort(Comparator.comparingInt(BatchResult.Failure::index));
+        return new BatchResult(stored.saved(), failures);
+    }
+
+    // Prüft eine neue Transaktion und erzwingt negative Beträge für Ausgaben
+    private void prepareNewTransaction(Transaction transaction) {
         // Überprüfe, ob die Transaktion in der Zukunft liegt
         LocalDate transactionDate = transaction.getDate().toLocalDate();
         LocalTime transactionTime = transaction.getTime().toLocalTime();
@@ -53,34 +194,109 @@ public class TransactionService {
         }
 
         // Negativer Betrag für Ausgaben erzwingen
-        if (transaction.getType().equalsIgnoreCase("expense") && transaction.getAmount() > 0) {
-            transaction.setAmount(transaction.getAmount() * -1);
-        }
-        try {
-            transactionRepository.saveTransaction(transaction);
-        } catch (Exception e) {
-            LoggerUtils.logError(TransactionService.class.getName(), "Fehler beim Hinzufügen der Transaktion: " + transaction.getId(), e);
-            throw e;
+        if (transaction.getType().equalsIgnoreCase("expense") && transaction.getAmountCents() > 0) {
+            transaction.setAmountCents(-transaction.getAmountCents());
         }
     }
 
 
 
+    /**
+     * Überweist einen Betrag zwischen zwei Konten. Die Ausgabe auf dem Quellkonto, die Einnahme auf dem
+     * Zielkonto und beide Kontostände werden in einer UnitOfWork gemeinsam festgeschrieben; beide Buchungen
+     * erhalten dieselbe Transfer-ID. Der Kontostand des Quellkontos wird dabei gesperrt und geprüft.
+     *
+     * @param from   Das Quellkonto.
+     * @param to     Das Zielkonto.
+     * @param amountCents Der zu überweisende Betrag in Cent, größer als 0.
+     * @return Die Transfer-ID, die beide Buchungen verknüpft.
+     * @throws SQLException Wenn ein Datenbankfehler auftritt; es wird dann keine der Buchungen gespeichert.
+     */
+    public String transfer(Account from, Account to, long amountCents) throws SQLException {
+        long started = Metrics.start();
+        try {
+            if (amountCents <= 0) {
+                throw new IllegalArgumentException("Der Überweisungsbetrag muss größer als 0 sein.");
+            }
+            if (from == null || to == null || from.getId().equals(to.getId())) {
+                throw new IllegalArgumentException("Quell- und Zielkonto müssen angegeben und verschieden sein.");
+            }
+
+            String transferId = UUID.randomUUID().toString();
+            Date date = Date.valueOf(LocalDate.now());
+            Time time = Time.valueOf(LocalTime.now().withNano(0));
+
+            Transaction expense = new Transaction("Transfer to " + to.getName(), -amountCents, "expense", null, from, null, date, time);
+            Transaction income = new Transaction("Transfer from " + from.getName(), amountCents, "income", null, to, null, date, time);
+            expense.setTransferId(transferId);
+            income.setTransferId(transferId);
+
+            changeNotifier.writeStarted();
+            try {
+                try {
+                    UnitOfWork.execute(work -> {
+                        // Konten immer in derselben Reihenfolge sperren, damit sich gegenläufige Überweisungen nicht blockieren
+                        boolean fromFirst = from.getId().compareTo(to.getId()) < 0;
+                        long fromBalanceCents;
+                        if (fromFirst) {
+                            fromBalanceCents = accountRepository.lockBalanceCents(work, from.getId());
+                            accountRepository.lockBalanceCents(work, to.getId());
+                        } else {
+                            accountRepository.lockBalanceCents(work, to.getId());
+                            fromBalanceCents = accountRepository.lockBalanceCents(work, from.getId());
+                        }
+                        if (fromBalanceCents < amountCents) {
+                            throw new IllegalArgumentException("Nicht genügend Guthaben auf dem Konto: " + from.getName());
+                        }
+
+                        transactionRepository.insertTransaction(work, expense);
+                        transactionRepository.insertTransaction(work, income);
+                        return null;
+                    });
+                } catch (SQLException | RuntimeException e) {
+                    LoggerUtils.logError(TransactionService.class.getName(), "Fehler bei der Überweisung von " + from.getName() + " zu " + to.getName(), e);
+                    throw e;
+                }
+                changeNotifier.fire(listener -> listener.transactionsSaved(List.of(expense, income)));
+            } finally {
+                changeNotifier.writeFinished();
+            }
+            LoggerUtils.logInfo(TransactionService.class.getName(), () -> "Überweisung " + transferId + " gespeichert: " + Money.format(amountCents) + " von " + from.getName() + " zu " + to.getName());
+            return transferId;
+        } finally {
+            TIMER.stop("transfer", started);
+        }
+    }
+
     /**
      * Aktualisiert eine bestehende Transaktion.
      *
      * @param transaction Die zu aktualisierende Transaktion.
      */
     public void updateTransaction(Transaction transaction) {
-        if (transaction.getType().equalsIgnoreCase("expense") && transaction.getAmount() > 0) {
-            transaction.setAmount(transaction.getAmount() * -1);
-        }
-
+        long started = Metrics.start();
         try {
-            transactionRepository.updateTransaction(transaction);
-        } catch (Exception e) {
-            LoggerUtils.logError(TransactionService.class.getName(), "Fehler beim Aktualisieren der Transaktion: " + transaction.getId(), e);
-            throw e; // SQLException weiter werfen
+            if (transaction.getType().equalsIgnoreCase("expense") && transaction.getAmountCents() > 0) {
+                transaction.setAmountCents(-transaction.getAmountCents());
+            }
+
+            changeNotifier.writeStarted();
+            try {
+                boolean updated;
+                try {
+                    updated = transactionRepository.updateTransaction(transaction);
+                } catch (Exception e) {
+                    LoggerUtils.logError(TransactionService.class.getName(), "Fehler beim Aktualisieren der Transaktion: " + transaction.getId(), e);
+                    throw e; // SQLException weiter werfen
+                }
+                if (updated) {
+                    changeNotifier.fire(listener -> listener.transactionUpdated(transaction));
+                }
+            } finally {
+                changeNotifier.writeFinished();
+            }
+        } finally {
+            TIMER.stop("updateTransaction", started);
         }
     }
 
@@ -90,11 +306,18 @@ public class TransactionService {
      * @param transaction Die zu löschende Transaktion.
      */
     public void deleteTransaction(Transaction transaction) throws SQLException {
+        long started = Metrics.start();
+        changeNotifier.writeStarted();
         try {
-            transactionRepository.deleteTransaction(transaction);
+            if (transactionRepository.deleteTransaction(transaction)) {
+                changeNotifier.fire(listener -> listener.transactionDeleted(transaction));
+            }
         } catch (Exception e) {
             LoggerUtils.logError(TransactionService.class.getName(), "Fehler beim Löschen der Transaktion: " + transaction.getId(), e);
             throw e; // SQLException weiter werfen
+        } finally {
+            changeNotifier.writeFinished();
+            TIMER.stop("deleteTransaction", started);
         }
     }
 
@@ -105,38 +328,48 @@ public class TransactionService {
      * @throws SQLException Error Exception
      */
     public void deleteTransactionsByAccount(String accountId) throws SQLException {
+        long started = Metrics.start();
+        changeNotifier.writeStarted();
         try {
             transactionRepository.deleteTransactionsByAccount(accountId);
+            changeNotifier.fire(listener -> listener.accountTransactionsDeleted(accountId));
         } catch (SQLException e) {
             LoggerUtils.logError(TransactionService.class.getName(), "Error deleting transactions for account: " + accountId, e);
             throw e;
+        } finally {
+            changeNotifier.writeFinished();
+            TIMER.stop("deleteTransactionsByAccount", started);
         }
     }
 
     /**
      * Ruft die Transaktionen für ein Konto ab.
      *
-     * @param accountName Der Name des Kontos.
+     * @param account Das Konto.
      * @return Liste der Transaktionen für das Konto.
      */
-    public List<Transaction> getTransactionsByAccount(String accountName) {
+    public List<Transaction> getTransactionsByAccount(Account account) {
+        long started = Metrics.start();
         try {
-            return transactionRepository.getTransactionsByAccount(accountName);
+            return transactionRepository.getTransactionsByAccount(account);
         } catch (Exception e) {
-            LoggerUtils.logError(TransactionService.class.getName(), "Fehler beim Abrufen der Transaktionen für Konto: " + accountName, e);
+            LoggerUtils.logError(TransactionService.class.getName(), "Fehler beim Abrufen der Transaktionen für Konto: " + account.getName(), e);
             return new ArrayList<>();
+        } finally {
+            TIMER.stop("getTransactionsByAccount", started);
         }
     }
 
     /**
      * Ruft die abgeschlossenen Transaktionen für ein Konto ab.
      *
-     * @param accountName Der Name des Kontos.
+     * @param account Das Konto.
      * @return Liste der abgeschlossenen Transaktionen.
      */
-    public List<Transaction> getCompletedTransactionsByAccount(String accountName) {
+    public List<Transaction> getCompletedTransactionsByAccount(Account account) {
+        long started = Metrics.start();
         try {
-            List<Transaction> transactions = getTransactionsByAccount(accountName);
+            List<Transaction> transactions = getTransactionsByAccount(account);
             // Filtere nur Transaktionen, deren Datum und Zeit in der Vergangenheit liegen
             return transactions.stream()
                     .filter(t -> {
@@ -149,8 +382,10 @@ public class TransactionService {
                     })
                     .collect(Collectors.toList());
         } catch (Exception e) {
-            LoggerUtils.logError(TransactionService.class.getName(), "Fehler beim Abrufen der abgeschlossenen Transaktionen für Konto: " + accountName, e);
+            LoggerUtils.logError(TransactionService.class.getName(), "Fehler beim Abrufen der abgeschlossenen Transaktionen für Konto: " + account.getName(), e);
             return new ArrayList<>();
+        } finally {
+            TIMER.stop("getCompletedTransactionsByAccount", started);
         }
     }
 
@@ -162,11 +397,14 @@ public class TransactionService {
      * @return Liste der Transaktionen für die Kategorie.
      */
     public List<Transaction> getTransactionsByCategory(Category category) {
+        long started = Metrics.start();
         try {
             return transactionRepository.getTransactionsByCategory(category.getId());
         } catch (Exception e) {
             LoggerUtils.logError(TransactionService.class.getName(), "Fehler beim Abrufen der Transaktionen für Kategorie: " + category.getName(), e);
             return new ArrayList<>();
+        } finally {
+            TIMER.stop("getTransactionsByCategory", started);
         }
     }
 
@@ -177,11 +415,14 @@ public class TransactionService {
      * @return Liste der Kategorien für den Benutzer.
      */
     public List<Category> getAllCategoriesForUser(String userId) {
+        long started = Metrics.start();
         try {
             return categoryService.getAllCategoriesForUser(userId);
         } catch (Exception e) {
             LoggerUtils.logError(TransactionService.class.getName(), "Fehler beim Abrufen der Kategorien für Benutzer: " + userId, e);
             return new ArrayList<>();
+        } finally {
+            TIMER.stop("getAllCategoriesForUser", started);
         }
     }
 
@@ -192,16 +433,115 @@ public class TransactionService {
      * @return Liste der Konten für den Benutzer.
      */
     public List<Account> getAccountsForUser(String userId) {
+        long started = Metrics.start();
         try {
             return accountRepository.getAllAccountsForUser(userId);
         } catch (SQLException e) {
             LoggerUtils.logError(TransactionService.class.getName(), "Fehler beim Abrufen der Konten für Benutzer: " + userId, e);
             return new ArrayList<>();
+        } finally {
+            TIMER.stop("getAccountsForUser", started);
         }
     }
 
     // Neue Methode: Transaktionen für einen Benutzer in einem Zeitraum abrufen
     public List<Transaction> getTransactionsByUserAndPeriod(String userId, LocalDate startDate, LocalDate endDate) {
-        return transactionRepository.getTransactionsByUserAndPeriod(userId, startDate, endDate);
+        long started = Metrics.start();
+        try {
+            return transactionRepository.getTransactionsByUserAndPeriod(userId, startDate, endDate);
+        } finally {
+            TIMER.stop("getTransactionsByUserAndPeriod", started);
+        }
+    }
+
+    /**
+     * Ruft die Transaktionen eines Benutzers in einem Zeitraum als kompakte Zeilen ab, z. B. für Auswertungen,
+     * die nur Beträge und Datumswerte benötigen.
+     *
+     * @param userId    Die ID des Benutzers.
+     * @param startDate Startdatum des Zeitraums.
+     * @param endDate   Enddatum des Zeitraums.
+     * @return Die Zeilen im Zeitraum.
+     */
+    public List<TransactionRecord> getTransactionRecordsByUserAndPeriod(String userId, LocalDate startDate, LocalDate endDate) {
+        long started = Metrics.start();
+        try {
+            return transactionRepository.getTransactionRecordsByUserAndPeriod(userId, startDate, endDate);
+        } finally {
+            TIMER.stop("getTransactionRecordsByUserAndPeriod", started);
+        }
+    }
+
+    /**
+     * Ruft die Transaktionen eines Kontos als kompakte Zeilen ab, sortiert nach Datum und Uhrzeit.
+     *
+     * @param account Das Konto.
+     * @return Die Zeilen des Kontos.
+     */
+    public List<TransactionRecord> getTransactionRecordsByAccount(Account account) {
+        long started = Metrics.start();
+        try {
+            return transactionRepository.getTransactionRecordsByAccount(account.getId());
+        } finally {
+            TIMER.stop("getTransactionRecordsByAccount", started);
+        }
+    }
+
+    // Asynchrone Varianten der lesenden Methoden, ausgeführt über den ServiceExecutor
+
+    /**
+     * Ruft die Transaktionen für ein Konto asynchron ab.
+     *
+     * @param account Das Konto.
+     * @return Future mit der Liste der Transaktionen für das Konto.
+     */
+    public CompletableFuture<List<Transaction>> getTransactionsByAccountAsync(Account account) {
+        return TIMER.timeAsync("getTransactionsByAccountAsync", Metrics.start(), ServiceExecutor.supply(() -> getTransactionsByAccount(account)));
+    }
+
+    /**
+     * Ruft die Transaktionen für eine Kategorie asynchron ab.
+     *
+     * @param category Die Kategorie, für die die Transaktionen abgerufen werden sollen.
+     * @return Future mit der Liste der Transaktionen für die Kategorie.
+     */
+    public CompletableFuture<List<Transaction>> getTransactionsByCategoryAsync(Category category) {
+        return TIMER.timeAsync("getTransactionsByCategoryAsync", Metrics.start(), ServiceExecutor.supply(() -> getTransactionsByCategory(category)));
+    }
+
+    /**
+     * Ruft die Transaktionen eines Benutzers in einem Zeitraum asynchron ab.
+     *
+     * @param userId    Die ID des Benutzers.
+     * @param startDate Startdatum des Zeitraums.
+     * @param endDate   Enddatum des Zeitraums.
+     * @return Future mit der Liste der Transaktionen im Zeitraum.
+     */
+    public CompletableFuture<List<Transaction>> getTransactionsByUserAndPeriodAsync(String userId, LocalDate startDate, LocalDate endDate) {
+        return TIMER.timeAsync("getTransactionsByUserAndPeriodAsync", Metrics.start(), ServiceExecutor.supply(() -> getTransactionsByUserAndPeriod(userId, startDate, endDate)));
+    }
+
+    /**
+     * Zählt die Transaktionen eines Kontos für den Kontoauszug asynchron.
+     *
+     * @param account Das Konto.
+     * @return Future mit der Anzahl der Transaktionen ohne "Initial Balance".
+     */
+    public CompletableFuture<Integer> countLedgerTransactionsAsync(Account account) {
+        return TIMER.timeAsync("countLedgerTransactionsAsync", Metrics.start(), ServiceExecutor.supply(() -> transactionRepository.countLedgerTransactions(account.getId())));
+    }
+
+    /**
+     * Lädt eine Seite des Kontoauszugs asynchron, sortiert nach Datum, Uhrzeit und ID.
+     *
+     * @param account  Das Konto.
+     * @param previous Die letzte Transaktion der vorherigen Seite oder null, wenn sie nicht bekannt ist.
+     * @param offset   Die Position der ersten Zeile der Seite.
+     * @param limit    Die Seitengröße.
+     * @return Future mit den Transaktionen der Seite.
+     */
+    public CompletableFuture<List<Transaction>> getLedgerPageAsync(Account account, Transaction previous, int offset, int limit) {
+        TransactionRepository.PageKey after = previous != null ? TransactionRepository.PageKey.of(previous) : null;
+        return TIMER.timeAsync("getLedgerPageAsync", Metrics.start(), ServiceExecutor.supply(() -> transactionRepository.getLedgerPage(account.getId(), after, offset, limit)));
     }
 }
@@ -30,7 +30,7 @@ public class UserService {
             User user = userRepository.findByUsername(username).orElse(null);
             if (user != null && user.getPassword().equals(password)) {
                 this.loggedInUser = user;  // Speichert den angemeldeten Benutzer
-                LoggerUtils.logInfo(UserService.class.getName(), "Benutzer erfolgreich authentifiziert: " + username);
+                LoggerUtils.logInfo(UserService.class.getName(), "Benutzer erfolgreich authentifiziert: {0}", username);
                 return true;
             }
         } catch (Exception e) {
@@ -0,0 +1,242 @@
+package myProject.service.analytics;
+
+import myProject.metrics.MethodTimer;
+import myProject.metrics.Metrics;
+import myProject.model.Account;
+import myProject.model.BalancePoint;
+import myProject.model.Transaction;
+import myProject.repository.ReportRepository;
+import myProject.service.TransactionChangeListener;
+import myProject.util.LoggerUtils;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Der AccountBalanceIndex beantwortet, welchen Kontostand ein Konto am Ende eines bestimmten Tages hatte, ohne die
+ * Historie zu summieren. Pro Konto liegt ein {@link DailyBalanceTree} über die Tagessummen; Stichtagsabfragen
+ * kosten damit O(log n) über die Anzahl der Tage, tägliche Reihen O(log n) plus einen Schritt pro Tag.
+ * <p>
+ * Ein Konto wird bei der ersten Abfrage mit einer gruppierten Abfrage über seine Tagessummen geladen; danach hält
+ * der Index als {@link TransactionChangeListener} des TransactionService neue und gelöschte Buchungen selbst nach.
+ * Bei einer geänderten Transaktion sind die alten Werte nicht bekannt, deshalb werden dann die Konten des Benutzers
+ * verworfen und bei der nächsten Abfrage neu geladen. Das Laden wartet laufende Schreibvorgänge ab und wird nur
+ * übernommen, wenn währenddessen keiner begonnen hat, damit eine festgeschriebene, aber noch nicht gemeldete Buchung
+ * nicht doppelt in die Summen eingeht.
+ * Mit {@code -Dsmartfinance.analytics.balances.enabled=false} wird nichts zwischengespeichert und jede Abfrage liest
+ * die Tagessummen erneut aus der Datenbank.
+ */
+public class AccountBalanceIndex implements TransactionChangeListener {
+
+    private static final MethodTimer TIMER = Metrics.timer(AccountBalanceIndex.class);
+
+    // Wird das Laden von Schreibvorgängen überholt, wird es so oft wiederholt, danach wird der Baum nur einmal benutzt
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private final ReportRepository reportRepository;
+    private final boolean enabled;
+    private final Map<String, Entry> trees = new ConcurrentHashMap<>();
+
+    // Wird bei Beginn, Ende und jedem Ereignis eines Schreibvorgangs erhöht, damit ein gleichzeitig laufendes Laden
+    // verworfen werden kann; pendingWrites zählt Schreibvorgänge, deren Ereignisse noch ausstehen können
+    private long writeVersion;
+    private int pendingWrites;
+
+    // Konstruktor mit Dependency Injection
+    public AccountBalanceIndex(ReportRepository reportRepository) {
+        this(reportRepository, Boolean.parseBoolean(System.getProperty("smartfinance.analytics.balances.enabled", "true")));
+    }
+
+    public AccountBalanceIndex(ReportRepository reportRepository, boolean enabled) {
+        this.reportRepository = reportRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Liefert den Kontostand am Ende eines Tages.
+     *
+     * @param account Das Konto.
+     * @param date    Der Stichtag (einschließlich).
+     * @return Die Summe aller Buchungen des Kontos bis einschließlich {@code date} in Cent.
+     * @throws SQLException Wenn das Konto geladen werden muss und ein Datenbankfehler auftritt.
+     */
+    public long balanceAsOf(Account account, LocalDate date) throws SQLException {
+        long started = Metrics.start();
+        try {
+            return tree(account).balanceAt((int) date.toEpochDay());
+        } finally {
+            TIMER.stop("balanceAsOf", started);
+        }
+    }
+
+    /**
+     * Liefert die Kontostände am Ende jedes Tages eines Zeitraums.
+     *
+     * @param account   Das Konto.
+     * @param startDate Der erste Tag (einschließlich).
+     * @param endDate   Der letzte Tag (einschließlich), nicht vor {@code startDate}.
+     * @return Ein Wert in Cent pro Tag ab {@code startDate}.
+     * @throws SQLException Wenn das Konto geladen werden muss und ein Datenbankfehler auftritt.
+     */
+    public long[] dailyBalances(Account account, LocalDate startDate, LocalDate endDate) throws SQLException {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("Enddatum " + endDate + " liegt vor dem Startdatum " + startDate);
+        }
+        long started = Metrics.start();
+        try {
+            return tree(account).balances((int) startDate.toEpochDay(), (int) endDate.toEpochDay());
+        } finally {
+            TIMER.stop("dailyBalances", started);
+        }
+    }
+
+    /**
+     * Liefert den Kontostandsverlauf eines Zeitraums für ein Diagramm mit {@code width} Pixeln Breite. Die täglichen
+     * Kontostände werden in einem Durchgang durch den {@link MinMaxDownsampler} geführt, sodass auch bei vielen Jahren
+     * höchstens zwei Punkte pro Pixel entstehen und Spitzen erhalten bleiben.
+     *
+     * @param account   Das Konto.
+     * @param startDate Der erste Tag (einschließlich).
+     * @param endDate   Der letzte Tag (einschließlich), nicht vor {@code startDate}.
+     * @param width     Die Breite des Diagramms in Pixeln, mindestens 1.
+     * @return Die ausgewählten Punkte in zeitlicher Reihenfolge.
+     * @throws SQLException Wenn das Konto geladen werden muss und ein Datenbankfehler auftritt.
+     */
+    public List<BalancePoint> balanceHistory(Account account, LocalDate startDate, LocalDate endDate, int width) throws SQLException {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("Enddatum " + endDate + " liegt vor dem Startdatum " + startDate);
+        }
+        long started = Metrics.start();
+        try {
+            int fromDay = (int) startDate.toEpochDay();
+            int toDay = (int) endDate.toEpochDay();
+            MinMaxDownsampler downsampler = new MinMaxDownsampler(startDate, toDay - fromDay + 1, width);
+            tree(account).forEachBalance(fromDay, toDay, downsampler);
+            return downsampler.points();
+        } finally {
+            TIMER.stop("balanceHistory", started);
+        }
+    }
+
+    /**
+     * @param account Das Konto.
+     * @return Der früheste Tag mit einer Buchung oder null, wenn das Konto keine Buchungen hat.
+     * @throws SQLException Wenn das Konto geladen werden muss und ein Datenbankfehler auftritt.
+     */
+    public LocalDate firstBookingDate(Account account) throws SQLException {
+        int firstBookedDay = tree(account).firstBookedDay();
+        return firstBookedDay != Integer.MAX_VALUE ? LocalDate.ofEpochDay(firstBookedDay) : null;
+    }
+
+    /**
+     * Gibt die Tagessummen eines Kontos frei, z. B. nachdem das Konto gelöscht wurde.
+     *
+     * @param accountId Die ID des Kontos.
+     */
+    public synchronized void unload(String accountId) {
+        writeVersion++;
+        trees.remove(accountId);
+    }
+
+    // Schreibvorgänge aus dem TransactionService
+
+    @Override
+    public synchronized void writeStarted() {
+        writeVersion++;
+        pendingWrites++;
+    }
+
+    @Override
+    public synchronized void writeFinished() {
+        writeVersion++;
+        pendingWrites--;
+        notifyAll();
+    }
+
+    @Override
+    public synchronized void transactionsSaved(List<Transaction> transactions) {
+        writeVersion++;
+        for (Transaction transaction : transactions) {
+            add(transaction, transaction.getAmountCents());
+        }
+    }
+
+    @Override
+    public synchronized void transactionUpdated(Transaction transaction) {
+        writeVersion++;
+        // Das bisherige Konto gehört demselben Benutzer; ohne Benutzer wird vorsichtshalber alles verworfen
+        String userId = transaction.getAccount() != null ? transaction.getAccount().getUserId() : null;
+        trees.values().removeIf(entry -> userId == null || entry.userId() == null || userId.equals(entry.userId()));
+    }
+
+    @Override
+    public synchronized void transactionDeleted(Transaction transaction) {
+        writeVersion++;
+        add(transaction, -transaction.getAmountCents());
+    }
+
+    @Override
+    public synchronized void accountTransactionsDeleted(String accountId) {
+        writeVersion++;
+        trees.remove(accountId);
+    }
+
+    @Override
+    public void categoryReassigned(String userId, String categoryId, String replacementCategoryId) {
+        // Kategorien ändern keine Kontostände
+    }
+
+    private void add(Transaction transaction, long cents) {
+        Account account = transaction.getAccount();
+        Entry entry = account != null ? trees.get(account.getId()) : null;
+        if (entry != null) {
+            entry.tree().add((int) transaction.getDate().toLocalDate().toEpochDay(), cents);
+        }
+    }
+
+    private DailyBalanceTree tree(Account account) throws SQLException {
+        String accountId = account.getId();
+        Entry entry = trees.get(accountId);
+        if (entry != null) {
+            return entry.tree();
+        }
+        if (!enabled) {
+            return DailyBalanceTree.of(reportRepository.getDailyTotals(accountId));
+        }
+        DailyBalanceTree tree = null;
+        for (int attempt = 1; attempt <= MAX_LOAD_ATTEMPTS; attempt++) {
+            long version;
+            try {
+                version = awaitNoPendingWrites();
+            } catch (InterruptedException e) {
+                // Ohne Warten nur einmal benutzen, nicht zwischenspeichern
+                Thread.currentThread().interrupt();
+                return DailyBalanceTree.of(reportRepository.getDailyTotals(accountId));
+            }
+            tree = DailyBalanceTree.of(reportRepository.getDailyTotals(accountId));
+            synchronized (this) {
+                if (version == writeVersion) {
+                    trees.put(accountId, new Entry(account.getUserId(), tree));
+                    return tree;
+                }
+            }
+        }
+        LoggerUtils.logInfo(AccountBalanceIndex.class.getName(), "Laden der Tagessummen von Konto {0} wurde wiederholt von Schreibvorgängen überholt", accountId);
+        return tree;
+    }
+
+    // Wartet, bis kein Schreibvorgang mehr läuft, und liefert die dann gültige Version
+    private synchronized long awaitNoPendingWrites() throws InterruptedException {
+        while (pendingWrites > 0) {
+            wait();
+        }
+        return writeVersion;
+    }
+
+    // Baum eines Kontos mit dem Benutzer, dem das Konto gehört
+    private record Entry(String userId, DailyBalanceTree tree) {
+    }
+}
@@ -0,0 +1,314 @@
+package myProject.service.analytics;
+
+import myProject.metrics.MethodTimer;
+import myProject.metrics.Metrics;
+import myProject.model.Category;
+import myProject.model.Transaction;
+import myProject.model.TransactionRecord;
+import myProject.repository.CategoryRepository;
+import myProject.repository.ReportRepository;
+import myProject.repository.TransactionRepository;
+import myProject.service.ServiceExecutor;
+import myProject.service.TransactionChangeListener;
+import myProject.util.LoggerUtils;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Der AnalyticsStore hält die Transaktionen angemeldeter Benutzer spaltenweise im Speicher, damit Kategorie-,
+ * Monats- und Budgetauswertungen ohne JDBC als Schleifen über primitive Arrays laufen.
+ * <p>
+ * Ein Benutzer wird bei der Anmeldung mit {@link #loadAsync(String)} einmal vollständig gelesen; danach hält der Store
+ * als {@link TransactionChangeListener} des TransactionService und CategoryService seine Daten selbst aktuell.
+ * Das Laden wartet laufende Schreibvorgänge ab und wird verworfen, sobald währenddessen ein neuer beginnt, damit eine
+ * bereits festgeschriebene, aber noch nicht gemeldete Transaktion nicht doppelt gezählt wird.
+ * Solange ein Benutzer nicht geladen ist, liefern die Abfragen {@code null} und die Aufrufer fragen die Datenbank.
+ * Mit {@code -Dsmartfinance.analytics.columnar.enabled=false} wird nichts geladen und immer die Datenbank gefragt.
+ */
+public class AnalyticsStore implements TransactionChangeListener {
+
+    private static final MethodTimer TIMER = Metrics.timer(AnalyticsStore.class);
+
+    // Wird das Laden von Schreibvorgängen überholt, wird es so oft wiederholt, danach bleibt es bei der Datenbank
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+    private static final String UNCATEGORIZED = "Uncategorized";
+
+    private final TransactionRepository transactionRepository;
+    private final CategoryRepository categoryRepository;
+    private final boolean enabled;
+    private final Map<String, ColumnarLedger> ledgers = new ConcurrentHashMap<>();
+
+    // Wird bei Beginn, Ende und jedem Ereignis eines Schreibvorgangs erhöht, damit ein gleichzeitig laufendes Laden
+    // verworfen werden kann; pendingWrites zählt Schreibvorgänge, deren Ereignisse noch ausstehen können
+    private long writeVersion;
+    private int pendingWrites;
+
+    // Konstruktor mit Dependency Injection
+    public AnalyticsStore(TransactionRepository transactionRepository, CategoryRepository categoryRepository) {
+        this(transactionRepository, categoryRepository, Boolean.parseBoolean(System.getProperty("smartfinance.analytics.columnar.enabled", "true")));
+    }
+
+    public AnalyticsStore(TransactionRepository transactionRepository, CategoryRepository categoryRepository, boolean enabled) {
+        this.transactionRepository = transactionRepository;
+        this.categoryRepository = categoryRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Liest alle Transaktionen eines Benutzers ein. Bereits geladene Daten werden ersetzt.
+     *
+     * @param userId Die ID des Benutzers.
+     * @return true, wenn der Benutzer anschließend aus dem Speicher ausgewertet wird.
+     */
+    public boolean load(String userId) {
+        if (!enabled || userId == null) {
+            return false;
+        }
+        long started = Metrics.start();
+        try {
+            for (int attempt = 1; attempt <= MAX_LOAD_ATTEMPTS; attempt++) {
+                // Ein festgeschriebener, aber noch nicht gemeldeter Schreibvorgang würde sonst doppelt gezählt
+                long version = awaitNoPendingWrites();
+                ColumnarLedger ledger = new ColumnarLedger(1024);
+                transactionRepository.forEachTransactionRecordOfUser(userId, ledger::add);
+                synchronized (this) {
+                    if (version == writeVersion) {
+                        ledgers.put(userId, ledger);
+                        LoggerUtils.logInfo(AnalyticsStore.class.getName(), "Transaktionen von Benutzer {0} spaltenweise geladen: {1}", userId, ledger.size());
+                        return true;
+                    }
+                }
+            }
+            LoggerUtils.logInfo(AnalyticsStore.class.getName(), "Laden von Benutzer {0} wurde wiederholt von Schreibvorgängen überholt, Auswertungen bleiben bei der Datenbank", userId);
+            return false;
+        } catch (SQLException e) {
+            LoggerUtils.logError(AnalyticsStore.class.getName(), "Fehler beim Laden der Transaktionen von Benutzer: " + userId, e);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            TIMER.stop("load", started);
+        }
+    }
+
+    /**
+     * Liest alle Transaktionen eines Benutzers asynchron ein, z. B. direkt nach der Anmeldung.
+     *
+     * @param userId Die ID des Benutzers.
+     * @return Future mit dem Ergebnis von {@link #load(String)}.
+     */
+    public CompletableFuture<Boolean> loadAsync(String userId) {
+        return TIMER.timeAsync("loadAsync", Metrics.start(), ServiceExecutor.supply(() -> load(userId)));
+    }
+
+    /**
+     * Gibt die Daten eines Benutzers frei, z. B. beim Abmelden.
+     *
+     * @param userId Die ID des Benutzers.
+     */
+    public void unload(String userId) {
+        ledgers.remove(userId);
+    }
+
+    /**
+     * @param userId Die ID des Benutzers.
+     * @return true, wenn der Benutzer aus dem Speicher ausgewertet wird.
+     */
+    public boolean isLoaded(String userId) {
+        return userId != null && ledgers.containsKey(userId);
+    }
+
+    /**
+     * Berechnet die Ausgaben pro Kategoriename wie {@link ReportRepository#getCategoryExpenses}.
+     *
+     * @param userId    Die ID des Benutzers.
+     * @param startDate Startdatum des Zeitraums (einschließlich).
+     * @param endDate   Enddatum des Zeitraums (einschließlich).
+     * @return Eine Zeile pro Kategoriename oder null, wenn der Benutzer nicht geladen ist.
+     */
+    public List<ReportRepository.CategoryTotal> getCategoryExpenses(String userId, LocalDate startDate, LocalDate endDate) {
+        ColumnarLedger ledger = ledger(userId);
+        if (ledger == null) {
+            return null;
+        }
+        long started = Metrics.start();
+        try {
+            ColumnarLedger.CategorySums sums = ledger.expensesByCategory((int) startDate.toEpochDay(), (int) endDate.toEpochDay());
+            Map<String, String> names = categoryNames(userId);
+
+            // Wie in der Abfrage werden Kategorien gleichen Namens und unbekannte Kategorien zusammengefasst
+            Map<String, Long> byName = new HashMap<>();
+            for (int i = 0; i < sums.categoryIds().size(); i++) {
+                if (sums.present()[i]) {
+                    byName.merge(names.getOrDefault(sums.categoryIds().get(i), UNCATEGORIZED), sums.totals()[i], Long::sum);
+                }
+            }
+            if (sums.hasUncategorized()) {
+                byName.merge(UNCATEGORIZED, sums.uncategorized(), Long::sum);
+            }
+
+            List<ReportRepository.CategoryTotal> totals = new ArrayList<>(byName.size());
+            byName.forEach((name, total) -> totals.add(new ReportRepository.CategoryTotal(name, total)));
+            return totals;
+        } finally {
+            TIMER.stop("getCategoryExpenses", started);
+        }
+    }
+
+    /**
+     * Berechnet die monatlichen Summen pro Transaktionstyp wie {@link ReportRepository#getMonthlyTotals}.
+     *
+     * @param userId    Die ID des Benutzers.
+     * @param startDate Startdatum des Zeitraums (einschließlich).
+     * @param endDate   Enddatum des Zeitraums (einschließlich).
+     * @return Eine Zeile pro Monat und Typ oder null, wenn der Benutzer nicht geladen ist.
+     */
+    public List<ReportRepository.MonthlyTotal> getMonthlyTotals(String userId, LocalDate startDate, LocalDate endDate) {
+        ColumnarLedger ledger = ledger(userId);
+        if (ledger == null) {
+            return null;
+        }
+        long started = Metrics.start();
+        try {
+            Set<String> included = new HashSet<>();
+            categoryNames(userId).forEach((id, name) -> {
+                if (name != null && !name.equalsIgnoreCase("no category")) {
+                    included.add(id);
+                }
+            });
+            return ledger.monthlyTotals((int) startDate.toEpochDay(), (int) endDate.toEpochDay(), included);
+        } finally {
+            TIMER.stop("getMonthlyTotals", started);
+        }
+    }
+
+    /**
+     * Berechnet die Ausgaben pro Kategorie-ID wie {@link ReportRepository#getSpentByCategory}.
+     *
+     * @param userId    Die ID des Benutzers.
+     * @param startDate Startdatum des Zeitraums (einschließlich).
+     * @param endDate   Enddatum des Zeitraums (einschließlich).
+     * @return Die Ausgaben in Cent pro Kategorie des Benutzers oder null, wenn der Benutzer nicht geladen ist.
+     */
+    public Map<String, Long> getSpentByCategory(String userId, LocalDate startDate, LocalDate endDate) {
+        ColumnarLedger ledger = ledger(userId);
+        if (ledger == null) {
+            return null;
+        }
+        long started = Metrics.start();
+        try {
+            Map<String, Long> found = ledger.spentByCategory((int) startDate.toEpochDay(), (int) endDate.toEpochDay());
+            Map<String, Long> spent = new HashMap<>();
+            for (String categoryId : categoryNames(userId).keySet()) {
+                spent.put(categoryId, found.getOrDefault(categoryId, 0L));
+            }
+            return spent;
+        } finally {
+            TIMER.stop("getSpentByCategory", started);
+        }
+    }
+
+    // Schreibvorgänge aus TransactionService und CategoryService
+
+    @Override
+    public synchronized void writeStarted() {
+        writeVersion++;
+        pendingWrites++;
+    }
+
+    @Override
+    public synchronized void writeFinished() {
+        writeVersion++;
+        pendingWrites--;
+        notifyAll();
+    }
+
+    @Override
+    public synchronized void transactionsSaved(List<Transaction> transactions) {
+        writeVersion++;
+        Map<String, List<TransactionRecord>> byUser = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            String userId = userIdOf(transaction);
+            if (userId != null && ledgers.containsKey(userId)) {
+                byUser.computeIfAbsent(userId, id -> new ArrayList<>()).add(TransactionRecord.of(transaction));
+            }
+        }
+        byUser.forEach((userId, records) -> ledgers.get(userId).addAll(records));
+    }
+
+    @Override
+    public synchronized void transactionUpdated(Transaction transaction) {
+        writeVersion++;
+        removeEverywhere(transaction.getId());
+        ColumnarLedger ledger = ledger(userIdOf(transaction));
+        if (ledger != null) {
+            ledger.add(TransactionRecord.of(transaction));
+        }
+    }
+
+    @Override
+    public synchronized void transactionDeleted(Transaction transaction) {
+        writeVersion++;
+        removeEverywhere(transaction.getId());
+    }
+
+    @Override
+    public synchronized void accountTransactionsDeleted(String accountId) {
+        writeVersion++;
+        for (ColumnarLedger ledger : ledgers.values()) {
+            ledger.removeAccount(accountId);
+        }
+    }
+
+    @Override
+    public synchronized void categoryReassigned(String userId, String categoryId, String replacementCategoryId) {
+        writeVersion++;
+        ColumnarLedger ledger = ledger(userId);
+        if (ledger != null) {
+            ledger.reassignCategory(categoryId, replacementCategoryId);
+        }
+    }
+
+    // Wartet, bis kein Schreibvorgang mehr läuft, und liefert die dann gültige Version
+    private synchronized long awaitNoPendingWrites() throws InterruptedException {
+        while (pendingWrites > 0) {
+            wait();
+        }
+        return writeVersion;
+    }
+
+    private ColumnarLedger ledger(String userId) {
+        return userId != null ? ledgers.get(userId) : null;
+    }
+
+    private void removeEverywhere(String transactionId) {
+        for (ColumnarLedger ledger : ledgers.values()) {
+            if (ledger.remove(transactionId)) {
+                return;
+            }
+        }
+    }
+
+    private static String userIdOf(Transaction transaction) {
+        return transaction.getAccount() != null ? transaction.getAccount().getUserId() : null;
+    }
+
+    // Kategorienamen kommen aus dem Cache des CategoryRepository, damit Umbenennungen sofort sichtbar sind
+    private Map<String, String> categoryNames(String userId) {
+        Map<String, String> names = new HashMap<>();
+        for (Category category : categoryRepository.getAllCategoriesForUser(userId)) {
+            names.put(category.getId(), category.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,403 @@
+package myProject.service.analytics;
+
+import myProject.model.TransactionRecord;
+import myProject.repository.ReportRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Spaltenweise Ablage aller Transaktionen eines Benutzers in primitiven Arrays, sortiert nach Datum.
+ * Kategorie- und Konto-IDs werden über ein Wörterbuch auf fortlaufende {@code int}-Indizes abgebildet,
+ * Typ und Startguthaben als Bits in einem {@code byte} gehalten. Auswertungen suchen den Zeitraum per
+ * binärer Suche und summieren anschließend in einer einzigen Schleife ohne Objekte oder Boxing.
+ * <p>
+ * Alle Methoden sind synchronisiert; Schreibzugriffe kommen nur über die Listener des {@link AnalyticsStore}.
+ */
+final class ColumnarLedger {
+
+    static final byte EXPENSE = 1;
+    static final byte INCOME = 2;
+    static final byte INITIAL_BALANCE = 4;
+
+    // Kennzeichnet eine Transaktion ohne Kategorie
+    static final int NO_CATEGORY = -1;
+
+    // Ab diesem Anteil an der Größe wird ein Stapel angehängt und neu sortiert statt einzeln eingefügt
+    private static final int BULK_DIVISOR = 16;
+
+    private String[] ids;
+    private int[] days;
+    private long[] cents;
+    private int[] categories;
+    private int[] accounts;
+    private byte[] flags;
+    private int size;
+
+    private final List<String> categoryIds = new ArrayList<>();
+    private final Map<String, Integer> categoryIndex = new HashMap<>();
+    private final List<String> accountIds = new ArrayList<>();
+    private final Map<String, Integer> accountIndex = new HashMap<>();
+
+    ColumnarLedger(int capacity) {
+        int initial = Math.max(capacity, 16);
+        ids = new String[initial];
+        days = new int[initial];
+        cents = new long[initial];
+        categories = new int[initial];
+        accounts = new int[initial];
+        flags = new byte[initial];
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Fügt eine Transaktion an der passenden Datumsposition ein. Bereits nach Datum sortiert gelieferte Zeilen,
+     * etwa beim Laden, werden ohne Verschieben angehängt.
+     */
+    synchronized void add(TransactionRecord record) {
+        ensureCapacity(size + 1);
+        int position = size == 0 || record.epochDay() >= days[size - 1] ? size : upperBound(record.epochDay());
+        if (position < size) {
+            shift(position, position + 1, size - position);
+        }
+        set(position, record);
+        size++;
+    }
+
+    /**
+     * Fügt mehrere Transaktionen ein. Kleine Stapel werden einzeln einsortiert, große angehängt und
+     * anschließend gemeinsam nach Datum sortiert.
+     */
+    synchronized void addAll(List<TransactionRecord> records) {
+        if (records.size() * BULK_DIVISOR < size) {
+            for (TransactionRecord record : records) {
+                add(record);
+            }
+            return;
+        }
+        ensureCapacity(size + records.size());
+        boolean sorted = true;
+        for (TransactionRecord record : records) {
+            sorted &= size == 0 || record.epochDay() >= days[size - 1];
+            set(size++, record);
+        }
+        if (!sorted) {
+            sortByDay();
+        }
+    }
+
+    /**
+     * Entfernt eine Transaktion anhand ihrer ID.
+     *
+     * @return true, wenn die Transaktion enthalten war.
+     */
+    synchronized boolean remove(String id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i].equals(id)) {
+                shift(i + 1, i, size - i - 1);
+                size--;
+                ids[size] = null;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Entfernt alle Transaktionen eines Kontos in einem Durchlauf.
+     *
+     * @return Die Anzahl der entfernten Transaktionen.
+     */
+    synchronized int removeAccount(String accountId) {
+        Integer account = accountIndex.get(accountId);
+        if (account == null) {
+            return 0;
+        }
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (accounts[i] != account) {
+                if (kept != i) {
+                    copy(i, kept);
+                }
+                kept++;
+            }
+        }
+        int removed = size - kept;
+        Arrays.fill(ids, kept, size, null);
+        size = kept;
+        return removed;
+    }
+
+    /**
+     * Ordnet alle Transaktionen einer Kategorie einer anderen zu.
+     *
+     * @return Die Anzahl der umgehängten Transaktionen.
+     */
+    synchronized int reassignCategory(String categoryId, String replacementCategoryId) {
+        Integer from = categoryIndex.get(categoryId);
+        if (from == null) {
+            return 0;
+        }
+        int to = categoryIndex(replacementCategoryId);
+        int changed = 0;
+        for (int i = 0; i < size; i++) {
+            if (categories[i] == from) {
+                categories[i] = to;
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Summiert die Ausgaben pro Kategorie als positive Werte.
+     *
+     * @param fromDay Erster Tag des Zeitraums (einschließlich).
+     * @param toDay   Letzter Tag des Zeitraums (einschließlich).
+     * @return Die Summen pro Kategorie-ID und die Summe der Ausgaben ohne Kategorie.
+     */
+    synchronized CategorySums expensesByCategory(int fromDay, int toDay) {
+        long[] totals = new long[categoryIds.size()];
+        boolean[] present = new boolean[categoryIds.size()];
+        long uncategorized = 0;
+        boolean hasUncategorized = false;
+        for (int i = lowerBound(fromDay), end = upperBound(toDay); i < end; i++) {
+            if ((flags[i] & EXPENSE) == 0) {
+                continue;
+            }
+            int category = categories[i];
+            if (category == NO_CATEGORY) {
+                uncategorized += Math.abs(cents[i]);
+                hasUncategorized = true;
+            } else {
+                totals[category] += Math.abs(cents[i]);
+                present[category] = true;
+            }
+        }
+        return new CategorySums(List.copyOf(categoryIds), totals, present, uncategorized, hasUncategorized);
+    }
+
+    /**
+     * Summiert Einnahmen und Ausgaben pro Monat. Ausgaben werden als positive Werte summiert; Startguthaben,
+     * Transaktionen ohne Kategorie und Kategorien außerhalb von {@code includedCategoryIds} werden übersprungen.
+     *
+     * @param fromDay             Erster Tag des Zeitraums (einschließlich).
+     * @param toDay               Letzter Tag des Zeitraums (einschließlich).
+     * @param includedCategoryIds Die zu berücksichtigenden Kategorie-IDs.
+     * @return Eine Zeile pro Monat und Typ, sofern im Monat eine passende Transaktion dieses Typs vorkommt.
+     */
+    synchronized List<ReportRepository.MonthlyTotal> monthlyTotals(int fromDay, int toDay, Set<String> includedCategoryIds) {
+        boolean[] included = new boolean[categoryIds.size()];
+        for (int i = 0; i < included.length; i++) {
+            included[i] = includedCategoryIds.contains(categoryIds.get(i));
+        }
+
+        List<ReportRepository.MonthlyTotal> totals = new ArrayList<>();
+        LocalDate month = null;
+        int nextMonthDay = Integer.MIN_VALUE;
+        long income = 0;
+        long expense = 0;
+        boolean hasIncome = false;
+        boolean hasExpense = false;
+        for (int i = lowerBound(fromDay), end = upperBound(toDay); i < end; i++) {
+            int category = categories[i];
+            byte flag = flags[i];
+            if (category == NO_CATEGORY || !included[category] || (flag & INITIAL_BALANCE) != 0 || (flag & (EXPENSE | INCOME)) == 0) {
+                continue;
+            }
+            // Die Tage sind sortiert, ein Monatswechsel wird daher nur an der nächsten Monatsgrenze geprüft
+            if (days[i] >= nextMonthDay) {
+                addMonth(totals, month, income, hasIncome, expense, hasExpense);
+                month = LocalDate.ofEpochDay(days[i]).withDayOfMonth(1);
+                nextMonthDay = (int) month.plusMonths(1).toEpochDay();
+                income = 0;
+                expense = 0;
+                hasIncome = false;
+                hasExpense = false;
+            }
+            if ((flag & EXPENSE) != 0) {
+                expense += Math.abs(cents[i]);
+                hasExpense = true;
+            } else {
+                income += cents[i];
+                hasIncome = true;
+            }
+        }
+        addMonth(totals, month, income, hasIncome, expense, hasExpense);
+        return totals;
+    }
+
+    /**
+     * Summiert die Ausgaben pro Kategorie-ID als positive Werte, z. B. für den Budgetfortschritt.
+     */
+    synchronized Map<String, Long> spentByCategory(int fromDay, int toDay) {
+        CategorySums sums = expensesByCategory(fromDay, toDay);
+        Map<String, Long> spent = new HashMap<>();
+        for (int i = 0; i < sums.categoryIds().size(); i++) {
+            if (sums.present()[i]) {
+                spent.put(sums.categoryIds().get(i), sums.totals()[i]);
+            }
+        }
+        return spent;
+    }
+
+    private static void addMonth(List<ReportRepository.MonthlyTotal> totals, LocalDate month, long income, boolean hasIncome, long expense, boolean hasExpense) {
+        if (month == null) {
+            return;
+        }
+        if (hasIncome) {
+            totals.add(new ReportRepository.MonthlyTotal(month.getYear(), month.getMonthValue(), "income", income));
+        }
+        if (hasExpense) {
+            totals.add(new ReportRepository.MonthlyTotal(month.getYear(), month.getMonthValue(), "expense", expense));
+        }
+    }
+
+    private void set(int position, TransactionRecord record) {
+        ids[position] = record.id();
+        days[position] = record.epochDay();
+        cents[position] = record.amountCents();
+        categories[position] = record.categoryId() == null ? NO_CATEGORY : categoryIndex(record.categoryId());
+        accounts[position] = record.accountId() == null ? -1 : accountIndex(record.accountId());
+        flags[position] = flags(record);
+    }
+
+    private static byte flags(TransactionRecord record) {
+        byte flag = 0;
+        if ("expense".equalsIgnoreCase(record.type())) {
+            flag |= EXPENSE;
+        } else if ("income".equalsIgnoreCase(record.type())) {
+            flag |= INCOME;
+        }
+        if ("initial balance".equalsIgnoreCase(record.description())) {
+            flag |= INITIAL_BALANCE;
+        }
+        return flag;
+    }
+
+    private int categoryIndex(String categoryId) {
+        return categoryIndex.computeIfAbsent(categoryId, id -> {
+            categoryIds.add(id);
+            return categoryIds.size() - 1;
+        });
+    }
+
+    private int accountIndex(String accountId) {
+        return accountIndex.computeIfAbsent(accountId, id -> {
+            accountIds.add(id);
+            return accountIds.size() - 1;
+        });
+    }
+
+    // Erster Index mit days[i] >= day
+    private int lowerBound(int day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Erster Index mit days[i] > day
+    private int upperBound(int day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] <= day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int grown = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, grown);
+        days = Arrays.copyOf(days, grown);
+        cents = Arrays.copyOf(cents, grown);
+        categories = Arrays.copyOf(categories, grown);
+        accounts = Arrays.copyOf(accounts, grown);
+        flags = Arrays.copyOf(flags, grown);
+    }
+
+    private void shift(int from, int to, int length) {
+        System.arraycopy(ids, from, ids, to, length);
+        System.arraycopy(days, from, days, to, length);
+        System.arraycopy(cents, from, cents, to, length);
+        System.arraycopy(categories, from, categories, to, length);
+        System.arraycopy(accounts, from, accounts, to, length);
+        System.arraycopy(flags, from, flags, to, length);
+    }
+
+    private void copy(int from, int to) {
+        ids[to] = ids[from];
+        days[to] = days[from];
+        cents[to] = cents[from];
+        categories[to] = categories[from];
+        accounts[to] = accounts[from];
+        flags[to] = flags[from];
+    }
+
+    // Sortiert alle Spalten stabil nach Datum; Tag und ursprüngliche Position bilden gemeinsam einen long-Schlüssel
+    private void sortByDay() {
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) days[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        String[] sortedIds = new String[ids.length];
+        int[] sortedDays = new int[ids.length];
+        long[] sortedCents = new long[ids.length];
+        int[] sortedCategories = new int[ids.length];
+        int[] sortedAccounts = new int[ids.length];
+        byte[] sortedFlags = new byte[ids.length];
+        for (int i = 0; i < size; i++) {
+            int source = (int) keys[i];
+            sortedIds[i] = ids[source];
+            sortedDays[i] = days[source];
+            sortedCents[i] = cents[source];
+            sortedCategories[i] = categories[source];
+            sortedAccounts[i] = accounts[source];
+            sortedFlags[i] = flags[source];
+        }
+        ids = sortedIds;
+        days = sortedDays;
+        cents = sortedCents;
+        categories = sortedCategories;
+        accounts = sortedAccounts;
+        flags = sortedFlags;
+    }
+
+    /**
+     * Ausgabensummen pro Kategorie.
+     *
+     * @param categoryIds       Die Kategorie-IDs in der Reihenfolge der Summen.
+     * @param totals            Die Summen in Cent als positive Werte.
+     * @param present           Ob im Zeitraum eine Ausgabe der jeweiligen Kategorie vorkommt.
+     * @param uncategorized     Die Summe der Ausgaben ohne Kategorie.
+     * @param hasUncategorized  Ob im Zeitraum eine Ausgabe ohne Kategorie vorkommt.
+     */
+    record CategorySums(List<String> categoryIds, long[] totals, boolean[] present, long uncategorized, boolean hasUncategorized) {
+    }
+}
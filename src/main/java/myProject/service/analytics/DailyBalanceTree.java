@@ -0,0 +1,151 @@
+package myProject.service.analytics;
+
+import myProject.repository.ReportRepository;
+
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Tagessummen eines Kontos in einem Fenwick-Baum (Binary Indexed Tree), sodass der Kontostand am Ende eines
+ * beliebigen Tages in O(log n) über die Anzahl der Tage gelesen und eine Buchung in O(log n) nachgetragen wird.
+ * <p>
+ * Die Tage liegen lückenlos ab {@code firstDay} in einem Array; Buchungen außerhalb des abgedeckten Bereichs
+ * vergrößern ihn mit etwas Reserve und bauen den Baum in O(n) neu auf. Tage ohne Buchungen kosten ein paar Bytes,
+ * zehn Jahre Historie also rund 60 KB pro Konto.
+ */
+final class DailyBalanceTree {
+
+    // Reserve in Tagen, um die der Bereich beim Vergrößern mindestens erweitert wird
+    private static final int MIN_GROWTH_DAYS = 64;
+
+    private int firstDay;
+    private long[] daily = new long[0];
+    // Fenwick-Baum über daily, 1-basiert: tree[i] summiert daily[i - lowbit(i) .. i - 1]
+    private long[] tree = new long[1];
+    private long total;
+    // Frühester Tag, an dem je gebucht wurde; Integer.MAX_VALUE, solange das Konto leer ist
+    private int firstBookedDay = Integer.MAX_VALUE;
+
+    /**
+     * Baut den Baum aus den nach Datum sortierten Tagessummen eines Kontos auf.
+     */
+    static DailyBalanceTree of(List<ReportRepository.DailyTotal> totals) {
+        DailyBalanceTree balances = new DailyBalanceTree();
+        if (!totals.isEmpty()) {
+            int first = (int) totals.get(0).date().toEpochDay();
+            int last = (int) totals.get(totals.size() - 1).date().toEpochDay();
+            balances.firstDay = first;
+            balances.firstBookedDay = first;
+            balances.daily = new long[last - first + 1 + MIN_GROWTH_DAYS];
+            for (ReportRepository.DailyTotal total : totals) {
+                balances.daily[(int) total.date().toEpochDay() - first] += total.totalCents();
+                balances.total += total.totalCents();
+            }
+            balances.rebuildTree();
+        }
+        return balances;
+    }
+
+    /**
+     * Trägt einen Betrag an einem Tag nach, negativ für Ausgaben oder zum Entfernen einer Buchung.
+     */
+    synchronized void add(int epochDay, long cents) {
+        if (cents == 0) {
+            return;
+        }
+        ensureCovers(epochDay);
+        firstBookedDay = Math.min(firstBookedDay, epochDay);
+        int index = epochDay - firstDay;
+        daily[index] += cents;
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += cents;
+        }
+        total += cents;
+    }
+
+    /**
+     * @return Der Kontostand am Ende des Tages, also die Summe aller Buchungen bis einschließlich {@code epochDay}.
+     */
+    synchronized long balanceAt(int epochDay) {
+        int index = epochDay - firstDay;
+        if (daily.length == 0 || index < 0) {
+            return 0;
+        }
+        if (index >= daily.length) {
+            return total;
+        }
+        long sum = 0;
+        for (int i = index + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @return Der früheste Tag, an dem auf dem Konto gebucht wurde, oder {@code Integer.MAX_VALUE} für leere Konten.
+     *         Gelöschte Buchungen verschieben ihn nicht nach hinten.
+     */
+    synchronized int firstBookedDay() {
+        return firstBookedDay;
+    }
+
+    /**
+     * Liefert die Kontostände am Ende jedes Tages von {@code fromDay} bis {@code toDay} als Array.
+     */
+    long[] balances(int fromDay, int toDay) {
+        long[] balances = new long[toDay - fromDay + 1];
+        int[] next = {0};
+        forEachBalance(fromDay, toDay, balance -> balances[next[0]++] = balance);
+        return balances;
+    }
+
+    /**
+     * Übergibt die Kontostände am Ende jedes Tages von {@code fromDay} bis {@code toDay} der Reihe nach an
+     * {@code action}: der erste Wert kommt aus dem Baum, jeder weitere entsteht durch Addieren der Tagessumme,
+     * insgesamt also O(log n + Anzahl Tage) ohne Zwischenspeicher.
+     */
+    synchronized void forEachBalance(int fromDay, int toDay, LongConsumer action) {
+        long running = balanceAt(fromDay);
+        action.accept(running);
+        for (int day = fromDay + 1; day <= toDay; day++) {
+            int index = day - firstDay;
+            if (index >= 0 && index < daily.length) {
+                running += daily[index];
+            }
+            action.accept(running);
+        }
+    }
+
+    private void ensureCovers(int epochDay) {
+        if (daily.length == 0) {
+            firstDay = epochDay - MIN_GROWTH_DAYS;
+            daily = new long[2 * MIN_GROWTH_DAYS + 1];
+            tree = new long[daily.length + 1];
+            return;
+        }
+        int lastDay = firstDay + daily.length - 1;
+        if (epochDay >= firstDay && epochDay <= lastDay) {
+            return;
+        }
+        int growth = Math.max(MIN_GROWTH_DAYS, daily.length / 2);
+        int newFirstDay = epochDay < firstDay ? epochDay - growth : firstDay;
+        int newLastDay = epochDay > lastDay ? epochDay + growth : lastDay;
+        long[] grown = new long[newLastDay - newFirstDay + 1];
+        System.arraycopy(daily, 0, grown, firstDay - newFirstDay, daily.length);
+        firstDay = newFirstDay;
+        daily = grown;
+        rebuildTree();
+    }
+
+    // Baut den Fenwick-Baum in O(n) aus den Tagessummen auf
+    private void rebuildTree() {
+        tree = new long[daily.length + 1];
+        for (int i = 1; i < tree.length; i++) {
+            tree[i] += daily[i - 1];
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package myProject.service.analytics;
+
+import myProject.model.BalancePoint;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Reduziert eine tägliche Reihe von Kontoständen auf höchstens zwei Punkte pro Bildschirmspalte, ohne Spitzen zu
+ * verlieren: Die Tage werden gleichmäßig auf {@code width} Eimer verteilt und aus jedem Eimer werden Minimum und
+ * Maximum in zeitlicher Reihenfolge übernommen. Der erste und der letzte Tag bleiben immer erhalten, damit die Linie
+ * beim Anfangs- und beim aktuellen Kontostand endet.
+ * <p>
+ * Die Werte werden in einem Durchgang entgegengenommen und nicht zwischengespeichert; ist die Reihe nicht länger als
+ * {@code width}, wird jeder Tag übernommen.
+ */
+final class MinMaxDownsampler implements LongConsumer {
+
+    private final LocalDate startDate;
+    private final int days;
+    private final int width;
+    private final List<BalancePoint> points;
+
+    private int index;
+    private int bucket = -1;
+    private int minIndex;
+    private long min;
+    private int maxIndex;
+    private long max;
+
+    /**
+     * @param startDate Der Tag des ersten Wertes.
+     * @param days      Die Anzahl der folgenden Werte.
+     * @param width     Die gewünschte Anzahl Eimer, typischerweise die Breite des Diagramms in Pixeln.
+     */
+    MinMaxDownsampler(LocalDate startDate, int days, int width) {
+        if (width < 1) {
+            throw new IllegalArgumentException("Die Breite muss mindestens 1 sein: " + width);
+        }
+        this.startDate = startDate;
+        this.days = days;
+        this.width = width;
+        this.points = new ArrayList<>(Math.min(days, 2 * width + 2));
+    }
+
+    @Override
+    public void accept(long balance) {
+        int current = index++;
+        if (days <= width) {
+            points.add(point(current, balance));
+            return;
+        }
+        int currentBucket = (int) ((long) current * width / days);
+        if (currentBucket != bucket) {
+            flush();
+            bucket = currentBucket;
+            minIndex = maxIndex = current;
+            min = max = balance;
+            if (current == 0) {
+                points.add(point(0, balance));
+            }
+        } else if (balance < min) {
+            min = balance;
+            minIndex = current;
+        } else if (balance > max) {
+            max = balance;
+            maxIndex = current;
+        }
+        if (current == days - 1) {
+            flush();
+            if (points.get(points.size() - 1).date().isBefore(startDate.plusDays(current))) {
+                points.add(point(current, balance));
+            }
+        }
+    }
+
+    /**
+     * @return Die ausgewählten Punkte in zeitlicher Reihenfolge.
+     */
+    List<BalancePoint> points() {
+        return points;
+    }
+
+    // Übernimmt Minimum und Maximum des abgeschlossenen Eimers, ohne einen Tag doppelt einzutragen
+    private void flush() {
+        if (bucket < 0) {
+            return;
+        }
+        int first = Math.min(minIndex, maxIndex);
+        int second = Math.max(minIndex, maxIndex);
+        addIfNew(first, first == minIndex ? min : max);
+        if (second != first) {
+            addIfNew(second, second == minIndex ? min : max);
+        }
+        bucket = -1;
+    }
+
+    private void addIfNew(int dayIndex, long balance) {
+        LocalDate date = startDate.plusDays(dayIndex);
+        if (points.isEmpty() || points.get(points.size() - 1).date().isBefore(date)) {
+            points.add(new BalancePoint(date, balance));
+        }
+    }
+
+    private BalancePoint point(int dayIndex, long balance) {
+        return new BalancePoint(startDate.plusDays(dayIndex), balance);
+    }
+}
@@ -0,0 +1,41 @@
+package myProject.service.importer;
+
+/**
+ * Beschreibt, wie die Spalten einer Bank-CSV auf die Felder einer Transaktion abgebildet werden.
+ * Spaltennummern beginnen bei 0; ein Wert kleiner 0 bedeutet, dass die Spalte nicht vorhanden ist.
+ *
+ * @param delimiter         Das Trennzeichen zwischen den Spalten.
+ * @param hasHeader         true, wenn die erste Zeile Spaltenüberschriften enthält.
+ * @param dateColumn        Spalte des Buchungsdatums.
+ * @param datePattern       Format des Datums, z. B. {@code dd.MM.yyyy}.
+ * @param timeColumn        Spalte der Uhrzeit (Format {@code HH:mm} oder {@code HH:mm:ss}) oder -1.
+ * @param amountColumn      Spalte des Betrags; negative Beträge gelten ohne Typspalte als Ausgabe.
+ * @param decimalSeparator  Das Dezimaltrennzeichen des Betrags ({@code '.'} oder {@code ','}).
+ * @param descriptionColumn Spalte des Verwendungszwecks oder -1.
+ * @param categoryColumn    Spalte des Kategorienamens oder -1.
+ * @param typeColumn        Spalte des Typs ("income"/"expense") oder -1.
+ */
+public record CsvColumnMapping(char delimiter, boolean hasHeader,
+                               int dateColumn, String datePattern, int timeColumn,
+                               int amountColumn, char decimalSeparator,
+                               int descriptionColumn, int categoryColumn, int typeColumn) {
+
+    /**
+     * Standardabbildung: {@code date,amount,description,category} mit Überschrift, ISO-Datum und Punkt als Dezimaltrennzeichen.
+     *
+     * @return Die Standardabbildung.
+     */
+    public static CsvColumnMapping defaults() {
+        return new CsvColumnMapping(',', true, 0, "yyyy-MM-dd", -1, 1, '.', 2, 3, -1);
+    }
+
+    /**
+     * Abbildung für deutsche Kontoauszüge: Semikolon, {@code dd.MM.yyyy} und Komma als Dezimaltrennzeichen,
+     * Spalten wie bei {@link #defaults()}.
+     *
+     * @return Die Abbildung für deutsche Kontoauszüge.
+     */
+    public static CsvColumnMapping german() {
+        return new CsvColumnMapping(';', true, 0, "dd.MM.yyyy", -1, 1, ',', 2, 3, -1);
+    }
+}
@@ -0,0 +1,194 @@
+package myProject.service.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Liest eine CSV-Datei datensatzweise über einen FileChannel mit festen Puffern.
+ * Es wird nie mehr als ein Datensatz und ein Puffer gelesener Bytes im Speicher gehalten,
+ * der Speicherbedarf ist also unabhängig von der Dateigröße.
+ * Felder in Anführungszeichen dürfen Trennzeichen, Zeilenumbrüche und verdoppelte Anführungszeichen enthalten.
+ */
+public class CsvReader implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    // Schutz vor Dateien ohne Zeilenumbruch oder mit nicht geschlossenen Anführungszeichen
+    private static final int MAX_RECORD_LENGTH = 1024 * 1024;
+
+    private final FileChannel channel;
+    private final CharsetDecoder decoder;
+    private final ByteBuffer bytes;
+    private final CharBuffer chars;
+    private final char delimiter;
+
+    private boolean endOfInput;
+    private boolean flushed;
+    private int pushedBack = -1;
+    private long recordNumber;
+
+    /**
+     * Öffnet eine CSV-Datei.
+     *
+     * @param file      Die Datei.
+     * @param charset   Die Zeichenkodierung.
+     * @param delimiter Das Trennzeichen zwischen den Feldern.
+     * @throws IOException Wenn die Datei nicht geöffnet werden kann.
+     */
+    public CsvReader(Path file, Charset charset, char delimiter) throws IOException {
+        this(file, charset, delimiter, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Öffnet eine CSV-Datei mit einer bestimmten Puffergröße.
+     *
+     * @param file       Die Datei.
+     * @param charset    Die Zeichenkodierung.
+     * @param delimiter  Das Trennzeichen zwischen den Feldern.
+     * @param bufferSize Die Größe des Byte- und des Zeichenpuffers.
+     * @throws IOException Wenn die Datei nicht geöffnet werden kann.
+     */
+    public CsvReader(Path file, Charset charset, char delimiter, int bufferSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.bytes = ByteBuffer.allocate(bufferSize);
+        this.chars = CharBuffer.allocate(bufferSize);
+        this.chars.flip();
+        this.delimiter = delimiter;
+        skipByteOrderMark();
+    }
+
+    /**
+     * Liest den nächsten Datensatz. Leere Zeilen werden übersprungen.
+     *
+     * @return Die Felder des Datensatzes oder null am Dateiende.
+     * @throws IOException Wenn die Datei nicht gelesen werden kann oder ein Datensatz zu lang ist.
+     */
+    public List<String> readRecord() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = parseRecord(c);
+            recordNumber++;
+            if (fields.size() > 1 || !fields.get(0).isBlank()) {
+                return fields;
+            }
+        }
+    }
+
+    /**
+     * @return Die Nummer des zuletzt gelesenen Datensatzes, beginnend bei 1.
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Liest die Felder eines Datensatzes, beginnend mit dem bereits gelesenen Zeichen c
+    private List<String> parseRecord(int c) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+
+        while (true) {
+            if (++length > MAX_RECORD_LENGTH) {
+                throw new IOException("Datensatz " + (recordNumber + 1) + " ist länger als " + MAX_RECORD_LENGTH + " Zeichen.");
+            }
+            if (c == -1) {
+                fields.add(field.toString());
+                return fields;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushedBack = next;
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private void skipByteOrderMark() throws IOException {
+        int first = read();
+        if (first != '\uFEFF') {
+            pushedBack = first;
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -1) {
+            int c = pushedBack;
+            pushedBack = -1;
+            return c;
+        }
+        if (!chars.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return chars.get();
+    }
+
+    // Füllt den Zeichenpuffer aus dem Kanal nach; liefert false am Dateiende
+    private boolean fill() throws IOException {
+        if (flushed) {
+            return false;
+        }
+        chars.clear();
+        while (chars.position() == 0) {
+            if (!endOfInput && channel.read(bytes) == -1) {
+                endOfInput = true;
+            }
+            bytes.flip();
+            decoder.decode(bytes, chars, endOfInput);
+            bytes.compact();
+            if (endOfInput) {
+                decoder.flush(chars);
+                flushed = true;
+                break;
+            }
+        }
+        chars.flip();
+        return chars.hasRemaining();
+    }
+}
@@ -0,0 +1,27 @@
+package myProject.service.importer;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Zwischenstand bzw. Ergebnis eines Imports.
+ *
+ * @param rowsRead  Anzahl der gelesenen Datensätze ohne Überschrift.
+ * @param saved     Anzahl der gespeicherten Transaktionen.
+ * @param failed    Anzahl der nicht importierten Datensätze.
+ * @param errors    Die ersten Fehlermeldungen mit Datensatznummer; weitere Fehler werden nur gezählt.
+ * @param elapsed   Die bisherige Laufzeit.
+ * @param finished  true, wenn der Import beendet ist.
+ * @param cancelled true, wenn der Import abgebrochen wurde.
+ */
+public record ImportProgress(long rowsRead, long saved, long failed, List<String> errors,
+                             Duration elapsed, boolean finished, boolean cancelled) {
+
+    /**
+     * @return Die bisher verarbeiteten Datensätze pro Sekunde.
+     */
+    public double rowsPerSecond() {
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+        return seconds > 0 ? rowsRead / seconds : 0.0;
+    }
+}
@@ -0,0 +1,303 @@
+package myProject.service.importer;
+
+import myProject.model.Account;
+import myProject.model.BatchResult;
+import myProject.model.Category;
+import myProject.model.Transaction;
+import myProject.service.CategoryService;
+import myProject.service.ServiceExecutor;
+import myProject.service.TransactionService;
+import myProject.util.LoggerUtils;
+import myProject.util.Money;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Der TransactionImporter liest Kontoauszüge im CSV-Format und speichert sie als Transaktionen eines Kontos.
+ * Die Verarbeitung läuft als Pipeline: {@link CsvReader} liest datensatzweise, die {@link CsvColumnMapping}
+ * bestimmt die Felder, jeder Datensatz wird auf eine Transaktion mit Konto und Kategorie abgebildet und
+ * blockweise über {@link TransactionService#addTransactions(java.util.Collection, int)} gespeichert.
+ * Es wird immer nur ein Block im Speicher gehalten. Jeder Block wird in einer Datenbanktransaktion
+ * festgeschrieben; ein Abbruch greift zwischen zwei Blöcken, sodass nie ein halber Block gespeichert wird.
+ */
+public class TransactionImporter {
+
+    private static final int DEFAULT_CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("H:mm[:ss]");
+    // Buchstaben in einem Betrag sind nur als ISO-4217-Währungscode erlaubt, z. B. "EUR" oder "USD"
+    private static final Set<String> CURRENCY_CODES = Currency.getAvailableCurrencies().stream()
+            .map(Currency::getCurrencyCode)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final TransactionService transactionService;
+    private final CategoryService categoryService;
+    private final int chunkSize;
+
+    // Konstruktor mit den benötigten Abhängigkeiten
+    public TransactionImporter(TransactionService transactionService, CategoryService categoryService) {
+        this(transactionService, categoryService, Integer.getInteger("smartfinance.transactions.batchSize", DEFAULT_CHUNK_SIZE));
+    }
+
+    /**
+     * @param transactionService Der Service zum Speichern der Transaktionen.
+     * @param categoryService    Der Service zum Auflösen der Kategorien.
+     * @param chunkSize          Die Anzahl der Transaktionen pro Block und Datenbanktransaktion.
+     */
+    public TransactionImporter(TransactionService transactionService, CategoryService categoryService, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Die Blockgröße muss positiv sein: " + chunkSize);
+        }
+        this.transactionService = transactionService;
+        this.categoryService = categoryService;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Importiert eine CSV-Datei in ein Konto.
+     *
+     * @param file       Die CSV-Datei.
+     * @param charset    Die Zeichenkodierung der Datei.
+     * @param account    Das Zielkonto.
+     * @param mapping    Die Abbildung der Spalten.
+     * @param onProgress Wird nach jedem gespeicherten Block und am Ende mit dem aktuellen Stand aufgerufen.
+     * @param cancelled  Wird vor jedem Block abgefragt; liefert es true, endet der Import ohne den offenen Block.
+     * @return Der Endstand des Imports.
+     * @throws IOException Wenn die Datei nicht gelesen werden kann.
+     */
+    public ImportProgress importCsv(Path file, Charset charset, Account account, CsvColumnMapping mapping,
+                                    Consumer<ImportProgress> onProgress, BooleanSupplier cancelled) throws IOException {
+        LoggerUtils.logInfo(TransactionImporter.class.getName(), "Starte Import von {0} in Konto: {1}", file, account.getName());
+        RowMapper rowMapper = new RowMapper(account, mapping, loadCategories(account.getUserId()));
+        Counters counters = new Counters(System.nanoTime());
+        List<Transaction> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkRecords = new ArrayList<>(chunkSize);
+
+        try (CsvReader reader = new CsvReader(file, charset, mapping.delimiter())) {
+            if (mapping.hasHeader()) {
+                reader.readRecord();
+            }
+            List<String> fields;
+            while ((fields = reader.readRecord()) != null) {
+                if (cancelled.getAsBoolean()) {
+                    return finish(counters, onProgress, true);
+                }
+                counters.rowsRead++;
+                try {
+                    chunk.add(rowMapper.map(fields));
+                    chunkRecords.add(reader.getRecordNumber());
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    counters.fail(reader.getRecordNumber(), e.getMessage());
+                }
+
+                if (chunk.size() == chunkSize) {
+                    if (cancelled.getAsBoolean()) {
+                        return finish(counters, onProgress, true);
+                    }
+                    writeChunk(chunk, chunkRecords, counters);
+                    onProgress.accept(counters.snapshot(false, false));
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                if (cancelled.getAsBoolean()) {
+                    return finish(counters, onProgress, true);
+                }
+                writeChunk(chunk, chunkRecords, counters);
+            }
+        }
+        return finish(counters, onProgress, false);
+    }
+
+    /**
+     * Importiert eine CSV-Datei asynchron über den ServiceExecutor.
+     *
+     * @param file       Die CSV-Datei.
+     * @param charset    Die Zeichenkodierung der Datei.
+     * @param account    Das Zielkonto.
+     * @param mapping    Die Abbildung der Spalten.
+     * @param onProgress Wird im Hintergrund-Thread mit dem aktuellen Stand aufgerufen.
+     * @param cancelled  Wird vor jedem Block abgefragt und bricht den Import ab.
+     * @return Future mit dem Endstand des Imports.
+     */
+    public CompletableFuture<ImportProgress> importCsvAsync(Path file, Charset charset, Account account, CsvColumnMapping mapping,
+                                                            Consumer<ImportProgress> onProgress, BooleanSupplier cancelled) {
+        return ServiceExecutor.supply(() -> importCsv(file, charset, account, mapping, onProgress, cancelled));
+    }
+
+    // Speichert einen Block in einer Datenbanktransaktion und leert ihn
+    private void writeChunk(List<Transaction> chunk, List<Long> chunkRecords, Counters counters) {
+        BatchResult result = transactionService.addTransactions(chunk, chunk.size());
+        counters.saved += result.saved();
+        for (BatchResult.Failure failure : result.failures()) {
+            counters.fail(chunkRecords.get(failure.index()), failure.message());
+        }
+        chunk.clear();
+        chunkRecords.clear();
+    }
+
+    private ImportProgress finish(Counters counters, Consumer<ImportProgress> onProgress, boolean cancelled) {
+        ImportProgress progress = counters.snapshot(true, cancelled);
+        LoggerUtils.logInfo(TransactionImporter.class.getName(), (cancelled ? "Import abgebrochen: " : "Import abgeschlossen: ")
+                + progress.saved() + " gespeichert, " + progress.failed() + " fehlgeschlagen, "
+                + String.format("%.0f", progress.rowsPerSecond()) + " Zeilen/s");
+        onProgress.accept(progress);
+        return progress;
+    }
+
+    // Kategorien des Benutzers nach kleingeschriebenem Namen
+    private Map<String, Category> loadCategories(String userId) {
+        Map<String, Category> categories = new HashMap<>();
+        for (Category category : categoryService.getAllCategoriesForUser(userId)) {
+            categories.put(category.getName().toLowerCase(Locale.ROOT), category);
+        }
+        return categories;
+    }
+
+    /**
+     * Bildet die Felder eines Datensatzes auf eine Transaktion ab.
+     */
+    private static final class RowMapper {
+        private final Account account;
+        private final CsvColumnMapping mapping;
+        private final Map<String, Category> categories;
+        private final Category fallbackCategory;
+        private final DateTimeFormatter dateFormat;
+
+        private RowMapper(Account account, CsvColumnMapping mapping, Map<String, Category> categories) {
+            this.account = account;
+            this.mapping = mapping;
+            this.categories = categories;
+            this.fallbackCategory = categories.get("no category");
+            this.dateFormat = DateTimeFormatter.ofPattern(mapping.datePattern());
+        }
+
+        private Transaction map(List<String> fields) {
+            LocalDate date = LocalDate.parse(required(fields, mapping.dateColumn(), "Datum"), dateFormat);
+            LocalTime time = mapping.timeColumn() >= 0 && !field(fields, mapping.timeColumn()).isEmpty()
+                    ? LocalTime.parse(field(fields, mapping.timeColumn()), TIME_FORMAT)
+                    : LocalTime.MIDNIGHT;
+            long amountCents = parseAmount(required(fields, mapping.amountColumn(), "Betrag"));
+
+            String type;
+            if (mapping.typeColumn() >= 0) {
+                type = required(fields, mapping.typeColumn(), "Typ").toLowerCase(Locale.ROOT);
+                if (!type.equals("income") && !type.equals("expense")) {
+                    throw new IllegalArgumentException("Unbekannter Typ: " + type);
+                }
+            } else {
+                type = amountCents < 0 ? "expense" : "income";
+            }
+
+            String description = mapping.descriptionColumn() >= 0 ? field(fields, mapping.descriptionColumn()) : "";
+            Category category = fallbackCategory;
+            if (mapping.categoryColumn() >= 0) {
+                category = categories.getOrDefault(field(fields, mapping.categoryColumn()).toLowerCase(Locale.ROOT), fallbackCategory);
+            }
+
+            return new Transaction(description, amountCents, type, null, account, category, Date.valueOf(date), Time.valueOf(time));
+        }
+
+        // Entfernt Währungszeichen, Währungscodes und Tausendertrennzeichen, z. B. "-1.234,56 €" oder "EUR 12.50",
+        // und liest den Betrag dezimal exakt in Cent ein. Andere Buchstaben wie in "12x34" oder "1e3" sind ungültig,
+        // ebenso Ziffern nach einer nachgestellten Währung wie in "12 EUR 34".
+        private long parseAmount(String value) {
+            char grouping = mapping.decimalSeparator() == ',' ? '.' : ',';
+            StringBuilder normalized = new StringBuilder(value.length());
+            boolean hasDigits = false;
+            boolean currencyAfterDigits = false;
+            int i = 0;
+            while (i < value.length()) {
+                char c = value.charAt(i);
+                if (Character.isLetter(c)) {
+                    int end = i;
+                    while (end < value.length() && Character.isLetter(value.charAt(end))) {
+                        end++;
+                    }
+                    if (!CURRENCY_CODES.contains(value.substring(i, end).toUpperCase(Locale.ROOT))) {
+                        throw new IllegalArgumentException("Ungültiger Betrag: " + value);
+                    }
+                    currencyAfterDigits |= hasDigits;
+                    i = end;
+                    continue;
+                }
+                if (Character.getType(c) == Character.CURRENCY_SYMBOL) {
+                    currencyAfterDigits |= hasDigits;
+                } else if (c == mapping.decimalSeparator() || Character.isDigit(c) || c == '-' || c == '+') {
+                    if (currencyAfterDigits) {
+                        throw new IllegalArgumentException("Ungültiger Betrag: " + value);
+                    }
+                    hasDigits |= Character.isDigit(c);
+                    normalized.append(c == mapping.decimalSeparator() ? '.' : c);
+                } else if (c != grouping && !Character.isWhitespace(c)) {
+                    throw new IllegalArgumentException("Ungültiger Betrag: " + value);
+                }
+                i++;
+            }
+            try {
+                return Money.parse(normalized.toString());
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw new IllegalArgumentException("Ungültiger Betrag: " + value, e);
+            }
+        }
+
+        private static String required(List<String> fields, int column, String name) {
+            String value = field(fields, column);
+            if (value.isEmpty()) {
+                throw new IllegalArgumentException("Spalte " + name + " fehlt oder ist leer.");
+            }
+            return value;
+        }
+
+        private static String field(List<String> fields, int column) {
+            return column >= 0 && column < fields.size() ? fields.get(column).trim() : "";
+        }
+    }
+
+    /**
+     * Laufende Zähler eines Imports; Fehlermeldungen werden nur bis {@link #MAX_REPORTED_ERRORS} gesammelt.
+     */
+    private static final class Counters {
+        private final long startNanos;
+        private final List<String> errors = new ArrayList<>();
+        private long rowsRead;
+        private long saved;
+        private long failed;
+
+        private Counters(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        private void fail(long recordNumber, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Datensatz " + recordNumber + ": " + message);
+            }
+        }
+
+        private ImportProgress snapshot(boolean finished, boolean cancelled) {
+            return new ImportProgress(rowsRead, saved, failed, List.copyOf(errors),
+                    Duration.ofNanos(System.nanoTime() - startNanos), finished, cancelled);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package myProject.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Gibt Log-Einträge über einen Hintergrund-Thread an einen java.util.logging-Logger weiter.
+ * Die Einträge werden in einem begrenzten Ringpuffer abgelegt; der aufrufende Thread blockiert nie auf Ein-/Ausgabe.
+ * Ist der Puffer voll, wird der Eintrag nicht übernommen; der Aufrufer entscheidet, ob er ihn synchron ausgibt oder
+ * über {@link #recordDropped()} als verworfen zählt. Die Anzahl verworfener Einträge wird nachträglich protokolliert.
+ */
+final class AsyncLogAppender {
+
+    private final Logger target;
+    private final ArrayBlockingQueue<LogRecord> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+    // Übernommene, aber noch nicht ausgegebene Einträge
+    private final AtomicLong pending = new AtomicLong();
+    private final Object idleLock = new Object();
+
+    /**
+     * Erstellt den Appender und startet den Hintergrund-Thread. Beim Beenden der JVM wird der Puffer geleert.
+     *
+     * @param target   Logger, an den die Einträge weitergegeben werden.
+     * @param capacity Maximale Anzahl gepufferter Einträge.
+     */
+    AsyncLogAppender(Logger target, int capacity) {
+        this.target = target;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+
+        Thread worker = new Thread(this::run, "smartfinance-log");
+        worker.setDaemon(true);
+        worker.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(TimeUnit.SECONDS.toMillis(2)), "smartfinance-log-flush"));
+    }
+
+    /**
+     * Legt einen Eintrag in den Puffer, ohne zu blockieren. Ein abgelehnter Eintrag wird nicht als verworfen gezählt.
+     *
+     * @param logRecord Der Eintrag.
+     * @return false, wenn der Puffer voll war und der Eintrag nicht übernommen wurde.
+     */
+    boolean append(LogRecord logRecord) {
+        pending.incrementAndGet();
+        if (buffer.offer(logRecord)) {
+            return true;
+        }
+        pending.decrementAndGet();
+        return false;
+    }
+
+    /**
+     * Zählt einen Eintrag, den der Aufrufer nach einem abgelehnten {@link #append(LogRecord)} verworfen hat.
+     */
+    void recordDropped() {
+        dropped.incrementAndGet();
+    }
+
+    /**
+     * Wartet, bis alle gepufferten Einträge ausgegeben wurden, höchstens aber die angegebene Zeit.
+     *
+     * @param timeoutMillis Maximale Wartezeit in Millisekunden.
+     */
+    void flush(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (idleLock) {
+            while (pending.get() > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return;
+                }
+                try {
+                    idleLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void run() {
+        while (true) {
+            LogRecord logRecord;
+            try {
+                logRecord = buffer.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                reportDropped();
+                target.log(logRecord);
+            } catch (RuntimeException e) {
+                // Ein fehlerhafter Handler darf den Log-Thread nicht beenden
+            } finally {
+                if (pending.decrementAndGet() == 0) {
+                    synchronized (idleLock) {
+                        idleLock.notifyAll();
+                    }
+                }
+            }
+        }
+    }
+
+    private void reportDropped() {
+        long count = dropped.getAndSet(0);
+        if (count > 0) {
+            LogRecord warning = new LogRecord(Level.WARNING, "{0} Log-Einträge wegen vollem Puffer verworfen.");
+            warning.setParameters(new Object[]{count});
+            warning.setSourceClassName(AsyncLogAppender.class.getName());
+            warning.setLoggerName(target.getName());
+            target.log(warning);
+        }
+    }
+}
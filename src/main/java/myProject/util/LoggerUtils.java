@@ -1,30 +1,91 @@
 package myProject.util;
 
+import java.util.function.Supplier;
 import java.util.logging.Level;
+import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 
 /**
  * Utility-Klasse für das Logging von Informationen und Fehlern.
  * Diese Klasse soll in verschiedenen Teilen des Projekts verwendet werden,
  * um konsistentes Logging zu gewährleisten.
+ * <p>
+ * Alle Methoden prüfen zuerst, ob die Stufe aktiv ist; ist INFO abgeschaltet, entstehen weder Strings noch Log-Einträge.
+ * Nachrichten können als {@link Supplier} oder mit Platzhaltern ({@code {0}}, {@code {1}}) übergeben werden, die erst bei
+ * der Ausgabe formatiert werden. Die Ausgabe erfolgt über einen {@link AsyncLogAppender} im Hintergrund;
+ * mit {@code -Dsmartfinance.log.async=false} wird synchron geloggt, die Puffergröße ist über
+ * {@code smartfinance.log.bufferSize} einstellbar.
  */
 public class LoggerUtils {
 
     // Statischer Logger, der in der gesamten Anwendung verwendet wird
     private static final Logger LOGGER = Logger.getLogger(LoggerUtils.class.getName());
 
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    // Hintergrund-Appender oder null, wenn synchron geloggt wird
+    private static final AsyncLogAppender APPENDER = Boolean.parseBoolean(System.getProperty("smartfinance.log.async", "true"))
+            ? new AsyncLogAppender(LOGGER, Integer.getInteger("smartfinance.log.bufferSize", DEFAULT_BUFFER_SIZE))
+            : null;
+
     // Privater Konstruktor, um die Instanziierung dieser Utility-Klasse zu verhindern
     private LoggerUtils() {
         // Privater Konstruktor zur Verhinderung der Instanziierung
     }
 
+    /**
+     * @return true, wenn Informationsmeldungen ausgegeben werden.
+     */
+    public static boolean isInfoEnabled() {
+        return LOGGER.isLoggable(Level.INFO);
+    }
+
     /**
      * Methode zum Loggen von allgemeinen Informationen.
      * @param className Der Name der Klasse, aus der die Log-Nachricht kommt
      * @param message Die Log-Nachricht
      */
     public static void logInfo(String className, String message) {
-        LOGGER.log(Level.INFO, "{0}: {1}", new Object[]{className, message});
+        if (isInfoEnabled()) {
+            publish(createRecord(Level.INFO, className, message, null, null));
+        }
+    }
+
+    /**
+     * Loggt eine Information, deren Text erst erzeugt wird, wenn INFO aktiv ist.
+     * @param className Der Name der Klasse, aus der die Log-Nachricht kommt
+     * @param message Liefert die Log-Nachricht
+     */
+    public static void logInfo(String className, Supplier<String> message) {
+        if (isInfoEnabled()) {
+            publish(createRecord(Level.INFO, className, message.get(), null, null));
+        }
+    }
+
+    /**
+     * Loggt eine Information mit einem Platzhalter {@code {0}}. Formatiert wird erst bei der Ausgabe im Hintergrund,
+     * das Argument sollte daher ein unveränderlicher Wert sein.
+     * @param className Der Name der Klasse, aus der die Log-Nachricht kommt
+     * @param pattern Die Log-Nachricht mit Platzhalter
+     * @param arg Wert für {@code {0}}
+     */
+    public static void logInfo(String className, String pattern, Object arg) {
+        if (isInfoEnabled()) {
+            publish(createRecord(Level.INFO, className, pattern, new Object[]{arg}, null));
+        }
+    }
+
+    /**
+     * Loggt eine Information mit den Platzhaltern {@code {0}} und {@code {1}}.
+     * @param className Der Name der Klasse, aus der die Log-Nachricht kommt
+     * @param pattern Die Log-Nachricht mit Platzhaltern
+     * @param arg0 Wert für {@code {0}}
+     * @param arg1 Wert für {@code {1}}
+     */
+    public static void logInfo(String className, String pattern, Object arg0, Object arg1) {
+        if (isInfoEnabled()) {
+            publish(createRecord(Level.INFO, className, pattern, new Object[]{arg0, arg1}, null));
+        }
     }
 
     /**
@@ -34,9 +95,51 @@ public class LoggerUtils {
      * @param e Die Ausnahme, die den Fehler verursacht hat
      */
     public static void logError(String className, String message, Exception e) {
-        LOGGER.log(Level.SEVERE, className + ": " + message, e);
+        if (LOGGER.isLoggable(Level.SEVERE)) {
+            LogRecord logRecord = createRecord(Level.SEVERE, className, message, null, e);
+            // Fehler werden nie verworfen: ist der Puffer voll, wird synchron geloggt
+            if (APPENDER == null || !APPENDER.append(logRecord)) {
+                LOGGER.log(logRecord);
+            }
+        }
+    }
+
+    /**
+     * Methode zum Loggen von Fehlern ohne Ausnahme.
+     * @param className Der Name der Klasse, aus der der Fehler kommt
+     * @param message Die Fehlermeldung
+     */
+    public static void logError(String className, String message) {
+        logError(className, message, null);
+    }
+
+    /**
+     * Wartet, bis alle gepufferten Einträge ausgegeben wurden, z. B. vor dem Beenden eines Kommandozeilenprogramms.
+     * @param timeoutMillis Maximale Wartezeit in Millisekunden
+     */
+    public static void flush(long timeoutMillis) {
+        if (APPENDER != null) {
+            APPENDER.flush(timeoutMillis);
+        }
+    }
+
+    // Die Quellklasse wird gesetzt, damit java.util.logging sie nicht teuer über den Stack ermitteln muss
+    private static LogRecord createRecord(Level level, String className, String message, Object[] parameters, Throwable thrown) {
+        LogRecord logRecord = new LogRecord(level, message);
+        logRecord.setLoggerName(LOGGER.getName());
+        logRecord.setSourceClassName(className);
+        logRecord.setSourceMethodName(null);
+        logRecord.setParameters(parameters);
+        logRecord.setThrown(thrown);
+        return logRecord;
     }
 
-    public static void logError(String name, String s) {
+    private static void publish(LogRecord logRecord) {
+        if (APPENDER == null) {
+            LOGGER.log(logRecord);
+        } else if (!APPENDER.append(logRecord)) {
+            // Informationen werden bei vollem Puffer verworfen, Fehler dagegen synchron geloggt und nicht gezählt
+            APPENDER.recordDropped();
+        }
     }
 }
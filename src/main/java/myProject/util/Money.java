@@ -0,0 +1,127 @@
+package myProject.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Rechenfunktionen für Geldbeträge in Cent. Beträge werden in der gesamten Anwendung als {@code long}
+ * gehalten und in der Datenbank als {@code BIGINT} gespeichert; Summen sind dadurch exakt und ohne Boxing.
+ * Umrechnungen in {@code double} finden nur an der Oberfläche statt, z. B. für Eingabefelder und Diagramme.
+ * <p>
+ * Die Summenfunktionen verwenden einfache Schleifen über primitive Werte, die der JIT-Compiler vektorisieren kann.
+ * Ein Überlauf wird nicht geprüft; er tritt erst ab etwa 92 Billiarden Euro auf.
+ */
+public final class Money {
+
+    /**
+     * Anzahl der Cent pro Währungseinheit.
+     */
+    public static final long CENTS_PER_UNIT = 100;
+
+    private Money() {
+    }
+
+    /**
+     * Rechnet einen Betrag aus der Oberfläche in Cent um. Gerundet wird kaufmännisch anhand der
+     * kürzesten Dezimaldarstellung, sodass z. B. {@code 1.005} zu 101 Cent wird.
+     *
+     * @param amount Betrag in Währungseinheiten.
+     * @return Betrag in Cent.
+     */
+    public static long ofDouble(double amount) {
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Liest einen Betrag aus einem Text, mit Punkt oder Komma als Dezimaltrennzeichen.
+     *
+     * @param text Betrag in Währungseinheiten, z. B. {@code 12,50}.
+     * @return Betrag in Cent.
+     * @throws NumberFormatException Wenn der Text keine Zahl ist.
+     */
+    public static long parse(String text) {
+        return new BigDecimal(text.trim().replace(',', '.')).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Rechnet einen Betrag in Cent für Anzeige und Diagramme in Währungseinheiten um.
+     *
+     * @param cents Betrag in Cent.
+     * @return Betrag in Währungseinheiten.
+     */
+    public static double toDouble(long cents) {
+        return cents / (double) CENTS_PER_UNIT;
+    }
+
+    /**
+     * Formatiert einen Betrag mit zwei Nachkommastellen, ohne Umweg über {@code double}.
+     *
+     * @param cents Betrag in Cent.
+     * @return Text wie {@code -12.05}.
+     */
+    public static String format(long cents) {
+        long abs = Math.abs(cents);
+        long fraction = abs % CENTS_PER_UNIT;
+        return (cents < 0 ? "-" : "") + abs / CENTS_PER_UNIT + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    /**
+     * Summiert Beträge.
+     *
+     * @param cents Beträge in Cent.
+     * @return Die Summe.
+     */
+    public static long sum(long[] cents) {
+        return sum(cents, 0, cents.length);
+    }
+
+    /**
+     * Summiert einen Ausschnitt eines Arrays.
+     *
+     * @param cents Beträge in Cent.
+     * @param from  Erster Index (einschließlich).
+     * @param to    Letzter Index (ausschließlich).
+     * @return Die Summe.
+     */
+    public static long sum(long[] cents, int from, int to) {
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            total += cents[i];
+        }
+        return total;
+    }
+
+    /**
+     * Summiert die Beträge einer Liste, ohne Streams oder Wrapper-Objekte anzulegen.
+     *
+     * @param items Die Elemente.
+     * @param cents Liefert den Betrag eines Elements in Cent.
+     * @param <T>   Typ der Elemente.
+     * @return Die Summe.
+     */
+    public static <T> long sum(List<? extends T> items, ToLongFunction<? super T> cents) {
+        long total = 0;
+        for (int i = 0, n = items.size(); i < n; i++) {
+            total += cents.applyAsLong(items.get(i));
+        }
+        return total;
+    }
+
+    /**
+     * Summiert die Beträge einer Liste als Absolutwerte, z. B. Ausgaben mit negativem Vorzeichen.
+     *
+     * @param items Die Elemente.
+     * @param cents Liefert den Betrag eines Elements in Cent.
+     * @param <T>   Typ der Elemente.
+     * @return Die Summe der Absolutwerte.
+     */
+    public static <T> long sumAbs(List<? extends T> items, ToLongFunction<? super T> cents) {
+        long total = 0;
+        for (int i = 0, n = items.size(); i < n; i++) {
+            total += Math.abs(cents.applyAsLong(items.get(i)));
+        }
+        return total;
+    }
+}
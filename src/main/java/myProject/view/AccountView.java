@@ -7,10 +7,11 @@ import javafx.scene.layout.*;
 import myProject.controller.AccountController;
 import myProject.controller.TransactionController;
 import myProject.model.Account;
-import myProject.model.Transaction;
 import myProject.view.detail.AccountDetailView;
+import myProject.view.util.AsyncLoader;
 import myProject.view.util.ViewUtils;
 import myProject.util.LoggerUtils;
+import myProject.util.Money;
 
 import java.sql.SQLException;
 import java.util.List;
@@ -27,6 +28,9 @@ public class AccountView {
     private Button createAccountButton;
     private Label overallBalanceLabel;
     private BorderPane root;
+    private final AsyncLoader<Double> overallBalanceLoader = new AsyncLoader<>();
+    private final AsyncLoader<List<Account>> accountsLoader = new AsyncLoader<>();
+    private final AsyncLoader<AccountController.CreateResult> createAccountLoader = new AsyncLoader<>();
 
     /**
      * Konstruktor, um die notwendigen Controller zu initialisieren.
@@ -96,7 +100,7 @@ public class AccountView {
             root.setCenter(mainLayout);
 
             System.out.println("AccountView.loadIntoPane: AccountView loaded successfully.");
-        } catch (SQLException e) {
+        } catch (RuntimeException e) {
             LoggerUtils.logError(AccountView.class.getName(), "Error while loading AccountView", e);
             throw e;
         }
@@ -105,47 +109,32 @@ public class AccountView {
 
 
     /**
-     * Aktualisiert die Gesamtbilanz des Benutzers basierend auf abgeschlossenen Transaktionen.
-     *
-     * @throws SQLException bei einem Fehler beim Berechnen der Bilanz.
+     * Aktualisiert die Gesamtbilanz des Benutzers anhand der gespeicherten Kontostände.
+     * Die Bilanz wird im Hintergrund geladen und nach Abschluss im Label angezeigt.
      */
-    private void updateOverallBalance() throws SQLException {
-        try {
-            double totalBalance = accountController.getAllAccountsForUser(currentUserId)
-                    .stream()
-                    .mapToDouble(account -> {
-                        try {
-                            return accountController.calculateUpdatedBalanceForCompletedTransactions(account);
-                        } catch (SQLException e) {
-                            LoggerUtils.logError(AccountView.class.getName(), "Error while calculating balance for account: " + account.getName(), e);
-                            throw new RuntimeException(e);
-                        }
-                    })
-                    .sum();
-
-            overallBalanceLabel.setText("Total Balance: $" + String.format("%.2f", totalBalance));
-        } catch (SQLException e) {
-            LoggerUtils.logError(AccountView.class.getName(), "Error while updating overall balance for user: " + currentUserId, e);
-            throw e;
-        }
+    private void updateOverallBalance() {
+        overallBalanceLoader.load(accountController.getOverallBalanceForUserAsync(currentUserId),
+                totalBalance -> overallBalanceLabel.setText("Total Balance: $" + String.format("%.2f", totalBalance)),
+                e -> LoggerUtils.logError(AccountView.class.getName(), "Error while updating overall balance for user: " + currentUserId, e));
     }
 
     /**
      * Zeigt alle Konten des Benutzers in einem Grid-Layout an.
+     * Das Grid wird sofort eingefügt und gefüllt, sobald die Konten im Hintergrund geladen wurden.
      *
      * @param accountsLayout Das Layout, in dem die Konten angezeigt werden sollen.
-     * @throws SQLException bei einem Fehler beim Abrufen der Konten.
      */
-    private void showAccounts(VBox accountsLayout) throws SQLException {
-        try {
-            GridPane gridPane = new GridPane();
-            gridPane.setPadding(new Insets(20));
-            gridPane.setHgap(20);
-            gridPane.setVgap(20);
-            gridPane.setAlignment(Pos.CENTER);
+    private void showAccounts(VBox accountsLayout) {
+        GridPane gridPane = new GridPane();
+        gridPane.setPadding(new Insets(20));
+        gridPane.setHgap(20);
+        gridPane.setVgap(20);
+        gridPane.setAlignment(Pos.CENTER);
 
-            List<Account> accounts = accountController.getAllAccountsForUser(currentUserId);
+        // Füge das GridPane zum Layout hinzu
+        accountsLayout.getChildren().add(gridPane);
 
+        accountsLoader.load(accountController.getAllAccountsForUserAsync(currentUserId), accounts -> {
             int row = 0, col = 0;
             for (Account account : accounts) {
                 HBox accountCard = createAccountCard(account);
@@ -157,13 +146,10 @@ public class AccountView {
                     row++;
                 }
             }
-
-            // Füge das GridPane zum Layout hinzu
-            accountsLayout.getChildren().add(gridPane);
-        } catch (SQLException e) {
+        }, e -> {
             LoggerUtils.logError(AccountView.class.getName(), "Error while displaying accounts for user: " + currentUserId, e);
-            throw e;
-        }
+            ViewUtils.showAlert(Alert.AlertType.ERROR, "Failed to load accounts. Please try again.");
+        });
     }
 
     /**
@@ -221,61 +207,43 @@ public class AccountView {
      * @param formContainer Das Formularcontainer, das entfernt werden soll, wenn das Konto erstellt wurde.
      */
     private void handleSaveButtonClick(VBox accountsLayout, TextField accountNameField, TextField balanceField, VBox formContainer) {
+        String accountName = accountNameField.getText();
+        long initialBalanceCents;
         try {
-            String accountName = accountNameField.getText();
-            double initialBalance = Double.parseDouble(balanceField.getText());
-
-            // Überprüfen, ob ein Konto mit demselben Namen bereits existiert
-            if (accountController.doesAccountExist(currentUserId, accountName)) {
-                ViewUtils.showAlert(Alert.AlertType.ERROR, "Account name already exists. Please chose a different name.");
-                return;
-            }
-
-            // Versuch, ein neues Konto hinzuzufügen
-            boolean success = accountController.addAccount(currentUserId, accountName, 0.0);
-            if (success) {
-                // Lade das neu erstellte Konto
-                Account createdAccount = accountController.findAccountByName(currentUserId, accountName);
-
-                // Erstelle eine Transaktion für den Startbetrag, nur wenn initialBalance != 0
-                if (initialBalance != 0.0) {
-                    Transaction initialTransaction = new Transaction(
-                            "Initial Balance",
-                            initialBalance,
-                            initialBalance >= 0 ? "income" : "expense",
-                            null,
-                            createdAccount,
-                            null,
-                            new java.sql.Date(System.currentTimeMillis()),
-                            new java.sql.Time(System.currentTimeMillis())
-                    );
-
-                    // Speichern der Transaktion
-                    transactionController.createTransaction(initialTransaction);
-                    System.out.println("AccountView.handleSaveButtonClick: Erste Transaktion abgeschlossen. - " + accountName + " " + initialTransaction);
-                }
-
-                // Aktualisiere die Kontenübersicht und Gesamtbilanz
-                updateOverallBalance();
-                refreshAccountList(accountsLayout);
-
-                createAccountButton.setVisible(true);
-            } else {
-                ViewUtils.showAlert(Alert.AlertType.ERROR, "Account konnte nicht erzeugt werden. Versuche es erneut.");
-            }
+            initialBalanceCents = Money.parse(balanceField.getText());
         } catch (NumberFormatException ex) {
             // Logge Fehler bei ungültigem Betrag
             LoggerUtils.logError(AccountView.class.getName(), "Falsches Format: " + balanceField.getText(), ex);
             ViewUtils.showAlert(Alert.AlertType.ERROR, "Invalid balance. Please enter a valid number.");
-        } catch (SQLException e) {
+            closeCreateAccountForm(accountsLayout, formContainer);
+            return;
+        }
+
+        // Prüfen, Anlegen und Buchen des Startbetrags laufen im Hintergrund
+        formContainer.setDisable(true);
+        createAccountLoader.load(accountController.createAccountAsync(currentUserId, accountName, initialBalanceCents), result -> {
+            closeCreateAccountForm(accountsLayout, formContainer);
+            switch (result) {
+                case NAME_TAKEN -> ViewUtils.showAlert(Alert.AlertType.ERROR, "Account name already exists. Please chose a different name.");
+                case FAILED -> ViewUtils.showAlert(Alert.AlertType.ERROR, "Account konnte nicht erzeugt werden. Versuche es erneut.");
+                case CREATED -> {
+                    // Aktualisiere die Kontenübersicht und Gesamtbilanz
+                    LoggerUtils.logInfo(AccountView.class.getName(), "Konto angelegt: {0}", accountName);
+                    refreshAccountList(accountsLayout);
+                }
+            }
+        }, e -> {
             // Logge Fehler beim Speichern des Kontos
             LoggerUtils.logError(AccountView.class.getName(), "Error while saving new account for user: " + currentUserId, e);
             ViewUtils.showAlert(Alert.AlertType.ERROR, "Failed to save account. Please try again.");
-        } finally {
-            // Entferne das Formular nach der Verarbeitung
-            accountsLayout.getChildren().remove(formContainer);
-            createAccountButton.setVisible(true);
-        }
+            closeCreateAccountForm(accountsLayout, formContainer);
+        });
+    }
+
+    // Entfernt das Formular nach der Verarbeitung
+    private void closeCreateAccountForm(VBox accountsLayout, VBox formContainer) {
+        accountsLayout.getChildren().remove(formContainer);
+        createAccountButton.setVisible(true);
     }
 
 
@@ -283,66 +251,53 @@ public class AccountView {
      * Aktualisiert die Kontenliste und fügt den "Add Account"-Button erneut hinzu.
      *
      * @param accountsLayout Das Layout, in dem die Konten angezeigt werden.
-     * @throws SQLException bei einem Fehler beim Abrufen der Konten.
      */
-    private void refreshAccountList(VBox accountsLayout) throws SQLException {
-        try {
-            accountsLayout.getChildren().clear();
-            showAccounts(accountsLayout);
-            accountsLayout.getChildren().add(createAccountButton);
-            updateOverallBalance();
-        } catch (SQLException e) {
-            // Logge Fehler beim Aktualisieren der Kontenliste
-            LoggerUtils.logError(AccountView.class.getName(), "Fehler beim erneuern des Accountliste für user: " + currentUserId, e);
-            throw e;
-        }
+    private void refreshAccountList(VBox accountsLayout) {
+        accountsLayout.getChildren().clear();
+        showAccounts(accountsLayout);
+        accountsLayout.getChildren().add(createAccountButton);
+        updateOverallBalance();
     }
 
     /**
      * Erstellt eine visuelle Darstellung (Card) für ein Konto.
+     * Der angezeigte Kontostand ist der beim Laden der Konten gelesene gespeicherte Kontostand.
      *
      * @param account Das Konto, das angezeigt werden soll.
      * @return Eine HBox, die das Konto darstellt.
-     * @throws SQLException bei einem Fehler beim Berechnen der Kontobilanz.
      */
-    private HBox createAccountCard(Account account) throws SQLException {
-        try {
-            HBox card = new HBox();
-            card.getStyleClass().add("account-card");
-            card.setPadding(new Insets(20));
-            card.setAlignment(Pos.CENTER);
-            card.setSpacing(10);
-            card.setMaxWidth(Double.MAX_VALUE);
+    private HBox createAccountCard(Account account) {
+        HBox card = new HBox();
+        card.getStyleClass().add("account-card");
+        card.setPadding(new Insets(20));
+        card.setAlignment(Pos.CENTER);
+        card.setSpacing(10);
+        card.setMaxWidth(Double.MAX_VALUE);
 
-            HBox.setHgrow(card, Priority.ALWAYS);
+        HBox.setHgrow(card, Priority.ALWAYS);
 
-            Label nameLabel = new Label(account.getName());
-            nameLabel.setStyle("-fx-font-size: 20px; -fx-text-fill: #f8f8f2;");
+        Label nameLabel = new Label(account.getName());
+        nameLabel.setStyle("-fx-font-size: 20px; -fx-text-fill: #f8f8f2;");
 
-            // Berechne die aktualisierte Bilanz basierend auf abgeschlossenen Transaktionen
-            double updatedBalance = accountController.calculateUpdatedBalanceForCompletedTransactions(account);
+        // Die gespeicherte Bilanz wurde mit dem Konto geladen
+        double updatedBalance = account.getBalance();
 
-            // Zeige die aktualisierte Bilanz in der AccountCard an
-            Label balanceLabel = new Label(String.format("%.2f", updatedBalance));
-            balanceLabel.setStyle("-fx-font-size: 18px; -fx-text-fill: #8be9fd;");
+        // Zeige die aktualisierte Bilanz in der AccountCard an
+        Label balanceLabel = new Label(String.format("%.2f", updatedBalance));
+        balanceLabel.setStyle("-fx-font-size: 18px; -fx-text-fill: #8be9fd;");
 
-            VBox cardContent = new VBox(10);
-            cardContent.setAlignment(Pos.CENTER);
-            cardContent.getChildren().addAll(nameLabel, balanceLabel);
+        VBox cardContent = new VBox(10);
+        cardContent.setAlignment(Pos.CENTER);
+        cardContent.getChildren().addAll(nameLabel, balanceLabel);
 
-            card.getChildren().add(cardContent);
+        card.getChildren().add(cardContent);
 
-            // Öffne die Detailansicht des Kontos, wenn darauf geklickt wird
-            card.setOnMouseClicked(e -> {
-                AccountDetailView accountDetailView = new AccountDetailView(accountController, transactionController, root);
-                accountDetailView.showAccountDetailView(account);
-            });
+        // Öffne die Detailansicht des Kontos, wenn darauf geklickt wird
+        card.setOnMouseClicked(e -> {
+            AccountDetailView accountDetailView = new AccountDetailView(accountController, transactionController, root);
+            accountDetailView.showAccountDetailView(account);
+        });
 
-            return card;
-        } catch (SQLException e) {
-            // Logge Fehler beim Erstellen der Kontoübersicht
-            LoggerUtils.logError(AccountView.class.getName(), "Fehler beim kreieren des accounts: " + account.getName(), e);
-            throw e;
-        }
+        return card;
     }
 }
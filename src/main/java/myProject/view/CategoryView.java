@@ -10,8 +10,10 @@ import myProject.controller.AccountController;
 import myProject.controller.CategoryController;
 import myProject.controller.TransactionController;
 import myProject.model.Account;
+import myProject.model.BudgetStatus;
 import myProject.model.Category;
 import myProject.view.detail.CategoryDetailView;
+import myProject.view.util.AsyncLoader;
 import myProject.view.util.ViewUtils;
 import myProject.util.LoggerUtils;
 
@@ -19,8 +21,9 @@ import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
-import static myProject.view.util.ViewUtils.getCategoryBudget;
+import static myProject.view.util.ViewUtils.getCategoryBudgetCents;
 
 /**
  * Die CategoryView-Klasse ist verantwortlich für die Verwaltung und Anzeige von Kategorien,
@@ -36,6 +39,10 @@ public class CategoryView {
     private BorderPane root;
     private Label overallBalanceLabel;
     private Button createCategoryButton;
+    private final AsyncLoader<Double> overallBalanceLoader = new AsyncLoader<>();
+    private final AsyncLoader<List<Account>> accountsLoader = new AsyncLoader<>();
+    private final AsyncLoader<List<BudgetStatus>> categoriesLoader = new AsyncLoader<>();
+    private final AsyncLoader<Void> saveLoader = new AsyncLoader<>();
 
     /**
      * Konstruktor zur Initialisierung der View mit den notwendigen Abhängigkeiten.
@@ -95,11 +102,11 @@ public class CategoryView {
 
     /**
      * Erstellt das Summary-Layout zur Anzeige der Gesamtbilanz und einzelner Kontenbilanzen.
+     * Die Bilanzen werden im Hintergrund geladen und nach Abschluss eingefügt.
      *
      * @return Das erstellte VBox-Layout.
-     * @throws SQLException Wenn ein Fehler beim Abrufen der Kontodaten auftritt.
      */
-    private VBox createSummaryLayout() throws SQLException {
+    private VBox createSummaryLayout() {
         VBox summaryLayout = new VBox(10);
         summaryLayout.setAlignment(Pos.CENTER);
 
@@ -110,30 +117,32 @@ public class CategoryView {
         summaryLayout.getChildren().add(overallBalanceLabel);
 
         // Einzelne Kontenbilanzen anzeigen
-        List<Account> accounts = accountController.getAllAccountsForUser(currentUserId);
-        for (Account account : accounts) {
-            Label accountBalanceLabel = new Label(account.getName() + ": $" + String.format("%.2f", account.getBalance()));
-            accountBalanceLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: #dd7a42;");
-            summaryLayout.getChildren().add(accountBalanceLabel);
-        }
+        accountsLoader.load(accountController.getAllAccountsForUserAsync(currentUserId), accounts -> {
+            for (Account account : accounts) {
+                Label accountBalanceLabel = new Label(account.getName() + ": $" + String.format("%.2f", account.getBalance()));
+                accountBalanceLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: #dd7a42;");
+                summaryLayout.getChildren().add(accountBalanceLabel);
+            }
+        }, e -> LoggerUtils.logError(CategoryView.class.getName(), "Fehler beim Laden der Kontenbilanzen für Benutzer: " + currentUserId, e));
 
         return summaryLayout;
     }
 
     /**
-     * Aktualisiert die Gesamtbilanz für den aktuellen Benutzer.
-     *
-     * @throws SQLException Wenn ein Fehler beim Abrufen der Bilanz auftritt.
+     * Aktualisiert die Gesamtbilanz für den aktuellen Benutzer im Hintergrund.
      */
-    private void updateOverallBalance() throws SQLException {
-        double totalBalance = accountController.getOverallBalanceForUser(currentUserId);
-        overallBalanceLabel.setText("Total Balance: $" + String.format("%.2f", totalBalance));
-        LoggerUtils.logInfo(CategoryView.class.getName(), "Gesamtbilanz aktualisiert: " + totalBalance);
+    private void updateOverallBalance() {
+        overallBalanceLoader.load(accountController.getOverallBalanceForUserAsync(currentUserId), totalBalance -> {
+            overallBalanceLabel.setText("Total Balance: $" + String.format("%.2f", totalBalance));
+            LoggerUtils.logInfo(CategoryView.class.getName(), "Gesamtbilanz aktualisiert: {0}", totalBalance);
+        }, e -> LoggerUtils.logError(CategoryView.class.getName(), "Fehler beim Aktualisieren der Gesamtbilanz für Benutzer: " + currentUserId, e));
     }
 
     /**
      * Zeigt alle Kategorien (Standard- und benutzerdefinierte) in einem Grid-Layout an.
-     * Fortschritte werden für den aktuellen Monat berechnet.
+     * Fortschritte werden für den aktuellen Monat berechnet. Kategorien und Ausgaben werden
+     * mit einer gemeinsamen Budgetauswertung im Hintergrund geladen und die Karten anschließend
+     * auf dem JavaFX Application Thread erstellt.
      */
     private void showCategoriesForCurrentMonth() {
         GridPane gridPane = new GridPane();
@@ -141,36 +150,46 @@ public class CategoryView {
         gridPane.setHgap(20);
         gridPane.setVgap(20);
         gridPane.setAlignment(Pos.CENTER);
-
-        List<Category> categories = categoryController.getAllCategoriesForUser(currentUserId)
-                .stream()
-                .filter(category -> !category.getId().equals("no_category_id"))
-                .toList();
+        mainLayout.getChildren().add(gridPane);
 
         LocalDate startOfMonth = YearMonth.now().atDay(1);
         LocalDate endOfMonth = YearMonth.now().atEndOfMonth();
 
-        int row = 0, col = 0;
-        for (Category category : categories) {
-            VBox categoryCard = createCategoryCard(category, startOfMonth, endOfMonth); // Always use current month
-            gridPane.add(categoryCard, col, row);
-
-            col++;
-            if (col == 3) {
-                col = 0;
-                row++;
+        // Always use current month; der Render-Durchlauf bleibt bis zum Abschluss der Abfrage offen,
+        // damit gleichzeitige Ansichten (z. B. eine geöffnete Detailansicht) das Ergebnis mitnutzen
+        CategoryController.RenderPass renderPass = categoryController.openRenderPass();
+        CompletableFuture<List<BudgetStatus>> statuses = categoryController.evaluateBudgetsAsync(currentUserId, startOfMonth, endOfMonth);
+        statuses.whenComplete((result, error) -> renderPass.close());
+
+        categoriesLoader.load(statuses, loadedStatuses -> {
+            int row = 0, col = 0;
+            for (BudgetStatus status : loadedStatuses) {
+                if (status.category().getId().equals("no_category_id")) {
+                    continue;
+                }
+                VBox categoryCard = createCategoryCard(status);
+                gridPane.add(categoryCard, col, row);
+
+                col++;
+                if (col == 3) {
+                    col = 0;
+                    row++;
+                }
             }
-        }
-        mainLayout.getChildren().add(gridPane);
+        }, e -> {
+            LoggerUtils.logError(CategoryView.class.getName(), "Fehler beim Laden der Kategorien für Benutzer: " + currentUserId, e);
+            ViewUtils.showAlert(Alert.AlertType.ERROR, "Failed to load categories. Please try again.");
+        });
     }
 
     /**
      * Erstellt eine Kategorie-Karte mit Details wie Budget und Ausgaben.
      *
-     * @param category Die Kategorie, für die die Karte erstellt wird.
+     * @param status Der Budgetstatus der Kategorie im aktuellen Monat.
      * @return Das erstellte VBox-Layout für die Kategorie-Karte.
      */
-    private VBox createCategoryCard(Category category, LocalDate startDate, LocalDate endDate) {
+    private VBox createCategoryCard(BudgetStatus status) {
+        Category category = status.category();
         VBox card = new VBox(10);
         card.setPadding(new Insets(20));
         card.setAlignment(Pos.CENTER);
@@ -187,8 +206,7 @@ public class CategoryView {
             card.getChildren().add(budgetLabel);
 
 
-            double spent = Math.abs(categoryController.getCategoryBudgetProgress(currentUserId, startDate, endDate)
-                    .getOrDefault(category, 0.0));
+            double spent = status.spent();
 
             Label spentLabel = new Label("$" + spent + " Spent");
             spentLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #ff79c6;");
@@ -240,7 +258,7 @@ public class CategoryView {
         CategoryDetailView categoryDetailView = new CategoryDetailView(categoryController, transactionController, accountController, currentUserId, root);
         categoryDetailView.showCategoryDetailView(category);
 
-        LoggerUtils.logInfo(CategoryView.class.getName(), "Detailansicht für Kategorie angezeigt: " + category.getName());
+        LoggerUtils.logInfo(CategoryView.class.getName(), "Detailansicht für Kategorie angezeigt: {0}", category.getName());
     }
 
     /**
@@ -290,19 +308,25 @@ public class CategoryView {
         Button submitButton = new Button("Create");
         submitButton.setOnAction(e -> {
             String categoryName = nameField.getText();
-            Double categoryBudget = getCategoryBudget(budgetField);
-
-            Category newCategory = new Category(null, categoryName, categoryBudget);
-            categoryController.addCategory(newCategory, currentUserId);
-            LoggerUtils.logInfo(CategoryView.class.getName(), "Neue Kategorie erstellt: " + categoryName);
-
-            mainLayout.getChildren().clear();
-            try {
-                loadIntoPane(this.root);
-            } catch (SQLException ex) {
-                LoggerUtils.logError(CategoryView.class.getName(), "Fehler beim Neuladen der CategoryView nach dem Erstellen der Kategorie", ex);
-                throw new RuntimeException(ex);
-            }
+            Long categoryBudgetCents = getCategoryBudgetCents(budgetField);
+
+            Category newCategory = new Category(null, categoryName, categoryBudgetCents);
+            submitButton.setDisable(true);
+            saveLoader.load(categoryController.addCategoryAsync(newCategory, currentUserId), ignored -> {
+                LoggerUtils.logInfo(CategoryView.class.getName(), "Neue Kategorie erstellt: {0}", categoryName);
+
+                mainLayout.getChildren().clear();
+                try {
+                    loadIntoPane(this.root);
+                } catch (SQLException ex) {
+                    LoggerUtils.logError(CategoryView.class.getName(), "Fehler beim Neuladen der CategoryView nach dem Erstellen der Kategorie", ex);
+                    throw new RuntimeException(ex);
+                }
+            }, ex -> {
+                submitButton.setDisable(false);
+                LoggerUtils.logError(CategoryView.class.getName(), "Fehler beim Erstellen der Kategorie", ex);
+                ViewUtils.showAlert(Alert.AlertType.ERROR, "Failed to save category. Please try again.");
+            });
         });
 
         return submitButton;
@@ -55,7 +55,7 @@ public class MainView {
      * @throws SQLException Wenn ein Fehler bei der Anzeige der Ansichten auftritt.
      */
     public void start(Stage primaryStage, String loggedInUserId, String loggedInUsername) throws SQLException {
-        LoggerUtils.logInfo(MainView.class.getName(), "Starten der MainView für Benutzer: " + loggedInUsername + " mit UserID: " + loggedInUserId);
+        LoggerUtils.logInfo(MainView.class.getName(), "Starten der MainView für Benutzer: {0} mit UserID: {1}", loggedInUsername, loggedInUserId);
 
         // Navigation und Standardansicht einrichten
         setupNavigationBar();
@@ -154,7 +154,7 @@ public class MainView {
      * Zeigt die ReportView an.
      */
     private void showReportView() {
-        LoggerUtils.logInfo(MainView.class.getName(), "ReportView wird angezeigt für Benutzer-ID: " + loggedInUserId);
+        LoggerUtils.logInfo(MainView.class.getName(), "ReportView wird angezeigt für Benutzer-ID: {0}", loggedInUserId);
 
         ReportView reportView = new ReportView(reportController, loggedInUserId);
         reportView.loadIntoPane(root);
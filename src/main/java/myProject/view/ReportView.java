@@ -7,12 +7,16 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import myProject.controller.ReportController;
 import myProject.model.Account;
+import myProject.model.BudgetStatus;
 import myProject.model.Category;
+import myProject.service.ReportSession;
 import myProject.util.LoggerUtils; 
+import myProject.view.util.AsyncLoader;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Die ReportView-Klasse stellt die Benutzeroberfläche für den Finanzberichtsbereich dar.
@@ -22,11 +26,13 @@ public class ReportView {
 
     private final String loggedInUserId;
     private final ReportController reportController;
+    private final ReportSession reportSession;
     private DatePicker startDatePicker;
     private DatePicker endDatePicker;
     private BarChart<String, Number> transactionBarChart;
     private PieChart categorySpendingChart;
     private VBox dashboardInfo;
+    private final AsyncLoader<ReportData> reportLoader = new AsyncLoader<>();
 
     /**
      * Konstruktor für die ReportView.
@@ -37,6 +43,7 @@ public class ReportView {
     public ReportView(ReportController reportController, String loggedInUserId) {
         this.reportController = reportController;
         this.loggedInUserId = loggedInUserId;
+        this.reportSession = reportController.openReportSession(loggedInUserId);
     }
 
     /**
@@ -108,6 +115,10 @@ public class ReportView {
         // Bind the button click to applyFilters
         applyFilterButton.setOnAction(e -> applyFilters());
 
+        // Beim Verschieben eines Datums wird nur die Differenz zum vorherigen Zeitraum nachgeladen
+        startDatePicker.valueProperty().addListener((observable, oldValue, newValue) -> applyFilters());
+        endDatePicker.valueProperty().addListener((observable, oldValue, newValue) -> applyFilters());
+
         HBox filterBox = new HBox(10, new Label("Start Date:"), startDatePicker, new Label("End Date:"), endDatePicker, applyFilterButton);
         filterBox.getStyleClass().add("filter-box");
         filterBox.setAlignment(Pos.CENTER);
@@ -164,26 +175,42 @@ public class ReportView {
 
     /**
      * Wendet die ausgewählten Filter an und aktualisiert die Ansicht.
+     * Alle Berichtsdaten werden parallel im Hintergrund geladen; eine noch laufende Anfrage
+     * für einen vorherigen Filter wird dabei verworfen. Die zeitraumabhängigen Daten kommen aus der
+     * Berichtssitzung, die nur die gegenüber dem vorherigen Zeitraum hinzugekommenen oder weggefallenen Tage abfragt.
      */
     private void applyFilters() {
         LocalDate startDate = startDatePicker.getValue();
         LocalDate endDate = endDatePicker.getValue();
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            // Unvollständige Eingaben beim Bearbeiten der Datumsfelder werden nicht ausgewertet
+            return;
+        }
+        LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDate endOfMonth = LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth());
 
-        try {
-            Map<String, Double> categoryExpenses = reportController.getCategoryExpenses(loggedInUserId, startDate, endDate);
-            Map<String, Map<String, Double>> monthlyData = reportController.getMonthlyIncomeAndExpenses(loggedInUserId, startDate, endDate);
+        CompletableFuture<ReportController.RangeReport> rangeReport = reportController.refreshReportAsync(reportSession, startDate, endDate);
+        CompletableFuture<Double> totalBalance = reportController.getTotalBalanceAsync(loggedInUserId);
+        CompletableFuture<List<Account>> userAccounts = reportController.getUserAccountsAsync(loggedInUserId);
+        CompletableFuture<List<BudgetStatus>> budgetStatuses = reportController.evaluateBudgetsAsync(loggedInUserId, startOfMonth, endOfMonth);
 
+        CompletableFuture<ReportData> request = CompletableFuture
+                .allOf(rangeReport, totalBalance, userAccounts, budgetStatuses)
+                .thenApply(ignored -> new ReportData(rangeReport.join().categoryExpenses(), rangeReport.join().monthlyData(), totalBalance.join(),
+                        userAccounts.join(), rangeReport.join().mostSpentCategory(), budgetStatuses.join()));
+
+        reportLoader.load(request, data -> {
             // Zusätzliche Logs zur Überprüfung der Daten
-            LoggerUtils.logInfo(ReportView.class.getName(), "Category Expenses: " + categoryExpenses);
-            LoggerUtils.logInfo(ReportView.class.getName(), "Monthly Data: " + monthlyData);
+            LoggerUtils.logInfo(ReportView.class.getName(), "Category Expenses: {0}", data.categoryExpenses());
+            LoggerUtils.logInfo(ReportView.class.getName(), "Monthly Data: {0}", data.monthlyData());
 
-            updatePieChart(categoryExpenses);
-            updateBarChart(monthlyData);
-            updateDashboardInfo(startDate, endDate);
-        } catch (Exception e) {
+            updatePieChart(data.categoryExpenses());
+            updateBarChart(data.monthlyData());
+            updateDashboardInfo(data);
+        }, e -> {
             LoggerUtils.logError(ReportView.class.getName(), "Fehler beim Anwenden der Filter: " + e.getMessage(), e);
             showErrorAlert();
-        }
+        });
     }
 
 
@@ -261,17 +288,16 @@ public class ReportView {
     /**
      * Aktualisiert die Dashboard-Informationen.
      *
-     * @param startDate Das Startdatum des Berichtszeitraums.
-     * @param endDate   Das Enddatum des Berichtszeitraums.
+     * @param data Die geladenen Berichtsdaten.
      */
-    private void updateDashboardInfo(LocalDate startDate, LocalDate endDate) {
+    private void updateDashboardInfo(ReportData data) {
         dashboardInfo.getChildren().clear();
 
-        double totalBalance = reportController.getTotalBalance(loggedInUserId);
+        double totalBalance = data.totalBalance();
         Label totalBalanceLabel = new Label(String.format("Total Balance: $%.2f", totalBalance));
         totalBalanceLabel.setStyle("-fx-font-size: 18px; -fx-text-fill: #50fa7b;");
 
-        List<Account> userAccounts = reportController.getUserAccounts(loggedInUserId);
+        List<Account> userAccounts = data.userAccounts();
         VBox accountsInfo = new VBox(5);
         Label accountsLabel = new Label("Accounts:");
         accountsLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #f8f8f2;");
@@ -282,7 +308,7 @@ public class ReportView {
             accountsInfo.getChildren().add(accountLabel);
         }
 
-        Category mostSpentCategory = reportController.getMostSpentCategory(loggedInUserId, startDate, endDate);
+        Category mostSpentCategory = data.mostSpentCategory();
         Label mostSpentCategoryLabel = new Label("Most spent category: " + (mostSpentCategory != null ? mostSpentCategory.getName() : "N/A"));
         mostSpentCategoryLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #f8f8f2;");
 
@@ -291,17 +317,15 @@ public class ReportView {
         budgetProgressLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #f8f8f2;");
         budgetProgressInfo.getChildren().add(budgetProgressLabel);
 
-
-        LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
-        LocalDate endOfMonth = LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth());
-
-
-        Map<Category, Double> budgetProgress = reportController.getCategoryBudgetProgress(loggedInUserId, startOfMonth, endOfMonth);
-        for (Map.Entry<Category, Double> entry : budgetProgress.entrySet()) {
-            ProgressBar progressBar = new ProgressBar(entry.getValue());
-            progressBar.setStyle("-fx-accent: " + getProgressBarColor(entry.getValue()));
+        // Budgetfortschritt für alle Kategorien mit positivem Budget aus der gemeinsamen Budgetauswertung
+        for (BudgetStatus status : data.budgetStatuses()) {
+            if (!status.hasPositiveBudget()) {
+                continue;
+            }
+            ProgressBar progressBar = new ProgressBar(status.ratio());
+            progressBar.setStyle("-fx-accent: " + getProgressBarColor(status.ratio()));
             progressBar.setPrefWidth(200);
-            Label categoryLabel = new Label(entry.getKey().getName() + ": " + String.format("%.0f%%", entry.getValue() * 100));
+            Label categoryLabel = new Label(status.category().getName() + ": " + String.format("%.0f%%", status.ratio() * 100));
             categoryLabel.setStyle("-fx-text-fill: #f8f8f2;");
             budgetProgressInfo.getChildren().addAll(categoryLabel, progressBar);
         }
@@ -333,4 +357,15 @@ public class ReportView {
         alert.setContentText("An error occurred while applying filters. Please try again.");
         alert.showAndWait();
     }
-}
\ No newline at end of file
+
+    /**
+     * Alle Daten, die für eine Aktualisierung der Berichtsansicht geladen werden.
+     */
+    private record ReportData(Map<String, Double> categoryExpenses,
+                              Map<String, Map<String, Double>> monthlyData,
+                              double totalBalance,
+                              List<Account> userAccounts,
+                              Category mostSpentCategory,
+                              List<BudgetStatus> budgetStatuses) {
+    }
+}
@@ -13,8 +13,14 @@ import myProject.controller.CategoryController;
 import myProject.controller.ReportController;
 import myProject.repository.TransactionRepository;
 import myProject.service.*;
+import myProject.service.importer.TransactionImporter;
+import myProject.service.analytics.AccountBalanceIndex;
+import myProject.service.analytics.AnalyticsStore;
 import myProject.repository.AccountRepository;
 import myProject.repository.CategoryRepository;
+import myProject.repository.ReportRepository;
+import myProject.util.LoggerUtils;
+import myProject.view.util.AsyncLoader;
 
 
 import java.sql.SQLException;
@@ -24,6 +30,9 @@ public class WelcomeView {
 
     // Instanz des UserControllers zur Handhabung von Login- und Registrierungsaktionen
     private final UserController userController = new UserController();
+    // Login und Registrierung fragen die Datenbank ab und laufen deshalb im Hintergrund
+    private final AsyncLoader<Boolean> loginLoader = new AsyncLoader<>();
+    private final AsyncLoader<Boolean> registerLoader = new AsyncLoader<>();
 
     public void start(Stage primaryStage) {
         // Hauptlayout (VBox) erstellen und Eigenschaften setzen
@@ -83,13 +92,7 @@ public class WelcomeView {
     // Methode zum Erstellen des Login-Buttons und der entsprechenden Aktion
     private Button createLoginButton(Stage primaryStage, TextField usernameField, PasswordField passwordField) {
         Button loginButton = new Button("Login");
-        loginButton.setOnAction(event -> {
-            try {
-                handleLogin(primaryStage, usernameField, passwordField);
-            } catch (SQLException e) {
-                System.err.println("WelcomeView.createLoginButton: Error during login - " + e.getMessage());
-            }
-        });
+        loginButton.setOnAction(event -> handleLogin(primaryStage, usernameField, passwordField));
         return loginButton;
     }
 
@@ -99,17 +102,30 @@ public class WelcomeView {
         AccountRepository accountRepository = new AccountRepository();
         CategoryRepository categoryRepository = new CategoryRepository();
         TransactionRepository transactionRepository = new TransactionRepository(accountRepository, categoryRepository);
+        ReportRepository reportRepository = new ReportRepository();
 
         // Services initialisieren
-        CategoryService categoryService = new CategoryService(categoryRepository);
+        AnalyticsStore analyticsStore = new AnalyticsStore(transactionRepository, categoryRepository);
+        AccountBalanceIndex balanceIndex = new AccountBalanceIndex(reportRepository);
+        BudgetEvaluator budgetEvaluator = new BudgetEvaluator(categoryRepository, reportRepository, analyticsStore);
+        CategoryService categoryService = new CategoryService(categoryRepository, budgetEvaluator);
         TransactionService transactionService = new TransactionService(transactionRepository, categoryService, accountRepository);
-        AccountService accountService = new AccountService(accountRepository);
-        ReportService reportService = new ReportService(transactionService,accountService,categoryService);
+        AccountService accountService = new AccountService(accountRepository, balanceIndex);
+        ReportService reportService = new ReportService(transactionService, accountService, categoryService, reportRepository, budgetEvaluator, analyticsStore);
+
+        // Auswertungsspeicher über alle Schreibvorgänge aktuell halten und im Hintergrund befüllen
+        transactionService.addChangeListener(analyticsStore);
+        categoryService.addChangeListener(analyticsStore);
+        transactionService.addChangeListener(balanceIndex);
+        analyticsStore.loadAsync(loggedInUserId);
 
         // Controller initialisieren
         AccountController accountController = new AccountController(accountService, transactionService);
-        TransactionController transactionController = new TransactionController(transactionService);
+        TransactionImporter transactionImporter = new TransactionImporter(transactionService, categoryService);
+        TransactionController transactionController = new TransactionController(transactionService, transactionImporter);
         CategoryController categoryController = new CategoryController(categoryService);
+        // Zusammengefasste Budgetabfragen nach Buchungen verwerfen
+        transactionService.addChangeListener(categoryController.budgetInvalidationListener());
         ReportController reportController = new ReportController(reportService);
 
         // MainView zurückgeben, initialisiert mit den benötigten Controllern
@@ -117,20 +133,32 @@ public class WelcomeView {
     }
 
     // Methode zur Handhabung des Logins
-    private void handleLogin(Stage primaryStage, TextField usernameField, PasswordField passwordField) throws SQLException {
+    private void handleLogin(Stage primaryStage, TextField usernameField, PasswordField passwordField) {
         String username = usernameField.getText();
         String password = passwordField.getText();
-        boolean loginSuccessful = userController.login(username, password);
+        loginLoader.load(userController.loginAsync(username, password), loginSuccessful -> {
+            if (loginSuccessful) {
+                startMainView(primaryStage);
+            } else {
+                showAlert("Login Failed", "Incorrect username or password.");
+            }
+        }, e -> {
+            LoggerUtils.logError(WelcomeView.class.getName(), "Fehler beim Login", e);
+            showAlert("Login Failed", "Login is currently not possible. Please try again.");
+        });
+    }
 
-        if (loginSuccessful) {
-            String loggedInUsername = userController.getLoggedInUser().getUsername();
-            String loggedInUserId = userController.getLoggedInUser().getId();
+    // Startet nach erfolgreichem Login die Hauptanwendung
+    private void startMainView(Stage primaryStage) {
+        String loggedInUsername = userController.getLoggedInUser().getUsername();
+        String loggedInUserId = userController.getLoggedInUser().getId();
 
-            // MainView initialisieren und die Hauptanwendung starten
+        // MainView initialisieren und die Hauptanwendung starten
+        try {
             MainView mainView = createMainView(loggedInUserId, loggedInUsername);
             mainView.start(primaryStage, loggedInUserId, loggedInUsername);
-        } else {
-            showAlert("Login Failed", "Incorrect username or password.");
+        } catch (SQLException e) {
+            LoggerUtils.logError(WelcomeView.class.getName(), "Fehler beim Starten der Hauptansicht", e);
         }
     }
 
@@ -146,11 +174,16 @@ public class WelcomeView {
         String username = usernameField.getText();
         String password = passwordField.getText();
 
-        if (userController.register(username, password)) {
-            showAlert("Registration Successful", "You can now log in.");
-        } else {
-            showAlert("Registration Failed", "Username is already taken.");
-        }
+        registerLoader.load(userController.registerAsync(username, password), registered -> {
+            if (registered) {
+                showAlert("Registration Successful", "You can now log in.");
+            } else {
+                showAlert("Registration Failed", "Username is already taken.");
+            }
+        }, e -> {
+            LoggerUtils.logError(WelcomeView.class.getName(), "Fehler bei der Registrierung", e);
+            showAlert("Registration Failed", "Registration is currently not possible. Please try again.");
+        });
     }
 
     // Methode, um "Enter"-Tastenereignisse zum Auslösen des Logins zu setzen
@@ -1,34 +1,50 @@
 package myProject.view.detail;
 
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
+import javafx.stage.FileChooser;
+import javafx.util.Callback;
+import javafx.util.StringConverter;
 import myProject.controller.AccountController;
 import myProject.controller.TransactionController;
 import myProject.model.Account;
+import myProject.model.BalancePoint;
 import myProject.model.Category;
 import myProject.model.Transaction;
+import myProject.service.importer.CsvColumnMapping;
+import myProject.service.importer.ImportProgress;
 import myProject.util.LoggerUtils;
+import myProject.util.Money;
+import myProject.view.util.AsyncLoader;
+import myProject.view.util.LazyPagedList;
 import myProject.view.util.ViewUtils;
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.sql.Date;
-import java.sql.SQLException;
 import java.sql.Time;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 /**
  * Die Klasse AccountDetailView stellt die Benutzeroberfläche für die detaillierte Ansicht
@@ -38,6 +54,7 @@ import java.util.stream.Collectors;
  * <p>
  * Wichtige Funktionen umfassen:
  * - Anzeigen von Konto- und Bilanzdetails
+ * - Anzeigen des Kontostandsverlaufs als Liniendiagramm
  * - Hinzufügen, Bearbeiten und Löschen von Transaktionen
  * - Überweisungen zwischen Konten
  * - Verwaltung von wiederkehrenden Transaktionen
@@ -53,6 +70,22 @@ public class AccountDetailView {
     private Account account;
     private Label balanceLabel;
     private TableView<Transaction> transactionsTable;
+    private LineChart<Number, Number> balanceChart;
+    private final AsyncLoader<Double> balanceLoader = new AsyncLoader<>();
+    private final AsyncLoader<List<BalancePoint>> balanceHistoryLoader = new AsyncLoader<>();
+    private final AsyncLoader<Integer> transactionsLoader = new AsyncLoader<>();
+    private final AsyncLoader<List<Account>> accountsLoader = new AsyncLoader<>();
+    private final AsyncLoader<List<Category>> categoriesLoader = new AsyncLoader<>();
+    // Schreibvorgänge der Formulare; es ist immer nur ein Formular geöffnet
+    private final AsyncLoader<Object> saveLoader = new AsyncLoader<>();
+    private LazyPagedList<Transaction> transactionItems;
+
+    // Seitenweises Laden der Transaktionstabelle: höchstens MAX_TRANSACTION_PAGES Seiten bleiben im Speicher
+    private static final int TRANSACTION_PAGE_SIZE = 200;
+    private static final int MAX_TRANSACTION_PAGES = 10;
+
+    // Breite in Pixeln, für die der Verlauf geladen wird, solange das Fenster noch nicht ausgelegt ist
+    private static final int DEFAULT_CHART_WIDTH = 800;
 
     // Konstruktor zum Initialisieren der Controller und des Layouts
     public AccountDetailView(AccountController accountController, TransactionController transactionController, BorderPane root) {
@@ -85,6 +118,10 @@ public class AccountDetailView {
 
         topSection.getChildren().addAll(nameLabel, balanceLabel);
 
+        // Kontostandsverlauf von der ersten Buchung bis heute
+        balanceChart = createBalanceChart();
+        updateBalanceHistory();
+
         // Hauptsektion: Tabelle zur Anzeige von Transaktionen
         setupTransactionTable(new GridPane());
 
@@ -105,13 +142,16 @@ public class AccountDetailView {
         Button transferButton = createRoundIconButton("/icons/icons8-exchange-48.png");
         transferButton.setOnAction(e -> showTransferForm());
 
+        Button importButton = new Button("Import CSV");
+        importButton.setOnAction(e -> showImportForm());
+
         Button deleteAccountButton = new Button("Delete Account");
         deleteAccountButton.setOnAction(e -> confirmAndDeleteAccount());
 
-        buttonBox.getChildren().addAll(incomeButton, expenseButton, transferButton, deleteAccountButton);
+        buttonBox.getChildren().addAll(incomeButton, expenseButton, transferButton, importButton, deleteAccountButton);
 
         VBox mainLayout = new VBox(20);
-        mainLayout.getChildren().addAll(topSection, tableContainer, buttonBox);
+        mainLayout.getChildren().addAll(topSection, balanceChart, tableContainer, buttonBox);
 
         root.setCenter(mainLayout);
     }
@@ -119,7 +159,7 @@ public class AccountDetailView {
     // Methode zum Anzeigen des Transferformulars
     private void showTransferForm() {
         // Log-Information über die Anzeige des Transferformulars
-        LoggerUtils.logInfo(AccountDetailView.class.getName(), "Zeige Transferformular für Konto: " + account.getName());
+        LoggerUtils.logInfo(AccountDetailView.class.getName(), "Zeige Transferformular für Konto: {0}", account.getName());
 
         // Erstelle ein vertikales Layout für das Formular
         VBox transferForm = new VBox(15);
@@ -197,6 +237,137 @@ public class AccountDetailView {
         root.setCenter(transferForm);
     }
 
+    // Methode zum Anzeigen des Importformulars für Kontoauszüge im CSV-Format
+    private void showImportForm() {
+        LoggerUtils.logInfo(AccountDetailView.class.getName(), "Zeige Importformular für Konto: {0}", account.getName());
+
+        VBox importForm = new VBox(15);
+        importForm.setPadding(new Insets(20));
+        importForm.getStyleClass().add("form-view");
+
+        Label formLabel = new Label("Import bank statement into " + account.getName());
+        formLabel.setStyle("-fx-font-size: 18px; -fx-text-fill: #f8f8f2;");
+
+        // Dateiauswahl
+        TextField fileField = new TextField();
+        fileField.setPromptText("CSV file");
+        fileField.setEditable(false);
+        Button browseButton = new Button("Browse...");
+        browseButton.setOnAction(e -> {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("Select bank statement");
+            fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv", "*.txt"));
+            File file = fileChooser.showOpenDialog(root.getScene() != null ? root.getScene().getWindow() : null);
+            if (file != null) {
+                fileField.setText(file.getAbsolutePath());
+            }
+        });
+
+        // Vorlage für die Spaltenabbildung, Zeichenkodierung und Spaltennummern
+        ComboBox<String> formatDropdown = new ComboBox<>(FXCollections.observableArrayList("Standard (, yyyy-MM-dd)", "German (; dd.MM.yyyy)"));
+        formatDropdown.getSelectionModel().selectFirst();
+        ComboBox<String> charsetDropdown = new ComboBox<>(FXCollections.observableArrayList("UTF-8", "ISO-8859-1", "windows-1252"));
+        charsetDropdown.getSelectionModel().selectFirst();
+        CheckBox headerCheckBox = new CheckBox("First row is a header");
+        headerCheckBox.setSelected(true);
+
+        CsvColumnMapping defaults = CsvColumnMapping.defaults();
+        TextField dateColumnField = createColumnField("Date column", defaults.dateColumn());
+        TextField amountColumnField = createColumnField("Amount column", defaults.amountColumn());
+        TextField descriptionColumnField = createColumnField("Description column", defaults.descriptionColumn());
+        TextField categoryColumnField = createColumnField("Category column", defaults.categoryColumn());
+
+        Label progressLabel = new Label();
+        progressLabel.setStyle("-fx-text-fill: #8be9fd;");
+
+        Button startButton = new Button("Start Import");
+        Button cancelButton = new Button("Cancel");
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicBoolean running = new AtomicBoolean();
+
+        startButton.setOnAction(e -> {
+            if (fileField.getText().isEmpty()) {
+                ViewUtils.showAlert(Alert.AlertType.WARNING, "Please select a CSV file.");
+                return;
+            }
+            CsvColumnMapping mapping;
+            try {
+                CsvColumnMapping preset = formatDropdown.getSelectionModel().getSelectedIndex() == 1 ? CsvColumnMapping.german() : CsvColumnMapping.defaults();
+                mapping = new CsvColumnMapping(preset.delimiter(), headerCheckBox.isSelected(),
+                        parseColumn(dateColumnField), preset.datePattern(), preset.timeColumn(),
+                        parseColumn(amountColumnField), preset.decimalSeparator(),
+                        parseColumn(descriptionColumnField), parseColumn(categoryColumnField), preset.typeColumn());
+            } catch (NumberFormatException ex) {
+                ViewUtils.showAlert(Alert.AlertType.ERROR, "Column numbers must be whole numbers (-1 for none).");
+                return;
+            }
+
+            cancelled.set(false);
+            running.set(true);
+            startButton.setDisable(true);
+            progressLabel.setText("Importing...");
+            Path file = Path.of(fileField.getText());
+
+            transactionController.importCsvAsync(file, Charset.forName(charsetDropdown.getValue()), account, mapping,
+                            progress -> Platform.runLater(() -> progressLabel.setText(formatImportProgress(progress))), cancelled::get)
+                    .whenComplete((result, error) -> Platform.runLater(() -> {
+                        running.set(false);
+                        startButton.setDisable(false);
+                        if (error != null) {
+                            Throwable cause = error.getCause() != null ? error.getCause() : error;
+                            LoggerUtils.logError(AccountDetailView.class.getName(), "Fehler beim Import von " + file, cause instanceof Exception ex ? ex : new RuntimeException(cause));
+                            ViewUtils.showAlert(Alert.AlertType.ERROR, "Import failed: " + cause.getMessage());
+                            return;
+                        }
+                        progressLabel.setText(formatImportProgress(result));
+                        if (!result.errors().isEmpty()) {
+                            ViewUtils.showAlert(Alert.AlertType.WARNING, result.failed() + " rows were not imported:\n"
+                                    + String.join("\n", result.errors().subList(0, Math.min(10, result.errors().size()))));
+                        }
+                        updateAccountBalance();
+                    }));
+        });
+
+        // Ein laufender Import wird nach dem aktuellen Block beendet, sonst zurück zur Detailansicht
+        cancelButton.setOnAction(e -> {
+            if (running.get()) {
+                cancelled.set(true);
+                progressLabel.setText("Cancelling after the current chunk...");
+            } else {
+                showAccountDetailView(account);
+            }
+        });
+
+        importForm.getChildren().addAll(formLabel,
+                new HBox(10, fileField, browseButton),
+                new HBox(10, new Label("Format:"), formatDropdown, new Label("Encoding:"), charsetDropdown),
+                headerCheckBox,
+                new HBox(10, dateColumnField, amountColumnField, descriptionColumnField, categoryColumnField),
+                progressLabel,
+                new HBox(10, startButton, cancelButton));
+
+        root.setCenter(importForm);
+    }
+
+    // Eingabefeld für eine Spaltennummer der CSV-Datei
+    private static TextField createColumnField(String prompt, int column) {
+        TextField field = new TextField(String.valueOf(column));
+        field.setPromptText(prompt);
+        field.setTooltip(new Tooltip(prompt + " (0-based, -1 for none)"));
+        field.setPrefWidth(120);
+        return field;
+    }
+
+    private static int parseColumn(TextField field) {
+        return Integer.parseInt(field.getText().trim());
+    }
+
+    private static String formatImportProgress(ImportProgress progress) {
+        String state = progress.cancelled() ? "Cancelled" : progress.finished() ? "Finished" : "Importing";
+        return String.format("%s: %d rows read, %d imported, %d failed (%.0f rows/s)",
+                state, progress.rowsRead(), progress.saved(), progress.failed(), progress.rowsPerSecond());
+    }
+
     // Methode zum Bestätigen und Löschen des Kontos
     private void confirmAndDeleteAccount() {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
@@ -212,42 +383,42 @@ public class AccountDetailView {
 
     // Methode zum Löschen des Kontos und aller zugehörigen Transaktionen
     private void deleteAccountAndTransactions() {
-        try {
-            // Lösche alle Transaktionen, die mit diesem Konto verbunden sind
-            transactionController.deleteTransactionsByAccount(account.getId());
-
-            // Lösche das Konto
-            accountController.deleteAccount(account.getId());
-
+        // Solange ein Schreibvorgang läuft, werden weitere Klicks ignoriert, damit nichts doppelt gespeichert wird
+        if (saveLoader.isLoading()) {
+            return;
+        }
+        String accountId = account.getId();
+        // Erst alle Transaktionen des Kontos löschen, danach das Konto selbst
+        saveLoader.load(transactionController.deleteTransactionsByAccountAsync(accountId)
+                .thenCompose(ignored -> accountController.deleteAccountAsync(accountId)), ignored -> {
             // Logge die erfolgreiche Löschung
-            LoggerUtils.logInfo(AccountDetailView.class.getName(), "Konto und zugehörige Transaktionen gelöscht: " + account.getName());
+            LoggerUtils.logInfo(AccountDetailView.class.getName(), "Konto und zugehörige Transaktionen gelöscht: {0}", account.getName());
 
             // Zeige eine Erfolgsmeldung
             ViewUtils.showAlert(Alert.AlertType.INFORMATION, "Account and all related transactions have been deleted successfully.");
 
-
-
             root.setCenter(null);
-
-        } catch (SQLException e) {
+        }, e -> {
             LoggerUtils.logError(AccountDetailView.class.getName(), "Fehler beim Löschen des Kontos und der Transaktionen: " + e.getMessage(), e);
             ViewUtils.showAlert(Alert.AlertType.ERROR, "An error occurred while deleting the account. Please try again.");
-        }
+        });
     }
 
 
     // Methode zum Erstellen eines Konto-Dropdowns für den eingeloggten Benutzer
     private ComboBox<Account> createAccountDropdown(String userId) {
         // Log-Information über das Erstellen des Dropdowns für die Konten des Benutzers
-        LoggerUtils.logInfo(AccountDetailView.class.getName(), "Erstelle Konto-Dropdown für Benutzer: " + userId);
+        LoggerUtils.logInfo(AccountDetailView.class.getName(), "Erstelle Konto-Dropdown für Benutzer: {0}", userId);
 
         // Erstelle ein neues ComboBox-Element für die Konten
         ComboBox<Account> accountDropdown = new ComboBox<>();
 
-        // Lade alle Konten des Benutzers, aber filtere das aktuelle Konto heraus
-        accountDropdown.setItems(transactionController.getAccountsForUser(userId)
-                .filtered(acc -> !acc.getId().equals(account.getId())));
+        // Lade alle Konten des Benutzers im Hintergrund, aber filtere das aktuelle Konto heraus
         accountDropdown.setPromptText("Choose Account");  // GUI-Text auf Englisch
+        accountsLoader.load(accountController.getAllAccountsForUserAsync(userId),
+                accounts -> accountDropdown.setItems(FXCollections.observableArrayList(accounts)
+                        .filtered(acc -> !acc.getId().equals(account.getId()))),
+                e -> LoggerUtils.logError(AccountDetailView.class.getName(), "Fehler beim Laden der Konten für Benutzer: " + userId, e));
 
         // Setze eine benutzerdefinierte Cell Factory, um die Kontonamen im Dropdown anzuzeigen
         accountDropdown.setCellFactory(lv -> new ListCell<>() {
@@ -276,51 +447,50 @@ public class AccountDetailView {
 
     // Methode zum Ausführen des Transfers zwischen Konten
     private void executeTransfer(TextField amountField, ComboBox<Account> targetAccountDropdown) {
+        if (saveLoader.isLoading()) {
+            return;
+        }
+        double amount;
         try {
             // Konvertiere den Betrag aus dem Textfeld in eine Zahl
-            double amount = Double.parseDouble(amountField.getText());
-            // Hole das ausgewählte Zielkonto aus dem Dropdown
-            Account targetAccount = targetAccountDropdown.getValue();
-
-            // Überprüfe, ob genügend Guthaben vorhanden ist oder der Betrag ungültig ist
-            if (account.getBalance() < amount || amount <= 0) {
-                ViewUtils.showAlert(Alert.AlertType.ERROR, "Insufficient funds or invalid amount.");
-                return;
-            }
+            amount = Double.parseDouble(amountField.getText());
+        } catch (NumberFormatException e) {
+            // Fehler beim Konvertieren des Betrags, ungültige Eingabe
+            ViewUtils.showAlert(Alert.AlertType.ERROR, "Invalid amount.");
+            LoggerUtils.logError(AccountDetailView.class.getName(), "Ungültiger Betrag: " + e.getMessage(), e);
+            return;
+        }
+        // Hole das ausgewählte Zielkonto aus dem Dropdown
+        Account targetAccount = targetAccountDropdown.getValue();
 
-            // Erstelle zwei Transaktionen: Eine Ausgabe für das Quellkonto und eine Einnahme für das Zielkonto
-            Transaction expense = new Transaction("Transfer to " + targetAccount.getName(), -amount, "expense", null, account, null,
-                    new java.sql.Date(System.currentTimeMillis()), Time.valueOf(LocalTime.now()));
-            Transaction income = new Transaction("Transfer from " + account.getName(), amount, "income", null, targetAccount, null,
-                    new java.sql.Date(System.currentTimeMillis()), Time.valueOf(LocalTime.now()));
+        // Überprüfe, ob genügend Guthaben vorhanden ist oder der Betrag ungültig ist
+        if (account.getBalance() < amount || amount <= 0) {
+            ViewUtils.showAlert(Alert.AlertType.ERROR, "Insufficient funds or invalid amount.");
+            return;
+        }
 
-            // Speichere beide Transaktionen (Ausgabe und Einnahme)
-            transactionController.createTransaction(expense);
-            transactionController.createTransaction(income);
+        if (targetAccount == null) {
+            ViewUtils.showAlert(Alert.AlertType.ERROR, "Please select a target account.");
+            return;
+        }
 
-            // Aktualisiere die Bilanzen für beide Konten
-            accountController.updateAccountBalance(account);         // Für das Quellkonto
-            accountController.updateAccountBalance(targetAccount);   // Für das Zielkonto
-            LoggerUtils.logInfo(AccountDetailView.class.getName(), "Transfer erfolgreich: Von " + account.getName() + " zu " + targetAccount.getName());
+        // Ausgabe, Einnahme und beide Kontostände werden gemeinsam in einer Datenbanktransaktion gespeichert
+        saveLoader.load(transactionController.transferAsync(account, targetAccount, amount), transferId -> {
+            LoggerUtils.logInfo(AccountDetailView.class.getName(), () -> "Transfer erfolgreich: Von " + account.getName() + " zu " + targetAccount.getName() + " (" + transferId + ")");
 
             // Zeige die aktualisierten Kontodetails für das Quellkonto an
             showAccountDetailView(account);
-
-        } catch (NumberFormatException e) {
-            // Fehler beim Konvertieren des Betrags, ungültige Eingabe
-            ViewUtils.showAlert(Alert.AlertType.ERROR, "Invalid amount.");
-            LoggerUtils.logError(AccountDetailView.class.getName(), "Ungültiger Betrag: " + e.getMessage(), e);
-        } catch (Exception e) {
+        }, e -> {
             // Allgemeiner Fehler beim Ausführen des Transfers
             ViewUtils.showAlert(Alert.AlertType.ERROR, "Failed to execute transfer: " + e.getMessage());
             LoggerUtils.logError(AccountDetailView.class.getName(), "Fehler beim Transfer: " + e.getMessage(), e);
-        }
+        });
     }
 
 
     // Methode zum Anzeigen des Formulars für Einnahmen oder Ausgaben
     private void showTransactionForm(String type) {
-        LoggerUtils.logInfo(AccountDetailView.class.getName(), "Zeige Transaktionsformular für: " + type);
+        LoggerUtils.logInfo(AccountDetailView.class.getName(), "Zeige Transaktionsformular für: {0}", type);
 
         // Erstelle das Formularlayout
         VBox formView = new VBox(15);
@@ -390,12 +560,15 @@ public class AccountDetailView {
 
     // Methode zum Speichern einer Transaktion (Einnahme oder Ausgabe)
     private void saveTransaction(String type, TextField descriptionField, TextField amountField, DatePicker datePicker, TextField timeField, ComboBox<Category> categoryDropdown) {
+        if (saveLoader.isLoading()) {
+            return;
+        }
         try {
-            LoggerUtils.logInfo(AccountDetailView.class.getName(), "Speichere neue Transaktion - Typ: " + type);
+            LoggerUtils.logInfo(AccountDetailView.class.getName(), "Speichere neue Transaktion - Typ: {0}", type);
 
             // Erfasse die Beschreibung, den Betrag, das Datum und die Zeit
             String description = descriptionField.getText();
-            double amount = Math.abs(Double.parseDouble(amountField.getText()));
+            long amountCents = Math.abs(Money.parse(amountField.getText()));
 
             LocalDate date = datePicker.getValue();
             LocalTime time;
@@ -414,7 +587,7 @@ public class AccountDetailView {
             // Erstelle eine neue Transaktion mit den eingegebenen Daten
             Transaction transaction = new Transaction(
                     description,
-                    type.equals("income") ? amount : -amount,  // Negativer Betrag für Ausgaben
+                    type.equals("income") ? amountCents : -amountCents,  // Negativer Betrag für Ausgaben
                     type,
                     null, // Darf User hier null sein?
                     account,
@@ -424,15 +597,16 @@ public class AccountDetailView {
 
             );
 
-            // Speichere die Transaktion über den TransactionController
-            transactionController.createTransaction(transaction);
-            LoggerUtils.logInfo(AccountDetailView.class.getName(), "Transaktion erfolgreich gespeichert - " + transaction);
+            // Speichere die Transaktion im Hintergrund über den TransactionController
+            saveLoader.load(transactionController.createTransactionAsync(transaction), ignored -> {
+                LoggerUtils.logInfo(AccountDetailView.class.getName(), () -> "Transaktion erfolgreich gespeichert - " + transaction);
 
-            // Aktualisiere die Kontobilanz
-            updateAccountBalance();
-
-            // Zeige die aktualisierten Kontodetails an
-            showAccountDetailView(account);
+                // Zeige die aktualisierten Kontodetails samt Kontobilanz an
+                showAccountDetailView(account);
+            }, e -> {
+                ViewUtils.showAlert(Alert.AlertType.ERROR, "Failed to save transaction: " + e.getMessage());
+                LoggerUtils.logError(AccountDetailView.class.getName(), "Fehler beim Speichern der Transaktion", e);
+            });
 
         } catch (NumberFormatException e) {
             ViewUtils.showAlert(Alert.AlertType.ERROR, "Invalid amount. Please enter a valid number.");
@@ -445,7 +619,7 @@ public class AccountDetailView {
 
 
     private void editTransaction(Transaction transaction) {
-        LoggerUtils.logInfo(AccountDetailView.class.getName(), "Bearbeite Transaktion - " + transaction);
+        LoggerUtils.logInfo(AccountDetailView.class.getName(), () -> "Bearbeite Transaktion - " + transaction);
 
         VBox formView = new VBox(15);
         formView.setPadding(new Insets(20));
@@ -456,7 +630,7 @@ public class AccountDetailView {
         formView.getChildren().add(formLabel);
 
         TextField descriptionField = new TextField(transaction.getDescription());
-        TextField amountField = new TextField(String.valueOf(Math.abs(transaction.getAmount())));
+        TextField amountField = new TextField(Money.format(Math.abs(transaction.getAmountCents())));
         DatePicker datePicker = new DatePicker(transaction.getDate().toLocalDate());
         datePicker.setDayCellFactory(d -> new DateCell() {
             @Override
@@ -486,27 +660,33 @@ public class AccountDetailView {
 
         Button saveButton = new Button("Update Transaction");
         saveButton.setOnAction(e -> {
+            if (saveLoader.isLoading()) {
+                return;
+            }
             try {
                 String description = descriptionField.getText();
-                double amount = Double.parseDouble(amountField.getText());
+                long amountCents = Money.parse(amountField.getText());
                 LocalDate date = datePicker.getValue();
                 LocalTime time = LocalTime.parse(timeField.getText(), DateTimeFormatter.ofPattern("HH:mm"));
                 Category category = categoryDropdown.getValue();
 
                 transaction.setDescription(description);
-                transaction.setAmount(amount);
+                transaction.setAmountCents(amountCents);
                 transaction.setDate(Date.valueOf(date));
                 transaction.setTime(Time.valueOf(time));
                 transaction.setCategory(category);
 
-                transactionController.updateTransaction(transaction);  // Update the transaction
-                LoggerUtils.logInfo(AccountDetailView.class.getName(), "Transaktion erfolgreich aktualisiert - " + transaction);
-
-                refreshTransactionTable(); // Refresh the transaction table
-                updateAccountBalance(); // Update balance after editing
-                showAccountDetailView(account); // Refresh the account view
-
-            } catch (NumberFormatException | SQLException ex) {
+                // Update the transaction in the background, then refresh the account view with table and balance
+                saveLoader.load(transactionController.updateTransactionAsync(transaction), ignored -> {
+                    LoggerUtils.logInfo(AccountDetailView.class.getName(), () -> "Transaktion erfolgreich aktualisiert - " + transaction);
+                    showAccountDetailView(account);
+                }, ex -> {
+                    // Datenbankfehler beim Speichern, der Betrag selbst war gültig
+                    ViewUtils.showAlert(Alert.AlertType.ERROR, "Failed to update transaction: " + ex.getMessage());
+                    LoggerUtils.logError(AccountDetailView.class.getName(), "Fehler beim Aktualisieren der Transaktion: " + transaction.getId(), ex);
+                });
+
+            } catch (NumberFormatException ex) {
                 ViewUtils.showAlert(Alert.AlertType.ERROR, "Invalid amount. Please enter a valid number.");
                 LoggerUtils.logError(AccountDetailView.class.getName(), "Fehler - Ungültiger Betrag eingegeben.", ex);
             }
@@ -524,14 +704,16 @@ public class AccountDetailView {
 
     // Methode zum Erstellen eines Kategorie-Dropdowns für den eingeloggten Benutzer
     private ComboBox<Category> createCategoryDropdown(String userId) {
-        LoggerUtils.logInfo(AccountDetailView.class.getName(), "Erstelle Kategorie-Dropdown für Benutzer - " + userId);
+        LoggerUtils.logInfo(AccountDetailView.class.getName(), "Erstelle Kategorie-Dropdown für Benutzer - {0}", userId);
 
         ComboBox<Category> categoryDropdown = new ComboBox<>();
 
         try {
-            // Hole die Kategorien des Benutzers und füge sie dem Dropdown hinzu
-            categoryDropdown.setItems(transactionController.getAllCategoriesForUser(userId));
+            // Hole die Kategorien des Benutzers im Hintergrund und füge sie dem Dropdown hinzu
             categoryDropdown.setPromptText("Choose Category");
+            categoriesLoader.load(transactionController.getAllCategoriesForUserAsync(userId),
+                    categories -> categoryDropdown.setItems(FXCollections.observableArrayList(categories)),
+                    e -> LoggerUtils.logError(AccountDetailView.class.getName(), "Fehler beim Laden der Kategorien für Benutzer: " + userId, e));
 
             // Setze eine benutzerdefinierte Cell Factory, um die Kategorie-Namen anzuzeigen
             categoryDropdown.setCellFactory(lv -> new ListCell<>() {
@@ -567,11 +749,15 @@ public class AccountDetailView {
 
         alert.getButtonTypes().setAll(ButtonType.YES, ButtonType.NO);
         alert.showAndWait().ifPresent(response -> {
-            if (response == ButtonType.YES) {
-                transactionController.deleteTransaction(transaction);  // Delete transaction
-                LoggerUtils.logInfo(AccountDetailView.class.getName(), "Einmalige Transaktion gelöscht.");
-                refreshTransactionTable(); // Refresh the transaction table
-                updateAccountBalance(); // Update balance after deletion
+            if (response == ButtonType.YES && !saveLoader.isLoading()) {
+                saveLoader.load(transactionController.deleteTransactionAsync(transaction), ignored -> {
+                    LoggerUtils.logInfo(AccountDetailView.class.getName(), "Einmalige Transaktion gelöscht.");
+                    refreshTransactionTable(); // Refresh the transaction table
+                    updateAccountBalance(); // Update balance after deletion
+                }, e -> {
+                    ViewUtils.showAlert(Alert.AlertType.ERROR, "Failed to delete transaction. Please try again.");
+                    LoggerUtils.logError(AccountDetailView.class.getName(), "Fehler beim Löschen der Transaktion: " + transaction.getId(), e);
+                });
             }
         });
     }
@@ -595,28 +781,61 @@ public class AccountDetailView {
         return button;
     }
 
-    // Methode zur Aktualisierung der Kontobilanz
+    // Methode zur Aktualisierung der Kontobilanz aus dem gespeicherten Kontostand, im Hintergrund geladen
     private void updateAccountBalance() {
-        LoggerUtils.logInfo(AccountDetailView.class.getName(), "Aktualisiere Kontobilanz für Konto - " + account.getName());
+        LoggerUtils.logInfo(AccountDetailView.class.getName(), "Aktualisiere Kontobilanz für Konto - {0}", account.getName());
+
+        balanceLoader.load(accountController.getAccountBalanceAsync(account), newBalance -> {
+            LoggerUtils.logInfo(AccountDetailView.class.getName(), "Neue Bilanz geladen: {0}", newBalance);
 
-        // Rufe alle abgeschlossenen Transaktionen für das Konto ab
-        List<Transaction> completedTransactions = transactionController.getCompletedTransactionsByAccount(account.getName());
+            // Aktualisiere die Bilanzanzeige in der UI
+            if (balanceLabel != null) {
+                balanceLabel.setText("Balance: " + String.format("%.2f", newBalance));
+            }
+        }, e -> LoggerUtils.logError(AccountDetailView.class.getName(), "Fehler beim Laden der Bilanz für Konto: " + account.getName(), e));
+    }
 
-        // Berechne die Bilanz basierend auf abgeschlossenen Transaktionen
-        double newBalance = completedTransactions.stream()
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+    // Erstellt das Liniendiagramm für den Kontostandsverlauf; die x-Achse zählt Tage seit dem 1970-01-01
+    private LineChart<Number, Number> createBalanceChart() {
+        NumberAxis dateAxis = new NumberAxis();
+        dateAxis.setForceZeroInRange(false);
+        dateAxis.setTickLabelFormatter(new StringConverter<>() {
+            @Override
+            public String toString(Number epochDay) {
+                return LocalDate.ofEpochDay(epochDay.longValue()).toString();
+            }
 
-        // Setze die neue Bilanz
-        account.setBalance(newBalance);
-        accountController.updateAccount(account);
+            @Override
+            public Number fromString(String text) {
+                return LocalDate.parse(text).toEpochDay();
+            }
+        });
+        NumberAxis balanceAxis = new NumberAxis();
+        balanceAxis.setForceZeroInRange(false);
+
+        LineChart<Number, Number> chart = new LineChart<>(dateAxis, balanceAxis);
+        chart.setTitle("Balance History");
+        chart.setLegendVisible(false);
+        chart.setCreateSymbols(false);
+        chart.setAnimated(false);
+        chart.setPrefHeight(250);
+        return chart;
+    }
 
-        LoggerUtils.logInfo(AccountDetailView.class.getName(), "Neue Bilanz berechnet: " + newBalance);
+    // Lädt den Kontostandsverlauf im Hintergrund, reduziert auf höchstens zwei Punkte pro Pixel der Diagrammbreite
+    private void updateBalanceHistory() {
+        int width = root.getWidth() > 0 ? (int) root.getWidth() : DEFAULT_CHART_WIDTH;
 
-        // Aktualisiere die Bilanzanzeige in der UI
-        if (balanceLabel != null) {
-            balanceLabel.setText("Balance: " + String.format("%.2f", newBalance));
-        }
+        balanceHistoryLoader.load(accountController.getBalanceHistoryAsync(account, width), points -> {
+            XYChart.Series<Number, Number> series = new XYChart.Series<>();
+            List<XYChart.Data<Number, Number>> data = new ArrayList<>(points.size());
+            for (BalancePoint point : points) {
+                data.add(new XYChart.Data<>(point.date().toEpochDay(), point.balance()));
+            }
+            series.getData().setAll(data);
+            balanceChart.getData().setAll(List.of(series));
+            LoggerUtils.logInfo(AccountDetailView.class.getName(), "Kontostandsverlauf geladen für Konto: {0} ({1} Punkte)", account.getName(), points.size());
+        }, e -> LoggerUtils.logError(AccountDetailView.class.getName(), "Fehler beim Laden des Kontostandsverlaufs für Konto: " + account.getName(), e));
     }
 
     // Methode zum Einrichten der Transaktionstabelle mit einem Rechtsklick-Kontextmenü
@@ -624,6 +843,8 @@ public class AccountDetailView {
         transactionsTable = new TableView<>();
 
         List<TableColumn<Transaction, String>> columns = getTableColumns();
+        // Die Reihenfolge kommt aus der Datenbank; die seitenweise geladene Liste kann nicht umsortiert werden
+        columns.forEach(column -> column.setSortable(false));
         transactionsTable.getColumns().addAll(columns);
 
         // Füge ein Kontextmenü für jede Zeile in der Tabelle hinzu
@@ -669,37 +890,37 @@ public class AccountDetailView {
     // Erstellung der Tabellenspalten für die Transaktionstabelle
     private static List<TableColumn<Transaction, String>> getTableColumns() {
         TableColumn<Transaction, String> descriptionColumn = new TableColumn<>("Description");
-        descriptionColumn.setCellValueFactory(data -> data.getValue().descriptionProperty());
+        descriptionColumn.setCellValueFactory(loadedCell(Transaction::descriptionProperty));
 
         TableColumn<Transaction, String> amountColumn = new TableColumn<>("Amount");
-        amountColumn.setCellValueFactory(data -> data.getValue().amountProperty().asString());
+        amountColumn.setCellValueFactory(loadedCell(transaction -> ViewUtils.centsAsString(transaction.amountCentsProperty())));
 
         TableColumn<Transaction, String> dateColumn = new TableColumn<>("Date");
-        dateColumn.setCellValueFactory(data -> data.getValue().dateProperty().asString());
+        dateColumn.setCellValueFactory(loadedCell(transaction -> transaction.dateProperty().asString()));
 
         TableColumn<Transaction, String> timeColumn = new TableColumn<>("Time");
-        timeColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getTime().toString()));
+        timeColumn.setCellValueFactory(loadedCell(transaction -> new SimpleStringProperty(transaction.getTime().toString())));
 
         TableColumn<Transaction, String> categoryColumn = new TableColumn<>("Category");
-        categoryColumn.setCellValueFactory(data -> {
-            if (data.getValue().getCategory() != null) {
-                return data.getValue().getCategory().nameProperty();
+        categoryColumn.setCellValueFactory(loadedCell(transaction -> {
+            if (transaction.getCategory() != null) {
+                return transaction.getCategory().nameProperty();
             } else {
                 return new SimpleStringProperty("No Category");
             }
-        });
+        }));
 
         TableColumn<Transaction, String> accountColumn = new TableColumn<>("Account");
-        accountColumn.setCellValueFactory(data -> {
-            if (data.getValue().getAccount() != null) {
-                return data.getValue().getAccount().nameProperty();
+        accountColumn.setCellValueFactory(loadedCell(transaction -> {
+            if (transaction.getAccount() != null) {
+                return transaction.getAccount().nameProperty();
             } else {
                 return new SimpleStringProperty("No Account");
             }
-        });
+        }));
 
         TableColumn<Transaction, String> typeColumn = new TableColumn<>("Type");
-        typeColumn.setCellValueFactory(data -> data.getValue().typeProperty());
+        typeColumn.setCellValueFactory(loadedCell(Transaction::typeProperty));
 
         // Füge alle Spalten zur Tabelle hinzu
         List<TableColumn<Transaction, String>> columns = new ArrayList<>();
@@ -713,22 +934,35 @@ public class AccountDetailView {
         return columns;
     }
 
-    private void refreshTransactionTable() {
-        LoggerUtils.logInfo(AccountDetailView.class.getName(), "Aktualisiere Transaktionstabelle für Konto - " + account.getName());
-
-        // Hole nur einmalige und abgeschlossene Transaktionen für das Konto
-        ObservableList<Transaction> regularTransactions = transactionController.getTransactionsByAccount(account.getName());
-
-        // Filtere die "Initial Balance"-Transaktion heraus und sortiere nach Datum
-        List<Transaction> filteredTransactions = regularTransactions.stream()
-                .filter(t -> !t.getDescription().equals("Initial Balance"))  // Entferne "Initial Balance"
-                .sorted(Comparator.comparing(Transaction::getDate))  // Sortiere nach Datum
-                .collect(Collectors.toList());
-
-        // Setze die gefilterten Transaktionen in der Tabelle
-        transactionsTable.setItems(FXCollections.observableArrayList(filteredTransactions));
+    // Zeilen, deren Seite noch geladen wird, enthalten null und bleiben leer
+    private static Callback<TableColumn.CellDataFeatures<Transaction, String>, ObservableValue<String>> loadedCell(
+            Function<Transaction, ObservableValue<String>> value) {
+        return data -> data.getValue() != null ? value.apply(data.getValue()) : null;
+    }
 
-        LoggerUtils.logInfo(AccountDetailView.class.getName(), "Transaktionstabelle aktualisiert und sortiert für Konto: " + account.getName());
+    private void refreshTransactionTable() {
+        LoggerUtils.logInfo(AccountDetailView.class.getName(), "Aktualisiere Transaktionstabelle für Konto - {0}", account.getName());
+        String accountName = account.getName();
+
+        // Zähle die Transaktionen (ohne "Initial Balance") im Hintergrund; die Zeilen selbst werden
+        // erst beim Scrollen seitenweise nach Datum, Uhrzeit und ID sortiert nachgeladen
+        Account currentAccount = account;
+        transactionsLoader.load(transactionController.countLedgerTransactionsAsync(currentAccount), count -> {
+            if (transactionItems != null) {
+                transactionItems.dispose();
+            }
+            transactionItems = new LazyPagedList<>(count, TRANSACTION_PAGE_SIZE, MAX_TRANSACTION_PAGES,
+                    (previous, offset, limit) -> transactionController.getLedgerPageAsync(currentAccount, previous, offset, limit),
+                    e -> {
+                        LoggerUtils.logError(AccountDetailView.class.getName(), "Fehler beim Laden einer Transaktionsseite für Konto: " + accountName, e);
+                        ViewUtils.showAlert(Alert.AlertType.ERROR, "Failed to load transactions. Please try again.");
+                    });
+            transactionsTable.setItems(transactionItems);
+            LoggerUtils.logInfo(AccountDetailView.class.getName(), "Transaktionstabelle aktualisiert für Konto: {0} ({1} Transaktionen)", accountName, count);
+        }, e -> {
+            LoggerUtils.logError(AccountDetailView.class.getName(), "Fehler beim Laden der Transaktionen für Konto: " + accountName, e);
+            ViewUtils.showAlert(Alert.AlertType.ERROR, "Failed to load transactions. Please try again.");
+        });
     }
 
 }
\ No newline at end of file
@@ -12,13 +12,17 @@ import myProject.controller.TransactionController;
 import myProject.controller.CategoryController;
 import myProject.controller.AccountController;
 import myProject.util.LoggerUtils;
+import myProject.util.Money;
 import myProject.view.CategoryView;
+import myProject.view.util.AsyncLoader;
 import myProject.view.util.ViewUtils;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
 
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Die Klasse CategoryDetailView ist verantwortlich für die Anzeige, Bearbeitung und Verwaltung
@@ -32,7 +36,9 @@ public class CategoryDetailView {
     private final AccountController accountController;
     private final String loggedInUserId;
     private final BorderPane root;
-
+    private final AsyncLoader<Map<Category, Double>> spentLoader = new AsyncLoader<>();
+    private final AsyncLoader<List<Transaction>> transactionsLoader = new AsyncLoader<>();
+    private final AsyncLoader<Boolean> saveLoader = new AsyncLoader<>();
 
     /**
      * Konstruktor zur Initialisierung der benötigten Controller und des Layouts.
@@ -60,7 +66,7 @@ public class CategoryDetailView {
      * @param category Die Kategorie, deren Details angezeigt werden sollen.
      */
     public void showCategoryDetailView(Category category) {
-        LoggerUtils.logInfo(CategoryDetailView.class.getName(), "Zeige Detailansicht für Kategorie: " + category.getName());
+        LoggerUtils.logInfo(CategoryDetailView.class.getName(), "Zeige Detailansicht für Kategorie: {0}", category.getName());
 
         VBox detailView = new VBox(20);
         detailView.getStyleClass().add("detail-view");
@@ -70,28 +76,12 @@ public class CategoryDetailView {
         detailView.getChildren().add(nameLabel);
 
 
-        LocalDate startOfMonth = YearMonth.now().atDay(1);
-        LocalDate endOfMonth = YearMonth.now().atEndOfMonth();
-
         if (category.getBudget() != null) { // Check if budget is set
             Label budgetLabel = new Label("Budget: $" + category.getBudget());
             budgetLabel.setStyle("-fx-font-size: 20px; -fx-text-fill: #8be9fd;");
             detailView.getChildren().add(budgetLabel);
 
-
-            double spent = Math.abs(categoryController.getCategoryBudgetProgress(loggedInUserId, startOfMonth, endOfMonth)
-                    .getOrDefault(category, 0.0));
-
-            Label spentLabel = new Label(String.format("Already Spent this month: $%.2f", spent));
-            spentLabel.setStyle("-fx-font-size: 20px; -fx-text-fill: #ff79c6;");
-            detailView.getChildren().add(spentLabel);
-
-
-            double budgetValue = category.getBudget();
-            ProgressBar progressBar = new ProgressBar(Math.max(spent / budgetValue, 0));
-            progressBar.setPrefWidth(600);
-            progressBar.setStyle("-fx-accent: " + ViewUtils.getProgressBarColor(spent, budgetValue) + ";");
-            detailView.getChildren().add(progressBar);
+            addSpentThisMonth(detailView, category);
         } else {
             Label noBudgetLabel = new Label("No Budget Set");
             noBudgetLabel.setStyle("-fx-font-size: 20px; -fx-text-fill: #ffb86c;");
@@ -121,19 +111,25 @@ public class CategoryDetailView {
 
             confirmationAlert.showAndWait().ifPresent(response -> {
                 if (response == ButtonType.OK) {
-                    boolean success = categoryController.deleteCategory(category.getId(), loggedInUserId);
-
-                    if (success) {
-                        LoggerUtils.logInfo(CategoryDetailView.class.getName(), "Kategorie erfolgreich gelöscht: " + category.getId());
-                        try {
-                            CategoryView categoryView = new CategoryView(loggedInUserId, categoryController, transactionController, accountController);
-                            categoryView.loadIntoPane(root);
-                        } catch (SQLException ex) {
-                            LoggerUtils.logError(CategoryDetailView.class.getName(), "Fehler beim Laden der CategoryView nach dem Löschen", ex);
+                    deleteButton.setDisable(true);
+                    saveLoader.load(categoryController.deleteCategoryAsync(category.getId(), loggedInUserId), success -> {
+                        if (success) {
+                            LoggerUtils.logInfo(CategoryDetailView.class.getName(), "Kategorie erfolgreich gelöscht: {0}", category.getId());
+                            try {
+                                CategoryView categoryView = new CategoryView(loggedInUserId, categoryController, transactionController, accountController);
+                                categoryView.loadIntoPane(root);
+                            } catch (SQLException ex) {
+                                LoggerUtils.logError(CategoryDetailView.class.getName(), "Fehler beim Laden der CategoryView nach dem Löschen", ex);
+                            }
+                        } else {
+                            deleteButton.setDisable(false);
+                            LoggerUtils.logError(CategoryDetailView.class.getName(), "Fehler beim Löschen der Kategorie: " + category.getId(), null);
                         }
-                    } else {
-                        LoggerUtils.logError(CategoryDetailView.class.getName(), "Fehler beim Löschen der Kategorie: " + category.getId(), null);
-                    }
+                    }, ex -> {
+                        deleteButton.setDisable(false);
+                        LoggerUtils.logError(CategoryDetailView.class.getName(), "Fehler beim Löschen der Kategorie: " + category.getId(), ex);
+                        ViewUtils.showAlert(Alert.AlertType.ERROR, "Failed to delete category. Please try again.");
+                    });
                 }
             });
         });
@@ -159,7 +155,7 @@ public class CategoryDetailView {
      * @param category Die zu bearbeitende Kategorie.
      */
     private void showEditCategoryForm(Category category) {
-        LoggerUtils.logInfo(CategoryDetailView.class.getName(), "Zeige Bearbeitungsformular für Kategorie: " + category.getName());
+        LoggerUtils.logInfo(CategoryDetailView.class.getName(), "Zeige Bearbeitungsformular für Kategorie: {0}", category.getName());
 
         VBox editView = new VBox(20);
         editView.getStyleClass().add("detail-view");
@@ -177,29 +173,12 @@ public class CategoryDetailView {
         editView.getChildren().add(budgetField);
 
         if (category.getBudget() != null) {
-
-            LocalDate startOfMonth = YearMonth.now().atDay(1);
-            LocalDate endOfMonth = YearMonth.now().atEndOfMonth();
-
-
-            double spent = Math.abs(categoryController.getCategoryBudgetProgress(loggedInUserId, startOfMonth, endOfMonth)
-                    .getOrDefault(category, 0.0));
-
-            Label spentLabel = new Label(String.format("Already Spent this month: $%.2f", spent));
-            spentLabel.setStyle("-fx-font-size: 20px; -fx-text-fill: #ff79c6;");
-            editView.getChildren().add(spentLabel);
-
-
-            double budgetValue = category.getBudget();
-            ProgressBar progressBar = new ProgressBar(Math.max(spent / budgetValue, 0));
-            progressBar.setPrefWidth(600);
-            progressBar.setStyle("-fx-accent: " + ViewUtils.getProgressBarColor(spent, budgetValue) + ";");
-            editView.getChildren().add(progressBar);
+            addSpentThisMonth(editView, category);
         }
 
         Button saveButton = new Button("Save");
         saveButton.getStyleClass().add("button");
-        saveButton.setOnAction(e -> saveCategoryChanges(category, nameField, budgetField));
+        saveButton.setOnAction(e -> saveCategoryChanges(category, nameField, budgetField, saveButton));
 
         Button cancelButton = new Button("Cancel");
         cancelButton.getStyleClass().add("button");
@@ -212,32 +191,67 @@ public class CategoryDetailView {
         root.setCenter(editView);
     }
 
+    /**
+     * Fügt die Ausgaben des aktuellen Monats und den Budgetfortschritt einer Kategorie mit Budget hinzu.
+     * Die Ausgaben werden im Hintergrund geladen; gleichzeitige Abfragen werden vom Controller zusammengefasst.
+     *
+     * @param view     Das Layout, in das Label und Fortschrittsbalken eingefügt werden.
+     * @param category Die Kategorie mit gesetztem Budget.
+     */
+    private void addSpentThisMonth(VBox view, Category category) {
+        Label spentLabel = new Label("Already Spent this month: loading...");
+        spentLabel.setStyle("-fx-font-size: 20px; -fx-text-fill: #ff79c6;");
+        view.getChildren().add(spentLabel);
+
+        ProgressBar progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(600);
+        view.getChildren().add(progressBar);
+
+        double budgetValue = category.getBudget();
+        LocalDate startOfMonth = YearMonth.now().atDay(1);
+        LocalDate endOfMonth = YearMonth.now().atEndOfMonth();
+        spentLoader.load(categoryController.getCategoryBudgetProgressAsync(loggedInUserId, startOfMonth, endOfMonth), progress -> {
+            double spent = Math.abs(progress.getOrDefault(category, 0.0));
+            spentLabel.setText(String.format("Already Spent this month: $%.2f", spent));
+            progressBar.setProgress(Math.max(spent / budgetValue, 0));
+            progressBar.setStyle("-fx-accent: " + ViewUtils.getProgressBarColor(spent, budgetValue) + ";");
+        }, e -> {
+            LoggerUtils.logError(CategoryDetailView.class.getName(), "Fehler beim Abrufen der Ausgaben für Kategorie: " + category.getName(), e);
+            spentLabel.setText("Already Spent this month: unavailable");
+        });
+    }
+
     /**
      * Speichert die Änderungen an der Kategorie, inklusive Name und Budget.
      *
      * @param category    Die zu aktualisierende Kategorie.
      * @param nameField   Das Textfeld für den neuen Namen der Kategorie.
      * @param budgetField Das Textfeld für das neue Budget der Kategorie.
+     * @param saveButton  Der Button, der während des Speicherns deaktiviert wird.
      */
-    private void saveCategoryChanges(Category category, TextField nameField, TextField budgetField) {
-        try {
-            String newName = nameField.getText();
-            Double newBudget = null;
-
-
-            if (!budgetField.getText().isEmpty()) {
-                try {
-                    newBudget = Double.parseDouble(budgetField.getText());
-                } catch (NumberFormatException e) {
-                    Alert alert = new Alert(Alert.AlertType.ERROR, "Invalid budget amount. Please enter a valid number.", ButtonType.OK);
-                    alert.showAndWait();
-                    LoggerUtils.logError(CategoryDetailView.class.getName(), "Ungültiger Budgetbetrag: " + budgetField.getText(), e);
-                    return;
-                }
+    private void saveCategoryChanges(Category category, TextField nameField, TextField budgetField, Button saveButton) {
+        String newName = nameField.getText();
+        Long newBudgetCents = null;
+
+
+        if (!budgetField.getText().isEmpty()) {
+            try {
+                newBudgetCents = Money.parse(budgetField.getText());
+            } catch (NumberFormatException | ArithmeticException e) {
+                Alert alert = new Alert(Alert.AlertType.ERROR, "Invalid budget amount. Please enter a valid number.", ButtonType.OK);
+                alert.showAndWait();
+                LoggerUtils.logError(CategoryDetailView.class.getName(), "Ungültiger Budgetbetrag: " + budgetField.getText(), e);
+                return;
             }
+        }
 
 
-            if (categoryController.isCategoryNameDuplicate(newName, category.getId())) {
+        // Duplikatprüfung und Speichern laufen nacheinander im Hintergrund
+        Long budgetCents = newBudgetCents;
+        saveButton.setDisable(true);
+        saveLoader.load(categoryController.isCategoryNameDuplicateAsync(newName, category.getId()), isDuplicate -> {
+            if (isDuplicate) {
+                saveButton.setDisable(false);
                 Alert alert = new Alert(Alert.AlertType.ERROR, "Category name already exists.", ButtonType.OK);
                 alert.showAndWait();
                 LoggerUtils.logError(CategoryDetailView.class.getName(), "Kategorie-Name bereits vorhanden: " + newName, null);
@@ -246,17 +260,21 @@ public class CategoryDetailView {
 
 
             category.setName(newName);
-            category.setBudget(newBudget);
+            category.setBudgetCents(budgetCents);
 
 
-            categoryController.updateCategory(category);
-            LoggerUtils.logInfo(CategoryDetailView.class.getName(), "Kategorie erfolgreich aktualisiert: " + category.getName());
-
-            showCategoryDetailView(category);
+            saveLoader.load(categoryController.updateCategoryAsync(category).thenApply(ignored -> true), ignored -> {
+                LoggerUtils.logInfo(CategoryDetailView.class.getName(), "Kategorie erfolgreich aktualisiert: {0}", category.getName());
+                showCategoryDetailView(category);
+            }, ex -> handleSaveError(category, saveButton, ex));
+        }, ex -> handleSaveError(category, saveButton, ex));
+    }
 
-        } catch (Exception ex) {
-            LoggerUtils.logError(CategoryDetailView.class.getName(), "Fehler beim Aktualisieren der Kategorie: " + category.getName(), ex);
-        }
+    // Meldet einen fehlgeschlagenen Speichervorgang und gibt das Formular wieder frei
+    private void handleSaveError(Category category, Button saveButton, Exception ex) {
+        saveButton.setDisable(false);
+        LoggerUtils.logError(CategoryDetailView.class.getName(), "Fehler beim Aktualisieren der Kategorie: " + category.getName(), ex);
+        ViewUtils.showAlert(Alert.AlertType.ERROR, "Failed to save category. Please try again.");
     }
 
 
@@ -269,7 +287,7 @@ public class CategoryDetailView {
 
     @SuppressWarnings("unchecked")
     private TableView<Transaction> createTransactionsTable(Category category) {
-        LoggerUtils.logInfo(CategoryDetailView.class.getName(), "Erstelle Transaktionstabelle für Kategorie: " + category.getName());
+        LoggerUtils.logInfo(CategoryDetailView.class.getName(), "Erstelle Transaktionstabelle für Kategorie: {0}", category.getName());
 
         TableView<Transaction> transactionsTable = new TableView<>();
 
@@ -277,7 +295,7 @@ public class CategoryDetailView {
         descriptionColumn.setCellValueFactory(data -> data.getValue().descriptionProperty());
 
         TableColumn<Transaction, String> amountColumn = new TableColumn<>("Amount");
-        amountColumn.setCellValueFactory(data -> data.getValue().amountProperty().asString());
+        amountColumn.setCellValueFactory(data -> ViewUtils.centsAsString(data.getValue().amountCentsProperty()));
 
         TableColumn<Transaction, String> dateColumn = new TableColumn<>("Date");
         dateColumn.setCellValueFactory(data -> data.getValue().dateProperty().asString());
@@ -293,11 +311,15 @@ public class CategoryDetailView {
 
         transactionsTable.getColumns().addAll(descriptionColumn, amountColumn, dateColumn, accountColumn);
 
-        ObservableList<Transaction> filteredTransactions = FXCollections.observableArrayList(transactionController.getTransactionsByCategory(category));
-        transactionsTable.setItems(filteredTransactions);
-
-
-        transactionsTable.setItems(filteredTransactions);
+        transactionsTable.setPlaceholder(new Label("Loading transactions..."));
+        transactionsLoader.load(transactionController.getTransactionsByCategoryAsync(category), transactions -> {
+            ObservableList<Transaction> filteredTransactions = FXCollections.observableArrayList(transactions);
+            transactionsTable.setItems(filteredTransactions);
+            transactionsTable.setPlaceholder(new Label("No transactions"));
+        }, e -> {
+            LoggerUtils.logError(CategoryDetailView.class.getName(), "Fehler beim Abrufen der Transaktionen für Kategorie: " + category.getName(), e);
+            transactionsTable.setPlaceholder(new Label("Failed to load transactions."));
+        });
 
         return transactionsTable;
     }
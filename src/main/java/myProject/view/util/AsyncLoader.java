@@ -0,0 +1,67 @@
+package myProject.view.util;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Der AsyncLoader verbindet eine asynchrone Anfrage mit der Aktualisierung eines Bereichs der Oberfläche.
+ * Ergebnisse werden über {@link Platform#runLater(Runnable)} auf dem JavaFX Application Thread angewendet.
+ * Startet eine neue Anfrage, bevor die vorherige abgeschlossen ist, wird die vorherige abgebrochen
+ * und ihr Ergebnis verworfen, sodass immer nur das Ergebnis der zuletzt gestarteten Anfrage angezeigt wird.
+ * Alle Methoden müssen auf dem JavaFX Application Thread aufgerufen werden.
+ *
+ * @param <T> Typ des geladenen Ergebnisses.
+ */
+public class AsyncLoader<T> {
+
+    private CompletableFuture<? extends T> current;
+
+    /**
+     * Startet eine Anfrage und bricht eine eventuell noch laufende vorherige Anfrage ab.
+     *
+     * @param request   Die gestartete Anfrage.
+     * @param onSuccess Wird mit dem Ergebnis auf dem JavaFX Application Thread aufgerufen.
+     * @param onError   Wird mit der aufgetretenen Exception auf dem JavaFX Application Thread aufgerufen.
+     */
+    public void load(CompletableFuture<? extends T> request, Consumer<? super T> onSuccess, Consumer<Exception> onError) {
+        cancel();
+        current = request;
+        request.whenComplete((result, error) -> Platform.runLater(() -> {
+            if (current != request || request.isCancelled()) {
+                return;
+            }
+            current = null;
+            if (error != null) {
+                onError.accept(unwrap(error));
+            } else {
+                onSuccess.accept(result);
+            }
+        }));
+    }
+
+    // Entfernt die CompletionException-Hülle, damit die ursprüngliche Exception gemeldet wird
+    static Exception unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof Exception exception ? exception : new RuntimeException(cause);
+    }
+
+    /**
+     * Bricht die laufende Anfrage ab. Ihr Ergebnis wird nicht mehr angewendet.
+     */
+    public void cancel() {
+        if (current != null) {
+            current.cancel(false);
+            current = null;
+        }
+    }
+
+    /**
+     * @return true, wenn eine Anfrage läuft, deren Ergebnis noch angewendet wird.
+     */
+    public boolean isLoading() {
+        return current != null;
+    }
+}
@@ -0,0 +1,169 @@
+package myProject.view.util;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Eine ObservableList mit fester Größe, deren Einträge seitenweise bei Bedarf nachgeladen werden.
+ * Greift z. B. eine TableView beim Scrollen auf eine noch nicht geladene Zeile zu, liefert die Liste
+ * zunächst null und startet das Laden der zugehörigen Seite. Nach dem Laden wird eine Änderung
+ * gemeldet, sodass die Zeilen neu gezeichnet werden.
+ * Es werden höchstens {@code maxPages} Seiten im Speicher gehalten; die am längsten nicht verwendete
+ * Seite wird verworfen und bei erneutem Zugriff neu geladen.
+ * Alle Methoden müssen auf dem JavaFX Application Thread aufgerufen werden.
+ *
+ * @param <T> Typ der Einträge.
+ */
+public class LazyPagedList<T> extends ObservableListBase<T> {
+
+    /**
+     * Lädt eine Seite der Liste.
+     *
+     * @param <T> Typ der Einträge.
+     */
+    @FunctionalInterface
+    public interface PageLoader<T> {
+
+        /**
+         * @param previous Der letzte Eintrag der vorherigen Seite, falls diese geladen ist, sonst null.
+         * @param offset   Die Position des ersten Eintrags der Seite.
+         * @param limit    Die Seitengröße.
+         * @return Future mit den Einträgen der Seite.
+         */
+        CompletableFuture<List<T>> loadPage(T previous, int offset, int limit);
+    }
+
+    private final int size;
+    private final int pageSize;
+    private final int maxPages;
+    private final PageLoader<T> loader;
+    private final Consumer<Exception> onError;
+
+    // Geladene Seiten in Zugriffsreihenfolge, die älteste zuerst
+    private final LinkedHashMap<Integer, List<T>> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Integer, CompletableFuture<List<T>>> pendingPages = new HashMap<>();
+    private boolean disposed;
+    private boolean failed;
+
+    /**
+     * Erstellt eine neue Liste.
+     *
+     * @param size     Die Gesamtanzahl der Einträge.
+     * @param pageSize Die Anzahl der Einträge pro Seite.
+     * @param maxPages Die maximale Anzahl gleichzeitig gehaltener Seiten.
+     * @param loader   Lädt eine Seite im Hintergrund.
+     * @param onError  Wird auf dem JavaFX Application Thread aufgerufen, wenn eine Seite nicht geladen werden konnte.
+     */
+    public LazyPagedList(int size, int pageSize, int maxPages, PageLoader<T> loader, Consumer<Exception> onError) {
+        if (pageSize <= 0 || maxPages <= 0) {
+            throw new IllegalArgumentException("Seitengröße und Seitenanzahl müssen positiv sein.");
+        }
+        this.size = size;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.loader = loader;
+        this.onError = onError;
+    }
+
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        int page = index / pageSize;
+        List<T> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return null;
+        }
+        int position = index % pageSize;
+        return position < rows.size() ? rows.get(position) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Die Anzahl der aktuell im Speicher gehaltenen Seiten.
+     */
+    public int getLoadedPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * Bricht laufende Ladevorgänge ab und verwirft alle Seiten. Danach werden keine Seiten mehr geladen.
+     */
+    public void dispose() {
+        disposed = true;
+        pendingPages.values().forEach(request -> request.cancel(false));
+        pendingPages.clear();
+        pages.clear();
+    }
+
+    // Startet das Laden einer Seite, sofern sie nicht bereits geladen wird
+    private void requestPage(int page) {
+        if (disposed || failed || pendingPages.containsKey(page)) {
+            return;
+        }
+
+        // Ist die vorherige Seite bekannt, kann direkt hinter ihrem letzten Eintrag weitergelesen werden
+        List<T> previousRows = page > 0 ? pages.get(page - 1) : null;
+        T previous = previousRows != null && previousRows.size() == pageSize ? previousRows.get(pageSize - 1) : null;
+
+        CompletableFuture<List<T>> request = loader.loadPage(previous, page * pageSize, pageSize);
+        pendingPages.put(page, request);
+        request.whenComplete((rows, error) -> Platform.runLater(() -> {
+            if (disposed || pendingPages.get(page) != request) {
+                return;
+            }
+            pendingPages.remove(page);
+            if (error != null) {
+                // Keine weiteren Versuche, sonst würde jeder Zugriff der Tabelle eine neue fehlerhafte Anfrage auslösen
+                failed = true;
+                onError.accept(AsyncLoader.unwrap(error));
+            } else {
+                applyPage(page, rows);
+            }
+        }));
+    }
+
+    // Übernimmt eine geladene Seite und verdrängt bei Bedarf die am längsten nicht verwendete Seite
+    private void applyPage(int page, List<T> rows) {
+        int from = page * pageSize;
+        int loaded = Math.min(rows.size(), size - from);
+
+        beginChange();
+        try {
+            pages.put(page, rows);
+            if (loaded > 0) {
+                nextReplace(from, from + loaded, Collections.nCopies(loaded, null));
+            }
+
+            Iterator<Map.Entry<Integer, List<T>>> eldest = pages.entrySet().iterator();
+            while (pages.size() > maxPages && eldest.hasNext()) {
+                Map.Entry<Integer, List<T>> entry = eldest.next();
+                if (entry.getKey() == page) {
+                    continue;
+                }
+                eldest.remove();
+                int evictedFrom = entry.getKey() * pageSize;
+                List<T> evicted = entry.getValue().subList(0, Math.min(entry.getValue().size(), size - evictedFrom));
+                if (!evicted.isEmpty()) {
+                    nextReplace(evictedFrom, evictedFrom + evicted.size(), evicted);
+                }
+            }
+        } finally {
+            endChange();
+        }
+    }
+}
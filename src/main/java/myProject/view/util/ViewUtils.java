@@ -1,10 +1,14 @@
 package myProject.view.util;
 
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.value.ObservableLongValue;
 import javafx.scene.control.Alert;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import myProject.util.LoggerUtils;
+import myProject.util.Money;
 
 import java.util.Objects;
 
@@ -45,15 +49,15 @@ public class ViewUtils {
      * Hilfsmethode, um das optionale Budget einer Kategorie aus einem Textfeld zu ermitteln.
      *
      * @param budgetField Das Textfeld, in dem das Budget eingegeben wurde.
-     * @return Das Budget als Double-Wert oder null, wenn die Eingabe ungültig ist.
+     * @return Das Budget in Cent oder null, wenn die Eingabe ungültig ist.
      */
-    public static Double getCategoryBudget(TextField budgetField) {
-        Double categoryBudget = null;
+    public static Long getCategoryBudgetCents(TextField budgetField) {
+        Long categoryBudget = null;
         if (!budgetField.getText().isEmpty()) {
             try {
-                categoryBudget = Double.parseDouble(budgetField.getText());
-                LoggerUtils.logInfo(ViewUtils.class.getName(), "Kategorie-Budget erfolgreich geparst: " + categoryBudget);
-            } catch (NumberFormatException ex) {
+                categoryBudget = Money.parse(budgetField.getText());
+                LoggerUtils.logInfo(ViewUtils.class.getName(), "Kategorie-Budget erfolgreich geparst: {0}", categoryBudget);
+            } catch (NumberFormatException | ArithmeticException ex) {
                 LoggerUtils.logError(ViewUtils.class.getName(), "Ungültiges Budgetformat eingegeben.", ex);
                 categoryBudget = null;
             }
@@ -61,6 +65,16 @@ public class ViewUtils {
         return categoryBudget;
     }
 
+    /**
+     * Bindet einen Betrag in Cent als Text mit zwei Nachkommastellen, z. B. für Tabellenspalten.
+     *
+     * @param cents Der beobachtete Betrag in Cent.
+     * @return Der Text, der sich mit dem Betrag ändert.
+     */
+    public static StringBinding centsAsString(ObservableLongValue cents) {
+        return Bindings.createStringBinding(() -> Money.format(cents.get()), cents);
+    }
+
     /**
      * Formatiert einen Double-Wert als Währungsstring.
      *
@@ -68,7 +82,7 @@ public class ViewUtils {
      * @return Der formatierte String im Währungsformat.
      */
     public static String formatCurrency(double amount) {
-        LoggerUtils.logInfo(ViewUtils.class.getName(), "Formatiere Betrag als Währung: " + amount);
+        LoggerUtils.logInfo(ViewUtils.class.getName(), "Formatiere Betrag als Währung: {0}", amount);
         return String.format("$%.2f", amount);
     }
 
@@ -79,7 +93,7 @@ public class ViewUtils {
      * @param message   Die anzuzeigende Nachricht.
      */
     public static void showAlert(Alert.AlertType alertType, String message) {
-        LoggerUtils.logInfo(ViewUtils.class.getName(), "Zeige Alert: " + alertType + " - " + message);
+        LoggerUtils.logInfo(ViewUtils.class.getName(), "Zeige Alert: {0} - {1}", alertType, message);
         Alert alert = new Alert(alertType);
         alert.setContentText(message);
         alert.setHeaderText(null);